@@ -0,0 +1,18 @@
+package com.shopifake.microservice.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Marks a product read accepting {@code fields=} and {@code include=}, so that its JSON leaves out
+ * the fields a sparse selection did not load instead of writing them as {@code null}.
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(METHOD)
+public @interface SparseFieldset {
+}
@@ -0,0 +1,18 @@
+package com.shopifake.microservice.annotation;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * Marks a non-GET endpoint that only reads, so admission control counts it as a storefront read
+ * rather than an admin write.
+ */
+@Documented
+@Retention(RUNTIME)
+@Target(METHOD)
+public @interface StorefrontRead {
+}
@@ -0,0 +1,30 @@
+package com.shopifake.microservice.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Per-site admission control of the catalog API.
+ *
+ * <p>The event stream is excluded: its connections are long-lived and already capped by
+ * {@code catalog.events.max-connections}.</p>
+ */
+@Configuration
+@EnableConfigurationProperties(AdmissionProperties.class)
+public class AdmissionControlConfig implements WebMvcConfigurer {
+
+    private final SiteAdmissionInterceptor interceptor;
+
+    AdmissionControlConfig(final SiteAdmissionInterceptor interceptor) {
+        this.interceptor = interceptor;
+    }
+
+    @Override
+    public void addInterceptors(final InterceptorRegistry registry) {
+        registry.addInterceptor(interceptor)
+                .addPathPatterns("/products/**", "/filters/**", "/sites/**")
+                .excludePathPatterns("/products/events/**");
+    }
+}
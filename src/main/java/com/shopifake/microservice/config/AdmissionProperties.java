@@ -0,0 +1,86 @@
+package com.shopifake.microservice.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-site admission limits ({@code catalog.admission.*}).
+ *
+ * <p>{@code reads} and {@code writes} apply to every site; entries of {@code sites}, keyed by site
+ * id, override any of their values for one site.</p>
+ */
+@Data
+@ConfigurationProperties(prefix = "catalog.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * How long the counters of a site without traffic are kept.
+     */
+    private Duration idleExpiry = Duration.ofMinutes(10);
+
+    /**
+     * Product sites remembered for requests addressing a product only by id or SKU.
+     */
+    private long siteCacheSize = 100_000;
+
+    /**
+     * How long ids that matched no product, category or filter are remembered as unknown.
+     */
+    private Duration unknownIdTtl = Duration.ofMinutes(1);
+
+    private Limits reads = new Limits(200.0, 400, 32);
+
+    private Limits writes = new Limits(20.0, 40, 8);
+
+    private Map<String, SiteLimits> sites = new HashMap<>();
+
+    /**
+     * Token bucket and bulkhead sizes of one traffic class. {@code null} values of a site
+     * override inherit the default.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limits {
+
+        /**
+         * Sustained requests per second.
+         */
+        private Double rate;
+
+        /**
+         * Requests that may be admitted at once after an idle period.
+         */
+        private Integer burst;
+
+        /**
+         * Requests of the site processed concurrently.
+         */
+        private Integer maxConcurrent;
+
+        public Limits orElse(final Limits defaults) {
+            return new Limits(rate != null ? rate : defaults.rate,
+                    burst != null ? burst : defaults.burst,
+                    maxConcurrent != null ? maxConcurrent : defaults.maxConcurrent);
+        }
+    }
+
+    /**
+     * Overrides of one site.
+     */
+    @Data
+    public static class SiteLimits {
+
+        private Limits reads = new Limits();
+
+        private Limits writes = new Limits();
+    }
+}
@@ -0,0 +1,51 @@
+package com.shopifake.microservice.config;
+
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * Binary encodings selected by the {@code Accept} header, in addition to JSON.
+ *
+ * <p>CBOR ({@code application/cbor}) and Smile ({@code application/x-jackson-smile}) reuse the
+ * application's Jackson configuration, so every endpoint produces the same document as its JSON
+ * form. Product reads also support {@code application/x-protobuf}. All of them are registered
+ * after the JSON converter so that clients sending {@code Accept: *}{@code /*} keep getting JSON.</p>
+ */
+@Configuration
+public class ContentNegotiationConfig implements WebMvcConfigurer {
+
+    /**
+     * Registers the product field filter with every mapper, JSON and binary alike.
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer productFieldFilterCustomizer() {
+        return builder -> builder.filters(SparseFieldsetResponseAdvice.FULL_FILTERS);
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(
+            final Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(
+            final Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
+
+    @Override
+    public void extendMessageConverters(final List<HttpMessageConverter<?>> converters) {
+        converters.add(new ProductProtobufHttpMessageConverter());
+    }
+}
@@ -0,0 +1,29 @@
+package com.shopifake.microservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Background database health check ({@code catalog.health.database.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "catalog.health.database")
+public class DatabaseHealthProperties {
+
+    /**
+     * Delay between two checks.
+     */
+    private Duration checkInterval = Duration.ofSeconds(10);
+
+    /**
+     * Timeout of {@code Connection.isValid}.
+     */
+    private Duration validationTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Age after which the last result is no longer trusted and the database is reported down.
+     */
+    private Duration maxAge = Duration.ofMinutes(1);
+}
@@ -0,0 +1,66 @@
+package com.shopifake.microservice.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.shopifake.microservice.entities.CacheRegions;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * In-process Caffeine JCache manager backing the Hibernate second-level cache.
+ *
+ * <p>Every region is created here with its configured bounds, and Hibernate is set to fail on
+ * any other region ({@code hibernate.javax.cache.missing_cache_strategy: fail}), so an unsized
+ * region cannot slip in. The update timestamps region is never bounded: evicting from it would
+ * let the query cache serve results older than the last change of their tables.</p>
+ */
+@Configuration
+@EnableConfigurationProperties(EntityCacheProperties.class)
+public class EntityCacheConfig {
+
+    /**
+     * A cache manager per application context, so that test contexts do not share regions.
+     */
+    @Bean(destroyMethod = "close")
+    public CacheManager entityCacheManager(final EntityCacheProperties properties) {
+        CaffeineCachingProvider provider = (CaffeineCachingProvider) Caching.getCachingProvider(
+                CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(URI.create("catalog-entity-cache-" + UUID.randomUUID()),
+                provider.getDefaultClassLoader());
+        createRegion(cacheManager, CacheRegions.CATEGORIES, properties.getCategories());
+        createRegion(cacheManager, CacheRegions.FILTERS, properties.getFilters());
+        createRegion(cacheManager, CacheRegions.FILTER_VALUES, properties.getFilterValues());
+        createRegion(cacheManager, CacheRegions.SITE_QUERIES, properties.getSiteQueries());
+        // Created eagerly by Hibernate once the query cache is on, only hit by queries without a region
+        createRegion(cacheManager, RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME,
+                properties.getSiteQueries());
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<>().setStoreByValue(false));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer entityCacheHibernateCustomizer(final CacheManager entityCacheManager) {
+        return hibernateProperties -> hibernateProperties.put(ConfigSettings.CACHE_MANAGER, entityCacheManager);
+    }
+
+    private static void createRegion(final CacheManager cacheManager,
+                                     final String name,
+                                     final EntityCacheProperties.Region region) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStoreByValue(false);
+        configuration.setMaximumSize(OptionalLong.of(region.getMaxSize()));
+        configuration.setExpireAfterWrite(OptionalLong.of(region.getTtl().toNanos()));
+        cacheManager.createCache(name, configuration);
+    }
+}
@@ -0,0 +1,44 @@
+package com.shopifake.microservice.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Sizing of the Hibernate second-level cache regions ({@code catalog.entity-cache.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "catalog.entity-cache")
+public class EntityCacheProperties {
+
+    private Region categories = new Region(10_000, Duration.ofHours(1));
+
+    private Region filters = new Region(10_000, Duration.ofHours(1));
+
+    /**
+     * The {@code filter_values} collections, one entry per filter.
+     */
+    private Region filterValues = new Region(10_000, Duration.ofHours(1));
+
+    /**
+     * Cached results of the per-site category and filter lookups.
+     */
+    private Region siteQueries = new Region(2_000, Duration.ofMinutes(10));
+
+    /**
+     * Bounds of one region. The TTL also bounds how long another instance may serve a category or
+     * filter this one changed.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Region {
+
+        private long maxSize;
+
+        private Duration ttl;
+    }
+}
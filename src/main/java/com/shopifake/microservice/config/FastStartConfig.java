@@ -0,0 +1,41 @@
+package com.shopifake.microservice.config;
+
+import com.shopifake.microservice.services.SkuBloomFilter;
+import jakarta.persistence.EntityManagerFactory;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationInitializer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.MethodIntrospector;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Beans kept eager when the fast-start image enables {@code spring.main.lazy-initialization}.
+ *
+ * <p>Everything else (controllers, services, springdoc, the recommender client...) is created on
+ * first use. The database, its migrations and the JPA metamodel stay eager so that a pod only
+ * reports ready once the schema is valid, and beans with {@code @Scheduled} methods would never be
+ * scheduled if they were only created on demand.</p>
+ */
+@Configuration
+public class FastStartConfig {
+
+    @Bean
+    static LazyInitializationExcludeFilter criticalBeansExcludeFilter() {
+        LazyInitializationExcludeFilter byType = LazyInitializationExcludeFilter.forBeanTypes(DataSource.class,
+                Flyway.class, FlywayMigrationInitializer.class, EntityManagerFactory.class,
+                AbstractEntityManagerFactoryBean.class, SkuBloomFilter.class);
+        return (beanName, beanDefinition, beanType) -> byType.isExcluded(beanName, beanDefinition, beanType)
+                || hasScheduledMethods(beanType);
+    }
+
+    private static boolean hasScheduledMethods(final Class<?> beanType) {
+        return beanType != null && !MethodIntrospector.selectMethods(beanType, (MethodIntrospector.MetadataLookup<Boolean>) method ->
+                AnnotatedElementUtils.hasAnnotation(method, Scheduled.class) ? Boolean.TRUE : null).isEmpty();
+    }
+}
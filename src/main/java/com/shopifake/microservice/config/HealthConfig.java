@@ -0,0 +1,12 @@
+package com.shopifake.microservice.config;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Settings of the custom health indicators.
+ */
+@Configuration
+@EnableConfigurationProperties(DatabaseHealthProperties.class)
+public class HealthConfig {
+}
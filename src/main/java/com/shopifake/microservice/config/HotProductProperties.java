@@ -0,0 +1,56 @@
+package com.shopifake.microservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Tracking of frequently read products and cache warming ({@code catalog.hot-products.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "catalog.hot-products")
+public class HotProductProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Hot products tracked, reported and warmed per site.
+     */
+    private int topK = 50;
+
+    /**
+     * Counters per row of the Count-Min sketch, rounded up to a power of two.
+     */
+    private int sketchWidth = 1 << 16;
+
+    /**
+     * Rows of the Count-Min sketch.
+     */
+    private int sketchDepth = 4;
+
+    /**
+     * Every counter is halved after this long, so the ranking follows recent traffic.
+     */
+    private Duration decayInterval = Duration.ofMinutes(5);
+
+    /**
+     * Sites whose hot products are tracked.
+     */
+    private int maxSites = 10_000;
+
+    /**
+     * Delay between a hot product being evicted and its reload, to let the change settle.
+     */
+    private Duration warmDelay = Duration.ofSeconds(1);
+
+    /**
+     * How often the hot products of each site are saved for warming after a restart.
+     */
+    private Duration snapshotInterval = Duration.ofMinutes(5);
+
+    /**
+     * Warm the product cache with the saved hot products once the application is ready.
+     */
+    private boolean warmOnStartup = true;
+}
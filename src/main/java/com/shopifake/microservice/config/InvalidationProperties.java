@@ -0,0 +1,69 @@
+package com.shopifake.microservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Cross-replica cache invalidation ({@code catalog.invalidation.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "catalog.invalidation")
+public class InvalidationProperties {
+
+    /**
+     * How committed changes reach the other replicas.
+     */
+    public enum Mode {
+        /**
+         * {@code NOTIFY} on PostgreSQL, polling the change log otherwise.
+         */
+        AUTO,
+        NOTIFY,
+        POLL,
+        OFF
+    }
+
+    private Mode mode = Mode.AUTO;
+
+    /**
+     * PostgreSQL channel the changes are notified on.
+     */
+    private String channel = "catalog_invalidation";
+
+    /**
+     * How long the listening connection waits for notifications before checking it is alive.
+     */
+    private Duration listenTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Delay before reconnecting a lost listening connection.
+     */
+    private Duration reconnectDelay = Duration.ofSeconds(5);
+
+    /**
+     * Delay between two reads of the change log in polling mode.
+     */
+    private Duration pollInterval = Duration.ofSeconds(2);
+
+    /**
+     * How far back each poll reads again, for changes whose transaction committed late.
+     */
+    private Duration pollLookback = Duration.ofSeconds(30);
+
+    /**
+     * Changes read per poll.
+     */
+    private int pollBatchSize = 1000;
+
+    /**
+     * Missed changes of a site replayed from the change log before flushing every cache instead.
+     */
+    private int maxReplay = 1000;
+
+    /**
+     * Sites whose last sequence number is tracked to detect missed changes.
+     */
+    private long maxSites = 100_000;
+}
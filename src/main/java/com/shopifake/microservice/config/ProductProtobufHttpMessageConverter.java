@@ -0,0 +1,241 @@
+package com.shopifake.microservice.config;
+
+import com.google.protobuf.ByteString;
+import com.google.protobuf.Message;
+import com.google.protobuf.Timestamp;
+import com.shopifake.microservice.dtos.CategoryResponse;
+import com.shopifake.microservice.dtos.ProductFilterResponse;
+import com.shopifake.microservice.dtos.ProductResponse;
+import com.shopifake.microservice.protobuf.Category;
+import com.shopifake.microservice.protobuf.Decimal;
+import com.shopifake.microservice.protobuf.FilterType;
+import com.shopifake.microservice.protobuf.Product;
+import com.shopifake.microservice.protobuf.ProductFilterValue;
+import com.shopifake.microservice.protobuf.ProductList;
+import com.shopifake.microservice.protobuf.ProductStatus;
+import org.springframework.core.ResolvableType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Writes {@link ProductResponse} and lists of them as {@code application/x-protobuf}, following
+ * {@code shopifake/catalog/v1/product.proto}. A single product is a {@code Product} message and a
+ * list is a {@code ProductList}. Read-only: requests are still accepted as JSON.
+ */
+public class ProductProtobufHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    public static final MediaType APPLICATION_PROTOBUF = new MediaType("application", "x-protobuf");
+
+    /**
+     * Constructor.
+     */
+    public ProductProtobufHttpMessageConverter() {
+        super(APPLICATION_PROTOBUF);
+    }
+
+    @Override
+    protected boolean supports(final Class<?> clazz) {
+        return ProductResponse.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(final Class<?> clazz, final MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canRead(final Type type, final Class<?> contextClass, final MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(final Type type, final Class<?> clazz, final MediaType mediaType) {
+        if (!canWrite(mediaType)) {
+            return false;
+        }
+        if (ProductResponse.class.isAssignableFrom(clazz)) {
+            return true;
+        }
+        if (type == null || !List.class.isAssignableFrom(clazz)) {
+            return false;
+        }
+        Class<?> element = ResolvableType.forType(type).asCollection().resolveGeneric(0);
+        return element != null && ProductResponse.class.isAssignableFrom(element);
+    }
+
+    @Override
+    public List<MediaType> getSupportedMediaTypes(final Class<?> clazz) {
+        // Element types of lists are only known to canWrite(Type, ...), which is checked first.
+        return supports(clazz) || List.class.isAssignableFrom(clazz) ? getSupportedMediaTypes() : List.of();
+    }
+
+    @Override
+    protected void writeInternal(final Object object, final Type type, final HttpOutputMessage outputMessage)
+            throws IOException {
+        Message message = object instanceof ProductResponse product ? toMessage(product) : toMessage((List<?>) object);
+        message.writeTo(outputMessage.getBody());
+    }
+
+    @Override
+    protected Object readInternal(final Class<?> clazz, final HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    public Object read(final Type type, final Class<?> contextClass, final HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Protobuf request bodies are not supported", inputMessage);
+    }
+
+    /**
+     * Encode a list of products.
+     */
+    public static ProductList toMessage(final List<?> products) {
+        ProductList.Builder list = ProductList.newBuilder();
+        for (Object product : products) {
+            list.addProducts(toMessage((ProductResponse) product));
+        }
+        return list.build();
+    }
+
+    /**
+     * Encode one product. Fields that are {@code null} are left unset.
+     */
+    public static Product toMessage(final ProductResponse product) {
+        Product.Builder message = Product.newBuilder().setId(uuid(product.getId()));
+        if (product.getSiteId() != null) {
+            message.setSiteId(uuid(product.getSiteId()));
+        }
+        if (product.getName() != null) {
+            message.setName(product.getName());
+        }
+        if (product.getDescription() != null) {
+            message.setDescription(product.getDescription());
+        }
+        if (product.getImages() != null) {
+            message.addAllImages(product.getImages());
+        }
+        if (product.getPrimaryImage() != null) {
+            message.setPrimaryImage(product.getPrimaryImage());
+        }
+        if (product.getCategories() != null) {
+            product.getCategories().forEach(category -> message.addCategories(toMessage(category)));
+        }
+        if (product.getSku() != null) {
+            message.setSku(product.getSku());
+        }
+        if (product.getStatus() != null) {
+            message.setStatus(switch (product.getStatus()) {
+                case DRAFT -> ProductStatus.PRODUCT_STATUS_DRAFT;
+                case PUBLISHED -> ProductStatus.PRODUCT_STATUS_PUBLISHED;
+                case SCHEDULED -> ProductStatus.PRODUCT_STATUS_SCHEDULED;
+            });
+        }
+        if (product.getScheduledPublishAt() != null) {
+            message.setScheduledPublishAt(timestamp(product.getScheduledPublishAt()));
+        }
+        if (product.getPublishedAt() != null) {
+            message.setPublishedAt(timestamp(product.getPublishedAt()));
+        }
+        if (product.getCreatedAt() != null) {
+            message.setCreatedAt(timestamp(product.getCreatedAt()));
+        }
+        if (product.getUpdatedAt() != null) {
+            message.setUpdatedAt(timestamp(product.getUpdatedAt()));
+        }
+        if (product.getFilters() != null) {
+            product.getFilters().forEach(filter -> message.addFilters(toMessage(filter)));
+        }
+        return message.build();
+    }
+
+    private static Category toMessage(final CategoryResponse category) {
+        Category.Builder message = Category.newBuilder()
+                .setId(uuid(category.getId()))
+                .setSiteId(uuid(category.getSiteId()))
+                .setName(category.getName());
+        if (category.getCreatedAt() != null) {
+            message.setCreatedAt(timestamp(category.getCreatedAt()));
+        }
+        return message.build();
+    }
+
+    private static ProductFilterValue toMessage(final ProductFilterResponse filter) {
+        ProductFilterValue.Builder message = ProductFilterValue.newBuilder()
+                .setFilterId(uuid(filter.getFilterId()))
+                .setKey(filter.getKey());
+        if (filter.getCategoryId() != null) {
+            message.setCategoryId(uuid(filter.getCategoryId()));
+        }
+        if (filter.getCategoryName() != null) {
+            message.setCategoryName(filter.getCategoryName());
+        }
+        if (filter.getType() != null) {
+            message.setType(switch (filter.getType()) {
+                case CATEGORICAL -> FilterType.FILTER_TYPE_CATEGORICAL;
+                case QUANTITATIVE -> FilterType.FILTER_TYPE_QUANTITATIVE;
+                case DATETIME -> FilterType.FILTER_TYPE_DATETIME;
+            });
+        }
+        if (filter.getDisplayName() != null) {
+            message.setDisplayName(filter.getDisplayName());
+        }
+        if (filter.getTextValue() != null) {
+            message.setTextValue(filter.getTextValue());
+        }
+        if (filter.getNumericValue() != null) {
+            message.setNumericValue(decimal(filter.getNumericValue()));
+        }
+        if (filter.getMinValue() != null) {
+            message.setMinValue(decimal(filter.getMinValue()));
+        }
+        if (filter.getMaxValue() != null) {
+            message.setMaxValue(decimal(filter.getMaxValue()));
+        }
+        if (filter.getStartAt() != null) {
+            message.setStartAt(timestamp(filter.getStartAt()));
+        }
+        if (filter.getEndAt() != null) {
+            message.setEndAt(timestamp(filter.getEndAt()));
+        }
+        if (filter.getUnit() != null) {
+            message.setUnit(filter.getUnit());
+        }
+        if (filter.getValues() != null) {
+            message.addAllValues(filter.getValues());
+        }
+        return message.build();
+    }
+
+    private static ByteString uuid(final UUID uuid) {
+        return ByteString.copyFrom(ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .flip());
+    }
+
+    private static Timestamp timestamp(final LocalDateTime dateTime) {
+        return Timestamp.newBuilder()
+                .setSeconds(dateTime.toEpochSecond(ZoneOffset.UTC))
+                .setNanos(dateTime.getNano())
+                .build();
+    }
+
+    private static Decimal decimal(final BigDecimal value) {
+        return Decimal.newBuilder()
+                .setUnscaledValue(ByteString.copyFrom(value.unscaledValue().toByteArray()))
+                .setScale(value.scale())
+                .build();
+    }
+}
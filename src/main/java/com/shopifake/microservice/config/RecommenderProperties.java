@@ -0,0 +1,126 @@
+package com.shopifake.microservice.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Recommender client settings ({@code catalog.recommender.*}).
+ */
+@Data
+@ConfigurationProperties(prefix = "catalog.recommender")
+public class RecommenderProperties {
+
+    /**
+     * Base URL of the recommender; calls are skipped when blank.
+     */
+    private String url;
+
+    private Duration connectTimeout = Duration.ofSeconds(1);
+
+    /**
+     * Maximum time without data on an open connection.
+     */
+    private Duration readTimeout = Duration.ofSeconds(2);
+
+    /**
+     * Maximum time to wait for a pooled connection.
+     */
+    private Duration poolTimeout = Duration.ofMillis(500);
+
+    private int maxConnections = 20;
+
+    /**
+     * How long idle pooled connections are kept alive.
+     */
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    private Bulkhead bulkhead = new Bulkhead();
+
+    private Resync resync = new Resync();
+
+    /**
+     * Count-based circuit breaker.
+     */
+    @Data
+    public static class CircuitBreaker {
+
+        /**
+         * Number of most recent calls the failure rate is computed over.
+         */
+        private int windowSize = 20;
+
+        /**
+         * Calls needed in the window before the breaker may open.
+         */
+        private int minimumCalls = 10;
+
+        private int failureRateThreshold = 50;
+
+        /**
+         * How long the breaker stays open before letting probes through.
+         */
+        private Duration openDuration = Duration.ofSeconds(30);
+
+        /**
+         * Successful probes needed in half-open state to close again.
+         */
+        private int halfOpenProbes = 3;
+    }
+
+    /**
+     * Dedicated executor isolating recommender calls from request threads.
+     */
+    @Data
+    public static class Bulkhead {
+
+        private int threads = 4;
+
+        /**
+         * Pending calls beyond which new ones are dropped.
+         */
+        private int queueCapacity = 100;
+    }
+
+    /**
+     * Full catalog resync jobs ({@code POST /recommender/resync}).
+     */
+    @Data
+    public static class Resync {
+
+        /**
+         * Products read and posted per batch.
+         */
+        private int batchSize = 200;
+
+        /**
+         * Sites synced concurrently by one instance.
+         */
+        private int parallelism = 4;
+
+        /**
+         * Products sent per second over all sites; 0 disables throttling.
+         */
+        private double rate = 500;
+
+        /**
+         * Attempts per batch before the job is marked failed.
+         */
+        private int maxAttempts = 5;
+
+        private Duration retryDelay = Duration.ofSeconds(10);
+
+        /**
+         * Heartbeat age after which another instance takes over a running job.
+         */
+        private Duration leaseTimeout = Duration.ofMinutes(2);
+
+        /**
+         * How often owned jobs heartbeat and orphaned jobs are looked for.
+         */
+        private Duration checkInterval = Duration.ofSeconds(30);
+    }
+}
@@ -0,0 +1,12 @@
+package com.shopifake.microservice.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} background jobs such as the usage counter reconciler.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
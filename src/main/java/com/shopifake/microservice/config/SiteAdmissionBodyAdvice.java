@@ -0,0 +1,80 @@
+package com.shopifake.microservice.config;
+
+import com.shopifake.microservice.dtos.BulkUpsertProductsRequest;
+import com.shopifake.microservice.dtos.ProductIdsRequest;
+import com.shopifake.microservice.dtos.ProductSkusRequest;
+import com.shopifake.microservice.dtos.SiteScopedRequest;
+import com.shopifake.microservice.services.SiteResolver;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.RequestBodyAdviceAdapter;
+
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Admits requests whose sites are only known from their body: a {@link SiteScopedRequest}, each
+ * distinct site of a batch upsert, or the sites of the products a multi-get resolves.
+ */
+@ControllerAdvice
+class SiteAdmissionBodyAdvice extends RequestBodyAdviceAdapter {
+
+    private static final List<Class<?>> SITE_BODIES = List.of(SiteScopedRequest.class,
+            BulkUpsertProductsRequest.class, ProductIdsRequest.class, ProductSkusRequest.class);
+
+    private final SiteAdmissionInterceptor interceptor;
+
+    private final SiteResolver siteResolver;
+
+    SiteAdmissionBodyAdvice(final SiteAdmissionInterceptor interceptor, final SiteResolver siteResolver) {
+        this.interceptor = interceptor;
+        this.siteResolver = siteResolver;
+    }
+
+    @Override
+    public boolean supports(final MethodParameter methodParameter,
+                            final Type targetType,
+                            final Class<? extends HttpMessageConverter<?>> converterType) {
+        return SITE_BODIES.stream().anyMatch(type -> type.isAssignableFrom(methodParameter.getParameterType()));
+    }
+
+    @Override
+    public Object afterBodyRead(final Object body,
+                                final HttpInputMessage inputMessage,
+                                final MethodParameter parameter,
+                                final Type targetType,
+                                final Class<? extends HttpMessageConverter<?>> converterType) {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            siteIds(body).forEach(siteId -> interceptor.admit(attributes.getRequest(), siteId));
+        }
+        return body;
+    }
+
+    private Collection<UUID> siteIds(final Object body) {
+        if (body instanceof SiteScopedRequest request) {
+            return request.getSiteId() != null ? List.of(request.getSiteId()) : List.of();
+        }
+        if (body instanceof BulkUpsertProductsRequest request && request.getProducts() != null) {
+            return request.getProducts().stream()
+                    .filter(Objects::nonNull)
+                    .map(SiteScopedRequest::getSiteId)
+                    .filter(Objects::nonNull)
+                    .distinct()
+                    .toList();
+        }
+        if (body instanceof ProductIdsRequest request) {
+            return siteResolver.productSites(request.getIds());
+        }
+        if (body instanceof ProductSkusRequest request) {
+            return siteResolver.productSitesBySku(request.getSkus());
+        }
+        return List.of();
+    }
+}
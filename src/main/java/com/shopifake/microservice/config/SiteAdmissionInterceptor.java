@@ -0,0 +1,129 @@
+package com.shopifake.microservice.config;
+
+import com.shopifake.microservice.annotation.StorefrontRead;
+import com.shopifake.microservice.services.SiteAdmissionControl;
+import com.shopifake.microservice.services.SiteResolver;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Applies {@link SiteAdmissionControl} to requests whose site is in the path ({@code {siteId}}),
+ * is the site of the product, category or filter addressed in the path, or otherwise is named by
+ * the {@code siteId} query parameter or the {@code X-Site-Id} header. Requests addressing an
+ * unknown entity are not charged; the controller rejects them. Requests carrying their sites only in the
+ * body are admitted by {@link SiteAdmissionBodyAdvice} once the body is read. A request touching
+ * several sites is admitted once for each.
+ */
+@Component
+class SiteAdmissionInterceptor implements HandlerInterceptor {
+
+    static final String SITE_HEADER = "X-Site-Id";
+
+    private static final String PERMIT_ATTRIBUTE = SiteAdmissionInterceptor.class.getName() + ".permit";
+
+    private static final String TRAFFIC_ATTRIBUTE = SiteAdmissionInterceptor.class.getName() + ".traffic";
+
+    private final SiteAdmissionControl admissionControl;
+
+    private final SiteResolver siteResolver;
+
+    SiteAdmissionInterceptor(final SiteAdmissionControl admissionControl, final SiteResolver siteResolver) {
+        this.admissionControl = admissionControl;
+        this.siteResolver = siteResolver;
+    }
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request,
+                             final HttpServletResponse response,
+                             final Object handler) {
+        if (!(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        SiteAdmissionControl.Traffic traffic = HttpMethod.GET.matches(request.getMethod())
+                || HttpMethod.HEAD.matches(request.getMethod())
+                || method.hasMethodAnnotation(StorefrontRead.class)
+                ? SiteAdmissionControl.Traffic.READ
+                : SiteAdmissionControl.Traffic.WRITE;
+        request.setAttribute(TRAFFIC_ATTRIBUTE, traffic);
+        UUID siteId = siteId(request);
+        if (siteId != null) {
+            admit(request, siteId);
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(final HttpServletRequest request,
+                                final HttpServletResponse response,
+                                final Object handler,
+                                final Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof Map<?, ?> permits) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            permits.values().forEach(permit -> ((SiteAdmissionControl.Permit) permit).close());
+        }
+    }
+
+    /**
+     * Admit the request for {@code siteId} unless it was already admitted for that site. Permits
+     * taken before a rejection are released when the request completes.
+     */
+    void admit(final HttpServletRequest request, final UUID siteId) {
+        if (!(request.getAttribute(TRAFFIC_ATTRIBUTE) instanceof SiteAdmissionControl.Traffic traffic)) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        Map<UUID, SiteAdmissionControl.Permit> permits =
+                (Map<UUID, SiteAdmissionControl.Permit>) request.getAttribute(PERMIT_ATTRIBUTE);
+        if (permits == null) {
+            permits = new LinkedHashMap<>();
+            request.setAttribute(PERMIT_ATTRIBUTE, permits);
+        }
+        if (!permits.containsKey(siteId)) {
+            permits.put(siteId, admissionControl.admit(siteId, traffic));
+        }
+    }
+
+    private UUID siteId(final HttpServletRequest request) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        Map<?, ?> path = variables instanceof Map<?, ?> map ? map : Map.of();
+        if (path.get("siteId") instanceof String value) {
+            return parse(value);
+        }
+        // an addressed entity is charged to its own site whatever site the client names
+        if (path.containsKey("productId")) {
+            UUID productId = parse(path.get("productId"));
+            return productId != null ? siteResolver.productSite(productId) : null;
+        }
+        if (path.containsKey("categoryId")) {
+            UUID categoryId = parse(path.get("categoryId"));
+            return categoryId != null ? siteResolver.categorySite(categoryId) : null;
+        }
+        if (path.containsKey("filterId")) {
+            UUID filterId = parse(path.get("filterId"));
+            return filterId != null ? siteResolver.filterSite(filterId) : null;
+        }
+        String value = request.getParameter("siteId");
+        return parse(value != null ? value : request.getHeader(SITE_HEADER));
+    }
+
+    private static UUID parse(final Object value) {
+        if (!(value instanceof String text) || text.isBlank()) {
+            return null;
+        }
+        try {
+            return UUID.fromString(text.trim());
+        } catch (IllegalArgumentException ex) {
+            // left to the controller to reject
+            return null;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.shopifake.microservice.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.BeanPropertyWriter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.shopifake.microservice.annotation.SparseFieldset;
+import com.shopifake.microservice.dtos.ProductResponse;
+import com.shopifake.microservice.services.ProductFieldSelection;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+/**
+ * Leaves unselected fields out of the Jackson encodings of {@link SparseFieldset} reads.
+ *
+ * <p>{@link ProductResponse} carries the {@link ProductResponse#FIELD_FILTER} filter, which
+ * {@link #FULL_FILTERS} resolves to every property so full responses keep their {@code null}
+ * fields. When the request selects a sparse fieldset, {@link #SPARSE_FILTERS} drops the
+ * {@code null} ones instead. Protobuf responses do not go through Jackson and are unaffected.</p>
+ */
+@ControllerAdvice
+class SparseFieldsetResponseAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    /**
+     * Filters registered on every application {@code ObjectMapper}.
+     */
+    static final FilterProvider FULL_FILTERS = new SimpleFilterProvider()
+            .addFilter(ProductResponse.FIELD_FILTER, SimpleBeanPropertyFilter.serializeAll());
+
+    private static final FilterProvider SPARSE_FILTERS = new SimpleFilterProvider()
+            .addFilter(ProductResponse.FIELD_FILTER, new NonNullPropertyFilter());
+
+    @Override
+    public boolean supports(final MethodParameter returnType,
+                            final Class<? extends HttpMessageConverter<?>> converterType) {
+        return super.supports(returnType, converterType) && returnType.hasMethodAnnotation(SparseFieldset.class);
+    }
+
+    @Override
+    protected void beforeBodyWriteInternal(final MappingJacksonValue bodyContainer,
+                                           final MediaType contentType,
+                                           final MethodParameter returnType,
+                                           final ServerHttpRequest request,
+                                           final ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        HttpServletRequest servlet = servletRequest.getServletRequest();
+        // already validated by the handler
+        if (!ProductFieldSelection.parse(servlet.getParameter("fields"), servlet.getParameter("include")).isFull()) {
+            bodyContainer.setFilters(SPARSE_FILTERS);
+        }
+    }
+
+    /**
+     * Writes the properties whose value is not {@code null}.
+     */
+    private static final class NonNullPropertyFilter extends SimpleBeanPropertyFilter {
+
+        @Override
+        public void serializeAsField(final Object pojo,
+                                     final JsonGenerator generator,
+                                     final SerializerProvider provider,
+                                     final PropertyWriter writer) throws Exception {
+            if (writer instanceof BeanPropertyWriter property && property.get(pojo) == null) {
+                return;
+            }
+            writer.serializeAsField(pojo, generator, provider);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.shopifake.microservice.controllers;
+
+import com.shopifake.microservice.services.CatalogEventStream;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.UUID;
+
+/**
+ * Live catalog change notifications.
+ */
+@RestController
+@RequestMapping("/products/events")
+@RequiredArgsConstructor
+@Tag(name = "Catalog Events")
+public class CatalogEventController {
+
+    private final CatalogEventStream catalogEventStream;
+
+    /**
+     * Stream product, category and filter changes of a site as Server-Sent Events.
+     *
+     * @param siteId the site to follow
+     * @param lastEventId id of the last event received, to resume after a disconnect
+     * @return the event stream
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream catalog changes for a site")
+    public SseEmitter streamChanges(
+            @RequestParam final UUID siteId,
+            @RequestHeader(value = "Last-Event-ID", required = false) final Long lastEventId) {
+        return catalogEventStream.subscribe(siteId, lastEventId);
+    }
+}
@@ -0,0 +1,43 @@
+package com.shopifake.microservice.controllers;
+
+import com.shopifake.microservice.config.HotProductProperties;
+import com.shopifake.microservice.dtos.HotProductResponse;
+import com.shopifake.microservice.services.HotProductTracker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Actuator endpoint ({@code /actuator/hotproducts}) listing the most read products of each site.
+ */
+@Component
+@Endpoint(id = "hotproducts")
+@RequiredArgsConstructor
+public class HotProductsEndpoint {
+
+    private final HotProductTracker tracker;
+    private final HotProductProperties properties;
+
+    /**
+     * Hot products with their estimated recent hits, hottest first.
+     *
+     * @param siteId only this site, every tracked site when absent
+     * @param limit products per site, {@code top-k} when absent
+     * @return hot products by site id
+     */
+    @ReadOperation
+    public Map<UUID, List<HotProductResponse>> hotProducts(@Nullable final UUID siteId,
+                                                           @Nullable final Integer limit) {
+        int max = limit == null || limit <= 0 ? properties.getTopK() : Math.min(limit, properties.getTopK());
+        if (siteId != null) {
+            return Map.of(siteId, tracker.topProducts(siteId, max));
+        }
+        return tracker.topProducts(max);
+    }
+}
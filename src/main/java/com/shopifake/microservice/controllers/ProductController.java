@@ -1,9 +1,26 @@
 package com.shopifake.microservice.controllers;
 
+import com.shopifake.microservice.annotation.SparseFieldset;
+import com.shopifake.microservice.annotation.StorefrontRead;
+import com.shopifake.microservice.dtos.BulkDeleteProductsRequest;
+import com.shopifake.microservice.dtos.BulkDeleteProductsResponse;
+import com.shopifake.microservice.dtos.BulkStatusUpdateResponse;
+import com.shopifake.microservice.dtos.BulkUpdateProductStatusRequest;
+import com.shopifake.microservice.dtos.BulkUpsertProductsRequest;
+import com.shopifake.microservice.dtos.BulkUpsertProductsResponse;
 import com.shopifake.microservice.dtos.CreateProductRequest;
+import com.shopifake.microservice.dtos.ProductChangeFeedResponse;
+import com.shopifake.microservice.dtos.ProductIdsRequest;
+import com.shopifake.microservice.dtos.ProductLookupResponse;
 import com.shopifake.microservice.dtos.ProductResponse;
+import com.shopifake.microservice.dtos.ProductSkusRequest;
+import com.shopifake.microservice.dtos.ProductUpsertResult;
 import com.shopifake.microservice.dtos.UpdateProductRequest;
 import com.shopifake.microservice.dtos.UpdateProductStatusRequest;
+import com.shopifake.microservice.dtos.UpsertProductRequest;
+import com.shopifake.microservice.services.HotProductTracker;
+import com.shopifake.microservice.services.ProductFieldSelection;
+import com.shopifake.microservice.services.ProductReadCoalescer;
 import com.shopifake.microservice.services.ProductService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -16,6 +33,7 @@ import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -36,6 +54,8 @@ import java.util.UUID;
 public class ProductController {
 
     private final ProductService productService;
+    private final ProductReadCoalescer productReadCoalescer;
+    private final HotProductTracker hotProductTracker;
 
     /**
      * Create a new product.
@@ -51,17 +71,96 @@ public class ProductController {
         return ResponseEntity.status(HttpStatus.CREATED).body(product);
     }
 
+    /**
+     * Create or replace a product by SKU.
+     *
+     * @param sku the product SKU
+     * @param request the full product state
+     * @return the product, with 201 when it was created
+     */
+    @PutMapping("/sku/{sku}")
+    @Operation(summary = "Create or replace product by SKU")
+    public ResponseEntity<ProductResponse> upsertProductBySku(
+            @PathVariable final String sku,
+            @Valid @RequestBody final UpsertProductRequest request) {
+        ProductUpsertResult result = productService.upsertProductBySku(sku, request);
+        HttpStatus status = result.getOutcome() == ProductUpsertResult.Outcome.CREATED
+                ? HttpStatus.CREATED
+                : HttpStatus.OK;
+        return ResponseEntity.status(status).body(result.getProduct());
+    }
+
+    /**
+     * Create or replace many products by SKU.
+     *
+     * @param request the products, each with its SKU
+     * @return per-product outcome summary
+     */
+    @PutMapping("/sku")
+    @Operation(summary = "Bulk create or replace products by SKU")
+    public ResponseEntity<BulkUpsertProductsResponse> upsertProductsBySku(
+            @Valid @RequestBody final BulkUpsertProductsRequest request) {
+        return ResponseEntity.ok(productService.upsertProductsBySku(request));
+    }
+
     /**
      * Get a product by id.
      *
      * @param productId the product id
+     * @param fields comma-separated fields to return, all when absent
+     * @param include comma-separated collections to expand (filters, categories)
      * @return the product response
      */
     @GetMapping("/{productId}")
+    @SparseFieldset
     @Operation(summary = "Get product by id")
     public ResponseEntity<ProductResponse> getProduct(
-            @PathVariable final UUID productId) {
-        return ResponseEntity.ok(productService.getProduct(productId));
+            @PathVariable final UUID productId,
+            @RequestParam(required = false) final String fields,
+            @RequestParam(required = false) final String include) {
+        ProductResponse product = productReadCoalescer.getProduct(productId, ProductFieldSelection.parse(fields, include));
+        hotProductTracker.recordHit(product.getSiteId(), productId);
+        return ResponseEntity.ok(product);
+    }
+
+    /**
+     * Resolve many products by id.
+     *
+     * @param request the product ids
+     * @param fields comma-separated fields to return, all when absent
+     * @param include comma-separated collections to expand (filters, categories)
+     * @return one result per requested id, in request order
+     */
+    @PostMapping("/by-ids")
+    @SparseFieldset
+    @StorefrontRead
+    @Operation(summary = "Get products by ids")
+    public ResponseEntity<ProductLookupResponse> getProductsByIds(
+            @Valid @RequestBody final ProductIdsRequest request,
+            @RequestParam(required = false) final String fields,
+            @RequestParam(required = false) final String include) {
+        return ResponseEntity.ok(productService.getProductsByIds(request.getIds(),
+                ProductFieldSelection.parse(fields, include)));
+    }
+
+    /**
+     * Resolve many products by SKU.
+     *
+     * @param request the product SKUs
+     * @param fields comma-separated fields to return, all when absent
+     * @param include comma-separated collections to expand (filters, categories)
+     * @return one result per requested SKU, in request order
+     */
+    @PostMapping("/by-skus")
+    @SparseFieldset
+    @StorefrontRead
+    @Operation(summary = "Get products by SKUs")
+    public ResponseEntity<ProductLookupResponse> getProductsBySkus(
+            @Valid @RequestBody final ProductSkusRequest request,
+            @RequestParam(required = false) final String fields,
+            @RequestParam(required = false) final String include) {
+        return ResponseEntity.ok(productService.getProductsBySkus(request.getSkus(),
+                ProductFieldSelection.parse(fields, include)));
     }
 
     /**
@@ -69,27 +168,60 @@ public class ProductController {
      *
      * @param siteId the site id
      * @param status the status
+     * @param fields comma-separated fields to return, all when absent
+     * @param include comma-separated collections to expand (filters, categories)
      * @return the list of products
      */
     @GetMapping
+    @SparseFieldset
     @Operation(summary = "List products")
     public ResponseEntity<List<ProductResponse>> listProducts(
             @RequestParam(required = false) final UUID siteId,
-            @RequestParam(required = false) final String status) {
-        return ResponseEntity.ok(productService.listProducts(siteId, status));
+            @RequestParam(required = false) final String status,
+            @RequestParam(required = false) final String fields,
+            @RequestParam(required = false) final String include) {
+        return ResponseEntity.ok(productService.listProducts(siteId, status,
+                ProductFieldSelection.parse(fields, include)));
     }
 
     /**
      * List published products.
      *
      * @param siteId the site id
+     * @param fields comma-separated fields to return, all when absent
+     * @param include comma-separated collections to expand (filters, categories)
      * @return the list of published products
      */
     @GetMapping("/public")
+    @SparseFieldset
     @Operation(summary = "Public storefront products")
     public ResponseEntity<List<ProductResponse>> listPublishedProducts(
-            @RequestParam(required = false) final UUID siteId) {
-        return ResponseEntity.ok(productService.listPublishedProducts(siteId));
+            @RequestParam(required = false) final UUID siteId,
+            @RequestParam(required = false) final String fields,
+            @RequestParam(required = false) final String include) {
+        List<ProductResponse> products = productReadCoalescer.listPublishedProducts(siteId,
+                ProductFieldSelection.parse(fields, include));
+        // Sparse responses may leave out the site id; such hits are only counted when it was requested
+        products.forEach(product -> hotProductTracker.recordHit(
+                siteId != null ? siteId : product.getSiteId(), product.getId()));
+        return ResponseEntity.ok(products);
+    }
+
+    /**
+     * Incremental feed of product changes for a site.
+     *
+     * @param siteId the site id
+     * @param cursor opaque cursor returned by the previous page, absent to start from the beginning
+     * @param limit maximum number of changes to return
+     * @return the page of changes and the cursor to resume from
+     */
+    @GetMapping("/changes")
+    @Operation(summary = "Product change feed")
+    public ResponseEntity<ProductChangeFeedResponse> listProductChanges(
+            @RequestParam final UUID siteId,
+            @RequestParam(required = false) final String cursor,
+            @RequestParam(required = false) final Integer limit) {
+        return ResponseEntity.ok(productService.listChanges(siteId, cursor, limit));
     }
 
     /**
@@ -122,6 +254,32 @@ public class ProductController {
         return ResponseEntity.ok(productService.updateStatus(productId, request));
     }
 
+    /**
+     * Update the status of many products at once.
+     *
+     * @param request the product selector and target status
+     * @return outcome summary, per product when ids were given
+     */
+    @PatchMapping("/bulk/status")
+    @Operation(summary = "Bulk update product status")
+    public ResponseEntity<BulkStatusUpdateResponse> bulkUpdateProductStatus(
+            @Valid @RequestBody final BulkUpdateProductStatusRequest request) {
+        return ResponseEntity.ok(productService.bulkUpdateStatus(request));
+    }
+
+    /**
+     * Delete many products by ids, by category or by site.
+     *
+     * @param request products to delete
+     * @return per-product outcome
+     */
+    @PostMapping("/bulk/delete")
+    @Operation(summary = "Bulk delete products")
+    public ResponseEntity<BulkDeleteProductsResponse> bulkDeleteProducts(
+            @Valid @RequestBody final BulkDeleteProductsRequest request) {
+        return ResponseEntity.ok(productService.bulkDelete(request));
+    }
+
     /**
      * Delete a product.
      *
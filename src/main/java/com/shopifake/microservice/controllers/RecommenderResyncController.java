@@ -0,0 +1,89 @@
+package com.shopifake.microservice.controllers;
+
+import com.shopifake.microservice.dtos.RecommenderResyncResponse;
+import com.shopifake.microservice.services.RecommenderResyncService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+/**
+ * Admin endpoints resending the catalog to the recommender.
+ */
+@RestController
+@RequestMapping("/recommender/resync")
+@RequiredArgsConstructor
+@Tag(name = "Recommender Resync")
+public class RecommenderResyncController {
+
+    private final RecommenderResyncService resyncService;
+
+    /**
+     * Start resending every product, or the products of one site, to the recommender.
+     *
+     * @param siteId site to resync, all sites when omitted
+     * @return the started job
+     */
+    @PostMapping
+    @Operation(summary = "Start a recommender resync")
+    public ResponseEntity<RecommenderResyncResponse> startResync(
+            @RequestParam(required = false) final UUID siteId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(resyncService.start(siteId));
+    }
+
+    /**
+     * Progress of the most recent resync.
+     *
+     * @return the latest job
+     */
+    @GetMapping
+    @Operation(summary = "Progress of the latest recommender resync")
+    public ResponseEntity<RecommenderResyncResponse> getLatestResync() {
+        return ResponseEntity.ok(resyncService.getLatestJob());
+    }
+
+    /**
+     * Progress of a resync.
+     *
+     * @param jobId the job id
+     * @return the job
+     */
+    @GetMapping("/{jobId}")
+    @Operation(summary = "Progress of a recommender resync")
+    public ResponseEntity<RecommenderResyncResponse> getResync(@PathVariable final UUID jobId) {
+        return ResponseEntity.ok(resyncService.getJob(jobId));
+    }
+
+    /**
+     * Stop a running resync after its current batches.
+     *
+     * @param jobId the job id
+     * @return the cancelled job
+     */
+    @PostMapping("/{jobId}/cancel")
+    @Operation(summary = "Cancel a recommender resync")
+    public ResponseEntity<RecommenderResyncResponse> cancelResync(@PathVariable final UUID jobId) {
+        return ResponseEntity.ok(resyncService.cancel(jobId));
+    }
+
+    /**
+     * Continue a failed or cancelled resync from its checkpoints.
+     *
+     * @param jobId the job id
+     * @return the resumed job
+     */
+    @PostMapping("/{jobId}/resume")
+    @Operation(summary = "Resume a recommender resync")
+    public ResponseEntity<RecommenderResyncResponse> resumeResync(@PathVariable final UUID jobId) {
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(resyncService.resume(jobId));
+    }
+}
@@ -0,0 +1,57 @@
+package com.shopifake.microservice.controllers;
+
+import com.shopifake.microservice.dtos.BulkDeleteProductsRequest;
+import com.shopifake.microservice.dtos.BulkDeleteProductsResponse;
+import com.shopifake.microservice.dtos.CatalogStatsResponse;
+import com.shopifake.microservice.services.CatalogStatsService;
+import com.shopifake.microservice.services.ProductService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.UUID;
+
+/**
+ * Site-level catalog endpoints.
+ */
+@RestController
+@RequestMapping("/sites/{siteId}")
+@RequiredArgsConstructor
+@Tag(name = "Catalog Sites")
+public class SiteCatalogController {
+
+    private final CatalogStatsService catalogStatsService;
+    private final ProductService productService;
+
+    /**
+     * Aggregate product counts of a site.
+     *
+     * @param siteId the site id
+     * @return counts by status, category and filter, and upcoming scheduled publishes
+     */
+    @GetMapping("/catalog-stats")
+    @Operation(summary = "Catalog statistics for a site")
+    public ResponseEntity<CatalogStatsResponse> getCatalogStats(@PathVariable final UUID siteId) {
+        return ResponseEntity.ok(catalogStatsService.getStats(siteId));
+    }
+
+    /**
+     * Delete every product of a site, for example when the site is closed.
+     *
+     * @param siteId the site id
+     * @return numbers of products deleted and already gone, without per-product results
+     */
+    @DeleteMapping("/products")
+    @Operation(summary = "Delete all products of a site")
+    public ResponseEntity<BulkDeleteProductsResponse> deleteSiteProducts(@PathVariable final UUID siteId) {
+        return ResponseEntity.ok(productService.bulkDelete(BulkDeleteProductsRequest.builder()
+                .siteId(siteId)
+                .build()));
+    }
+}
@@ -0,0 +1,21 @@
+package com.shopifake.microservice.dtos;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Summary returned by a bulk delete. {@code results} lists each requested id; deletes selecting a
+ * site or category are only counted and leave it empty.
+ */
+@Value
+@Builder
+public class BulkDeleteProductsResponse {
+
+    int deleted;
+
+    int notFound;
+
+    List<BulkProductResult> results;
+}
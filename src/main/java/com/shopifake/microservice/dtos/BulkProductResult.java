@@ -0,0 +1,27 @@
+package com.shopifake.microservice.dtos;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * Per-product outcome of a bulk operation.
+ */
+@Value
+@Builder
+public class BulkProductResult {
+
+    /**
+     * Outcome of a bulk operation for a single product.
+     */
+    public enum Outcome {
+        UPDATED,
+        DELETED,
+        NOT_FOUND
+    }
+
+    UUID productId;
+
+    Outcome outcome;
+}
@@ -0,0 +1,27 @@
+package com.shopifake.microservice.dtos;
+
+import com.shopifake.microservice.entities.ProductStatus;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Summary returned by a bulk status transition. {@code results} lists each requested id; requests
+ * selecting a site or category are only counted and leave it empty.
+ */
+@Value
+@Builder
+public class BulkStatusUpdateResponse {
+
+    ProductStatus status;
+
+    LocalDateTime scheduledPublishAt;
+
+    int updated;
+
+    int notFound;
+
+    List<BulkProductResult> results;
+}
@@ -0,0 +1,49 @@
+package com.shopifake.microservice.dtos;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Request body for changing the status of many products at once.
+ * Targets either explicit {@code productIds} (optionally restricted to {@code siteId})
+ * or every product of {@code siteId}, optionally narrowed to {@code categoryId}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpdateProductStatusRequest implements SiteScopedRequest {
+
+    @Size(max = 1000, message = "At most 1000 productIds per request")
+    private List<@NotNull(message = "productId cannot be null") UUID> productIds;
+
+    private UUID siteId;
+
+    private UUID categoryId;
+
+    @NotBlank(message = "Status is required")
+    private String status;
+
+    private LocalDateTime scheduledPublishAt;
+
+    @Schema(hidden = true)
+    @AssertTrue(message = "Provide productIds or siteId; categoryId requires siteId and no productIds")
+    public boolean isSelectorValid() {
+        boolean hasIds = productIds != null && !productIds.isEmpty();
+        if (categoryId != null) {
+            return siteId != null && !hasIds;
+        }
+        return hasIds || siteId != null;
+    }
+}
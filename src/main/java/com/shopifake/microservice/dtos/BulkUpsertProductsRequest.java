@@ -0,0 +1,26 @@
+package com.shopifake.microservice.dtos;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request body for creating or replacing many products by SKU in one transaction.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkUpsertProductsRequest {
+
+    @NotEmpty(message = "products are required")
+    @Size(max = 500, message = "At most 500 products per request")
+    private List<@Valid @NotNull(message = "product cannot be null") UpsertProductRequest> products;
+}
@@ -0,0 +1,20 @@
+package com.shopifake.microservice.dtos;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Summary returned by a batch upsert by SKU, one result per product in request order.
+ */
+@Value
+@Builder
+public class BulkUpsertProductsResponse {
+
+    int created;
+
+    int updated;
+
+    List<ProductUpsertResult> results;
+}
@@ -0,0 +1,78 @@
+package com.shopifake.microservice.dtos;
+
+import com.shopifake.microservice.entities.ProductStatus;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Aggregate product counts of a site, for merchant dashboards.
+ */
+@Value
+@Builder
+public class CatalogStatsResponse {
+
+    UUID siteId;
+
+    long totalProducts;
+
+    Map<ProductStatus, Long> productsByStatus;
+
+    List<CategoryCount> categories;
+
+    List<FilterCount> filters;
+
+    long upcomingPublishCount;
+
+    List<UpcomingPublish> upcomingPublishes;
+
+    LocalDateTime computedAt;
+
+    /**
+     * Products assigned to one category.
+     */
+    @Value
+    @Builder
+    public static class CategoryCount {
+
+        UUID categoryId;
+
+        String name;
+
+        long productCount;
+    }
+
+    /**
+     * Products carrying a value for one filter.
+     */
+    @Value
+    @Builder
+    public static class FilterCount {
+
+        UUID filterId;
+
+        String key;
+
+        UUID categoryId;
+
+        long productCount;
+    }
+
+    /**
+     * A scheduled product that has not been published yet.
+     */
+    @Value
+    @Builder
+    public static class UpcomingPublish {
+
+        UUID productId;
+
+        String name;
+
+        LocalDateTime scheduledPublishAt;
+    }
+}
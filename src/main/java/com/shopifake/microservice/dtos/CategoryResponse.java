@@ -1,5 +1,6 @@
 package com.shopifake.microservice.dtos;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import lombok.Builder;
 import lombok.Value;
 
@@ -17,6 +18,12 @@ public class CategoryResponse {
     UUID siteId;
     String name;
     LocalDateTime createdAt;
+
+    /**
+     * Number of products in the category; only set on category listings.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    Long productCount;
 }
 
 
@@ -17,7 +17,7 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class CreateCategoryRequest {
+public class CreateCategoryRequest implements SiteScopedRequest {
 
     @NotNull(message = "siteId is required")
     private UUID siteId;
@@ -20,7 +20,7 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class CreateFilterRequest {
+public class CreateFilterRequest implements SiteScopedRequest {
 
     @NotNull(message = "siteId is required")
     private UUID siteId;
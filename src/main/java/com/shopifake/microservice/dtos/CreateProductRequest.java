@@ -22,7 +22,7 @@ import java.util.UUID;
 @Builder
 @NoArgsConstructor
 @AllArgsConstructor
-public class CreateProductRequest {
+public class CreateProductRequest implements SiteScopedRequest {
 
     @NotNull(message = "siteId is required")
     private UUID siteId;
@@ -1,5 +1,6 @@
 package com.shopifake.microservice.dtos;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import com.shopifake.microservice.entities.FilterType;
 import lombok.Builder;
 import lombok.Value;
@@ -28,5 +29,11 @@ public class FilterResponse {
     BigDecimal minValue;
     BigDecimal maxValue;
     LocalDateTime createdAt;
+
+    /**
+     * Number of products using the filter; only set on filter listings.
+     */
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    Long productCount;
 }
 
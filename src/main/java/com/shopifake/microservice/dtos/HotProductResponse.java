@@ -0,0 +1,18 @@
+package com.shopifake.microservice.dtos;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.UUID;
+
+/**
+ * A frequently read product with its estimated, time-decayed number of reads.
+ */
+@Value
+@Builder
+public class HotProductResponse {
+
+    UUID productId;
+
+    long estimatedHits;
+}
@@ -0,0 +1,23 @@
+package com.shopifake.microservice.dtos;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Page of the product change feed.
+ */
+@Value
+@Builder
+public class ProductChangeFeedResponse {
+
+    List<ProductChangeResponse> changes;
+
+    /**
+     * Opaque cursor to pass back to resume after the last returned change.
+     */
+    String nextCursor;
+
+    boolean hasMore;
+}
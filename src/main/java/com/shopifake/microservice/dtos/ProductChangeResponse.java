@@ -0,0 +1,25 @@
+package com.shopifake.microservice.dtos;
+
+import com.shopifake.microservice.entities.ChangeType;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Single entry of the product change feed. {@code product} holds the current state of the
+ * product and is {@code null} for deletions (tombstones).
+ */
+@Value
+@Builder
+public class ProductChangeResponse {
+
+    UUID productId;
+
+    ChangeType changeType;
+
+    LocalDateTime changedAt;
+
+    ProductResponse product;
+}
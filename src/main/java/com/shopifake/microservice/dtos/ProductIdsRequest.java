@@ -0,0 +1,24 @@
+package com.shopifake.microservice.dtos;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Request body for resolving many products by id.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductIdsRequest {
+
+    @NotEmpty(message = "ids are required")
+    private List<@NotNull(message = "id cannot be null") UUID> ids;
+}
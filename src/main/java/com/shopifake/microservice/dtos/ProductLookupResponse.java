@@ -0,0 +1,20 @@
+package com.shopifake.microservice.dtos;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Products resolved by a multi-get, one result per requested key in request order.
+ */
+@Value
+@Builder
+public class ProductLookupResponse {
+
+    int found;
+
+    int notFound;
+
+    List<ProductLookupResult> results;
+}
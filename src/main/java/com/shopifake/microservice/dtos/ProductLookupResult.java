@@ -0,0 +1,31 @@
+package com.shopifake.microservice.dtos;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Outcome of resolving one requested product id or SKU.
+ */
+@Value
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ProductLookupResult {
+
+    /**
+     * Whether the requested key matched a product.
+     */
+    public enum Outcome {
+        FOUND,
+        NOT_FOUND
+    }
+
+    /**
+     * The id or SKU exactly as requested.
+     */
+    String key;
+
+    Outcome outcome;
+
+    ProductResponse product;
+}
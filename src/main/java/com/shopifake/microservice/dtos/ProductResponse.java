@@ -1,5 +1,6 @@
 package com.shopifake.microservice.dtos;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import com.shopifake.microservice.entities.ProductStatus;
 import lombok.Builder;
 import lombok.Value;
@@ -10,11 +11,18 @@ import java.util.UUID;
 
 /**
  * DTO returned to clients for product read operations.
+ * Fields left out by a sparse fieldset are {@code null}; only sparse reads omit them from the JSON.
  */
 @Value
+@JsonFilter(ProductResponse.FIELD_FILTER)
 @Builder
 public class ProductResponse {
 
+    /**
+     * Jackson filter deciding which properties are written.
+     */
+    public static final String FIELD_FILTER = "productFields";
+
     UUID id;
 
     UUID siteId;
@@ -25,6 +33,8 @@ public class ProductResponse {
 
     List<String> images;
 
+    String primaryImage;
+
     List<CategoryResponse> categories;
 
     String sku;
@@ -0,0 +1,23 @@
+package com.shopifake.microservice.dtos;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request body for resolving many products by SKU.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductSkusRequest {
+
+    @NotEmpty(message = "skus are required")
+    private List<@NotBlank(message = "sku cannot be blank") String> skus;
+}
@@ -0,0 +1,26 @@
+package com.shopifake.microservice.dtos;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Outcome of creating or replacing one product by SKU.
+ */
+@Value
+@Builder
+public class ProductUpsertResult {
+
+    /**
+     * Whether the SKU was new.
+     */
+    public enum Outcome {
+        CREATED,
+        UPDATED
+    }
+
+    String sku;
+
+    Outcome outcome;
+
+    ProductResponse product;
+}
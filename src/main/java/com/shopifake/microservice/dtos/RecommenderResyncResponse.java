@@ -0,0 +1,41 @@
+package com.shopifake.microservice.dtos;
+
+import com.shopifake.microservice.entities.ResyncStatus;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Status and progress of a recommender resync job.
+ */
+@Value
+@Builder
+public class RecommenderResyncResponse {
+
+    UUID jobId;
+
+    /**
+     * Site resynced, {@code null} for all sites.
+     */
+    UUID siteId;
+
+    ResyncStatus status;
+
+    long totalSites;
+
+    long completedSites;
+
+    long totalProducts;
+
+    long sentProducts;
+
+    LocalDateTime startedAt;
+
+    LocalDateTime heartbeatAt;
+
+    LocalDateTime finishedAt;
+
+    String error;
+}
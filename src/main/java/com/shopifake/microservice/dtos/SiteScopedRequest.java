@@ -0,0 +1,12 @@
+package com.shopifake.microservice.dtos;
+
+import java.util.UUID;
+
+/**
+ * Request body that belongs to a single site, used to attribute the request to that site's
+ * admission limits when the site is not in the URL.
+ */
+public interface SiteScopedRequest {
+
+    UUID getSiteId();
+}
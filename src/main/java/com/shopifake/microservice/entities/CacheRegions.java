@@ -0,0 +1,18 @@
+package com.shopifake.microservice.entities;
+
+/**
+ * Names of the Hibernate second-level cache regions, sized by {@code catalog.entity-cache.*}.
+ */
+public final class CacheRegions {
+
+    public static final String CATEGORIES = "catalog.categories";
+
+    public static final String FILTERS = "catalog.filters";
+
+    public static final String FILTER_VALUES = "catalog.filter-values";
+
+    public static final String SITE_QUERIES = "catalog.site-queries";
+
+    private CacheRegions() {
+    }
+}
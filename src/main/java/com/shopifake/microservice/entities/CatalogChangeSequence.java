@@ -0,0 +1,31 @@
+package com.shopifake.microservice.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Last change sequence number allocated for a site.
+ */
+@Entity
+@Table(name = "catalog_change_sequences")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogChangeSequence {
+
+    @Id
+    @Column(name = "site_id", nullable = false, updatable = false)
+    private UUID siteId;
+
+    @Column(name = "last_seq", nullable = false)
+    private long lastSeq;
+}
@@ -0,0 +1,10 @@
+package com.shopifake.microservice.entities;
+
+/**
+ * Kinds of catalog entities tracked by the change log.
+ */
+public enum CatalogEntityType {
+    PRODUCT,
+    CATEGORY,
+    FILTER
+}
@@ -0,0 +1,65 @@
+package com.shopifake.microservice.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * One slot of the number of products using a category or filter.
+ *
+ * <p>Each counter is split over a fixed number of slots so concurrent writers to a popular
+ * category update different rows; the count is the sum of the slots.</p>
+ */
+@Entity
+@Table(name = "catalog_usage_counters")
+@IdClass(CatalogUsageCounter.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogUsageCounter {
+
+    public static final int SLOTS = 8;
+
+    @Id
+    @Column(name = "entity_id", nullable = false, updatable = false)
+    private UUID entityId;
+
+    @Id
+    @Column(nullable = false, updatable = false)
+    private int slot;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entity_type", nullable = false, length = 25, updatable = false)
+    private CatalogEntityType entityType;
+
+    @Column(name = "site_id", nullable = false, updatable = false)
+    private UUID siteId;
+
+    @Column(name = "product_count", nullable = false)
+    private long productCount;
+
+    /**
+     * Composite identifier: counted entity and slot.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private UUID entityId;
+
+        private int slot;
+    }
+}
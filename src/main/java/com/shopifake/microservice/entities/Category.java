@@ -9,15 +9,19 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
 
 /**
- * Category entity scoped per site.
+ * Category entity scoped per site. Cached in the second-level cache, it is read by nearly every
+ * product read and write but hardly ever changes.
  */
 @Entity
 @Table(name = "categories")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.CATEGORIES)
 @Data
 @Builder
 @NoArgsConstructor
@@ -41,7 +45,7 @@ public class Category {
     void onCreate() {
         LocalDateTime now = LocalDateTime.now();
         if (id == null) {
-            id = UUID.randomUUID();
+            id = UuidV7.next();
         }
         createdAt = now;
     }
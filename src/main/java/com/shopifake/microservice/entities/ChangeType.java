@@ -0,0 +1,11 @@
+package com.shopifake.microservice.entities;
+
+/**
+ * Kinds of changes recorded in the catalog change log.
+ */
+public enum ChangeType {
+    CREATED,
+    UPDATED,
+    STATUS_CHANGED,
+    DELETED
+}
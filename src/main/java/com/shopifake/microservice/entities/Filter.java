@@ -16,6 +16,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -26,9 +28,11 @@ import java.util.UUID;
 /**
  * Filter entity scoped per site.
  * Represents available filters that can be used for products.
+ * Cached in the second-level cache together with its values.
  */
 @Entity
 @Table(name = "filters")
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.FILTERS)
 @Data
 @Builder
 @NoArgsConstructor
@@ -60,6 +64,7 @@ public class Filter {
     private String unit;
 
     @ElementCollection(fetch = FetchType.EAGER)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = CacheRegions.FILTER_VALUES)
     @CollectionTable(name = "filter_values", joinColumns = @JoinColumn(name = "filter_id"))
     @Column(name = "value_text", nullable = false, length = 255)
     @Builder.Default
@@ -78,7 +83,7 @@ public class Filter {
     void onCreate() {
         LocalDateTime now = LocalDateTime.now();
         if (id == null) {
-            id = UUID.randomUUID();
+            id = UuidV7.next();
         }
         createdAt = now;
     }
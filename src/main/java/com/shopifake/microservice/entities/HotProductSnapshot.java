@@ -0,0 +1,38 @@
+package com.shopifake.microservice.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Hot products of a site as last seen by a replica, used to warm the product cache after a restart.
+ */
+@Entity
+@Table(name = "hot_product_snapshots")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class HotProductSnapshot {
+
+    @Id
+    @Column(name = "site_id", nullable = false, updatable = false)
+    private UUID siteId;
+
+    /**
+     * Comma-separated product ids, hottest first.
+     */
+    @Column(name = "product_ids", nullable = false, columnDefinition = "TEXT")
+    private String productIds;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -11,6 +11,7 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.OrderColumn;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
@@ -18,6 +19,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -51,17 +54,26 @@ public class Product {
     private String description;
 
     @ElementCollection
-    @CollectionTable(name = "product_images", joinColumns = @JoinColumn(name = "product_id"))
+    @CollectionTable(name = "product_images", joinColumns = {
+            @JoinColumn(name = "product_id", referencedColumnName = "id"),
+            @JoinColumn(name = "site_id", referencedColumnName = "site_id")
+    })
     @Column(name = "image_url", nullable = false, length = 2048)
+    @OrderColumn(name = "image_order")
+    @OnDelete(action = OnDeleteAction.CASCADE)
     @Builder.Default
     private List<String> images = new ArrayList<>();
 
     @ManyToMany
     @JoinTable(
             name = "product_categories",
-            joinColumns = @JoinColumn(name = "product_id"),
+            joinColumns = {
+                    @JoinColumn(name = "product_id", referencedColumnName = "id"),
+                    @JoinColumn(name = "site_id", referencedColumnName = "site_id")
+            },
             inverseJoinColumns = @JoinColumn(name = "category_id")
     )
+    @OnDelete(action = OnDeleteAction.CASCADE)
     @Builder.Default
     private Set<Category> categories = new HashSet<>();
 
@@ -92,7 +104,7 @@ public class Product {
     void onCreate() {
         LocalDateTime now = LocalDateTime.now();
         if (id == null) {
-            id = UUID.randomUUID();
+            id = UuidV7.next();
         }
         createdAt = now;
         updatedAt = now;
@@ -4,6 +4,7 @@ import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
+import jakarta.persistence.JoinColumns;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
@@ -11,6 +12,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -35,10 +38,25 @@ public class ProductFilter {
     @JoinColumn(name = "filter_id", nullable = false)
     private Filter filter;
 
+    /**
+     * Joined on the product's id and site, so loading a product's filters is pruned to the
+     * site's partition of {@code product_filters}.
+     */
     @ManyToOne
-    @JoinColumn(name = "product_id", nullable = false)
+    @JoinColumns({
+            @JoinColumn(name = "product_id", referencedColumnName = "id", nullable = false, updatable = false),
+            @JoinColumn(name = "site_id", referencedColumnName = "site_id", nullable = false, updatable = false)
+    })
+    @OnDelete(action = OnDeleteAction.CASCADE)
     private Product product;
 
+    /**
+     * Copy of the owning product's site, used as the partition key of {@code product_filters};
+     * written through {@link #product}.
+     */
+    @Column(name = "site_id", nullable = false, insertable = false, updatable = false)
+    private UUID siteId;
+
     @Column(name = "text_value", length = 255)
     private String textValue;
 
@@ -60,7 +78,10 @@ public class ProductFilter {
     @PrePersist
     void onCreate() {
         if (id == null) {
-            id = UUID.randomUUID();
+            id = UuidV7.next();
+        }
+        if (siteId == null && product != null) {
+            siteId = product.getSiteId();
         }
     }
 }
@@ -0,0 +1,82 @@
+package com.shopifake.microservice.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A full resend of the catalog, or of one site, to the recommender.
+ *
+ * <p>The job is run by the instance named in {@code owner} for as long as it keeps
+ * {@code heartbeatAt} fresh; progress is kept per site in {@link RecommenderResyncSite}.</p>
+ */
+@Entity
+@Table(name = "recommender_resync_jobs")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommenderResyncJob {
+
+    @Id
+    @Column(nullable = false, updatable = false)
+    private UUID id;
+
+    /**
+     * Site resynced, {@code null} for all sites.
+     */
+    @Column(name = "site_id", updatable = false)
+    private UUID siteId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 25)
+    private ResyncStatus status;
+
+    @Column(length = 100)
+    private String owner;
+
+    @Column(name = "heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    @Column(name = "started_at", nullable = false, updatable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(length = 1000)
+    private String error;
+
+    /**
+     * {@code true} while the job is running, {@code null} otherwise. Unique, so the database
+     * admits a single running job however many instances start one at once.
+     */
+    @Column(unique = true)
+    private Boolean running;
+
+    @PrePersist
+    void onCreate() {
+        if (id == null) {
+            id = UuidV7.next();
+        }
+        startedAt = LocalDateTime.now();
+        onUpdate();
+    }
+
+    @PreUpdate
+    void onUpdate() {
+        running = status == ResyncStatus.RUNNING ? Boolean.TRUE : null;
+    }
+}
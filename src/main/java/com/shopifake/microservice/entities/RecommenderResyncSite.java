@@ -0,0 +1,64 @@
+package com.shopifake.microservice.entities;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * Checkpoint of one site within a {@link RecommenderResyncJob}: products are sent in id order and
+ * {@code lastProductId} is the highest id already accepted by the recommender.
+ */
+@Entity
+@Table(name = "recommender_resync_sites")
+@IdClass(RecommenderResyncSite.Key.class)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RecommenderResyncSite {
+
+    @Id
+    @Column(name = "job_id", nullable = false, updatable = false)
+    private UUID jobId;
+
+    @Id
+    @Column(name = "site_id", nullable = false, updatable = false)
+    private UUID siteId;
+
+    @Column(name = "last_product_id")
+    private UUID lastProductId;
+
+    /**
+     * Products of the site when the job started.
+     */
+    @Column(name = "total_products", nullable = false, updatable = false)
+    private long totalProducts;
+
+    @Column(name = "sent_products", nullable = false)
+    private long sentProducts;
+
+    @Column(nullable = false)
+    private boolean done;
+
+    /**
+     * Composite identifier: job and site.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private UUID jobId;
+
+        private UUID siteId;
+    }
+}
@@ -0,0 +1,11 @@
+package com.shopifake.microservice.entities;
+
+/**
+ * Lifecycle of a recommender resync job.
+ */
+public enum ResyncStatus {
+    RUNNING,
+    COMPLETED,
+    FAILED,
+    CANCELLED
+}
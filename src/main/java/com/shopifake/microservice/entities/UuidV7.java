@@ -0,0 +1,72 @@
+package com.shopifake.microservice.entities;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Time-ordered UUID version 7 identifiers (RFC 9562).
+ *
+ * <p>The 48-bit millisecond timestamp leads the value, so new primary keys land at the right edge
+ * of B-tree indexes and ordering by id follows creation order. The 12-bit {@code rand_a} field is
+ * a counter seeded randomly every millisecond, which keeps ids strictly increasing within this JVM
+ * even when many are generated in the same millisecond.</p>
+ */
+public final class UuidV7 {
+
+    private static final int COUNTER_BITS = 12;
+    private static final int COUNTER_SEED_BOUND = 1 << (COUNTER_BITS - 1);
+    private static final long COUNTER_MASK = (1L << COUNTER_BITS) - 1;
+    private static final long VERSION = 0x7000L;
+    private static final long VARIANT = 0x8000000000000000L;
+    private static final long RAND_B_MASK = 0x3FFFFFFFFFFFFFFFL;
+    private static final int TIMESTAMP_SHIFT = 16;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * Last issued timestamp and counter, packed as {@code millis << 12 | counter}.
+     */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private UuidV7() {
+    }
+
+    /**
+     * Generate the next identifier.
+     */
+    public static UUID next() {
+        long state = nextState(System.currentTimeMillis());
+        long millis = state >>> COUNTER_BITS;
+        long mostSignificant = (millis << TIMESTAMP_SHIFT) | VERSION | (state & COUNTER_MASK);
+        long leastSignificant = VARIANT | (RANDOM.nextLong() & RAND_B_MASK);
+        return new UUID(mostSignificant, leastSignificant);
+    }
+
+    /**
+     * Millisecond timestamp embedded in a version 7 identifier.
+     */
+    public static long timestamp(final UUID uuid) {
+        if (uuid.version() != 7) {
+            throw new IllegalArgumentException("Not a version 7 UUID: " + uuid);
+        }
+        return uuid.getMostSignificantBits() >>> TIMESTAMP_SHIFT;
+    }
+
+    private static long nextState(final long now) {
+        while (true) {
+            long previous = LAST.get();
+            long candidate;
+            if (now > previous >>> COUNTER_BITS) {
+                candidate = (now << COUNTER_BITS) | RANDOM.nextInt(COUNTER_SEED_BOUND);
+            } else {
+                // Same millisecond or clock moved backwards: bump the counter. An overflow carries
+                // into the timestamp, which stays monotonic and only runs ahead of the clock briefly.
+                candidate = previous + 1;
+            }
+            if (LAST.compareAndSet(previous, candidate)) {
+                return candidate;
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.shopifake.microservice.events;
+
+import com.shopifake.microservice.entities.CatalogChange;
+import com.shopifake.microservice.entities.CatalogEntityType;
+import com.shopifake.microservice.entities.ChangeType;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Application event published for every recorded catalog change.
+ * Listeners that touch caches or clients should use
+ * {@code @TransactionalEventListener} so they only observe committed changes.
+ *
+ * @param siteId site owning the entity
+ * @param seq per-site change sequence number
+ * @param entityType kind of entity
+ * @param entityId id of the entity
+ * @param changeType kind of change
+ * @param changedAt time the change was recorded
+ */
+public record CatalogChangeEvent(
+        UUID siteId,
+        long seq,
+        CatalogEntityType entityType,
+        UUID entityId,
+        ChangeType changeType,
+        LocalDateTime changedAt) {
+
+    /**
+     * Build the event describing a persisted change log entry.
+     */
+    public static CatalogChangeEvent of(final CatalogChange change) {
+        return new CatalogChangeEvent(change.getSiteId(), change.getSeq(), change.getEntityType(),
+                change.getEntityId(), change.getChangeType(), change.getChangedAt());
+    }
+}
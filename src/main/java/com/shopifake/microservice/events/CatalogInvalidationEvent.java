@@ -0,0 +1,32 @@
+package com.shopifake.microservice.events;
+
+/**
+ * Application event asking in-process caches to drop what a change committed on another replica
+ * made stale. Published outside any transaction, so listeners use {@code @EventListener}.
+ *
+ * @param change the remote change, {@code null} when every cache must be flushed because changes
+ *               may have been missed
+ */
+public record CatalogInvalidationEvent(CatalogChangeEvent change) {
+
+    /**
+     * Event for one change committed elsewhere.
+     */
+    public static CatalogInvalidationEvent of(final CatalogChangeEvent change) {
+        return new CatalogInvalidationEvent(change);
+    }
+
+    /**
+     * Event asking every cache to be flushed.
+     */
+    public static CatalogInvalidationEvent flushAll() {
+        return new CatalogInvalidationEvent(null);
+    }
+
+    /**
+     * Whether every cache must be flushed.
+     */
+    public boolean isFlushAll() {
+        return change == null;
+    }
+}
@@ -1,63 +1,209 @@
 package com.shopifake.microservice.health;
 
+import com.shopifake.microservice.config.DatabaseHealthProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.actuate.health.Health;
 import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.boot.actuate.health.Status;
 import org.springframework.stereotype.Component;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 /**
  * Custom health indicator for database connectivity.
- * Checks if the database connection is available and responsive.
+ *
+ * <p>The connection is checked on a dedicated background thread every {@code check-interval};
+ * {@link #health()} only returns the last result with the current pool usage, so probes never wait
+ * for a connection. When the pool has no idle connection and requests are queued for one the check
+ * does not borrow and reports {@code OUT_OF_SERVICE} (saturated) rather than {@code DOWN}, and so
+ * does a connection request that times out. A result older than {@code max-age} means the check
+ * itself is stuck and is reported {@code DOWN}.</p>
  */
 @Component
+@Slf4j
 public class DatabaseHealthIndicator implements HealthIndicator {
 
-    /**
-     * Timeout for database connection check in seconds.
-     */
-    private static final int CONNECTION_TIMEOUT = 3;
+    private static final String ACQUIRE_TIMER = "hikaricp.connections.acquire";
 
     /**
      * DataSource to check.
      */
     private final DataSource dataSource;
 
+    /**
+     * Hikari pool of {@link #dataSource}, {@code null} for other data sources.
+     */
+    private final HikariDataSource pool;
+
+    private final DatabaseHealthProperties properties;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "database-health");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Result of the last check, {@code null} until the first one.
+     */
+    private volatile CheckResult lastResult;
+
     /**
      * Constructor.
      *
      * @param dataSource the data source to check
+     * @param properties check interval and timeouts
+     * @param meterRegistry registry holding the pool's acquisition timer
      */
-    public DatabaseHealthIndicator(final DataSource dataSource) {
+    public DatabaseHealthIndicator(final DataSource dataSource,
+                                   final DatabaseHealthProperties properties,
+                                   final MeterRegistry meterRegistry) {
         this.dataSource = dataSource;
+        this.pool = unwrapPool(dataSource);
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @PostConstruct
+    void start() {
+        scheduler.scheduleWithFixedDelay(this::check, 0, properties.getCheckInterval().toMillis(),
+                TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
     }
 
     /**
-     * Check database health.
+     * Last database health with the current pool usage.
      *
      * @return health status
      */
     @Override
     public Health health() {
+        CheckResult result = lastResult;
+        Health.Builder builder;
+        if (result == null) {
+            builder = Health.unknown().withDetail("database", "Not checked yet");
+        } else if (result.checkedAt().isBefore(Instant.now().minus(properties.getMaxAge()))) {
+            builder = Health.down()
+                    .withDetail("database", "Check stalled")
+                    .withDetail("checkedAt", result.checkedAt().toString());
+        } else {
+            builder = Health.status(result.status())
+                    .withDetail("database", result.description())
+                    .withDetail("checkedAt", result.checkedAt().toString());
+            if (result.validationMillis() >= 0) {
+                builder.withDetail("validationMillis", result.validationMillis());
+            }
+            if (result.error() != null) {
+                builder.withDetail("error", result.error());
+            }
+        }
+        Map<String, Object> poolDetails = poolDetails();
+        if (!poolDetails.isEmpty()) {
+            builder.withDetail("pool", poolDetails);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Run one check and keep its result.
+     */
+    void check() {
+        try {
+            lastResult = validate();
+        } catch (RuntimeException ex) {
+            log.warn("Database health check failed", ex);
+            lastResult = new CheckResult(Status.DOWN, "Unavailable", -1, ex.getMessage(), Instant.now());
+        }
+        meterRegistry.counter("catalog.health.database.checks", "status", lastResult.status().getCode())
+                .increment();
+    }
+
+    private CheckResult validate() {
+        if (isSaturated()) {
+            return new CheckResult(Status.OUT_OF_SERVICE, "Pool saturated", -1, null, Instant.now());
+        }
+        long start = System.nanoTime();
         try (Connection connection = dataSource.getConnection()) {
-            if (connection.isValid(CONNECTION_TIMEOUT)) {
-                return Health.up()
-                        .withDetail("database", "Available")
-                        .withDetail("validationQuery", "Connection.isValid()")
-                        .build();
-            } else {
-                return Health.down()
-                        .withDetail("database", "Connection validation failed")
-                        .build();
+            boolean valid = connection.isValid((int) Math.max(1, properties.getValidationTimeout().toSeconds()));
+            long millis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            return valid
+                    ? new CheckResult(Status.UP, "Available", millis, null, Instant.now())
+                    : new CheckResult(Status.DOWN, "Connection validation failed", millis, null, Instant.now());
+        } catch (SQLTransientConnectionException e) {
+            // Hikari timed out waiting for a connection; without a connection failure as the cause
+            // the pool is exhausted rather than the database down
+            Status status = e.getCause() == null ? Status.OUT_OF_SERVICE : Status.DOWN;
+            String description = e.getCause() == null ? "Pool saturated" : "Unavailable";
+            return new CheckResult(status, description, -1, e.getMessage(), Instant.now());
+        } catch (SQLException e) {
+            return new CheckResult(Status.DOWN, "Unavailable", -1, e.getMessage(), Instant.now());
+        }
+    }
+
+    private boolean isSaturated() {
+        HikariPoolMXBean mxBean = pool != null ? pool.getHikariPoolMXBean() : null;
+        return mxBean != null
+                && mxBean.getIdleConnections() == 0
+                && mxBean.getThreadsAwaitingConnection() > 0;
+    }
+
+    private Map<String, Object> poolDetails() {
+        HikariPoolMXBean mxBean = pool != null ? pool.getHikariPoolMXBean() : null;
+        if (mxBean == null) {
+            return Map.of();
+        }
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("name", pool.getPoolName());
+        details.put("active", mxBean.getActiveConnections());
+        details.put("idle", mxBean.getIdleConnections());
+        details.put("pending", mxBean.getThreadsAwaitingConnection());
+        details.put("max", pool.getMaximumPoolSize());
+        Timer acquire = meterRegistry.find(ACQUIRE_TIMER).tag("pool", pool.getPoolName()).timer();
+        if (acquire != null) {
+            Map<String, Object> acquireMillis = new LinkedHashMap<>();
+            for (ValueAtPercentile percentile : acquire.takeSnapshot().percentileValues()) {
+                acquireMillis.put("p" + Math.round(percentile.percentile() * 100), percentile.value(TimeUnit.MILLISECONDS));
             }
+            acquireMillis.put("max", acquire.max(TimeUnit.MILLISECONDS));
+            details.put("acquireMillis", acquireMillis);
+        }
+        return details;
+    }
+
+    private static HikariDataSource unwrapPool(final DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
         } catch (SQLException e) {
-            return Health.down()
-                    .withDetail("database", "Unavailable")
-                    .withDetail("error", e.getMessage())
-                    .build();
+            return null;
         }
     }
-}
 
+    /**
+     * Outcome of one background check.
+     */
+    private record CheckResult(Status status, String description, long validationMillis, String error,
+                               Instant checkedAt) {
+    }
+}
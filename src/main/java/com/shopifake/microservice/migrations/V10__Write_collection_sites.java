@@ -0,0 +1,49 @@
+package com.shopifake.microservice.migrations;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * Lets the application write {@code site_id} on {@code product_images} and {@code product_categories}.
+ *
+ * <p>On PostgreSQL V3 added the column and filled it on insert with a trigger looking the product
+ * up by id alone, which probes every partition of {@code products}. The mappings now write the
+ * product's site themselves, so the trigger is dropped. Other databases (H2 in dev) did not run V3
+ * and get the column here.</p>
+ */
+@Component
+@Slf4j
+@SuppressWarnings("checkstyle:TypeName")
+public class V10__Write_collection_sites extends BaseJavaMigration {
+
+    private static final String POSTGRES = "PostgreSQL";
+
+    private static final String[] TABLES = {"product_images", "product_categories"};
+
+    @Override
+    public void migrate(final Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean postgres = POSTGRES.equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+        try (Statement statement = connection.createStatement()) {
+            for (String table : TABLES) {
+                if (postgres) {
+                    statement.execute("DROP TRIGGER IF EXISTS trg_" + table + "_site ON " + table);
+                } else {
+                    statement.execute("ALTER TABLE " + table + " ADD COLUMN site_id UUID");
+                    statement.execute("UPDATE " + table + " SET site_id = "
+                            + "(SELECT p.site_id FROM products p WHERE p.id = " + table + ".product_id)");
+                    statement.execute("ALTER TABLE " + table + " ALTER COLUMN site_id SET NOT NULL");
+                }
+            }
+            if (postgres) {
+                statement.execute("DROP FUNCTION IF EXISTS catalog_fill_product_site()");
+            }
+        }
+        log.info("product_images and product_categories site_id is now written by the application");
+    }
+}
@@ -0,0 +1,218 @@
+package com.shopifake.microservice.migrations;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Converts {@code products} and {@code product_filters} into tables hash-partitioned by {@code site_id}.
+ *
+ * <p>Runs on PostgreSQL only; other databases (H2 in dev) keep the heap layout from V1/V2.
+ * Existing rows are copied partition by partition with {@code satisfies_hash_partition}, so the
+ * progress of large catalogs is visible in the logs. Because partitioned tables need the partition
+ * key in every unique constraint, global SKU uniqueness moves to the trigger-maintained
+ * {@code product_skus} registry and {@code product_images}/{@code product_categories} carry
+ * {@code site_id} to keep their cascading foreign keys.</p>
+ */
+@Component
+@Slf4j
+@SuppressWarnings("checkstyle:TypeName")
+public class V3__Partition_products_by_site extends BaseJavaMigration {
+
+    private static final String POSTGRES = "PostgreSQL";
+
+    private static final String PRODUCT_COLUMNS = "id, site_id, name, description, sku, status, "
+            + "scheduled_publish_at, published_at, created_at, updated_at";
+
+    private static final String PRODUCT_FILTER_COLUMNS = "id, site_id, product_id, filter_id, text_value, "
+            + "numeric_value, min_value, max_value, start_at, end_at";
+
+    /**
+     * Number of hash partitions created for each table.
+     */
+    private final int partitions;
+
+    /**
+     * Constructor.
+     *
+     * @param partitions number of hash partitions
+     */
+    public V3__Partition_products_by_site(
+            @Value("${catalog.partitioning.product-partitions:16}") final int partitions) {
+        if (partitions < 1) {
+            throw new IllegalArgumentException("catalog.partitioning.product-partitions must be positive");
+        }
+        this.partitions = partitions;
+    }
+
+    @Override
+    public void migrate(final Context context) throws Exception {
+        Connection connection = context.getConnection();
+        String database = connection.getMetaData().getDatabaseProductName();
+        if (!POSTGRES.equalsIgnoreCase(database)) {
+            log.info("Skipping product partitioning on {}", database);
+            return;
+        }
+        try (Statement statement = connection.createStatement()) {
+            if (isPartitioned(statement, "products")) {
+                log.info("products is already partitioned; nothing to do");
+                return;
+            }
+            detachLegacyTables(statement);
+            createProducts(statement);
+            createProductFilters(statement);
+            copyPartitions(statement, "products", PRODUCT_COLUMNS);
+            copyPartitions(statement, "product_filters", PRODUCT_FILTER_COLUMNS);
+            createSkuRegistry(statement);
+            scopeCollectionTables(statement);
+            statement.execute("DROP TABLE product_filters_legacy");
+            statement.execute("DROP TABLE products_legacy");
+            statement.execute("ANALYZE products");
+            statement.execute("ANALYZE product_filters");
+        }
+        log.info("Partitioned products and product_filters into {} hash partitions by site_id", partitions);
+    }
+
+    private boolean isPartitioned(final Statement statement, final String table) throws SQLException {
+        try (ResultSet rs = statement.executeQuery(
+                "SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass('" + table + "')")) {
+            return rs.next();
+        }
+    }
+
+    private void detachLegacyTables(final Statement statement) throws SQLException {
+        statement.execute("ALTER TABLE product_images DROP CONSTRAINT fk_product_images_product");
+        statement.execute("ALTER TABLE product_categories DROP CONSTRAINT fk_product_categories_product");
+        statement.execute("ALTER TABLE product_filters DROP CONSTRAINT fk_product_filters_product");
+        statement.execute("DROP INDEX idx_products_site");
+        statement.execute("DROP INDEX idx_products_status");
+        statement.execute("DROP INDEX idx_products_site_status");
+        statement.execute("DROP INDEX idx_product_filters_product");
+        statement.execute("DROP INDEX idx_product_filters_filter");
+        statement.execute("ALTER TABLE products RENAME TO products_legacy");
+        statement.execute("ALTER TABLE product_filters RENAME TO product_filters_legacy");
+    }
+
+    private void createProducts(final Statement statement) throws SQLException {
+        statement.execute("""
+                CREATE TABLE products (
+                    id UUID NOT NULL,
+                    site_id UUID NOT NULL,
+                    name VARCHAR(255) NOT NULL,
+                    description TEXT NOT NULL,
+                    sku VARCHAR(50) NOT NULL,
+                    status VARCHAR(25) NOT NULL,
+                    scheduled_publish_at TIMESTAMP NULL,
+                    published_at TIMESTAMP NULL,
+                    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                    CONSTRAINT pk_products PRIMARY KEY (id, site_id),
+                    CONSTRAINT uq_products_site_sku UNIQUE (site_id, sku)
+                ) PARTITION BY HASH (site_id)""");
+        createPartitions(statement, "products");
+        statement.execute("CREATE INDEX idx_products_site_status ON products(site_id, status)");
+        statement.execute("CREATE INDEX idx_products_status ON products(status)");
+    }
+
+    private void createProductFilters(final Statement statement) throws SQLException {
+        statement.execute("""
+                CREATE TABLE product_filters (
+                    id UUID NOT NULL,
+                    site_id UUID NOT NULL,
+                    product_id UUID NOT NULL,
+                    filter_id UUID NOT NULL,
+                    text_value VARCHAR(255),
+                    numeric_value NUMERIC(19,2),
+                    min_value NUMERIC(19,2),
+                    max_value NUMERIC(19,2),
+                    start_at TIMESTAMP NULL,
+                    end_at TIMESTAMP NULL,
+                    CONSTRAINT pk_product_filters PRIMARY KEY (id, site_id),
+                    CONSTRAINT fk_product_filters_product FOREIGN KEY (product_id, site_id)
+                        REFERENCES products(id, site_id) ON DELETE CASCADE,
+                    CONSTRAINT fk_product_filters_filter FOREIGN KEY (filter_id)
+                        REFERENCES filters(id) ON DELETE CASCADE
+                ) PARTITION BY HASH (site_id)""");
+        createPartitions(statement, "product_filters");
+        statement.execute("CREATE INDEX idx_product_filters_product ON product_filters(site_id, product_id)");
+        statement.execute("CREATE INDEX idx_product_filters_filter ON product_filters(filter_id)");
+    }
+
+    private void createPartitions(final Statement statement, final String table) throws SQLException {
+        for (int remainder = 0; remainder < partitions; remainder++) {
+            statement.execute(String.format(
+                    "CREATE TABLE %s_p%02d PARTITION OF %s FOR VALUES WITH (MODULUS %d, REMAINDER %d)",
+                    table, remainder, table, partitions, remainder));
+        }
+    }
+
+    private void copyPartitions(final Statement statement, final String table, final String columns)
+            throws SQLException {
+        for (int remainder = 0; remainder < partitions; remainder++) {
+            int copied = statement.executeUpdate(String.format(
+                    "INSERT INTO %s_p%02d (%s) SELECT %s FROM %s_legacy "
+                            + "WHERE satisfies_hash_partition('%s'::regclass, %d, %d, site_id)",
+                    table, remainder, columns, columns, table, table, partitions, remainder));
+            log.info("Copied {} rows into {}_p{} ({}/{})", copied, table, remainder, remainder + 1, partitions);
+        }
+    }
+
+    private void createSkuRegistry(final Statement statement) throws SQLException {
+        statement.execute("""
+                CREATE TABLE product_skus (
+                    sku VARCHAR(50) PRIMARY KEY,
+                    product_id UUID NOT NULL,
+                    site_id UUID NOT NULL
+                )""");
+        statement.execute("INSERT INTO product_skus (sku, product_id, site_id) SELECT sku, id, site_id FROM products");
+        statement.execute("""
+                CREATE FUNCTION catalog_sync_product_sku() RETURNS trigger AS $$
+                BEGIN
+                    IF TG_OP = 'DELETE' THEN
+                        DELETE FROM product_skus WHERE sku = OLD.sku AND product_id = OLD.id;
+                        RETURN OLD;
+                    END IF;
+                    IF TG_OP = 'UPDATE' THEN
+                        IF NEW.sku = OLD.sku THEN
+                            RETURN NEW;
+                        END IF;
+                        DELETE FROM product_skus WHERE sku = OLD.sku AND product_id = OLD.id;
+                    END IF;
+                    INSERT INTO product_skus (sku, product_id, site_id) VALUES (NEW.sku, NEW.id, NEW.site_id);
+                    RETURN NEW;
+                END;
+                $$ LANGUAGE plpgsql""");
+        statement.execute("""
+                CREATE TRIGGER trg_products_sku
+                    AFTER INSERT OR UPDATE OF sku OR DELETE ON products
+                    FOR EACH ROW EXECUTE FUNCTION catalog_sync_product_sku()""");
+    }
+
+    private void scopeCollectionTables(final Statement statement) throws SQLException {
+        statement.execute("""
+                CREATE FUNCTION catalog_fill_product_site() RETURNS trigger AS $$
+                BEGIN
+                    IF NEW.site_id IS NULL THEN
+                        SELECT p.site_id INTO NEW.site_id FROM products p WHERE p.id = NEW.product_id;
+                    END IF;
+                    RETURN NEW;
+                END;
+                $$ LANGUAGE plpgsql""");
+        for (String table : new String[] {"product_images", "product_categories"}) {
+            statement.execute("ALTER TABLE " + table + " ADD COLUMN site_id UUID");
+            statement.execute("UPDATE " + table + " t SET site_id = p.site_id FROM products p WHERE p.id = t.product_id");
+            statement.execute("ALTER TABLE " + table + " ALTER COLUMN site_id SET NOT NULL");
+            statement.execute("ALTER TABLE " + table + " ADD CONSTRAINT fk_" + table + "_product "
+                    + "FOREIGN KEY (product_id, site_id) REFERENCES products(id, site_id) ON DELETE CASCADE");
+            statement.execute("CREATE TRIGGER trg_" + table + "_site BEFORE INSERT ON " + table
+                    + " FOR EACH ROW EXECUTE FUNCTION catalog_fill_product_site()");
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.shopifake.microservice.migrations;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Adds an explicit {@code image_order} to {@code product_images} and keys rows by position.
+ *
+ * <p>With an order column Hibernate updates image rows in place instead of deleting and
+ * re-inserting the whole collection on every change. Existing images are numbered by URL.
+ * The primary key name differs between PostgreSQL and H2, so it is looked up from metadata.</p>
+ */
+@Component
+@Slf4j
+@SuppressWarnings("checkstyle:TypeName")
+public class V4__Order_product_images extends BaseJavaMigration {
+
+    @Override
+    public void migrate(final Context context) throws Exception {
+        Connection connection = context.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE product_images ADD COLUMN image_order INTEGER");
+            statement.execute("""
+                    UPDATE product_images SET image_order = (
+                        SELECT COUNT(*) FROM product_images o
+                        WHERE o.product_id = product_images.product_id
+                          AND o.image_url < product_images.image_url
+                    )""");
+            statement.execute("ALTER TABLE product_images ALTER COLUMN image_order SET NOT NULL");
+            String primaryKey = primaryKeyName(connection.getMetaData());
+            if (primaryKey != null) {
+                statement.execute("ALTER TABLE product_images DROP CONSTRAINT " + primaryKey);
+            }
+            statement.execute("ALTER TABLE product_images ADD CONSTRAINT pk_product_images "
+                    + "PRIMARY KEY (product_id, image_order)");
+        }
+        log.info("product_images is now ordered by image_order");
+    }
+
+    private String primaryKeyName(final DatabaseMetaData metaData) throws SQLException {
+        for (String table : new String[] {"product_images", "PRODUCT_IMAGES"}) {
+            try (ResultSet rs = metaData.getPrimaryKeys(null, null, table)) {
+                if (rs.next()) {
+                    return rs.getString("PK_NAME");
+                }
+            }
+        }
+        return null;
+    }
+}
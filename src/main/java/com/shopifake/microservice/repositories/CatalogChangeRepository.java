@@ -0,0 +1,26 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.CatalogChange;
+import com.shopifake.microservice.entities.CatalogEntityType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for the catalog change log.
+ */
+public interface CatalogChangeRepository extends JpaRepository<CatalogChange, CatalogChange.Key> {
+
+    List<CatalogChange> findBySiteIdAndEntityTypeAndSeqGreaterThanOrderBySeqAsc(
+            UUID siteId, CatalogEntityType entityType, long seq, Limit limit);
+
+    List<CatalogChange> findBySiteIdAndSeqGreaterThanOrderBySeqAsc(UUID siteId, long seq, Limit limit);
+
+    /**
+     * Changes of every site recorded after {@code changedAt}, for replicas polling the log.
+     */
+    List<CatalogChange> findByChangedAtGreaterThanOrderByChangedAtAsc(LocalDateTime changedAt, Limit limit);
+}
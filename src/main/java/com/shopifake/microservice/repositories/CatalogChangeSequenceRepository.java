@@ -0,0 +1,21 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.CatalogChangeSequence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.UUID;
+
+/**
+ * Repository for per-site change sequence counters.
+ */
+public interface CatalogChangeSequenceRepository extends JpaRepository<CatalogChangeSequence, UUID> {
+
+    @Modifying
+    @Query("update CatalogChangeSequence s set s.lastSeq = s.lastSeq + :count where s.siteId = :siteId")
+    int increment(UUID siteId, long count);
+
+    @Query("select s.lastSeq from CatalogChangeSequence s where s.siteId = :siteId")
+    long findLastSeq(UUID siteId);
+}
@@ -0,0 +1,50 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.CatalogEntityType;
+import com.shopifake.microservice.entities.CatalogUsageCounter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for slotted category and filter usage counters.
+ */
+public interface CatalogUsageCounterRepository
+        extends JpaRepository<CatalogUsageCounter, CatalogUsageCounter.Key> {
+
+    @Modifying
+    @Query("update CatalogUsageCounter c set c.productCount = c.productCount + :delta "
+            + "where c.entityId = :entityId and c.slot = :slot")
+    int increment(UUID entityId, int slot, long delta);
+
+    @Query("select coalesce(sum(c.productCount), 0) from CatalogUsageCounter c where c.entityId = :entityId")
+    long sumByEntityId(UUID entityId);
+
+    @Query("select c.entityId as entityId, sum(c.productCount) as productCount from CatalogUsageCounter c "
+            + "where c.siteId = :siteId and c.entityType = :entityType group by c.entityId")
+    List<UsageCount> sumBySiteIdAndEntityType(UUID siteId, CatalogEntityType entityType);
+
+    @Query("select c.entityId as entityId, sum(c.productCount) as productCount from CatalogUsageCounter c "
+            + "where c.entityType = :entityType group by c.entityId")
+    List<UsageCount> sumByEntityType(CatalogEntityType entityType);
+
+    /**
+     * Touch every slot of a counter, holding their row locks until commit.
+     */
+    @Modifying
+    @Query("update CatalogUsageCounter c set c.productCount = c.productCount where c.entityId = :entityId")
+    int lock(UUID entityId);
+
+    @Modifying
+    @Query("update CatalogUsageCounter c set c.productCount = case when c.slot = 0 then :count else 0 end "
+            + "where c.entityId = :entityId")
+    int reset(UUID entityId, long count);
+
+    @Modifying
+    @Query("delete from CatalogUsageCounter c where c.entityId in :entityIds")
+    int deleteByEntityIds(Collection<UUID> entityIds);
+}
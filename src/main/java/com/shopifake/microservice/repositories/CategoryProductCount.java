@@ -0,0 +1,15 @@
+package com.shopifake.microservice.repositories;
+
+import java.util.UUID;
+
+/**
+ * Number of products assigned to a category.
+ */
+public interface CategoryProductCount {
+
+    UUID getCategoryId();
+
+    String getName();
+
+    long getProductCount();
+}
@@ -1,7 +1,12 @@
 package com.shopifake.microservice.repositories;
 
+import com.shopifake.microservice.entities.CacheRegions;
 import com.shopifake.microservice.entities.Category;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 import java.util.Optional;
@@ -12,11 +17,23 @@ import java.util.UUID;
  */
 public interface CategoryRepository extends JpaRepository<Category, UUID> {
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.SITE_QUERIES)
+    })
     List<Category> findBySiteId(UUID siteId);
 
     Optional<Category> findBySiteIdAndNameIgnoreCase(UUID siteId, String name);
 
     boolean existsBySiteIdAndNameIgnoreCase(UUID siteId, String name);
+
+    @Query("select c.id as categoryId, c.name as name, "
+            + "(select count(p) from Product p join p.categories pc where pc.id = c.id) as productCount "
+            + "from Category c where c.siteId = :siteId order by c.name")
+    List<CategoryProductCount> countProductsBySiteId(UUID siteId);
+
+    @Query("select c.id as id, c.siteId as siteId from Category c")
+    List<SiteScopedId> findAllSiteScopedIds();
 }
 
 
@@ -1,7 +1,12 @@
 package com.shopifake.microservice.repositories;
 
+import com.shopifake.microservice.entities.CacheRegions;
 import com.shopifake.microservice.entities.Filter;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.List;
 import java.util.UUID;
@@ -11,8 +16,20 @@ import java.util.UUID;
  */
 public interface FilterRepository extends JpaRepository<Filter, UUID> {
 
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHE_REGION, value = CacheRegions.SITE_QUERIES)
+    })
     List<Filter> findBySiteId(UUID siteId);
 
     boolean existsBySiteIdAndCategory_IdAndKeyIgnoreCase(UUID siteId, UUID categoryId, String key);
+
+    @Query("select f.id as filterId, f.key as key, f.category.id as categoryId, "
+            + "(select count(distinct pf.product.id) from ProductFilter pf where pf.filter.id = f.id) as productCount "
+            + "from Filter f where f.siteId = :siteId order by f.key")
+    List<FilterUsage> countUsageBySiteId(UUID siteId);
+
+    @Query("select f.id as id, f.siteId as siteId from Filter f")
+    List<SiteScopedId> findAllSiteScopedIds();
 }
 
@@ -0,0 +1,17 @@
+package com.shopifake.microservice.repositories;
+
+import java.util.UUID;
+
+/**
+ * Number of products carrying a value for a filter.
+ */
+public interface FilterUsage {
+
+    UUID getFilterId();
+
+    String getKey();
+
+    UUID getCategoryId();
+
+    long getProductCount();
+}
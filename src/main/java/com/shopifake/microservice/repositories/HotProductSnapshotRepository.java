@@ -0,0 +1,16 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.HotProductSnapshot;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for the saved hot products of each site.
+ */
+public interface HotProductSnapshotRepository extends JpaRepository<HotProductSnapshot, UUID> {
+
+    List<HotProductSnapshot> findAllByOrderByUpdatedAtDesc(Limit limit);
+}
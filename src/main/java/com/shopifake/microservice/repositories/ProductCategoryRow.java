@@ -0,0 +1,20 @@
+package com.shopifake.microservice.repositories;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A category assigned to a product.
+ */
+public interface ProductCategoryRow {
+
+    UUID getProductId();
+
+    UUID getId();
+
+    UUID getSiteId();
+
+    String getName();
+
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,9 @@
+package com.shopifake.microservice.repositories;
+
+/**
+ * Projection of every scalar product column, including the description.
+ */
+public interface ProductDetailSummary extends ProductSummary {
+
+    String getDescription();
+}
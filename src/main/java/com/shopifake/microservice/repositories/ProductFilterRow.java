@@ -0,0 +1,37 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.FilterType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A filter value assigned to a product, joined with its filter definition.
+ */
+public interface ProductFilterRow {
+
+    UUID getProductId();
+
+    UUID getFilterId();
+
+    String getKey();
+
+    UUID getCategoryId();
+
+    String getCategoryName();
+
+    FilterType getType();
+
+    String getDisplayName();
+
+    String getTextValue();
+
+    BigDecimal getNumericValue();
+
+    LocalDateTime getStartAt();
+
+    LocalDateTime getEndAt();
+
+    String getUnit();
+}
@@ -0,0 +1,15 @@
+package com.shopifake.microservice.repositories;
+
+import java.util.UUID;
+
+/**
+ * Lightweight projection of a product's identifying columns.
+ */
+public interface ProductIdentity {
+
+    UUID getId();
+
+    UUID getSiteId();
+
+    String getSku();
+}
@@ -0,0 +1,15 @@
+package com.shopifake.microservice.repositories;
+
+import java.util.UUID;
+
+/**
+ * One image of a product, at its position in the gallery.
+ */
+public interface ProductImageRow {
+
+    UUID getProductId();
+
+    String getImageUrl();
+
+    int getPosition();
+}
@@ -2,20 +2,38 @@ package com.shopifake.microservice.repositories;
 
 import com.shopifake.microservice.entities.Product;
 import com.shopifake.microservice.entities.ProductStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 /**
  * Repository for catalog products.
  */
-public interface ProductRepository extends JpaRepository<Product, UUID> {
+public interface ProductRepository extends JpaRepository<Product, UUID>, ProductUpsertRepository {
 
     boolean existsBySku(String sku);
 
+    boolean existsBySkuAndIdNot(String sku, UUID id);
+
+    @Query("select p.sku from Product p")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    Stream<String> streamAllSkus();
+
+    Optional<ProductIdentity> findIdentityById(UUID id);
+
     Optional<Product> findBySku(String sku);
 
     List<Product> findByStatus(ProductStatus status);
@@ -24,11 +42,158 @@ public interface ProductRepository extends JpaRepository<Product, UUID> {
 
     List<Product> findBySiteIdAndStatus(UUID siteId, ProductStatus status);
 
+    <T> Optional<T> findProjectedById(UUID id, Class<T> type);
+
+    <T> List<T> findProjectedBy(Class<T> type);
+
+    <T> List<T> findByStatus(ProductStatus status, Class<T> type);
+
+    <T> List<T> findBySiteId(UUID siteId, Class<T> type);
+
+    <T> List<T> findBySiteIdAndStatus(UUID siteId, ProductStatus status, Class<T> type);
+
+    <T> List<T> findByIdIn(Collection<UUID> ids, Class<T> type);
+
+    <T> List<T> findBySkuIn(Collection<String> skus, Class<T> type);
+
+    @Query("select p.id as productId, i as imageUrl, index(i) as position "
+            + "from Product p join p.images i where p.id in :ids")
+    List<ProductImageRow> findImageRows(Collection<UUID> ids);
+
+    @Query("select p.id as productId, i as imageUrl, index(i) as position "
+            + "from Product p join p.images i where p.id in :ids and index(i) = 0")
+    List<ProductImageRow> findPrimaryImageRows(Collection<UUID> ids);
+
+    @Query("select p.id as productId, c.id as id, c.siteId as siteId, c.name as name, c.createdAt as createdAt "
+            + "from Product p join p.categories c where p.id in :ids")
+    List<ProductCategoryRow> findCategoryRows(Collection<UUID> ids);
+
+    @Query("select pf.product.id as productId, f.id as filterId, f.key as key, c.id as categoryId, "
+            + "c.name as categoryName, f.type as type, f.displayName as displayName, "
+            + "pf.textValue as textValue, pf.numericValue as numericValue, pf.startAt as startAt, "
+            + "pf.endAt as endAt, f.unit as unit "
+            + "from ProductFilter pf join pf.filter f join f.category c where pf.product.id in :ids")
+    List<ProductFilterRow> findFilterRows(Collection<UUID> ids);
+
     List<Product> findByStatusAndScheduledPublishAtBefore(ProductStatus status, LocalDateTime before);
 
+    @Query("select p.status as status, count(p) as count from Product p where p.siteId = :siteId group by p.status")
+    List<StatusCount> countBySiteIdGroupByStatus(UUID siteId);
+
+    @Query("select count(p) from Product p where p.siteId = :siteId "
+            + "and p.status = com.shopifake.microservice.entities.ProductStatus.SCHEDULED "
+            + "and p.scheduledPublishAt > :after")
+    long countScheduledAfter(UUID siteId, LocalDateTime after);
+
+    @Query("select p.id as id, p.name as name, p.scheduledPublishAt as scheduledPublishAt from Product p "
+            + "where p.siteId = :siteId and p.status = com.shopifake.microservice.entities.ProductStatus.SCHEDULED "
+            + "and p.scheduledPublishAt > :after order by p.scheduledPublishAt")
+    List<ScheduledPublish> findScheduledAfter(UUID siteId, LocalDateTime after, Limit limit);
+
     boolean existsByCategories_Id(UUID categoryId);
 
+    @Query("select count(p) from Product p join p.categories c where c.id = :categoryId")
+    long countByCategoryId(UUID categoryId);
+
+    @Query("select count(distinct pf.product.id) from ProductFilter pf where pf.filter.id = :filterId")
+    long countByFilterId(UUID filterId);
+
+    @Query("select c.id as entityId, count(p) as productCount from Product p join p.categories c group by c.id")
+    List<UsageCount> countByCategory();
+
+    @Query("select pf.filter.id as entityId, count(distinct pf.product.id) as productCount "
+            + "from ProductFilter pf group by pf.filter.id")
+    List<UsageCount> countByFilter();
+
+    @Query("select c.id as entityId, count(p) as productCount from Product p join p.categories c "
+            + "where p.id in :ids group by c.id")
+    List<UsageCount> countByCategoryForProducts(Collection<UUID> ids);
+
+    @Query("select pf.filter.id as entityId, count(distinct pf.product.id) as productCount "
+            + "from ProductFilter pf where pf.product.id in :ids group by pf.filter.id")
+    List<UsageCount> countByFilterForProducts(Collection<UUID> ids);
+
     boolean existsByFilters_Filter_Id(UUID filterId);
+
+    List<ProductIdentity> findIdentitiesByIdIn(Collection<UUID> ids);
+
+    List<ProductIdentity> findIdentitiesBySiteIdAndIdIn(UUID siteId, Collection<UUID> ids);
+
+    /**
+     * Identities of the given products, locked until the end of the transaction so that the rows
+     * returned are exactly the ones a following delete removes.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p.id as id, p.siteId as siteId, p.sku as sku from Product p where p.id in :ids")
+    List<ProductIdentity> lockIdentitiesByIdIn(Collection<UUID> ids);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p.id as id, p.siteId as siteId, p.sku as sku from Product p "
+            + "where p.siteId = :siteId and p.id in :ids")
+    List<ProductIdentity> lockIdentitiesBySiteIdAndIdIn(UUID siteId, Collection<UUID> ids);
+
+    /**
+     * First ids of a site's category in id order; with the query below, pages through it by key.
+     */
+    @Query("select p.id from Product p join p.categories c where p.siteId = :siteId and c.id = :categoryId "
+            + "order by p.id")
+    List<UUID> findIdsBySiteIdAndCategoryIdOrderById(UUID siteId, UUID categoryId, Limit limit);
+
+    @Query("select p.id from Product p join p.categories c where p.siteId = :siteId and c.id = :categoryId "
+            + "and p.id > :after order by p.id")
+    List<UUID> findIdsBySiteIdAndCategoryIdAfter(UUID siteId, UUID categoryId, UUID after, Limit limit);
+
+    @Query("select p.siteId as siteId, count(p) as productCount from Product p group by p.siteId")
+    List<SiteProductCount> countBySite();
+
+    @Query("select p.siteId as siteId, count(p) as productCount from Product p where p.siteId = :siteId "
+            + "group by p.siteId")
+    List<SiteProductCount> countBySiteId(UUID siteId);
+
+    /**
+     * First ids of a site in id order, for keyset pagination.
+     */
+    @Query("select p.id from Product p where p.siteId = :siteId order by p.id")
+    List<UUID> findIdsBySiteIdOrderById(UUID siteId, Limit limit);
+
+    /**
+     * Ids of a site following {@code after} in id order, for keyset pagination.
+     */
+    @Query("select p.id from Product p where p.siteId = :siteId and p.id > :after order by p.id")
+    List<UUID> findIdsBySiteIdAfter(UUID siteId, UUID after, Limit limit);
+
+    /**
+     * Products of a site with their images; with the two queries below, loads complete products
+     * one collection per query. The site predicate keeps each query on one partition.
+     */
+    @Query("select p from Product p left join fetch p.images where p.siteId = :siteId and p.id in :ids")
+    List<Product> findAllWithImagesBySiteIdAndIdIn(UUID siteId, Collection<UUID> ids);
+
+    @Query("select p from Product p left join fetch p.categories where p.siteId = :siteId and p.id in :ids")
+    List<Product> findAllWithCategoriesBySiteIdAndIdIn(UUID siteId, Collection<UUID> ids);
+
+    @Query("select p from Product p left join fetch p.filters pf left join fetch pf.filter f "
+            + "left join fetch f.category where p.siteId = :siteId and p.id in :ids")
+    List<Product> findAllWithFiltersBySiteIdAndIdIn(UUID siteId, Collection<UUID> ids);
+
+    /**
+     * Delete products of one site with a single statement. Images, category links and filter
+     * values go with them through the {@code ON DELETE CASCADE} foreign keys.
+     */
+    @Modifying
+    @Query("delete from Product p where p.siteId = :siteId and p.id in :ids")
+    int deleteBySiteIdAndIds(UUID siteId, Collection<UUID> ids);
+
+    @Modifying
+    @Query("update Product p set p.status = :status, p.scheduledPublishAt = :scheduledPublishAt, "
+            + "p.publishedAt = :publishedAt, p.updatedAt = :updatedAt "
+            + "where p.siteId = :siteId and p.id in :ids")
+    int updateStatusBySiteIdAndIds(UUID siteId,
+                                   Collection<UUID> ids,
+                                   ProductStatus status,
+                                   LocalDateTime scheduledPublishAt,
+                                   LocalDateTime publishedAt,
+                                   LocalDateTime updatedAt);
 }
 
 
@@ -0,0 +1,30 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.ProductStatus;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Projection of a product's scalar columns without the description.
+ */
+public interface ProductSummary {
+
+    UUID getId();
+
+    UUID getSiteId();
+
+    String getName();
+
+    String getSku();
+
+    ProductStatus getStatus();
+
+    LocalDateTime getScheduledPublishAt();
+
+    LocalDateTime getPublishedAt();
+
+    LocalDateTime getCreatedAt();
+
+    LocalDateTime getUpdatedAt();
+}
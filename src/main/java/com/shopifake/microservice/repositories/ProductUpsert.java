@@ -0,0 +1,40 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.ProductFilter;
+import com.shopifake.microservice.entities.ProductStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Full state of a product written by {@link ProductUpsertRepository#upsertBySku}.
+ *
+ * @param id id used if the product is inserted
+ * @param siteId owning site
+ * @param name product name
+ * @param description product description
+ * @param sku upper-cased SKU identifying the product within its site
+ * @param status lifecycle status
+ * @param scheduledPublishAt scheduled publication time, for scheduled products
+ * @param publishedAt publication time used if the product was not published yet
+ * @param updatedAt write time
+ * @param images ordered image URLs
+ * @param categoryIds category ids
+ * @param filters filter assignments, with their filter and values set
+ */
+public record ProductUpsert(
+        UUID id,
+        UUID siteId,
+        String name,
+        String description,
+        String sku,
+        ProductStatus status,
+        LocalDateTime scheduledPublishAt,
+        LocalDateTime publishedAt,
+        LocalDateTime updatedAt,
+        List<String> images,
+        Set<UUID> categoryIds,
+        List<ProductFilter> filters) {
+}
@@ -0,0 +1,26 @@
+package com.shopifake.microservice.repositories;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Insert-or-update of products by SKU without loading them first.
+ */
+public interface ProductUpsertRepository {
+
+    /**
+     * Insert or update the product rows of {@code products} keyed by site and SKU, one statement
+     * per chunk ({@code INSERT ... ON CONFLICT} on PostgreSQL, {@code MERGE} elsewhere).
+     * Collections are not touched. Products whose SKU is used by another site are not written:
+     * they are missing from the result on H2 and fail the statement on PostgreSQL.
+     */
+    List<UpsertedProduct> upsertBySku(List<ProductUpsert> products);
+
+    /**
+     * Replace the images, categories and filter assignments of already written products with
+     * set-based deletes and batched inserts.
+     *
+     * @param products products whose {@link ProductUpsert#id()} is the id of the written row
+     */
+    void replaceCollections(Collection<ProductUpsert> products);
+}
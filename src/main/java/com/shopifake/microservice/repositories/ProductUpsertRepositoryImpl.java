@@ -0,0 +1,206 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.ProductFilter;
+import com.shopifake.microservice.entities.UuidV7;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * JDBC implementation of {@link ProductUpsertRepository}.
+ *
+ * <p>On PostgreSQL, {@code products} is unique on {@code (site_id, sku)} (see V3) and the
+ * {@code product_skus} trigger rejects SKUs of other sites. On H2, {@code sku} is globally unique,
+ * so the {@code MERGE} only updates a matching row of the same site and reads the written rows
+ * back through {@code FINAL TABLE}.</p>
+ *
+ * <p>Collection rows are written with their product's {@code site_id} (see V10), like Hibernate
+ * does for the mapped collections.</p>
+ */
+class ProductUpsertRepositoryImpl implements ProductUpsertRepository {
+
+    private static final int CHUNK_SIZE = 500;
+
+    private static final List<String> COLLECTION_TABLES = List.of("product_images", "product_categories",
+            "product_filters");
+
+    private static final String POSTGRES_UPSERT = """
+            INSERT INTO products AS p (id, site_id, name, description, sku, status,
+                                       scheduled_publish_at, published_at, created_at, updated_at)
+            VALUES %s
+            ON CONFLICT (site_id, sku) DO UPDATE SET
+                name = EXCLUDED.name,
+                description = EXCLUDED.description,
+                status = EXCLUDED.status,
+                scheduled_publish_at = EXCLUDED.scheduled_publish_at,
+                published_at = CASE WHEN EXCLUDED.status = 'PUBLISHED'
+                                    THEN COALESCE(p.published_at, EXCLUDED.published_at) END,
+                updated_at = EXCLUDED.updated_at
+            RETURNING id, sku, created_at, published_at""";
+
+    private static final String POSTGRES_ROW = "(?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String MERGE_UPSERT = """
+            SELECT id, sku, created_at, published_at FROM FINAL TABLE (
+                MERGE INTO products p
+                USING (VALUES %s) AS s(id, site_id, name, description, sku, status,
+                                        scheduled_publish_at, published_at, created_at, updated_at)
+                ON p.sku = s.sku
+                WHEN MATCHED AND p.site_id = s.site_id THEN UPDATE SET
+                    name = s.name,
+                    description = s.description,
+                    status = s.status,
+                    scheduled_publish_at = s.scheduled_publish_at,
+                    published_at = CASE WHEN s.status = 'PUBLISHED'
+                                        THEN COALESCE(p.published_at, s.published_at) END,
+                    updated_at = s.updated_at
+                WHEN NOT MATCHED THEN INSERT (id, site_id, name, description, sku, status,
+                                              scheduled_publish_at, published_at, created_at, updated_at)
+                    VALUES (s.id, s.site_id, s.name, s.description, s.sku, s.status,
+                            s.scheduled_publish_at, s.published_at, s.created_at, s.updated_at))""";
+
+    private static final String MERGE_ROW = "(CAST(? AS UUID), CAST(? AS UUID), CAST(? AS VARCHAR(255)), "
+            + "CAST(? AS CHARACTER LARGE OBJECT), CAST(? AS VARCHAR(50)), CAST(? AS VARCHAR(25)), "
+            + "CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP), CAST(? AS TIMESTAMP))";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgres;
+
+    ProductUpsertRepositoryImpl(final JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public List<UpsertedProduct> upsertBySku(final List<ProductUpsert> products) {
+        List<UpsertedProduct> upserted = new ArrayList<>(products.size());
+        for (List<ProductUpsert> chunk : chunks(products)) {
+            Map<String, UUID> candidateIds = new HashMap<>(chunk.size() * 2);
+            chunk.forEach(product -> candidateIds.put(product.sku(), product.id()));
+            boolean postgresql = isPostgres();
+            String sql = String.format(postgresql ? POSTGRES_UPSERT : MERGE_UPSERT,
+                    String.join(", ", Collections.nCopies(chunk.size(), postgresql ? POSTGRES_ROW : MERGE_ROW)));
+            try {
+                upserted.addAll(jdbcTemplate.query(sql, statement -> bindProducts(statement, chunk),
+                        (rs, rowNum) -> mapUpserted(rs, candidateIds)));
+            } catch (DuplicateKeyException ex) {
+                if (postgresql) {
+                    throw ex;
+                }
+                // MERGE is not atomic against a concurrent insert of the same SKU; the row now
+                // exists, so running it again takes the update branch.
+                upserted.addAll(jdbcTemplate.query(sql, statement -> bindProducts(statement, chunk),
+                        (rs, rowNum) -> mapUpserted(rs, candidateIds)));
+            }
+        }
+        return upserted;
+    }
+
+    @Override
+    public void replaceCollections(final Collection<ProductUpsert> products) {
+        List<ProductUpsert> ordered = List.copyOf(products);
+        for (List<ProductUpsert> chunk : chunks(ordered)) {
+            // Deleted site by site: product_filters is partitioned by site on PostgreSQL, so each
+            // statement is pruned to one partition; the other collection tables carry site_id too.
+            Map<UUID, List<UUID>> idsBySite = new LinkedHashMap<>();
+            chunk.forEach(product -> idsBySite.computeIfAbsent(product.siteId(), site -> new ArrayList<>())
+                    .add(product.id()));
+            idsBySite.forEach((siteId, siteIds) -> {
+                List<Object> args = new ArrayList<>(siteIds.size() + 1);
+                args.add(siteId);
+                args.addAll(siteIds);
+                String placeholders = String.join(", ", Collections.nCopies(siteIds.size(), "?"));
+                for (String table : COLLECTION_TABLES) {
+                    jdbcTemplate.update("DELETE FROM " + table + " WHERE site_id = ? AND product_id IN ("
+                            + placeholders + ")", args.toArray());
+                }
+            });
+        }
+
+        List<Object[]> images = new ArrayList<>();
+        List<Object[]> categories = new ArrayList<>();
+        List<Object[]> filters = new ArrayList<>();
+        for (ProductUpsert product : ordered) {
+            for (int position = 0; position < product.images().size(); position++) {
+                images.add(new Object[] {product.id(), product.siteId(), product.images().get(position), position});
+            }
+            product.categoryIds().forEach(categoryId ->
+                    categories.add(new Object[] {product.id(), product.siteId(), categoryId}));
+            for (ProductFilter filter : product.filters()) {
+                filters.add(new Object[] {UuidV7.next(), product.siteId(), product.id(), filter.getFilter().getId(),
+                        filter.getTextValue(), filter.getNumericValue(), filter.getMinValue(), filter.getMaxValue(),
+                        timestamp(filter.getStartAt()), timestamp(filter.getEndAt())});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO product_images (product_id, site_id, image_url, image_order) "
+                + "VALUES (?, ?, ?, ?)", images);
+        jdbcTemplate.batchUpdate("INSERT INTO product_categories (product_id, site_id, category_id) VALUES (?, ?, ?)",
+                categories);
+        jdbcTemplate.batchUpdate("INSERT INTO product_filters (id, site_id, product_id, filter_id, text_value, "
+                + "numeric_value, min_value, max_value, start_at, end_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                filters);
+    }
+
+    private void bindProducts(final PreparedStatement statement, final List<ProductUpsert> chunk)
+            throws SQLException {
+        int index = 1;
+        for (ProductUpsert product : chunk) {
+            statement.setObject(index++, product.id());
+            statement.setObject(index++, product.siteId());
+            statement.setString(index++, product.name());
+            statement.setString(index++, product.description());
+            statement.setString(index++, product.sku());
+            statement.setString(index++, product.status().name());
+            statement.setTimestamp(index++, timestamp(product.scheduledPublishAt()));
+            statement.setTimestamp(index++, timestamp(product.publishedAt()));
+            statement.setTimestamp(index++, timestamp(product.updatedAt()));
+            statement.setTimestamp(index++, timestamp(product.updatedAt()));
+        }
+    }
+
+    private static UpsertedProduct mapUpserted(final ResultSet rs, final Map<String, UUID> candidateIds)
+            throws SQLException {
+        UUID id = rs.getObject("id", UUID.class);
+        String sku = rs.getString("sku");
+        Timestamp publishedAt = rs.getTimestamp("published_at");
+        return new UpsertedProduct(id, sku, id.equals(candidateIds.get(sku)),
+                rs.getTimestamp("created_at").toLocalDateTime(),
+                publishedAt != null ? publishedAt.toLocalDateTime() : null);
+    }
+
+    private boolean isPostgres() {
+        Boolean cached = postgres;
+        if (cached == null) {
+            cached = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+            postgres = cached;
+        }
+        return cached;
+    }
+
+    private static Timestamp timestamp(final LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+
+    private static <T> List<List<T>> chunks(final List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int start = 0; start < items.size(); start += CHUNK_SIZE) {
+            chunks.add(items.subList(start, Math.min(items.size(), start + CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,61 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.RecommenderResyncJob;
+import com.shopifake.microservice.entities.ResyncStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repository for recommender resync jobs. Every state change of a running job is a conditional
+ * update on its status and owner, so an instance that lost the lease cannot overwrite the job.
+ * Updates leaving or entering {@code RUNNING} also set {@code running}, whose unique constraint
+ * allows one running job.
+ */
+public interface RecommenderResyncJobRepository extends JpaRepository<RecommenderResyncJob, UUID> {
+
+    Optional<RecommenderResyncJob> findFirstByOrderByIdDesc();
+
+    boolean existsByStatus(ResyncStatus status);
+
+    @Query("select j.id from RecommenderResyncJob j where j.status = 'RUNNING' "
+            + "and (j.heartbeatAt is null or j.heartbeatAt < :staleBefore)")
+    List<UUID> findOrphanedIds(LocalDateTime staleBefore);
+
+    /**
+     * Take the lease of a running job that is unowned or whose owner stopped heartbeating.
+     */
+    @Modifying
+    @Query("update RecommenderResyncJob j set j.owner = :owner, j.heartbeatAt = :now "
+            + "where j.id = :id and j.status = 'RUNNING' "
+            + "and (j.owner = :owner or j.heartbeatAt is null or j.heartbeatAt < :staleBefore)")
+    int claim(UUID id, String owner, LocalDateTime now, LocalDateTime staleBefore);
+
+    @Modifying
+    @Query("update RecommenderResyncJob j set j.heartbeatAt = :now "
+            + "where j.id = :id and j.owner = :owner and j.status = 'RUNNING'")
+    int heartbeat(UUID id, String owner, LocalDateTime now);
+
+    @Modifying
+    @Query("update RecommenderResyncJob j set j.status = :status, j.running = null, j.finishedAt = :now, j.error = :error "
+            + "where j.id = :id and j.owner = :owner and j.status = 'RUNNING'")
+    int finish(UUID id, String owner, ResyncStatus status, LocalDateTime now, String error);
+
+    @Modifying
+    @Query("update RecommenderResyncJob j set j.status = 'CANCELLED', j.running = null, j.finishedAt = :now "
+            + "where j.id = :id and j.status = 'RUNNING'")
+    int cancel(UUID id, LocalDateTime now);
+
+    /**
+     * Put a failed or cancelled job back to running, unowned, keeping its checkpoints.
+     */
+    @Modifying
+    @Query("update RecommenderResyncJob j set j.status = 'RUNNING', j.running = true, j.owner = null, "
+            + "j.heartbeatAt = null, j.finishedAt = null, j.error = null where j.id = :id and j.status in ('FAILED', 'CANCELLED')")
+    int reopen(UUID id);
+}
@@ -0,0 +1,34 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.RecommenderResyncSite;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Repository for the per-site checkpoints of resync jobs.
+ */
+public interface RecommenderResyncSiteRepository
+        extends JpaRepository<RecommenderResyncSite, RecommenderResyncSite.Key> {
+
+    List<RecommenderResyncSite> findByJobIdAndDoneFalse(UUID jobId);
+
+    @Modifying
+    @Query("update RecommenderResyncSite s set s.lastProductId = :lastProductId, "
+            + "s.sentProducts = s.sentProducts + :sent where s.jobId = :jobId and s.siteId = :siteId")
+    int checkpoint(UUID jobId, UUID siteId, UUID lastProductId, long sent);
+
+    @Modifying
+    @Query("update RecommenderResyncSite s set s.done = true where s.jobId = :jobId and s.siteId = :siteId")
+    int markDone(UUID jobId, UUID siteId);
+
+    @Query("select count(s) as totalSites, "
+            + "coalesce(sum(case when s.done = true then 1 else 0 end), 0) as completedSites, "
+            + "coalesce(sum(s.totalProducts), 0) as totalProducts, "
+            + "coalesce(sum(s.sentProducts), 0) as sentProducts "
+            + "from RecommenderResyncSite s where s.jobId = :jobId")
+    ResyncProgress summarize(UUID jobId);
+}
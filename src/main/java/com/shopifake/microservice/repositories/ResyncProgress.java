@@ -0,0 +1,15 @@
+package com.shopifake.microservice.repositories;
+
+/**
+ * Progress of a resync job summed over its sites.
+ */
+public interface ResyncProgress {
+
+    long getTotalSites();
+
+    long getCompletedSites();
+
+    long getTotalProducts();
+
+    long getSentProducts();
+}
@@ -0,0 +1,16 @@
+package com.shopifake.microservice.repositories;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A product waiting for its scheduled publication.
+ */
+public interface ScheduledPublish {
+
+    UUID getId();
+
+    String getName();
+
+    LocalDateTime getScheduledPublishAt();
+}
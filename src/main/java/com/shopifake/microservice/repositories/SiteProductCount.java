@@ -0,0 +1,13 @@
+package com.shopifake.microservice.repositories;
+
+import java.util.UUID;
+
+/**
+ * Number of products of one site.
+ */
+public interface SiteProductCount {
+
+    UUID getSiteId();
+
+    long getProductCount();
+}
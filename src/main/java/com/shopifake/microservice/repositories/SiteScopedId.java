@@ -0,0 +1,13 @@
+package com.shopifake.microservice.repositories;
+
+import java.util.UUID;
+
+/**
+ * Identifier of a site-owned entity.
+ */
+public interface SiteScopedId {
+
+    UUID getId();
+
+    UUID getSiteId();
+}
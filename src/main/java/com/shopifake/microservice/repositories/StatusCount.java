@@ -0,0 +1,13 @@
+package com.shopifake.microservice.repositories;
+
+import com.shopifake.microservice.entities.ProductStatus;
+
+/**
+ * Number of products in one status.
+ */
+public interface StatusCount {
+
+    ProductStatus getStatus();
+
+    long getCount();
+}
@@ -0,0 +1,21 @@
+package com.shopifake.microservice.repositories;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Row returned by {@link ProductUpsertRepository#upsertBySku}.
+ *
+ * @param id id of the inserted or updated product
+ * @param sku product SKU
+ * @param created whether the product was inserted
+ * @param createdAt creation time of the product
+ * @param publishedAt publication time after the write
+ */
+public record UpsertedProduct(
+        UUID id,
+        String sku,
+        boolean created,
+        LocalDateTime createdAt,
+        LocalDateTime publishedAt) {
+}
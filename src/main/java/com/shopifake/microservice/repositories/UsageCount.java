@@ -0,0 +1,13 @@
+package com.shopifake.microservice.repositories;
+
+import java.util.UUID;
+
+/**
+ * Number of products using a category or filter.
+ */
+public interface UsageCount {
+
+    UUID getEntityId();
+
+    long getProductCount();
+}
@@ -0,0 +1,146 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.entities.CatalogChange;
+import com.shopifake.microservice.entities.CatalogChangeSequence;
+import com.shopifake.microservice.entities.CatalogEntityType;
+import com.shopifake.microservice.entities.ChangeType;
+import com.shopifake.microservice.events.CatalogChangeEvent;
+import com.shopifake.microservice.repositories.CatalogChangeRepository;
+import com.shopifake.microservice.repositories.CatalogChangeSequenceRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Durable, per-site ordered log of catalog changes.
+ *
+ * <p>Entries are written in the caller's transaction. Sequence numbers come from a per-site
+ * counter row whose lock is held until commit, so within a site the sequence order matches
+ * commit order and readers paging by sequence never skip a late-committing change.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogChangeLog {
+
+    private final CatalogChangeRepository catalogChangeRepository;
+    private final CatalogChangeSequenceRepository sequenceRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PlatformTransactionManager transactionManager;
+    private final Clock clock = Clock.systemUTC();
+
+    /**
+     * Record one change to a single entity.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(final UUID siteId,
+                       final CatalogEntityType entityType,
+                       final ChangeType changeType,
+                       final UUID entityId) {
+        record(siteId, entityType, changeType, List.of(entityId));
+    }
+
+    /**
+     * Record the same change for several entities of one site, allocating one block of sequence numbers.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(final UUID siteId,
+                       final CatalogEntityType entityType,
+                       final ChangeType changeType,
+                       final Collection<UUID> entityIds) {
+        if (entityIds.isEmpty()) {
+            return;
+        }
+        long seq = allocate(siteId, entityIds.size()) - entityIds.size();
+        LocalDateTime now = LocalDateTime.now(clock);
+        List<CatalogChange> changes = new ArrayList<>(entityIds.size());
+        for (UUID entityId : entityIds) {
+            changes.add(CatalogChange.builder()
+                    .siteId(siteId)
+                    .seq(++seq)
+                    .entityType(entityType)
+                    .entityId(entityId)
+                    .changeType(changeType)
+                    .changedAt(now)
+                    .build());
+        }
+        catalogChangeRepository.saveAll(changes);
+        changes.forEach(change -> eventPublisher.publishEvent(CatalogChangeEvent.of(change)));
+    }
+
+    /**
+     * Read changes of one entity type recorded after the given sequence number, oldest first.
+     */
+    @Transactional(readOnly = true)
+    public List<CatalogChange> readAfter(final UUID siteId,
+                                         final CatalogEntityType entityType,
+                                         final long afterSeq,
+                                         final int limit) {
+        return catalogChangeRepository.findBySiteIdAndEntityTypeAndSeqGreaterThanOrderBySeqAsc(
+                siteId, entityType, afterSeq, Limit.of(limit));
+    }
+
+    /**
+     * Read changes of every entity type recorded after the given sequence number, oldest first.
+     */
+    @Transactional(readOnly = true)
+    public List<CatalogChange> readAfter(final UUID siteId, final long afterSeq, final int limit) {
+        return catalogChangeRepository.findBySiteIdAndSeqGreaterThanOrderBySeqAsc(siteId, afterSeq, Limit.of(limit));
+    }
+
+    /**
+     * Sequence number of the last change committed for a site, {@code 0} when it has none.
+     */
+    @Transactional(readOnly = true)
+    public long lastSeq(final UUID siteId) {
+        return sequenceRepository.findById(siteId).map(CatalogChangeSequence::getLastSeq).orElse(0L);
+    }
+
+    /**
+     * Reserve {@code count} sequence numbers for a site and return the last one.
+     */
+    private long allocate(final UUID siteId, final int count) {
+        if (sequenceRepository.increment(siteId, count) == 0) {
+            createSequence(siteId);
+            if (sequenceRepository.increment(siteId, count) == 0) {
+                throw new IllegalStateException("Unable to allocate change sequence for site " + siteId);
+            }
+        }
+        return sequenceRepository.findLastSeq(siteId);
+    }
+
+    /**
+     * Create the counter row in its own transaction; a concurrent creator winning the race is fine.
+     */
+    private void createSequence(final UUID siteId) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            template.executeWithoutResult(status -> {
+                if (!sequenceRepository.existsById(siteId)) {
+                    sequenceRepository.saveAndFlush(CatalogChangeSequence.builder()
+                            .siteId(siteId)
+                            .lastSeq(0L)
+                            .build());
+                }
+            });
+        } catch (DataIntegrityViolationException ex) {
+            log.debug("Change sequence for site {} created concurrently", siteId);
+        }
+    }
+}
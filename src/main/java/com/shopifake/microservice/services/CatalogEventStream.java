@@ -0,0 +1,324 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.entities.CatalogChange;
+import com.shopifake.microservice.events.CatalogChangeEvent;
+import com.shopifake.microservice.events.CatalogInvalidationEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Fans committed catalog changes out to Server-Sent Events subscribers, per site.
+ *
+ * <p>Idle connections hold no thread: the servlet request is asynchronous and each subscriber is
+ * only a bounded queue. Writes happen on short-lived virtual threads, one drain at a time per
+ * subscriber, so a slow client never blocks the committing thread or other subscribers. A client
+ * whose queue overflows is disconnected and resumes from the change log with {@code Last-Event-ID}.</p>
+ *
+ * <p>Changes committed on this replica arrive after commit and those of other replicas through
+ * {@link CatalogInvalidationEvent}, so the two may interleave out of order. Each subscriber sends the
+ * changes of its site strictly in sequence order: on a gap the missing changes are read from the
+ * change log first, so the event id a client resumes from never skips a change.</p>
+ */
+@Service
+@Slf4j
+public class CatalogEventStream {
+
+    private static final int REPLAY_PAGE = 500;
+    private static final Object HEARTBEAT = new Object();
+    private static final Object RESET = new Object();
+
+    private final CatalogChangeLog catalogChangeLog;
+    private final int bufferSize;
+    private final int maxConnections;
+    private final int maxReplay;
+    private final Duration emitterTimeout;
+    private final Map<UUID, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("catalog-sse-heartbeat").daemon().factory());
+    private final Counter droppedConsumers;
+
+    /**
+     * Constructor.
+     *
+     * @param catalogChangeLog change log used to replay missed events
+     * @param meterRegistry registry for connection metrics
+     * @param bufferSize events buffered per connection before it is dropped
+     * @param maxConnections connections accepted by this replica
+     * @param maxReplay events replayed on resume before asking the client to resync
+     * @param heartbeatInterval interval between heartbeat comments
+     * @param emitterTimeout lifetime of one connection before the client has to reconnect
+     */
+    public CatalogEventStream(final CatalogChangeLog catalogChangeLog,
+                              final MeterRegistry meterRegistry,
+                              @Value("${catalog.events.buffer-size:256}") final int bufferSize,
+                              @Value("${catalog.events.max-connections:10000}") final int maxConnections,
+                              @Value("${catalog.events.max-replay:5000}") final int maxReplay,
+                              @Value("${catalog.events.heartbeat-interval:15s}") final Duration heartbeatInterval,
+                              @Value("${catalog.events.emitter-timeout:30m}") final Duration emitterTimeout) {
+        this.catalogChangeLog = catalogChangeLog;
+        this.bufferSize = bufferSize;
+        this.maxConnections = maxConnections;
+        this.maxReplay = maxReplay;
+        this.emitterTimeout = emitterTimeout;
+        meterRegistry.gauge("catalog.events.connections", connections);
+        this.droppedConsumers = meterRegistry.counter("catalog.events.dropped");
+        long interval = heartbeatInterval.toMillis();
+        heartbeats.scheduleAtFixedRate(this::heartbeat, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Open a stream of changes for a site.
+     *
+     * @param siteId the site to follow
+     * @param lastEventId sequence number of the last event the client saw, or {@code null} for live only
+     * @return the emitter bound to the response
+     */
+    public SseEmitter subscribe(final UUID siteId, final Long lastEventId) {
+        if (lastEventId != null && lastEventId < 0) {
+            throw new IllegalArgumentException("Invalid Last-Event-ID: " + lastEventId);
+        }
+        if (connections.incrementAndGet() > maxConnections) {
+            connections.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many event stream connections");
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeout.toMillis());
+        Subscriber subscriber;
+        try {
+            // Read before registering: a change committed meanwhile shows up as a gap and is replayed
+            subscriber = new Subscriber(siteId, emitter, lastEventId,
+                    lastEventId != null ? lastEventId : catalogChangeLog.lastSeq(siteId));
+        } catch (RuntimeException ex) {
+            connections.decrementAndGet();
+            throw ex;
+        }
+        emitter.onCompletion(subscriber::unregister);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(ex -> subscriber.close());
+        subscribers.computeIfAbsent(siteId, key -> ConcurrentHashMap.newKeySet()).add(subscriber);
+        senders.execute(subscriber::start);
+        return emitter;
+    }
+
+    /**
+     * Push a change to the site's subscribers once its transaction has committed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onChange(final CatalogChangeEvent event) {
+        Set<Subscriber> siteSubscribers = subscribers.get(event.siteId());
+        if (siteSubscribers != null) {
+            siteSubscribers.forEach(subscriber -> subscriber.offer(event));
+        }
+    }
+
+    /**
+     * Push a change committed on another replica; after a flush every subscriber is told to reload,
+     * since changes may have been missed.
+     */
+    @EventListener
+    public void onInvalidation(final CatalogInvalidationEvent event) {
+        if (event.isFlushAll()) {
+            subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.offer(RESET)));
+        } else {
+            onChange(event.change());
+        }
+    }
+
+    /**
+     * Number of open connections on this replica.
+     */
+    public int connectionCount() {
+        return connections.get();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(Subscriber::close));
+        senders.shutdown();
+    }
+
+    private void heartbeat() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.offer(HEARTBEAT)));
+    }
+
+    /**
+     * One connected client. Items are written by at most one drain task at a time.
+     */
+    private final class Subscriber {
+
+        private final UUID siteId;
+        private final SseEmitter emitter;
+        private final Long resumeAfter;
+        private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(bufferSize);
+        // Held by start() until the replay is done, so live events queue up behind it.
+        private final AtomicBoolean draining = new AtomicBoolean(true);
+        private final AtomicBoolean registered = new AtomicBoolean(true);
+        private volatile boolean closed;
+        private long lastSentSeq;
+
+        Subscriber(final UUID siteId, final SseEmitter emitter, final Long resumeAfter, final long lastSentSeq) {
+            this.siteId = siteId;
+            this.emitter = emitter;
+            this.resumeAfter = resumeAfter;
+            this.lastSentSeq = lastSentSeq;
+        }
+
+        void start() {
+            try {
+                if (resumeAfter != null) {
+                    replay(resumeAfter);
+                } else {
+                    emitter.send(SseEmitter.event().comment("connected"));
+                }
+            } catch (IOException | RuntimeException ex) {
+                log.debug("Event stream for site {} failed during replay: {}", siteId, ex.getMessage());
+                close();
+                return;
+            } finally {
+                draining.set(false);
+            }
+            scheduleDrain();
+        }
+
+        void offer(final Object item) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(item)) {
+                droppedConsumers.increment();
+                log.info("Dropping slow event stream consumer for site {}", siteId);
+                close();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            unregister();
+            try {
+                emitter.complete();
+            } catch (RuntimeException ex) {
+                log.debug("Event stream for site {} already closed: {}", siteId, ex.getMessage());
+            }
+        }
+
+        void unregister() {
+            if (registered.compareAndSet(true, false)) {
+                closed = true;
+                Set<Subscriber> siteSubscribers = subscribers.get(siteId);
+                if (siteSubscribers != null) {
+                    siteSubscribers.remove(this);
+                }
+                connections.decrementAndGet();
+            }
+        }
+
+        private void replay(final long afterSeq) throws IOException {
+            long after = afterSeq;
+            int replayed = 0;
+            while (true) {
+                List<CatalogChange> page = catalogChangeLog.readAfter(siteId, after, REPLAY_PAGE);
+                for (CatalogChange change : page) {
+                    emit(CatalogChangeEvent.of(change));
+                    after = change.getSeq();
+                }
+                replayed += page.size();
+                if (page.size() < REPLAY_PAGE) {
+                    return;
+                }
+                if (replayed >= maxReplay) {
+                    // Too far behind: the client should reload the catalog rather than replay history.
+                    reset("replay-limit");
+                    return;
+                }
+            }
+        }
+
+        private void scheduleDrain() {
+            if (!closed && !queue.isEmpty() && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        private void drain() {
+            try {
+                Object item;
+                while (!closed && (item = queue.poll()) != null) {
+                    send(item);
+                }
+            } catch (IOException | RuntimeException ex) {
+                log.debug("Event stream for site {} disconnected: {}", siteId, ex.getMessage());
+                close();
+            } finally {
+                draining.set(false);
+            }
+            scheduleDrain();
+        }
+
+        /**
+         * Tell the client to reload the catalog and continue live from the latest change.
+         */
+        private void reset(final String reason) throws IOException {
+            emitter.send(SseEmitter.event().name("reset").data(reason));
+            lastSentSeq = catalogChangeLog.lastSeq(siteId);
+        }
+
+        private void send(final Object item) throws IOException {
+            if (item instanceof CatalogChangeEvent event) {
+                if (event.seq() > lastSentSeq + 1) {
+                    // An earlier change was committed elsewhere or its listener ran late
+                    replay(lastSentSeq);
+                }
+                emit(event);
+            } else if (item == RESET) {
+                reset("invalidated");
+            } else {
+                emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+        }
+
+        private void emit(final CatalogChangeEvent event) throws IOException {
+            if (event.seq() <= lastSentSeq) {
+                return;
+            }
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(event.seq()))
+                    .name(event.entityType().name().toLowerCase(Locale.ROOT))
+                    .data(event));
+            lastSentSeq = event.seq();
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package com.shopifake.microservice.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shopifake.microservice.config.InvalidationProperties;
+import com.shopifake.microservice.entities.CatalogChange;
+import com.shopifake.microservice.entities.CatalogEntityType;
+import com.shopifake.microservice.entities.ChangeType;
+import com.shopifake.microservice.events.CatalogChangeEvent;
+import com.shopifake.microservice.events.CatalogInvalidationEvent;
+import com.shopifake.microservice.repositories.CatalogChangeRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Carries committed catalog changes to the other replicas so they can drop stale cache entries and
+ * stream the changes to their event subscribers ({@link CatalogEventStream}).
+ *
+ * <p>On PostgreSQL the changes of a transaction are sent with {@code pg_notify} just before it
+ * commits, so they are delivered exactly when it commits, and every replica listens on a dedicated
+ * connection outside the pool. Elsewhere (H2) the change log is polled. Either way each remote
+ * change is republished locally as a {@link CatalogInvalidationEvent}, in sequence order per site.</p>
+ *
+ * <p>Within a site changes carry consecutive sequence numbers in commit order
+ * ({@link CatalogChangeLog}), so a jump reveals missed changes: they are replayed from the change
+ * log, or every cache is flushed when there are too many. Every cache is also flushed whenever the
+ * listening connection is re-established, since notifications sent meanwhile are lost.</p>
+ */
+@Component
+@Slf4j
+public class CatalogInvalidationBus {
+
+    /**
+     * {@code pg_notify} payloads are limited to 8000 bytes.
+     */
+    private static final int MAX_PAYLOAD_BYTES = 7900;
+
+    private final InvalidationProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final CatalogChangeRepository changeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock = Clock.systemUTC();
+
+    /**
+     * Last sequence number received per site.
+     */
+    private final Cache<UUID, Long> lastSeqs;
+
+    /**
+     * Changes committed by this replica, whose caches were already evicted by the local event.
+     */
+    private final Cache<String, Boolean> localChanges;
+
+    private final Counter received;
+    private final Counter replayed;
+    private final Counter flushes;
+
+    private volatile InvalidationProperties.Mode mode = InvalidationProperties.Mode.OFF;
+    private volatile boolean running;
+    private volatile boolean listening;
+    private Thread listener;
+    private LocalDateTime pollWatermark;
+
+    /**
+     * Constructor.
+     *
+     * @param properties bus settings
+     * @param jdbcTemplate template sending the notifications in the writing transaction
+     * @param dataSourceProperties connection settings of the listening connection
+     * @param changeRepository change log, polled and read to replay missed changes
+     * @param eventPublisher publisher of the local invalidation events
+     * @param meterRegistry registry for bus metrics
+     */
+    public CatalogInvalidationBus(final InvalidationProperties properties,
+                                  final JdbcTemplate jdbcTemplate,
+                                  final DataSourceProperties dataSourceProperties,
+                                  final CatalogChangeRepository changeRepository,
+                                  final ApplicationEventPublisher eventPublisher,
+                                  final MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.changeRepository = changeRepository;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.lastSeqs = Caffeine.newBuilder().maximumSize(properties.getMaxSites()).build();
+        this.localChanges = Caffeine.newBuilder()
+                .expireAfterWrite(properties.getPollLookback().plus(properties.getPollInterval()).multipliedBy(2))
+                .build();
+        this.received = meterRegistry.counter("catalog.invalidation.received");
+        this.replayed = meterRegistry.counter("catalog.invalidation.replayed");
+        this.flushes = meterRegistry.counter("catalog.invalidation.flushes");
+        Gauge.builder("catalog.invalidation.listening", this, bus -> bus.listening ? 1 : 0)
+                .description("1 while the NOTIFY listening connection is up")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        mode = resolveMode();
+        running = true;
+        log.info("Catalog invalidation bus in {} mode", mode);
+        if (mode == InvalidationProperties.Mode.NOTIFY) {
+            listener = new Thread(this::listen, "catalog-invalidation-listener");
+            listener.setDaemon(true);
+            listener.start();
+        } else if (mode == InvalidationProperties.Mode.POLL) {
+            pollWatermark = LocalDateTime.now(clock).minus(properties.getPollLookback());
+        }
+    }
+
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+            listener.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /**
+     * Current mode, {@code AUTO} resolved.
+     */
+    InvalidationProperties.Mode mode() {
+        return mode;
+    }
+
+    /**
+     * Queue a change for notification when its transaction commits.
+     */
+    @EventListener
+    public void onChange(final CatalogChangeEvent event) {
+        if (mode != InvalidationProperties.Mode.NOTIFY || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        pending().add(encode(event));
+    }
+
+    /**
+     * Remember a change committed here, so it is not applied a second time when it comes back.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCommitted(final CatalogChangeEvent event) {
+        if (mode != InvalidationProperties.Mode.OFF) {
+            localChanges.put(key(event.siteId(), event.seq()), Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Read the changes logged since the last poll, in polling mode.
+     */
+    @Scheduled(fixedDelayString = "${catalog.invalidation.poll-interval:2s}",
+            initialDelayString = "${catalog.invalidation.poll-interval:2s}")
+    public synchronized void poll() {
+        if (mode != InvalidationProperties.Mode.POLL || !running) {
+            return;
+        }
+        List<CatalogChange> changes = new ArrayList<>(changeRepository.findByChangedAtGreaterThanOrderByChangedAtAsc(
+                pollWatermark, Limit.of(properties.getPollBatchSize())));
+        if (changes.isEmpty()) {
+            return;
+        }
+        LocalDateTime newest = changes.get(changes.size() - 1).getChangedAt();
+        changes.sort(Comparator.comparing(CatalogChange::getSiteId).thenComparingLong(CatalogChange::getSeq));
+        changes.forEach(change -> receive(CatalogChangeEvent.of(change)));
+        // Read the recent past again next time, for changes committed late; a full batch moves on so
+        // that it is not read forever, missed changes of a site are replayed on its next change.
+        LocalDateTime next = changes.size() >= properties.getPollBatchSize()
+                ? newest
+                : newest.minus(properties.getPollLookback());
+        if (next.isAfter(pollWatermark)) {
+            pollWatermark = next;
+        }
+    }
+
+    /**
+     * Apply a change received from the bus, replaying the changes of its site it skipped.
+     */
+    synchronized void receive(final CatalogChangeEvent change) {
+        Long last = lastSeqs.getIfPresent(change.siteId());
+        if (last != null && change.seq() <= last) {
+            return;
+        }
+        if (last != null && change.seq() > last + 1) {
+            replay(change.siteId(), last, change.seq());
+        }
+        lastSeqs.put(change.siteId(), change.seq());
+        if (localChanges.getIfPresent(key(change.siteId(), change.seq())) == null) {
+            received.increment();
+            eventPublisher.publishEvent(CatalogInvalidationEvent.of(change));
+        }
+    }
+
+    private void replay(final UUID siteId, final long after, final long before) {
+        List<CatalogChange> missed = changeRepository.findBySiteIdAndSeqGreaterThanOrderBySeqAsc(
+                siteId, after, Limit.of(properties.getMaxReplay()));
+        boolean complete = missed.stream().anyMatch(change -> change.getSeq() >= before - 1);
+        if (!complete) {
+            log.warn("Missed changes {}..{} of site {} exceed the replay limit; flushing caches", after + 1, before - 1,
+                    siteId);
+            flushAll();
+            return;
+        }
+        for (CatalogChange change : missed) {
+            if (change.getSeq() >= before) {
+                break;
+            }
+            replayed.increment();
+            if (localChanges.getIfPresent(key(siteId, change.getSeq())) == null) {
+                eventPublisher.publishEvent(CatalogInvalidationEvent.of(CatalogChangeEvent.of(change)));
+            }
+        }
+    }
+
+    private synchronized void flushAll() {
+        flushes.increment();
+        lastSeqs.invalidateAll();
+        eventPublisher.publishEvent(CatalogInvalidationEvent.flushAll());
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(dataSourceProperties.determineUrl(),
+                    dataSourceProperties.determineUsername(), dataSourceProperties.determinePassword())) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + properties.getChannel());
+                }
+                listening = true;
+                if (reconnect) {
+                    log.info("Catalog invalidation listener reconnected; flushing caches");
+                    flushAll();
+                }
+                int timeout = (int) properties.getListenTimeout().toMillis();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(timeout);
+                    if (notifications == null || notifications.length == 0) {
+                        try (Statement statement = connection.createStatement()) {
+                            statement.execute("SELECT 1");
+                        }
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        decode(notification.getParameter()).forEach(this::receive);
+                    }
+                }
+            } catch (SQLException | RuntimeException ex) {
+                if (running) {
+                    log.warn("Catalog invalidation listener failed: {}", ex.getMessage());
+                }
+            } finally {
+                listening = false;
+            }
+            reconnect = true;
+            sleep(properties.getReconnectDelay());
+        }
+    }
+
+    private List<String> pending() {
+        @SuppressWarnings("unchecked")
+        List<String> pending = (List<String>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            List<String> changes = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, changes);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(final boolean readOnly) {
+                    publish(changes);
+                }
+
+                @Override
+                public void afterCompletion(final int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CatalogInvalidationBus.this);
+                }
+            });
+            pending = changes;
+        }
+        return pending;
+    }
+
+    /**
+     * Send the encoded changes in as few notifications as the payload limit allows; they are only
+     * delivered if the transaction commits.
+     */
+    private void publish(final List<String> changes) {
+        StringBuilder payload = new StringBuilder();
+        for (String change : changes) {
+            if (!payload.isEmpty() && payload.length() + 1 + change.length() > MAX_PAYLOAD_BYTES) {
+                send(payload.toString());
+                payload.setLength(0);
+            }
+            if (!payload.isEmpty()) {
+                payload.append('\n');
+            }
+            payload.append(change);
+        }
+        if (!payload.isEmpty()) {
+            send(payload.toString());
+        }
+        changes.clear();
+    }
+
+    private void send(final String payload) {
+        jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", properties.getChannel(), payload);
+        meterRegistry.counter("catalog.invalidation.notifications").increment();
+    }
+
+    /**
+     * One change per line: {@code siteId seq entityType entityId changeType changedAt}. Payloads
+     * are ASCII, so their length is their size in bytes.
+     */
+    static String encode(final CatalogChangeEvent event) {
+        return event.siteId() + " " + event.seq() + " " + event.entityType() + " " + event.entityId() + " "
+                + event.changeType() + " " + event.changedAt();
+    }
+
+    static List<CatalogChangeEvent> decode(final String payload) {
+        List<CatalogChangeEvent> changes = new ArrayList<>();
+        for (String line : payload.split("\n")) {
+            String[] fields = line.split(" ");
+            if (fields.length != 6) {
+                log.warn("Ignoring malformed invalidation message {}", line);
+                continue;
+            }
+            changes.add(new CatalogChangeEvent(UUID.fromString(fields[0]), Long.parseLong(fields[1]),
+                    CatalogEntityType.valueOf(fields[2]), UUID.fromString(fields[3]), ChangeType.valueOf(fields[4]),
+                    LocalDateTime.parse(fields[5])));
+        }
+        return changes;
+    }
+
+    private InvalidationProperties.Mode resolveMode() {
+        if (properties.getMode() != InvalidationProperties.Mode.AUTO) {
+            return properties.getMode();
+        }
+        Boolean postgres = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+        return Boolean.TRUE.equals(postgres) ? InvalidationProperties.Mode.NOTIFY : InvalidationProperties.Mode.POLL;
+    }
+
+    private static String key(final UUID siteId, final long seq) {
+        return siteId + ":" + seq;
+    }
+
+    private void sleep(final Duration delay) {
+        try {
+            Thread.sleep(delay.toMillis());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
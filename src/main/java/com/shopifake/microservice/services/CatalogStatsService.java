@@ -0,0 +1,151 @@
+package com.shopifake.microservice.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shopifake.microservice.dtos.CatalogStatsResponse;
+import com.shopifake.microservice.entities.ProductStatus;
+import com.shopifake.microservice.events.CatalogChangeEvent;
+import com.shopifake.microservice.events.CatalogInvalidationEvent;
+import com.shopifake.microservice.repositories.CategoryRepository;
+import com.shopifake.microservice.repositories.FilterRepository;
+import com.shopifake.microservice.repositories.ProductRepository;
+import com.shopifake.microservice.repositories.StatusCount;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-site catalog statistics computed with aggregate queries.
+ *
+ * <p>Results are cached for a short time and evicted as soon as a change to the site commits.
+ * A result computed while a change was committing is returned but not cached, so the cache never
+ * holds a snapshot older than the last invalidation.</p>
+ */
+@Service
+public class CatalogStatsService {
+
+    private static final int UPCOMING_LIMIT = 10;
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final FilterRepository filterRepository;
+    private final Cache<UUID, CatalogStatsResponse> cache;
+    private final Cache<UUID, Long> invalidatedAt;
+    private volatile long flushedAt = System.nanoTime();
+    private final Clock clock = Clock.systemUTC();
+
+    /**
+     * Constructor.
+     *
+     * @param productRepository product repository
+     * @param categoryRepository category repository
+     * @param filterRepository filter repository
+     * @param ttl how long computed statistics are reused
+     * @param maxSites number of sites kept in the cache
+     */
+    public CatalogStatsService(final ProductRepository productRepository,
+                               final CategoryRepository categoryRepository,
+                               final FilterRepository filterRepository,
+                               @Value("${catalog.stats.cache-ttl:30s}") final Duration ttl,
+                               @Value("${catalog.stats.cache-max-sites:10000}") final long maxSites) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.filterRepository = filterRepository;
+        this.cache = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maxSites).build();
+        this.invalidatedAt = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maxSites).build();
+    }
+
+    /**
+     * Statistics of a site, from cache when fresh.
+     */
+    @Transactional(readOnly = true)
+    public CatalogStatsResponse getStats(final UUID siteId) {
+        CatalogStatsResponse cached = cache.getIfPresent(siteId);
+        if (cached != null) {
+            return cached;
+        }
+        long started = System.nanoTime();
+        CatalogStatsResponse stats = compute(siteId);
+        Long invalidated = invalidatedAt.getIfPresent(siteId);
+        if ((invalidated == null || invalidated - started < 0) && flushedAt - started < 0) {
+            cache.put(siteId, stats);
+        }
+        return stats;
+    }
+
+    /**
+     * Evict a site's statistics once one of its changes has committed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onChange(final CatalogChangeEvent event) {
+        invalidatedAt.put(event.siteId(), System.nanoTime());
+        cache.invalidate(event.siteId());
+    }
+
+    /**
+     * Evict a site's statistics after a change on another replica, or every site's.
+     */
+    @EventListener
+    public void onInvalidation(final CatalogInvalidationEvent event) {
+        if (event.isFlushAll()) {
+            flushedAt = System.nanoTime();
+            cache.invalidateAll();
+        } else {
+            onChange(event.change());
+        }
+    }
+
+    private CatalogStatsResponse compute(final UUID siteId) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Map<ProductStatus, Long> byStatus = new EnumMap<>(ProductStatus.class);
+        for (ProductStatus status : ProductStatus.values()) {
+            byStatus.put(status, 0L);
+        }
+        long total = 0;
+        for (StatusCount count : productRepository.countBySiteIdGroupByStatus(siteId)) {
+            byStatus.put(count.getStatus(), count.getCount());
+            total += count.getCount();
+        }
+        return CatalogStatsResponse.builder()
+                .siteId(siteId)
+                .totalProducts(total)
+                .productsByStatus(byStatus)
+                .categories(categoryRepository.countProductsBySiteId(siteId).stream()
+                        .map(row -> CatalogStatsResponse.CategoryCount.builder()
+                                .categoryId(row.getCategoryId())
+                                .name(row.getName())
+                                .productCount(row.getProductCount())
+                                .build())
+                        .toList())
+                .filters(filterRepository.countUsageBySiteId(siteId).stream()
+                        .map(row -> CatalogStatsResponse.FilterCount.builder()
+                                .filterId(row.getFilterId())
+                                .key(row.getKey())
+                                .categoryId(row.getCategoryId())
+                                .productCount(row.getProductCount())
+                                .build())
+                        .toList())
+                .upcomingPublishCount(productRepository.countScheduledAfter(siteId, now))
+                .upcomingPublishes(productRepository.findScheduledAfter(siteId, now, Limit.of(UPCOMING_LIMIT))
+                        .stream()
+                        .map(row -> CatalogStatsResponse.UpcomingPublish.builder()
+                                .productId(row.getId())
+                                .name(row.getName())
+                                .scheduledPublishAt(row.getScheduledPublishAt())
+                                .build())
+                        .toList())
+                .computedAt(now)
+                .build();
+    }
+}
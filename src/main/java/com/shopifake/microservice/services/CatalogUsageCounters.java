@@ -0,0 +1,177 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.entities.CatalogEntityType;
+import com.shopifake.microservice.entities.CatalogUsageCounter;
+import com.shopifake.microservice.repositories.CatalogUsageCounterRepository;
+import com.shopifake.microservice.repositories.UsageCount;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Materialized number of products using each category and filter.
+ *
+ * <p>Deltas are accumulated in memory for the current transaction and written just before it
+ * commits, in entity id order, so each counter row is locked once, briefly, and in a consistent
+ * order across writers. Writers on different threads use different slots of the same counter.
+ * {@link UsageCounterReconciler} repairs any drift against the real product links.</p>
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogUsageCounters {
+
+    private final CatalogUsageCounterRepository counterRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Create the zeroed counter of a new category or filter. Slots that already exist are kept.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void initialize(final CatalogEntityType entityType, final UUID siteId, final UUID entityId) {
+        List<CatalogUsageCounter.Key> keys = new ArrayList<>(CatalogUsageCounter.SLOTS);
+        for (int slot = 0; slot < CatalogUsageCounter.SLOTS; slot++) {
+            keys.add(new CatalogUsageCounter.Key(entityId, slot));
+        }
+        Set<Integer> existing = new HashSet<>();
+        counterRepository.findAllById(keys).forEach(counter -> existing.add(counter.getSlot()));
+        List<CatalogUsageCounter> missing = new ArrayList<>(CatalogUsageCounter.SLOTS);
+        for (int slot = 0; slot < CatalogUsageCounter.SLOTS; slot++) {
+            if (!existing.contains(slot)) {
+                missing.add(CatalogUsageCounter.builder()
+                        .entityId(entityId)
+                        .slot(slot)
+                        .entityType(entityType)
+                        .siteId(siteId)
+                        .productCount(0)
+                        .build());
+            }
+        }
+        counterRepository.saveAllAndFlush(missing);
+    }
+
+    /**
+     * Add {@code delta} to a counter when the current transaction commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void adjust(final CatalogEntityType entityType, final UUID siteId, final UUID entityId, final long delta) {
+        if (delta != 0) {
+            pending().merge(entityId, new Delta(entityType, siteId, delta), Delta::plus);
+        }
+    }
+
+    /**
+     * Add {@code sign} times each counted usage when the current transaction commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void adjust(final CatalogEntityType entityType,
+                       final UUID siteId,
+                       final Collection<? extends UsageCount> usage,
+                       final int sign) {
+        usage.forEach(count -> adjust(entityType, siteId, count.getEntityId(), sign * count.getProductCount()));
+    }
+
+    /**
+     * Number of products using a category or filter.
+     */
+    @Transactional(readOnly = true)
+    public long count(final UUID entityId) {
+        return counterRepository.sumByEntityId(entityId);
+    }
+
+    /**
+     * Counts of every category or filter of a site, or of all sites when {@code siteId} is {@code null}.
+     */
+    @Transactional(readOnly = true)
+    public Map<UUID, Long> counts(final UUID siteId, final CatalogEntityType entityType) {
+        List<UsageCount> sums = siteId == null
+                ? counterRepository.sumByEntityType(entityType)
+                : counterRepository.sumBySiteIdAndEntityType(siteId, entityType);
+        Map<UUID, Long> counts = new HashMap<>(sums.size() * 2);
+        sums.forEach(sum -> counts.put(sum.getEntityId(), sum.getProductCount()));
+        return counts;
+    }
+
+    /**
+     * Drop the counters of deleted entities.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void remove(final Collection<UUID> entityIds) {
+        if (!entityIds.isEmpty()) {
+            counterRepository.deleteByEntityIds(entityIds);
+        }
+    }
+
+    private Map<UUID, Delta> pending() {
+        @SuppressWarnings("unchecked")
+        Map<UUID, Delta> pending = (Map<UUID, Delta>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Map<UUID, Delta> deltas = new TreeMap<>();
+            TransactionSynchronizationManager.bindResource(this, deltas);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(final boolean readOnly) {
+                    apply(deltas);
+                }
+
+                @Override
+                public void afterCompletion(final int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CatalogUsageCounters.this);
+                }
+            });
+            pending = deltas;
+        }
+        return pending;
+    }
+
+    private void apply(final Map<UUID, Delta> deltas) {
+        int slot = (int) Math.floorMod(Thread.currentThread().threadId(), (long) CatalogUsageCounter.SLOTS);
+        deltas.forEach((entityId, delta) -> {
+            if (delta.amount() == 0) {
+                return;
+            }
+            if (counterRepository.increment(entityId, slot, delta.amount()) == 0) {
+                // Counter missing (entity created before counters existed): create it and let the
+                // reconciler fix its absolute value.
+                createCounter(delta.entityType(), delta.siteId(), entityId);
+                counterRepository.increment(entityId, slot, delta.amount());
+            }
+        });
+        deltas.clear();
+    }
+
+    private void createCounter(final CatalogEntityType entityType, final UUID siteId, final UUID entityId) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            template.executeWithoutResult(status -> initialize(entityType, siteId, entityId));
+        } catch (DataIntegrityViolationException ex) {
+            log.debug("Usage counter for {} {} created concurrently", entityType, entityId);
+        }
+    }
+
+    private record Delta(CatalogEntityType entityType, UUID siteId, long amount) {
+
+        Delta plus(final Delta other) {
+            return new Delta(entityType, siteId, amount + other.amount);
+        }
+    }
+}
@@ -2,7 +2,9 @@ package com.shopifake.microservice.services;
 
 import com.shopifake.microservice.dtos.CategoryResponse;
 import com.shopifake.microservice.dtos.CreateCategoryRequest;
+import com.shopifake.microservice.entities.CatalogEntityType;
 import com.shopifake.microservice.entities.Category;
+import com.shopifake.microservice.entities.ChangeType;
 import com.shopifake.microservice.repositories.CategoryRepository;
 import com.shopifake.microservice.repositories.ProductRepository;
 import lombok.RequiredArgsConstructor;
@@ -11,6 +13,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -24,6 +27,8 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final ProductRepository productRepository;
+    private final CatalogChangeLog catalogChangeLog;
+    private final CatalogUsageCounters usageCounters;
 
     /**
      * Create a category for a site.
@@ -39,19 +44,23 @@ public class CategoryService {
                 .name(request.getName().trim())
                 .build();
 
-        return mapToResponse(categoryRepository.save(category));
+        Category saved = categoryRepository.save(category);
+        usageCounters.initialize(CatalogEntityType.CATEGORY, saved.getSiteId(), saved.getId());
+        catalogChangeLog.record(saved.getSiteId(), CatalogEntityType.CATEGORY, ChangeType.CREATED, saved.getId());
+        return mapToResponse(saved, null);
     }
 
     /**
-     * Retrieve categories optionally filtered by site.
+     * Retrieve categories optionally filtered by site, with their product counts.
      */
     @Transactional(readOnly = true)
     public List<CategoryResponse> getCategories(final UUID siteId) {
         List<Category> categories = siteId == null
                 ? categoryRepository.findAll()
                 : categoryRepository.findBySiteId(siteId);
+        Map<UUID, Long> counts = usageCounters.counts(siteId, CatalogEntityType.CATEGORY);
         return categories.stream()
-                .map(this::mapToResponse)
+                .map(category -> mapToResponse(category, counts.getOrDefault(category.getId(), 0L)))
                 .toList();
     }
 
@@ -62,18 +71,23 @@ public class CategoryService {
     public void deleteCategory(final UUID categoryId) {
         Category category = categoryRepository.findById(categoryId)
                 .orElseThrow(() -> new IllegalArgumentException("Category not found: " + categoryId));
-        if (productRepository.existsByCategories_Id(categoryId)) {
+        // The counter answers the common case without touching product_categories; a zero count is
+        // confirmed against the links because removing the category cascades to them.
+        if (usageCounters.count(categoryId) > 0 || productRepository.existsByCategories_Id(categoryId)) {
             throw new IllegalStateException("Category is linked to products and cannot be deleted");
         }
         categoryRepository.delete(category);
+        usageCounters.remove(List.of(categoryId));
+        catalogChangeLog.record(category.getSiteId(), CatalogEntityType.CATEGORY, ChangeType.DELETED, categoryId);
     }
 
-    private CategoryResponse mapToResponse(final Category category) {
+    private CategoryResponse mapToResponse(final Category category, final Long productCount) {
         return CategoryResponse.builder()
                 .id(category.getId())
                 .siteId(category.getSiteId())
                 .name(category.getName())
                 .createdAt(category.getCreatedAt())
+                .productCount(productCount)
                 .build();
     }
 }
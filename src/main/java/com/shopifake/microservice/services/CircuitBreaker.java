@@ -0,0 +1,119 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.config.RecommenderProperties;
+
+/**
+ * Count-based circuit breaker.
+ *
+ * <p>While closed it tracks the outcome of the last {@code windowSize} calls and opens once at
+ * least {@code minimumCalls} were made and the failure rate reaches the threshold. After
+ * {@code openDuration} it lets {@code halfOpenProbes} calls through: all of them succeeding
+ * closes it again, any failure reopens it.</p>
+ */
+final class CircuitBreaker {
+
+    /**
+     * Breaker states, in the order exported by the state gauge.
+     */
+    enum State {
+        CLOSED,
+        OPEN,
+        HALF_OPEN
+    }
+
+    private final int minimumCalls;
+    private final int failureRateThreshold;
+    private final long openNanos;
+    private final int halfOpenProbes;
+    private final boolean[] window;
+
+    private State state = State.CLOSED;
+    private int next;
+    private int calls;
+    private int failures;
+    private long openedAt;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    CircuitBreaker(final RecommenderProperties.CircuitBreaker settings) {
+        this.minimumCalls = settings.getMinimumCalls();
+        this.failureRateThreshold = settings.getFailureRateThreshold();
+        this.openNanos = settings.getOpenDuration().toNanos();
+        this.halfOpenProbes = Math.max(1, settings.getHalfOpenProbes());
+        this.window = new boolean[Math.max(1, settings.getWindowSize())];
+    }
+
+    /**
+     * Whether a call may be made at {@code now}.
+     */
+    synchronized boolean tryAcquire(final long now) {
+        if (state == State.OPEN) {
+            if (now - openedAt < openNanos) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            probesStarted = 0;
+            probesSucceeded = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (probesStarted >= halfOpenProbes) {
+                return false;
+            }
+            probesStarted++;
+        }
+        return true;
+    }
+
+    synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            if (++probesSucceeded >= halfOpenProbes) {
+                state = State.CLOSED;
+                resetWindow();
+            }
+            return;
+        }
+        record(false);
+    }
+
+    synchronized void onFailure(final long now) {
+        if (state == State.HALF_OPEN) {
+            open(now);
+            return;
+        }
+        record(true);
+        if (state == State.CLOSED && calls >= minimumCalls && failures * 100 >= failureRateThreshold * calls) {
+            open(now);
+        }
+    }
+
+    synchronized State state() {
+        return state;
+    }
+
+    private void record(final boolean failed) {
+        if (calls == window.length) {
+            if (window[next]) {
+                failures--;
+            }
+        } else {
+            calls++;
+        }
+        window[next] = failed;
+        if (failed) {
+            failures++;
+        }
+        next = (next + 1) % window.length;
+    }
+
+    private void open(final long now) {
+        state = State.OPEN;
+        openedAt = now;
+        resetWindow();
+    }
+
+    private void resetWindow() {
+        next = 0;
+        calls = 0;
+        failures = 0;
+    }
+}
@@ -0,0 +1,59 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.entities.CacheRegions;
+import com.shopifake.microservice.entities.CatalogEntityType;
+import com.shopifake.microservice.entities.Category;
+import com.shopifake.microservice.entities.ChangeType;
+import com.shopifake.microservice.entities.Filter;
+import com.shopifake.microservice.events.CatalogChangeEvent;
+import com.shopifake.microservice.events.CatalogInvalidationEvent;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts second-level cache entries that Hibernate cannot see go stale.
+ *
+ * <p>Deleting a category removes its filters through {@code ON DELETE CASCADE} in the database,
+ * which bypasses Hibernate, so the cached filters are dropped once the delete has committed.
+ * Categories and filters written by another replica are evicted with the cached site queries,
+ * whose timestamps only track local writes.</p>
+ */
+@Component
+@RequiredArgsConstructor
+class EntityCacheEvictor {
+
+    private static final String FILTER_VALUES = Filter.class.getName() + ".values";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onChange(final CatalogChangeEvent event) {
+        if (event.entityType() == CatalogEntityType.CATEGORY && event.changeType() == ChangeType.DELETED) {
+            entityManagerFactory.getCache().evict(Filter.class);
+        }
+    }
+
+    @EventListener
+    public void onInvalidation(final CatalogInvalidationEvent event) {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        if (event.isFlushAll()) {
+            cache.evictAllRegions();
+            return;
+        }
+        CatalogChangeEvent change = event.change();
+        if (change.entityType() == CatalogEntityType.CATEGORY) {
+            cache.evictEntityData(Category.class, change.entityId());
+            cache.evictQueryRegion(CacheRegions.SITE_QUERIES);
+            onChange(change);
+        } else if (change.entityType() == CatalogEntityType.FILTER) {
+            cache.evictEntityData(Filter.class, change.entityId());
+            cache.evictCollectionData(FILTER_VALUES, change.entityId());
+            cache.evictQueryRegion(CacheRegions.SITE_QUERIES);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.dtos.ProductFilterAssignmentRequest;
+import com.shopifake.microservice.entities.Filter;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.Set;
+
+/**
+ * Validation of filter assignment payloads, compiled once per {@link Filter} definition.
+ *
+ * <p>The filter type is resolved when compiling, allowed values are held in a hash set and the
+ * bounds in fields, so validating a correct assignment neither dispatches on the type nor builds
+ * any string. Messages are only formatted when an assignment is rejected.</p>
+ */
+abstract sealed class FilterAssignmentValidator {
+
+    private final String key;
+
+    private FilterAssignmentValidator(final Filter filter) {
+        this.key = filter.getKey();
+    }
+
+    /**
+     * Build the validator of a filter definition.
+     */
+    static FilterAssignmentValidator compile(final Filter filter) {
+        return switch (filter.getType()) {
+            case CATEGORICAL -> new Categorical(filter);
+            case QUANTITATIVE -> new Quantitative(filter);
+            case DATETIME -> new DateTime(filter);
+        };
+    }
+
+    /**
+     * @throws IllegalArgumentException when the payload does not fit the filter
+     */
+    abstract void validate(ProductFilterAssignmentRequest request);
+
+    final void reject(final String reason) {
+        throw new IllegalArgumentException(reason + " for filter " + key);
+    }
+
+    final void ensureNull(final Object value, final String fieldName) {
+        if (value != null) {
+            reject(fieldName + " is not supported");
+        }
+    }
+
+    private static final class Categorical extends FilterAssignmentValidator {
+
+        /**
+         * Allowed values, {@code null} when any value is accepted.
+         */
+        private final Set<String> allowedValues;
+
+        Categorical(final Filter filter) {
+            super(filter);
+            this.allowedValues = filter.getValues() == null || filter.getValues().isEmpty()
+                    ? null
+                    : Set.copyOf(filter.getValues());
+        }
+
+        @Override
+        void validate(final ProductFilterAssignmentRequest request) {
+            if (!StringUtils.hasText(request.getTextValue())) {
+                reject("textValue is required");
+            }
+            if (allowedValues != null && !allowedValues.contains(request.getTextValue())) {
+                reject("textValue must match one of the allowed values");
+            }
+            ensureNull(request.getNumericValue(), "numericValue");
+            ensureNull(request.getMinValue(), "minValue");
+            ensureNull(request.getMaxValue(), "maxValue");
+            ensureNull(request.getStartAt(), "startAt");
+            ensureNull(request.getEndAt(), "endAt");
+        }
+    }
+
+    private static final class Quantitative extends FilterAssignmentValidator {
+
+        private final BigDecimal lowerBound;
+
+        private final BigDecimal upperBound;
+
+        Quantitative(final Filter filter) {
+            super(filter);
+            this.lowerBound = filter.getMinValue();
+            this.upperBound = filter.getMaxValue();
+        }
+
+        @Override
+        void validate(final ProductFilterAssignmentRequest request) {
+            BigDecimal numericValue = request.getNumericValue();
+            BigDecimal minValue = request.getMinValue();
+            BigDecimal maxValue = request.getMaxValue();
+            if (StringUtils.hasText(request.getTextValue())) {
+                reject("textValue is not allowed");
+            }
+            if (numericValue == null && (minValue == null || maxValue == null)) {
+                reject("Provide numericValue or min/max range");
+            }
+            if (minValue != null && maxValue != null && maxValue.compareTo(minValue) < 0) {
+                throw new IllegalArgumentException("maxValue must be greater than or equal to minValue");
+            }
+            if (lowerBound != null) {
+                if (numericValue != null && numericValue.compareTo(lowerBound) < 0) {
+                    reject("numericValue must be >= " + lowerBound);
+                }
+                if (minValue != null && minValue.compareTo(lowerBound) < 0) {
+                    reject("minValue must be >= " + lowerBound);
+                }
+            }
+            if (upperBound != null) {
+                if (numericValue != null && numericValue.compareTo(upperBound) > 0) {
+                    reject("numericValue must be <= " + upperBound);
+                }
+                if (maxValue != null && maxValue.compareTo(upperBound) > 0) {
+                    reject("maxValue must be <= " + upperBound);
+                }
+            }
+            ensureNull(request.getStartAt(), "startAt");
+            ensureNull(request.getEndAt(), "endAt");
+        }
+    }
+
+    private static final class DateTime extends FilterAssignmentValidator {
+
+        DateTime(final Filter filter) {
+            super(filter);
+        }
+
+        @Override
+        void validate(final ProductFilterAssignmentRequest request) {
+            if (request.getStartAt() == null) {
+                reject("startAt is required");
+            }
+            if (request.getEndAt() != null && request.getEndAt().isBefore(request.getStartAt())) {
+                reject("endAt must be after startAt");
+            }
+            ensureNull(request.getTextValue(), "textValue");
+            ensureNull(request.getNumericValue(), "numericValue");
+            ensureNull(request.getMinValue(), "minValue");
+            ensureNull(request.getMaxValue(), "maxValue");
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.shopifake.microservice.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shopifake.microservice.entities.CatalogEntityType;
+import com.shopifake.microservice.entities.ChangeType;
+import com.shopifake.microservice.entities.Filter;
+import com.shopifake.microservice.events.CatalogChangeEvent;
+import com.shopifake.microservice.events.CatalogInvalidationEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.UUID;
+
+/**
+ * Compiled {@link FilterAssignmentValidator}s by filter id.
+ *
+ * <p>Filter definitions are not edited in place, so a validator stays valid until its filter is
+ * deleted, directly or with its category; both evict it once the delete has committed.</p>
+ */
+@Component
+class FilterAssignmentValidators {
+
+    private final Cache<UUID, FilterAssignmentValidator> validators;
+
+    FilterAssignmentValidators(@Value("${catalog.filter-validators.max-size:10000}") final long maxSize) {
+        this.validators = Caffeine.newBuilder().maximumSize(maxSize).build();
+    }
+
+    /**
+     * Validator of a filter definition, compiled on first use.
+     */
+    FilterAssignmentValidator forFilter(final Filter filter) {
+        return validators.get(filter.getId(), id -> FilterAssignmentValidator.compile(filter));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onChange(final CatalogChangeEvent event) {
+        if (event.entityType() == CatalogEntityType.FILTER) {
+            validators.invalidate(event.entityId());
+        } else if (event.entityType() == CatalogEntityType.CATEGORY && event.changeType() == ChangeType.DELETED) {
+            validators.invalidateAll();
+        }
+    }
+
+    @EventListener
+    public void onInvalidation(final CatalogInvalidationEvent event) {
+        if (event.isFlushAll()) {
+            validators.invalidateAll();
+        } else {
+            onChange(event.change());
+        }
+    }
+}
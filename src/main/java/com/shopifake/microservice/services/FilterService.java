@@ -2,7 +2,9 @@ package com.shopifake.microservice.services;
 
 import com.shopifake.microservice.dtos.CreateFilterRequest;
 import com.shopifake.microservice.dtos.FilterResponse;
+import com.shopifake.microservice.entities.CatalogEntityType;
 import com.shopifake.microservice.entities.Category;
+import com.shopifake.microservice.entities.ChangeType;
 import com.shopifake.microservice.entities.Filter;
 import com.shopifake.microservice.entities.FilterType;
 import com.shopifake.microservice.repositories.CategoryRepository;
@@ -17,6 +19,7 @@ import org.springframework.util.StringUtils;
 import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 /**
@@ -30,6 +33,8 @@ public class FilterService {
     private final FilterRepository filterRepository;
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final CatalogChangeLog catalogChangeLog;
+    private final CatalogUsageCounters usageCounters;
 
     /**
      * Create a filter for a site.
@@ -62,19 +67,23 @@ public class FilterService {
                 .maxValue(request.getMaxValue())
                 .build();
 
-        return mapToResponse(filterRepository.save(filter));
+        Filter saved = filterRepository.save(filter);
+        usageCounters.initialize(CatalogEntityType.FILTER, saved.getSiteId(), saved.getId());
+        catalogChangeLog.record(saved.getSiteId(), CatalogEntityType.FILTER, ChangeType.CREATED, saved.getId());
+        return mapToResponse(saved, null);
     }
 
     /**
-     * Retrieve filters optionally filtered by site.
+     * Retrieve filters optionally filtered by site, with their product counts.
      */
     @Transactional(readOnly = true)
     public List<FilterResponse> getFilters(final UUID siteId) {
         List<Filter> filters = siteId == null
                 ? filterRepository.findAll()
                 : filterRepository.findBySiteId(siteId);
+        Map<UUID, Long> counts = usageCounters.counts(siteId, CatalogEntityType.FILTER);
         return filters.stream()
-                .map(this::mapToResponse)
+                .map(filter -> mapToResponse(filter, counts.getOrDefault(filter.getId(), 0L)))
                 .toList();
     }
 
@@ -85,10 +94,13 @@ public class FilterService {
     public void deleteFilter(final UUID filterId) {
         Filter filter = filterRepository.findById(filterId)
                 .orElseThrow(() -> new IllegalArgumentException("Filter not found: " + filterId));
-        if (productRepository.existsByFilters_Filter_Id(filterId)) {
+        // A zero count is confirmed against the assignments because removing the filter cascades to them.
+        if (usageCounters.count(filterId) > 0 || productRepository.existsByFilters_Filter_Id(filterId)) {
             throw new IllegalStateException("Filter is linked to products and cannot be deleted");
         }
         filterRepository.delete(filter);
+        usageCounters.remove(List.of(filterId));
+        catalogChangeLog.record(filter.getSiteId(), CatalogEntityType.FILTER, ChangeType.DELETED, filterId);
     }
 
     private void validateFilterRequest(final CreateFilterRequest request) {
@@ -136,7 +148,7 @@ public class FilterService {
         }
     }
 
-    private FilterResponse mapToResponse(final Filter filter) {
+    private FilterResponse mapToResponse(final Filter filter, final Long productCount) {
         return FilterResponse.builder()
                 .id(filter.getId())
                 .siteId(filter.getSiteId())
@@ -150,6 +162,7 @@ public class FilterService {
                 .minValue(filter.getMinValue())
                 .maxValue(filter.getMaxValue())
                 .createdAt(filter.getCreatedAt())
+                .productCount(productCount)
                 .build();
     }
 }
@@ -0,0 +1,250 @@
+package com.shopifake.microservice.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shopifake.microservice.config.HotProductProperties;
+import com.shopifake.microservice.dtos.HotProductResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.ToLongFunction;
+
+/**
+ * Finds the most read products of each site.
+ *
+ * <p>Every hit increments a Count-Min sketch shared by all sites, which estimates the hits of any
+ * product in constant memory and never underestimates. Each site keeps the {@code top-k} products
+ * with the highest estimates; a product only takes the site's lock when its estimate beats the
+ * smallest one kept, so hits on cold products cost a few atomic increments. Every
+ * {@code decay-interval} all counts are halved, so the ranking follows recent traffic.</p>
+ */
+@Component
+public class HotProductTracker {
+
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final HotProductProperties properties;
+    private final int depth;
+    private final int widthMask;
+    private final AtomicLongArray sketch;
+    private final Cache<UUID, SiteTopK> sites;
+    private final Counter hits;
+
+    /**
+     * Constructor.
+     *
+     * @param properties tracker settings
+     * @param meterRegistry registry for tracker metrics
+     */
+    public HotProductTracker(final HotProductProperties properties, final MeterRegistry meterRegistry) {
+        if (properties.getTopK() <= 0 || properties.getSketchWidth() <= 0 || properties.getSketchDepth() <= 0) {
+            throw new IllegalArgumentException("Invalid hot product tracker sizing");
+        }
+        this.properties = properties;
+        this.depth = properties.getSketchDepth();
+        int width = Integer.highestOneBit(properties.getSketchWidth() - 1) << 1;
+        this.widthMask = Math.max(1, width) - 1;
+        this.sketch = new AtomicLongArray(depth * (widthMask + 1));
+        this.sites = Caffeine.newBuilder().maximumSize(properties.getMaxSites()).build();
+        this.hits = meterRegistry.counter("catalog.hot_products.hits");
+        Gauge.builder("catalog.hot_products.sites", sites, cache -> cache.estimatedSize())
+                .description("Sites whose hot products are tracked")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Count a read of a product of a site.
+     */
+    public void recordHit(final UUID siteId, final UUID productId) {
+        if (!properties.isEnabled() || siteId == null || productId == null) {
+            return;
+        }
+        hits.increment();
+        long estimate = Long.MAX_VALUE;
+        long hash = hash(productId);
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, sketch.incrementAndGet(index(hash, row)));
+        }
+        sites.get(siteId, id -> new SiteTopK(properties.getTopK())).offer(productId, estimate);
+    }
+
+    /**
+     * Estimated hits of a product, decayed.
+     */
+    public long estimate(final UUID productId) {
+        long estimate = Long.MAX_VALUE;
+        long hash = hash(productId);
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, sketch.get(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Hottest products of a site, hottest first.
+     */
+    public List<HotProductResponse> topProducts(final UUID siteId, final int limit) {
+        SiteTopK top = sites.getIfPresent(siteId);
+        if (top == null) {
+            return List.of();
+        }
+        return top.productIds().stream()
+                .map(productId -> HotProductResponse.builder()
+                        .productId(productId)
+                        .estimatedHits(estimate(productId))
+                        .build())
+                .filter(product -> product.getEstimatedHits() > 0)
+                .sorted(Comparator.comparingLong(HotProductResponse::getEstimatedHits).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Hottest products of every tracked site.
+     */
+    public Map<UUID, List<HotProductResponse>> topProducts(final int limit) {
+        Map<UUID, List<HotProductResponse>> bySite = new LinkedHashMap<>();
+        for (UUID siteId : sites.asMap().keySet()) {
+            List<HotProductResponse> top = topProducts(siteId, limit);
+            if (!top.isEmpty()) {
+                bySite.put(siteId, top);
+            }
+        }
+        return bySite;
+    }
+
+    /**
+     * Whether a product is among the hot products of its site.
+     */
+    public boolean isHot(final UUID siteId, final UUID productId) {
+        SiteTopK top = sites.getIfPresent(siteId);
+        return top != null && top.contains(productId);
+    }
+
+    /**
+     * Hot product ids of the sites read since the previous call, hottest first.
+     */
+    Map<UUID, List<UUID>> drainChangedSites() {
+        Map<UUID, List<UUID>> changed = new LinkedHashMap<>();
+        sites.asMap().forEach((siteId, top) -> {
+            if (top.clearDirty()) {
+                changed.put(siteId, topProducts(siteId, properties.getTopK()).stream()
+                        .map(HotProductResponse::getProductId)
+                        .toList());
+            }
+        });
+        return changed;
+    }
+
+    /**
+     * Halve every count; products and sites whose count drops to zero are forgotten.
+     */
+    @Scheduled(fixedDelayString = "${catalog.hot-products.decay-interval:5m}",
+            initialDelayString = "${catalog.hot-products.decay-interval:5m}")
+    public void decay() {
+        for (int i = 0; i < sketch.length(); i++) {
+            long value = sketch.get(i);
+            if (value != 0) {
+                // A hit landing in between is lost, which is within the sketch's error anyway
+                sketch.compareAndSet(i, value, value >> 1);
+            }
+        }
+        sites.asMap().values().removeIf(top -> top.decay(this::estimate));
+    }
+
+    private int index(final long hash, final int row) {
+        return row * (widthMask + 1) + (int) (mix(hash + row * GOLDEN_GAMMA) & widthMask);
+    }
+
+    private static long hash(final UUID productId) {
+        return mix(productId.getMostSignificantBits() ^ mix(productId.getLeastSignificantBits()));
+    }
+
+    private static long mix(final long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * The {@code capacity} products of a site with the highest estimates seen.
+     */
+    private static final class SiteTopK {
+
+        private final int capacity;
+        private final Map<UUID, Long> entries = new ConcurrentHashMap<>();
+
+        /**
+         * Smallest estimate kept once full; lower estimates are rejected without locking.
+         */
+        private volatile long threshold;
+
+        private volatile boolean dirty = true;
+
+        SiteTopK(final int capacity) {
+            this.capacity = capacity;
+        }
+
+        void offer(final UUID productId, final long estimate) {
+            if (!dirty) {
+                dirty = true;
+            }
+            if (entries.computeIfPresent(productId, (id, previous) -> Math.max(previous, estimate)) != null) {
+                return;
+            }
+            if (estimate <= threshold) {
+                return;
+            }
+            synchronized (this) {
+                entries.merge(productId, estimate, Math::max);
+                if (entries.size() > capacity) {
+                    entries.entrySet().stream()
+                            .min(Map.Entry.comparingByValue())
+                            .ifPresent(coldest -> entries.remove(coldest.getKey()));
+                }
+                updateThreshold();
+            }
+        }
+
+        boolean contains(final UUID productId) {
+            return entries.containsKey(productId);
+        }
+
+        List<UUID> productIds() {
+            return List.copyOf(entries.keySet());
+        }
+
+        boolean clearDirty() {
+            boolean wasDirty = dirty;
+            dirty = false;
+            return wasDirty;
+        }
+
+        /**
+         * Refresh the kept estimates after the sketch was halved; {@code true} once nothing is left.
+         */
+        synchronized boolean decay(final ToLongFunction<UUID> estimates) {
+            entries.replaceAll((productId, previous) -> estimates.applyAsLong(productId));
+            entries.values().removeIf(estimate -> estimate == 0);
+            updateThreshold();
+            return entries.isEmpty();
+        }
+
+        private void updateThreshold() {
+            threshold = entries.size() < capacity
+                    ? 0
+                    : entries.values().stream().mapToLong(Long::longValue).min().orElse(0);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.config.HotProductProperties;
+import com.shopifake.microservice.dtos.HotProductResponse;
+import com.shopifake.microservice.entities.CatalogEntityType;
+import com.shopifake.microservice.entities.ChangeType;
+import com.shopifake.microservice.entities.HotProductSnapshot;
+import com.shopifake.microservice.events.CatalogChangeEvent;
+import com.shopifake.microservice.events.CatalogInvalidationEvent;
+import com.shopifake.microservice.repositories.HotProductSnapshotRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the hot products found by {@link HotProductTracker} in the product cache.
+ *
+ * <p>When a hot product is evicted, locally or by another replica, it is reloaded on a background
+ * thread after {@code warm-delay}, so the next storefront read is a hit instead of every concurrent
+ * reader missing at once. The hot products of each site are saved every {@code snapshot-interval}
+ * and reloaded when a replica starts, so a restart or deploy does not begin with a cold cache.</p>
+ */
+@Component
+@Slf4j
+public class HotProductWarmer {
+
+    /**
+     * Products loaded per lookup, well below {@code catalog.multi-get.max-items}.
+     */
+    static final int WARM_BATCH_SIZE = 100;
+
+    private final HotProductTracker tracker;
+    private final ProductService productService;
+    private final HotProductSnapshotRepository snapshotRepository;
+    private final HotProductProperties properties;
+    private final Counter warmed;
+
+    private final Set<UUID> pending = ConcurrentHashMap.newKeySet();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "hot-product-warmer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructor.
+     *
+     * @param tracker hot product tracker
+     * @param productService service loading products into the cache
+     * @param snapshotRepository saved hot products
+     * @param properties warming settings
+     * @param meterRegistry registry for warming metrics
+     */
+    public HotProductWarmer(final HotProductTracker tracker,
+                            final ProductService productService,
+                            final HotProductSnapshotRepository snapshotRepository,
+                            final HotProductProperties properties,
+                            final MeterRegistry meterRegistry) {
+        this.tracker = tracker;
+        this.productService = productService;
+        this.snapshotRepository = snapshotRepository;
+        this.properties = properties;
+        this.warmed = meterRegistry.counter("catalog.hot_products.warmed");
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Reload a hot product changed by a local transaction.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onChange(final CatalogChangeEvent event) {
+        if (event.entityType() == CatalogEntityType.PRODUCT
+                && event.changeType() != ChangeType.DELETED
+                && tracker.isHot(event.siteId(), event.entityId())) {
+            schedule(List.of(event.entityId()));
+        }
+    }
+
+    /**
+     * Reload a hot product changed on another replica, or every hot product after a flush.
+     */
+    @EventListener
+    public void onInvalidation(final CatalogInvalidationEvent event) {
+        if (!event.isFlushAll()) {
+            onChange(event.change());
+            return;
+        }
+        schedule(tracker.topProducts(properties.getTopK()).values().stream()
+                .flatMap(List::stream)
+                .map(HotProductResponse::getProductId)
+                .toList());
+    }
+
+    /**
+     * Warm the cache with the hot products saved before the last restart.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmOnStartup() {
+        if (!properties.isEnabled() || !properties.isWarmOnStartup()) {
+            return;
+        }
+        executor.execute(() -> {
+            try {
+                List<UUID> productIds = snapshotRepository
+                        .findAllByOrderByUpdatedAtDesc(Limit.of(properties.getMaxSites())).stream()
+                        .flatMap(snapshot -> parseIds(snapshot.getProductIds()).stream())
+                        .toList();
+                warm(productIds);
+                log.info("Warmed product cache with {} saved hot products", productIds.size());
+            } catch (RuntimeException ex) {
+                log.warn("Failed to warm product cache on startup", ex);
+            }
+        });
+    }
+
+    /**
+     * Save the hot products of the sites read since the previous snapshot.
+     */
+    @Scheduled(fixedDelayString = "${catalog.hot-products.snapshot-interval:5m}",
+            initialDelayString = "${catalog.hot-products.snapshot-interval:5m}")
+    public void snapshot() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Map<UUID, List<UUID>> changed = tracker.drainChangedSites();
+        if (changed.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<HotProductSnapshot> snapshots = new ArrayList<>();
+        List<UUID> forgotten = new ArrayList<>();
+        changed.forEach((siteId, productIds) -> {
+            if (productIds.isEmpty()) {
+                forgotten.add(siteId);
+            } else {
+                snapshots.add(HotProductSnapshot.builder()
+                        .siteId(siteId)
+                        .productIds(productIds.stream().map(UUID::toString).collect(Collectors.joining(",")))
+                        .updatedAt(now)
+                        .build());
+            }
+        });
+        snapshotRepository.saveAll(snapshots);
+        snapshotRepository.deleteAllById(forgotten);
+    }
+
+    private void schedule(final Collection<UUID> productIds) {
+        if (!properties.isEnabled() || productIds.isEmpty()) {
+            return;
+        }
+        pending.addAll(productIds);
+        if (scheduled.compareAndSet(false, true)) {
+            executor.schedule(this::drain, properties.getWarmDelay().toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void drain() {
+        // Cleared before draining, so ids added meanwhile schedule another run
+        scheduled.set(false);
+        List<UUID> productIds = new ArrayList<>(pending);
+        pending.removeAll(productIds);
+        try {
+            warm(productIds);
+        } catch (RuntimeException ex) {
+            log.warn("Failed to warm {} hot products", productIds.size(), ex);
+        }
+    }
+
+    private void warm(final List<UUID> productIds) {
+        for (int from = 0; from < productIds.size(); from += WARM_BATCH_SIZE) {
+            List<UUID> batch = productIds.subList(from, Math.min(from + WARM_BATCH_SIZE, productIds.size()));
+            productService.getProductsByIds(batch, ProductFieldSelection.full());
+            warmed.increment(batch.size());
+        }
+    }
+
+    private static List<UUID> parseIds(final String productIds) {
+        return Arrays.stream(productIds.split(","))
+                .filter(id -> !id.isBlank())
+                .map(UUID::fromString)
+                .toList();
+    }
+}
@@ -0,0 +1,108 @@
+package com.shopifake.microservice.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shopifake.microservice.dtos.ProductResponse;
+import com.shopifake.microservice.entities.CatalogEntityType;
+import com.shopifake.microservice.events.CatalogChangeEvent;
+import com.shopifake.microservice.events.CatalogInvalidationEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.UUID;
+
+/**
+ * In-memory cache of full product responses, indexed by id and by SKU.
+ *
+ * <p>Entries are evicted as soon as a change to the product commits. A response loaded while
+ * such a change was committing is not cached, and neither is one read inside a read-write
+ * transaction, since it may contain uncommitted changes.</p>
+ */
+@Component
+class ProductCache {
+
+    private final Cache<UUID, ProductResponse> products;
+    private final Cache<String, UUID> idsBySku;
+    private final Cache<UUID, Long> invalidatedAt;
+    private volatile long flushedAt = System.nanoTime();
+
+    ProductCache(@Value("${catalog.product-cache.ttl:5m}") final Duration ttl,
+                 @Value("${catalog.product-cache.max-size:10000}") final long maxSize,
+                 final MeterRegistry meterRegistry) {
+        this.products = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maxSize).recordStats().build();
+        this.idsBySku = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maxSize).build();
+        this.invalidatedAt = Caffeine.newBuilder().expireAfterWrite(ttl).maximumSize(maxSize).build();
+        CaffeineCacheMetrics.monitor(meterRegistry, products, "catalog.products");
+    }
+
+    /**
+     * Cached product, or {@code null}.
+     */
+    ProductResponse get(final UUID productId) {
+        return products.getIfPresent(productId);
+    }
+
+    /**
+     * Cached product currently holding an upper-cased SKU, or {@code null}.
+     */
+    ProductResponse getBySku(final String sku) {
+        UUID productId = idsBySku.getIfPresent(sku);
+        ProductResponse product = productId == null ? null : products.getIfPresent(productId);
+        return product != null && sku.equals(product.getSku()) ? product : null;
+    }
+
+    /**
+     * Timestamp to pass to {@link #put} for a load starting now.
+     */
+    long loadStarted() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Cache a full product response loaded since {@code loadStartedAt}.
+     */
+    void put(final ProductResponse product, final long loadStartedAt) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return;
+        }
+        Long invalidated = invalidatedAt.getIfPresent(product.getId());
+        if (invalidated != null && invalidated - loadStartedAt >= 0 || flushedAt - loadStartedAt >= 0) {
+            return;
+        }
+        products.put(product.getId(), product);
+        idsBySku.put(product.getSku(), product.getId());
+    }
+
+    /**
+     * Evict a product once one of its changes has committed.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onChange(final CatalogChangeEvent event) {
+        if (event.entityType() == CatalogEntityType.PRODUCT) {
+            invalidatedAt.put(event.entityId(), System.nanoTime());
+            products.invalidate(event.entityId());
+        }
+    }
+
+    /**
+     * Evict a product changed on another replica, or everything.
+     */
+    @EventListener
+    public void onInvalidation(final CatalogInvalidationEvent event) {
+        if (event.isFlushAll()) {
+            flushedAt = System.nanoTime();
+            products.invalidateAll();
+            idsBySku.invalidateAll();
+        } else {
+            onChange(event.change());
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.shopifake.microservice.services;
+
+import org.springframework.util.StringUtils;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Fields and expansions requested by a product read ({@code fields=} and {@code include=}).
+ *
+ * <p>Without either parameter the full product is returned. With {@code include} only, every
+ * scalar field and the images are returned along with the requested collections. With
+ * {@code fields}, only the listed fields (and the id) are loaded.</p>
+ */
+public final class ProductFieldSelection {
+
+    public static final String DESCRIPTION = "description";
+    public static final String IMAGES = "images";
+    public static final String PRIMARY_IMAGE = "primaryImage";
+    public static final String FILTERS = "filters";
+    public static final String CATEGORIES = "categories";
+
+    private static final Set<String> SCALAR_FIELDS = Set.of("id", "siteId", "name", DESCRIPTION, IMAGES,
+            PRIMARY_IMAGE, "sku", "status", "scheduledPublishAt", "publishedAt", "createdAt", "updatedAt");
+    private static final Set<String> EXPANSIONS = Set.of(FILTERS, CATEGORIES);
+
+    private static final ProductFieldSelection FULL = new ProductFieldSelection(null, Set.of(FILTERS, CATEGORIES));
+
+    /**
+     * Requested scalar fields, or {@code null} for all of them.
+     */
+    private final Set<String> fields;
+    private final Set<String> includes;
+
+    private ProductFieldSelection(final Set<String> fields, final Set<String> includes) {
+        this.fields = fields;
+        this.includes = includes;
+    }
+
+    /**
+     * Selection returning the complete product.
+     */
+    public static ProductFieldSelection full() {
+        return FULL;
+    }
+
+    /**
+     * Parse the comma-separated {@code fields} and {@code include} request parameters.
+     *
+     * @throws IllegalArgumentException if a name is not a known field or expansion
+     */
+    public static ProductFieldSelection parse(final String fields, final String include) {
+        if (!StringUtils.hasText(fields) && !StringUtils.hasText(include)) {
+            return FULL;
+        }
+        Set<String> includes = Collections.unmodifiableSet(split(include, EXPANSIONS, "include"));
+        if (!StringUtils.hasText(fields)) {
+            return new ProductFieldSelection(null, includes);
+        }
+        Set<String> selected = split(fields, SCALAR_FIELDS, "field");
+        selected.add("id");
+        return new ProductFieldSelection(Collections.unmodifiableSet(selected), includes);
+    }
+
+    /**
+     * Whether every field and expansion is requested.
+     */
+    public boolean isFull() {
+        return fields == null && includes.containsAll(EXPANSIONS);
+    }
+
+    /**
+     * Whether a scalar field (or {@link #IMAGES} / {@link #PRIMARY_IMAGE}) is requested.
+     */
+    public boolean has(final String field) {
+        return fields == null || fields.contains(field);
+    }
+
+    /**
+     * Whether a collection expansion ({@link #FILTERS} or {@link #CATEGORIES}) is requested.
+     */
+    public boolean includes(final String expansion) {
+        return includes.contains(expansion);
+    }
+
+    private static Set<String> split(final String value, final Set<String> allowed, final String kind) {
+        Set<String> names = new LinkedHashSet<>();
+        if (!StringUtils.hasText(value)) {
+            return names;
+        }
+        for (String raw : value.split(",")) {
+            String name = raw.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new IllegalArgumentException("Unknown " + kind + ": " + name
+                        + " (expected one of " + String.join(", ", allowed.stream().sorted().toList()) + ")");
+            }
+            names.add(name);
+        }
+        return names;
+    }
+
+    @Override
+    public String toString() {
+        return isFull() ? "full" : "fields=" + (fields == null ? "*" : fields) + ",include=" + includes;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return other instanceof ProductFieldSelection that
+                && Objects.equals(fields, that.fields) && includes.equals(that.includes);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(fields, includes);
+    }
+}
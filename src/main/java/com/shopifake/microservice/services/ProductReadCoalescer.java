@@ -0,0 +1,153 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.dtos.ProductResponse;
+import com.shopifake.microservice.entities.CatalogEntityType;
+import com.shopifake.microservice.events.CatalogChangeEvent;
+import com.shopifake.microservice.events.CatalogInvalidationEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight layer in front of the hot product reads: concurrent identical requests share the
+ * load started by the first of them instead of each running the same queries.
+ *
+ * <p>The first caller loads on its own thread, outside of any transaction held by the others.
+ * Followers wait at most {@code catalog.coalescing.timeout} and then load for themselves. Once a
+ * change commits, loads already in flight for the affected product or site stop accepting
+ * followers, so no request started after a commit gets data read before it.</p>
+ */
+@Service
+public class ProductReadCoalescer {
+
+    private final ProductService productService;
+    private final MeterRegistry meterRegistry;
+    private final long timeoutNanos;
+    private final ConcurrentMap<Key, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor.
+     *
+     * @param productService service performing the actual loads
+     * @param meterRegistry registry for coalescing metrics
+     * @param timeout how long a follower waits for the shared load
+     */
+    public ProductReadCoalescer(final ProductService productService,
+                                final MeterRegistry meterRegistry,
+                                @Value("${catalog.coalescing.timeout:2s}") final Duration timeout) {
+        this.productService = productService;
+        this.meterRegistry = meterRegistry;
+        this.timeoutNanos = timeout.toNanos();
+    }
+
+    /**
+     * {@link ProductService#getProduct(UUID, ProductFieldSelection)}, coalesced per id and selection.
+     */
+    public ProductResponse getProduct(final UUID productId, final ProductFieldSelection selection) {
+        return coalesce(new Key(Operation.PRODUCT, productId, selection),
+                () -> productService.getProduct(productId, selection));
+    }
+
+    /**
+     * {@link ProductService#listPublishedProducts(UUID, ProductFieldSelection)}, coalesced per site
+     * and selection.
+     */
+    public List<ProductResponse> listPublishedProducts(final UUID siteId, final ProductFieldSelection selection) {
+        return coalesce(new Key(Operation.PUBLISHED, siteId, selection),
+                () -> productService.listPublishedProducts(siteId, selection));
+    }
+
+    /**
+     * Stop sharing loads that may have read data older than a committed change.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onChange(final CatalogChangeEvent event) {
+        boolean product = event.entityType() == CatalogEntityType.PRODUCT;
+        inFlight.keySet().removeIf(key -> key.operation() == Operation.PUBLISHED
+                ? key.id() == null || key.id().equals(event.siteId())
+                : !product || key.id().equals(event.entityId()));
+    }
+
+    /**
+     * Same for a change committed on another replica; a flush detaches every load.
+     */
+    @EventListener
+    public void onInvalidation(final CatalogInvalidationEvent event) {
+        if (event.isFlushAll()) {
+            inFlight.clear();
+        } else {
+            onChange(event.change());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T coalesce(final Key key, final Supplier<T> loader) {
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> shared = inFlight.putIfAbsent(key, load);
+        if (shared == null) {
+            count("catalog.coalescing.loads", key);
+            try {
+                T value = loader.get();
+                load.complete(value);
+                return value;
+            } catch (RuntimeException ex) {
+                load.completeExceptionally(ex);
+                throw ex;
+            } finally {
+                inFlight.remove(key, load);
+            }
+        }
+
+        count("catalog.coalescing.collapsed", key);
+        try {
+            return (T) shared.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException ex) {
+            count("catalog.coalescing.timeouts", key);
+            return loader.get();
+        } catch (ExecutionException ex) {
+            if (ex.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(ex.getCause());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a shared product load", ex);
+        }
+    }
+
+    private void count(final String name, final Key key) {
+        meterRegistry.counter(name, "operation", key.operation().tag).increment();
+    }
+
+    private enum Operation {
+        PRODUCT("get_product"),
+        PUBLISHED("list_published");
+
+        private final String tag;
+
+        Operation(final String tag) {
+            this.tag = tag;
+        }
+    }
+
+    /**
+     * Identity of a load: the product id or site id (possibly {@code null} for all sites) and the
+     * field selection.
+     */
+    private record Key(Operation operation, UUID id, ProductFieldSelection selection) {
+    }
+}
@@ -1,46 +1,78 @@
 package com.shopifake.microservice.services;
 
+import com.shopifake.microservice.dtos.BulkDeleteProductsRequest;
+import com.shopifake.microservice.dtos.BulkDeleteProductsResponse;
+import com.shopifake.microservice.dtos.BulkProductResult;
+import com.shopifake.microservice.dtos.BulkStatusUpdateResponse;
+import com.shopifake.microservice.dtos.BulkUpdateProductStatusRequest;
+import com.shopifake.microservice.dtos.BulkUpsertProductsRequest;
+import com.shopifake.microservice.dtos.BulkUpsertProductsResponse;
 import com.shopifake.microservice.dtos.CategoryResponse;
 import com.shopifake.microservice.dtos.CreateProductRequest;
+import com.shopifake.microservice.dtos.ProductChangeFeedResponse;
+import com.shopifake.microservice.dtos.ProductChangeResponse;
 import com.shopifake.microservice.dtos.ProductFilterAssignmentRequest;
 import com.shopifake.microservice.dtos.ProductFilterResponse;
+import com.shopifake.microservice.dtos.ProductLookupResponse;
+import com.shopifake.microservice.dtos.ProductLookupResult;
 import com.shopifake.microservice.dtos.ProductResponse;
+import com.shopifake.microservice.dtos.ProductUpsertResult;
 import com.shopifake.microservice.dtos.UpdateProductRequest;
 import com.shopifake.microservice.dtos.UpdateProductStatusRequest;
-import com.shopifake.microservice.entities.FilterType;
+import com.shopifake.microservice.dtos.UpsertProductRequest;
+import com.shopifake.microservice.entities.CatalogChange;
+import com.shopifake.microservice.entities.CatalogEntityType;
+import com.shopifake.microservice.entities.ChangeType;
 import com.shopifake.microservice.entities.Product;
 import com.shopifake.microservice.entities.ProductFilter;
 import com.shopifake.microservice.entities.ProductStatus;
 import com.shopifake.microservice.entities.Category;
 import com.shopifake.microservice.entities.Filter;
+import com.shopifake.microservice.entities.UuidV7;
 import com.shopifake.microservice.repositories.CategoryRepository;
 import com.shopifake.microservice.repositories.FilterRepository;
+import com.shopifake.microservice.repositories.ProductIdentity;
 import com.shopifake.microservice.repositories.ProductRepository;
+import com.shopifake.microservice.repositories.ProductUpsert;
+import com.shopifake.microservice.repositories.UpsertedProduct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.ResponseEntity;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.StringUtils;
-import org.springframework.web.client.RestTemplate;
 
 import java.math.BigDecimal;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.time.Clock;
 import java.time.LocalDateTime;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -51,14 +83,35 @@ import java.util.stream.Collectors;
 @Slf4j
 public class ProductService {
 
+    /**
+     * Maximum number of ids bound into a single IN clause by bulk operations.
+     */
+    private static final int BULK_CHUNK_SIZE = 500;
+
+    /**
+     * Default and maximum page sizes of the change feed.
+     */
+    private static final int DEFAULT_CHANGE_PAGE = 100;
+    private static final int MAX_CHANGE_PAGE = 1000;
+
+    private static final String CURSOR_PREFIX = "c1:";
+
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final FilterRepository filterRepository;
+    private final SkuBloomFilter skuBloomFilter;
+    private final CatalogChangeLog catalogChangeLog;
+    private final SparseProductReader sparseProductReader;
+    private final CatalogUsageCounters usageCounters;
+    private final ProductCache productCache;
+    private final TransactionTemplate transactionTemplate;
+    private final RecommenderClient recommenderClient;
+    private final FilterAssignmentValidators filterValidators;
+    private final RecommenderPayloadWriter recommenderPayloadWriter;
     private final Clock clock = Clock.systemUTC();
-    private final RestTemplate restTemplate = new RestTemplate();
 
-    @Value("${RECOMMENDER_URL:http://localhost:8000}")
-    private String servicesRecommenderUrl;
+    @Value("${catalog.multi-get.max-items:500}")
+    private int multiGetMaxItems;
 
     /**
      * Create a new product with the provided payload.
@@ -89,10 +142,13 @@ public class ProductService {
         filters.forEach(filter -> filter.setProduct(product));
         product.setFilters(filters);
 
-        Product saved = productRepository.save(product);
+        Product saved = saveAndFlush(product);
+        skuBloomFilter.put(saved.getSku());
+        adjustUsage(saved.getSiteId(), Set.of(), categoryIds(saved), Set.of(), filterIds(saved));
 
         // Send product to recommender
         sendProductToRecommender(saved);
+        catalogChangeLog.record(saved.getSiteId(), CatalogEntityType.PRODUCT, ChangeType.CREATED, saved.getId());
 
         return mapToResponse(saved);
     }
@@ -103,6 +159,8 @@ public class ProductService {
     @Transactional
     public ProductResponse updateProduct(final UUID productId, final UpdateProductRequest request) {
         Product product = getProductOrThrow(productId);
+        Set<UUID> previousCategoryIds = categoryIds(product);
+        Set<UUID> previousFilterIds = filterIds(product);
 
         if (StringUtils.hasText(request.getName())) {
             product.setName(request.getName().trim());
@@ -117,16 +175,19 @@ public class ProductService {
                 throw new IllegalArgumentException("Images list cannot be empty");
             }
             validateImages(request.getImages());
-            product.setImages(new ArrayList<>(request.getImages()));
+            applyImages(product.getImages(), request.getImages());
         }
 
         if (request.getCategoryIds() != null) {
             if (request.getCategoryIds().isEmpty()) {
                 throw new IllegalArgumentException("categoryIds cannot be empty");
             }
-            product.setCategories(loadCategories(product.getSiteId(), request.getCategoryIds()));
+            Set<Category> categories = loadCategories(product.getSiteId(), request.getCategoryIds());
+            product.getCategories().retainAll(categories);
+            product.getCategories().addAll(categories);
         }
 
+        String previousSku = product.getSku();
         if (StringUtils.hasText(request.getSku())) {
             validateSkuUniqueness(request.getSku(), productId);
             product.setSku(request.getSku().toUpperCase());
@@ -134,20 +195,58 @@ public class ProductService {
 
         if (request.getFilters() != null) {
             List<ProductFilter> filters = mapFilters(request.getFilters(), product.getSiteId(), product.getCategories());
-            // Clear existing filters and set new ones
-            product.getFilters().clear();
-            filters.forEach(filter -> filter.setProduct(product));
-            product.getFilters().addAll(filters);
+            applyFilters(product, filters);
         }
 
-        Product saved = productRepository.save(product);
+        Product saved = saveAndFlush(product);
+        adjustUsage(saved.getSiteId(), previousCategoryIds, categoryIds(saved), previousFilterIds, filterIds(saved));
+        if (!saved.getSku().equals(previousSku)) {
+            skuBloomFilter.put(saved.getSku());
+            afterCommit(() -> skuBloomFilter.remove(previousSku));
+        }
 
         // Send product to recommender
         sendProductToRecommender(saved);
-        
+        catalogChangeLog.record(saved.getSiteId(), CatalogEntityType.PRODUCT, ChangeType.UPDATED, saved.getId());
+
         return mapToResponse(saved);
     }
 
+    /**
+     * Create or replace the product holding a SKU within its site, without loading it first.
+     */
+    @Transactional
+    public ProductUpsertResult upsertProductBySku(final String sku, final UpsertProductRequest request) {
+        if (StringUtils.hasText(request.getSku()) && !request.getSku().trim().equalsIgnoreCase(sku.trim())) {
+            throw new IllegalArgumentException("SKU in body does not match path: " + request.getSku());
+        }
+        return upsertBySku(List.of(request), List.of(sku)).get(0);
+    }
+
+    /**
+     * Create or replace many products by SKU in one transaction.
+     */
+    @Transactional
+    public BulkUpsertProductsResponse upsertProductsBySku(final BulkUpsertProductsRequest request) {
+        List<String> skus = request.getProducts().stream()
+                .map(product -> {
+                    if (!StringUtils.hasText(product.getSku())) {
+                        throw new IllegalArgumentException("sku is required for every product");
+                    }
+                    return product.getSku();
+                })
+                .toList();
+        List<ProductUpsertResult> results = upsertBySku(request.getProducts(), skus);
+        int created = (int) results.stream()
+                .filter(result -> result.getOutcome() == ProductUpsertResult.Outcome.CREATED)
+                .count();
+        return BulkUpsertProductsResponse.builder()
+                .created(created)
+                .updated(results.size() - created)
+                .results(results)
+                .build();
+    }
+
     /**
      * Update the status lifecycle of a product.
      */
@@ -175,15 +274,152 @@ public class ProductService {
         }
 
         Product saved = productRepository.save(product);
+        catalogChangeLog.record(saved.getSiteId(), CatalogEntityType.PRODUCT, ChangeType.STATUS_CHANGED, saved.getId());
         return mapToResponse(saved);
     }
 
+    /**
+     * Apply the same status transition to many products with set-based updates, one per site and
+     * chunk. A selector is paged through in id order and answered with counts only.
+     */
+    @Transactional
+    public BulkStatusUpdateResponse bulkUpdateStatus(final BulkUpdateProductStatusRequest request) {
+        ProductStatus newStatus = parseStatus(request.getStatus());
+        LocalDateTime scheduledPublishAt = validateSchedule(newStatus, request.getScheduledPublishAt());
+        LocalDateTime now = LocalDateTime.now(clock);
+        LocalDateTime publishedAt = newStatus == ProductStatus.PUBLISHED ? now : null;
+
+        int requested = 0;
+        int updated = 0;
+        int notFound = 0;
+        List<BulkProductResult> results = List.of();
+        if (request.getProductIds() != null && !request.getProductIds().isEmpty()) {
+            List<UUID> ids = List.copyOf(new LinkedHashSet<>(request.getProductIds()));
+            Map<UUID, UUID> siteByProduct = new HashMap<>();
+            for (List<UUID> chunk : chunks(ids)) {
+                List<ProductIdentity> found = request.getSiteId() == null
+                        ? productRepository.findIdentitiesByIdIn(chunk)
+                        : productRepository.findIdentitiesBySiteIdAndIdIn(request.getSiteId(), chunk);
+                found.forEach(identity -> siteByProduct.put(identity.getId(), identity.getSiteId()));
+            }
+            Map<UUID, List<UUID>> targetsBySite = ids.stream()
+                    .filter(siteByProduct::containsKey)
+                    .collect(Collectors.groupingBy(siteByProduct::get, LinkedHashMap::new, Collectors.toList()));
+            for (Map.Entry<UUID, List<UUID>> site : targetsBySite.entrySet()) {
+                for (List<UUID> chunk : chunks(site.getValue())) {
+                    updated += updateStatus(site.getKey(), chunk, newStatus, scheduledPublishAt, publishedAt, now);
+                }
+            }
+            requested = ids.size();
+            notFound = ids.size() - siteByProduct.size();
+            results = ids.stream()
+                    .map(id -> BulkProductResult.builder()
+                            .productId(id)
+                            .outcome(siteByProduct.containsKey(id)
+                                    ? BulkProductResult.Outcome.UPDATED
+                                    : BulkProductResult.Outcome.NOT_FOUND)
+                            .build())
+                    .toList();
+        } else {
+            UUID siteId = request.getSiteId();
+            List<UUID> page = siteProductIds(siteId, request.getCategoryId(), null);
+            while (!page.isEmpty()) {
+                requested += page.size();
+                updated += updateStatus(siteId, page, newStatus, scheduledPublishAt, publishedAt, now);
+                page = page.size() < BULK_CHUNK_SIZE
+                        ? List.of()
+                        : siteProductIds(siteId, request.getCategoryId(), page.get(page.size() - 1));
+            }
+        }
+        log.info("Bulk status update to {} affected {} of {} products", newStatus, updated, requested);
+
+        return BulkStatusUpdateResponse.builder()
+                .status(newStatus)
+                .scheduledPublishAt(scheduledPublishAt)
+                .updated(updated)
+                .notFound(notFound)
+                .results(results)
+                .build();
+    }
+
+    /**
+     * Update the status of products of one site with a single statement and record their change.
+     */
+    private int updateStatus(final UUID siteId,
+                             final List<UUID> ids,
+                             final ProductStatus status,
+                             final LocalDateTime scheduledPublishAt,
+                             final LocalDateTime publishedAt,
+                             final LocalDateTime now) {
+        int updated = productRepository.updateStatusBySiteIdAndIds(siteId, ids, status, scheduledPublishAt,
+                publishedAt, now);
+        catalogChangeLog.record(siteId, CatalogEntityType.PRODUCT, ChangeType.STATUS_CHANGED, ids);
+        return updated;
+    }
+
+    /**
+     * Next {@link #BULK_CHUNK_SIZE} ids of a site, or of one of its categories, in id order after
+     * {@code after} ({@code null} for the first page).
+     */
+    private List<UUID> siteProductIds(final UUID siteId, final UUID categoryId, final UUID after) {
+        Limit limit = Limit.of(BULK_CHUNK_SIZE);
+        if (categoryId != null) {
+            return after == null
+                    ? productRepository.findIdsBySiteIdAndCategoryIdOrderById(siteId, categoryId, limit)
+                    : productRepository.findIdsBySiteIdAndCategoryIdAfter(siteId, categoryId, after, limit);
+        }
+        return after == null
+                ? productRepository.findIdsBySiteIdOrderById(siteId, limit)
+                : productRepository.findIdsBySiteIdAfter(siteId, after, limit);
+    }
+
     /**
      * Retrieve a product by id.
      */
     @Transactional(readOnly = true)
     public ProductResponse getProduct(final UUID productId) {
-        return mapToResponse(getProductOrThrow(productId));
+        return getProduct(productId, ProductFieldSelection.full());
+    }
+
+    /**
+     * Retrieve a product by id, loading only the selected fields.
+     */
+    @Transactional(readOnly = true)
+    public ProductResponse getProduct(final UUID productId, final ProductFieldSelection selection) {
+        if (!selection.isFull()) {
+            ProductResponse product = sparseProductReader.findById(productId, selection);
+            if (product == null) {
+                throw new IllegalArgumentException("Product not found with id " + productId);
+            }
+            return product;
+        }
+        ProductResponse cached = productCache.get(productId);
+        if (cached != null) {
+            return cached;
+        }
+        long loadStartedAt = productCache.loadStarted();
+        ProductResponse product = mapToResponse(getProductOrThrow(productId));
+        productCache.put(product, loadStartedAt);
+        return product;
+    }
+
+    /**
+     * Resolve many products by id in request order, with one entry per requested id.
+     * Full products are served from the product cache when possible; the rest are loaded together.
+     */
+    @Transactional(readOnly = true)
+    public ProductLookupResponse getProductsByIds(final List<UUID> productIds, final ProductFieldSelection selection) {
+        return lookup(productIds, Function.identity(), UUID::toString, productCache::get,
+                missing -> sparseProductReader.findAllById(missing, selection), selection);
+    }
+
+    /**
+     * Resolve many products by SKU (case-insensitive) in request order, with one entry per requested SKU.
+     */
+    @Transactional(readOnly = true)
+    public ProductLookupResponse getProductsBySkus(final List<String> skus, final ProductFieldSelection selection) {
+        return lookup(skus, sku -> sku.trim().toUpperCase(), Function.identity(), productCache::getBySku,
+                missing -> sparseProductReader.findAllBySku(missing, selection), selection);
     }
 
     /**
@@ -191,6 +427,19 @@ public class ProductService {
      */
     @Transactional(readOnly = true)
     public List<ProductResponse> listProducts(final UUID siteId, final String status) {
+        return listProducts(siteId, status, ProductFieldSelection.full());
+    }
+
+    /**
+     * List products optionally filtered by site and status, loading only the selected fields.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductResponse> listProducts(final UUID siteId,
+                                              final String status,
+                                              final ProductFieldSelection selection) {
+        if (!selection.isFull()) {
+            return sparseProductReader.list(siteId, status == null ? null : parseStatus(status), selection);
+        }
         List<Product> products;
         if (siteId != null && status != null) {
             products = productRepository.findBySiteIdAndStatus(siteId, parseStatus(status));
@@ -211,6 +460,17 @@ public class ProductService {
      */
     @Transactional(readOnly = true)
     public List<ProductResponse> listPublishedProducts(final UUID siteId) {
+        return listPublishedProducts(siteId, ProductFieldSelection.full());
+    }
+
+    /**
+     * Public-facing list of published products for a site, loading only the selected fields.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductResponse> listPublishedProducts(final UUID siteId, final ProductFieldSelection selection) {
+        if (!selection.isFull()) {
+            return sparseProductReader.list(siteId, ProductStatus.PUBLISHED, selection);
+        }
         List<Product> products;
         if (siteId == null) {
             products = productRepository.findByStatus(ProductStatus.PUBLISHED);
@@ -225,85 +485,463 @@ public class ProductService {
      */
     @Transactional
     public void deleteProduct(final UUID productId) {
-        if (!productRepository.existsById(productId)) {
+        if (deleteProducts(null, List.of(productId)).isEmpty()) {
             throw new IllegalArgumentException("Product not found with id " + productId);
         }
-        productRepository.deleteById(productId);
     }
 
-    private void sendProductToRecommender(final Product product) {
-        if (!StringUtils.hasText(servicesRecommenderUrl)) {
-            log.warn("RECOMMENDER_URL not set; skipping recommender enqueue for product {}", product.getId());
-            return;
+    /**
+     * Delete many products with set-based statements, one transaction per chunk so locks on a
+     * large site are held briefly. Chunks committed before a failure stay deleted. A selector is
+     * paged through in id order and answered with counts only.
+     */
+    public BulkDeleteProductsResponse bulkDelete(final BulkDeleteProductsRequest request) {
+        UUID siteId = request.getSiteId();
+        if (request.getProductIds() != null && !request.getProductIds().isEmpty()) {
+            List<UUID> requested = List.copyOf(new LinkedHashSet<>(request.getProductIds()));
+            Set<UUID> deleted = new HashSet<>(requested.size() * 2);
+            for (List<UUID> chunk : chunks(requested)) {
+                deleted.addAll(transactionTemplate.execute(status -> deleteProducts(siteId, chunk)));
+            }
+            log.info("Bulk delete removed {} of {} products", deleted.size(), requested.size());
+
+            List<BulkProductResult> results = requested.stream()
+                    .map(id -> BulkProductResult.builder()
+                            .productId(id)
+                            .outcome(deleted.contains(id)
+                                    ? BulkProductResult.Outcome.DELETED
+                                    : BulkProductResult.Outcome.NOT_FOUND)
+                            .build())
+                    .toList();
+            return BulkDeleteProductsResponse.builder()
+                    .deleted(deleted.size())
+                    .notFound(requested.size() - deleted.size())
+                    .results(results)
+                    .build();
+        }
+
+        int selected = 0;
+        int deleted = 0;
+        List<UUID> page = siteProductIds(siteId, request.getCategoryId(), null);
+        while (!page.isEmpty()) {
+            List<UUID> chunk = page;
+            selected += chunk.size();
+            deleted += transactionTemplate.execute(status -> deleteProducts(siteId, chunk)).size();
+            page = chunk.size() < BULK_CHUNK_SIZE
+                    ? List.of()
+                    : siteProductIds(siteId, request.getCategoryId(), chunk.get(chunk.size() - 1));
         }
+        log.info("Bulk delete removed {} of {} selected products of site {}", deleted, selected, siteId);
+        return BulkDeleteProductsResponse.builder()
+                .deleted(deleted)
+                .notFound(selected - deleted)
+                .results(List.of())
+                .build();
+    }
+
+    /**
+     * Delete the given products, restricted to {@code siteId} when set, with one {@code DELETE}
+     * per site; the database cascades to images, category links and filter values. The rows are
+     * locked first, so counters, change log and SKU filter are updated only for products this
+     * transaction removes, not for ones a concurrent request already deleted.
+     */
+    private List<UUID> deleteProducts(final UUID siteId, final List<UUID> ids) {
+        List<ProductIdentity> found = siteId == null
+                ? productRepository.lockIdentitiesByIdIn(ids)
+                : productRepository.lockIdentitiesBySiteIdAndIdIn(siteId, ids);
+        List<UUID> deleted = new ArrayList<>(found.size());
+        found.stream()
+                .collect(Collectors.groupingBy(ProductIdentity::getSiteId, LinkedHashMap::new,
+                        Collectors.mapping(ProductIdentity::getId, Collectors.toList())))
+                .forEach((site, siteIds) -> {
+                    usageCounters.adjust(CatalogEntityType.CATEGORY, site,
+                            productRepository.countByCategoryForProducts(siteIds), -1);
+                    usageCounters.adjust(CatalogEntityType.FILTER, site,
+                            productRepository.countByFilterForProducts(siteIds), -1);
+                    int removed = productRepository.deleteBySiteIdAndIds(site, siteIds);
+                    if (removed != siteIds.size()) {
+                        // cannot happen while the rows are locked; roll back rather than miscount
+                        throw new IllegalStateException("Deleted " + removed + " of " + siteIds.size()
+                                + " locked products of site " + site);
+                    }
+                    catalogChangeLog.record(site, CatalogEntityType.PRODUCT, ChangeType.DELETED, siteIds);
+                    deleted.addAll(siteIds);
+                });
+        List<String> skus = found.stream().map(ProductIdentity::getSku).toList();
+        afterCommit(() -> skus.forEach(skuBloomFilter::remove));
+        return deleted;
+    }
+
+    /**
+     * Write products by SKU: the product rows with one upsert statement, then their collections
+     * with set-based replaces. Nothing is read back except the ids and timestamps the upsert returns.
+     */
+    private List<ProductUpsertResult> upsertBySku(final List<UpsertProductRequest> requests, final List<String> skus) {
+        LocalDateTime now = LocalDateTime.now(clock);
+        Set<String> seen = new HashSet<>();
+        List<Product> products = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            UpsertProductRequest request = requests.get(i);
+            String sku = normalizeSku(skus.get(i));
+            if (!seen.add(sku)) {
+                throw new IllegalArgumentException("Duplicate SKU in request: " + sku);
+            }
+            validateImages(request.getImages());
+            Set<Category> categories = loadCategories(request.getSiteId(), request.getCategoryIds());
+            List<ProductFilter> filters = mapFilters(request.getFilters(), request.getSiteId(), categories);
+            ProductStatus status = parseStatus(request.getStatus());
+            products.add(Product.builder()
+                    .id(UuidV7.next())
+                    .siteId(request.getSiteId())
+                    .name(request.getName().trim())
+                    .description(request.getDescription().trim())
+                    .images(new ArrayList<>(request.getImages()))
+                    .categories(categories)
+                    .filters(new ArrayList<>(filters))
+                    .sku(sku)
+                    .status(status)
+                    .scheduledPublishAt(validateSchedule(status, request.getScheduledPublishAt()))
+                    .publishedAt(status == ProductStatus.PUBLISHED ? now : null)
+                    .updatedAt(now)
+                    .build());
+        }
+
+        Map<String, UpsertedProduct> upserted = new HashMap<>(products.size() * 2);
         try {
-            log.info("Sending product {} to recommender {}", product.getId(), servicesRecommenderUrl);
-            ResponseEntity<String> response = restTemplate.postForEntity(
-                    servicesRecommenderUrl + "/products/register/batch",
-                    List.of(buildRecommenderPayload(product)),
-                    String.class
-            );
-            log.debug("Recommender response status={} body={}", response.getStatusCode(), response.getBody());
-        } catch (Exception ex) {
-            log.warn("Failed to send product {} to recommender: {}", product.getId(), ex.getMessage());
-        }
-    }
-
-    private Map<String, Object> buildRecommenderPayload(final Product product) {
-        Map<String, Object> payload = new LinkedHashMap<>();
-        payload.put("product_id", product.getId().toString());
-        payload.put("site_id", product.getSiteId().toString());
-        payload.put("name", product.getName());
-        payload.put("description", product.getDescription());
-        payload.put("images", List.copyOf(product.getImages()));
-        payload.put("categories", product.getCategories().stream()
-                .map(this::mapCategoryPayload)
-                .toList());
-        payload.put("sku", product.getSku());
-        payload.put("status", product.getStatus().name());
-        payload.put("price", null);
-        payload.put("filters", product.getFilters().stream()
-                .map(this::mapFilterPayload)
-                .toList());
-        payload.put("metadata", Collections.emptyMap());
-        return payload;
-    }
-
-    private Map<String, Object> mapCategoryPayload(final Category category) {
-        Map<String, Object> payload = new LinkedHashMap<>();
-        payload.put("id", category.getId().toString());
-        payload.put("site_id", category.getSiteId().toString());
-        payload.put("name", category.getName());
-        return payload;
-    }
-
-    private Map<String, Object> mapFilterPayload(final ProductFilter assignment) {
-        Map<String, Object> payload = new LinkedHashMap<>();
-        Filter filter = assignment.getFilter();
-        payload.put("id", filter.getId().toString());
-        payload.put("name", filter.getDisplayName() != null ? filter.getDisplayName() : filter.getKey());
-        payload.put("value", resolveFilterValue(assignment));
-        return payload;
-    }
-
-    private String resolveFilterValue(final ProductFilter assignment) {
-        if (StringUtils.hasText(assignment.getTextValue())) {
-            return assignment.getTextValue();
-        }
-        if (assignment.getNumericValue() != null) {
-            return assignment.getNumericValue().stripTrailingZeros().toPlainString();
-        }
-        if (assignment.getMinValue() != null || assignment.getMaxValue() != null) {
-            String min = assignment.getMinValue() != null ? assignment.getMinValue().stripTrailingZeros().toPlainString() : "";
-            String max = assignment.getMaxValue() != null ? assignment.getMaxValue().stripTrailingZeros().toPlainString() : "";
-            return (min + ":" + max).replaceAll("^:|:$", "");
-        }
-        if (assignment.getStartAt() != null || assignment.getEndAt() != null) {
-            return (assignment.getStartAt() != null ? assignment.getStartAt().toString() : "")
-                    + "->"
-                    + (assignment.getEndAt() != null ? assignment.getEndAt().toString() : "");
+            productRepository.upsertBySku(products.stream().map(ProductService::toUpsert).toList())
+                    .forEach(row -> upserted.put(row.sku(), row));
+        } catch (DataIntegrityViolationException ex) {
+            String cause = ex.getMostSpecificCause().getMessage();
+            if (cause != null && cause.toLowerCase().contains("sku")) {
+                throw new IllegalArgumentException("SKU already exists for another site", ex);
+            }
+            throw ex;
         }
-        return null;
+
+        Map<UUID, List<UUID>> updatedBySite = new LinkedHashMap<>();
+        for (Product product : products) {
+            UpsertedProduct row = upserted.get(product.getSku());
+            if (row == null) {
+                throw new IllegalArgumentException("SKU already exists: " + product.getSku());
+            }
+            product.setId(row.id());
+            product.setCreatedAt(row.createdAt());
+            product.setPublishedAt(row.publishedAt());
+            if (!row.created()) {
+                updatedBySite.computeIfAbsent(product.getSiteId(), site -> new ArrayList<>()).add(row.id());
+            }
+        }
+        updatedBySite.forEach((siteId, ids) -> {
+            usageCounters.adjust(CatalogEntityType.CATEGORY, siteId, productRepository.countByCategoryForProducts(ids), -1);
+            usageCounters.adjust(CatalogEntityType.FILTER, siteId, productRepository.countByFilterForProducts(ids), -1);
+        });
+        productRepository.replaceCollections(products.stream().map(ProductService::toUpsert).toList());
+
+        List<ProductUpsertResult> results = new ArrayList<>(products.size());
+        Map<UUID, List<UUID>> createdBySite = new LinkedHashMap<>();
+        for (Product product : products) {
+            boolean created = upserted.get(product.getSku()).created();
+            adjustUsage(product.getSiteId(), Set.of(), categoryIds(product), Set.of(), filterIds(product));
+            if (created) {
+                skuBloomFilter.put(product.getSku());
+                createdBySite.computeIfAbsent(product.getSiteId(), site -> new ArrayList<>()).add(product.getId());
+            }
+            results.add(ProductUpsertResult.builder()
+                    .sku(product.getSku())
+                    .outcome(created ? ProductUpsertResult.Outcome.CREATED : ProductUpsertResult.Outcome.UPDATED)
+                    .product(mapToResponse(product))
+                    .build());
+        }
+        createdBySite.forEach((siteId, ids) ->
+                catalogChangeLog.record(siteId, CatalogEntityType.PRODUCT, ChangeType.CREATED, ids));
+        updatedBySite.forEach((siteId, ids) ->
+                catalogChangeLog.record(siteId, CatalogEntityType.PRODUCT, ChangeType.UPDATED, ids));
+        sendProductsToRecommender(products);
+        return results;
+    }
+
+    private static ProductUpsert toUpsert(final Product product) {
+        return new ProductUpsert(product.getId(), product.getSiteId(), product.getName(), product.getDescription(),
+                product.getSku(), product.getStatus(), product.getScheduledPublishAt(), product.getPublishedAt(),
+                product.getUpdatedAt(), product.getImages(), categoryIds(product), product.getFilters());
+    }
+
+    private static String normalizeSku(final String sku) {
+        String trimmed = sku == null ? "" : sku.trim();
+        if (trimmed.isEmpty() || trimmed.length() > 20 || !trimmed.matches("^[A-Za-z0-9_-]+$")) {
+            throw new IllegalArgumentException("SKU must be 1-20 alphanumeric characters, dashes or underscores");
+        }
+        return trimmed.toUpperCase();
+    }
+
+    private <R, K> ProductLookupResponse lookup(final List<R> requested,
+                                                final Function<R, K> normalize,
+                                                final Function<R, String> label,
+                                                final Function<K, ProductResponse> fromCache,
+                                                final Function<Collection<K>, Map<K, ProductResponse>> loader,
+                                                final ProductFieldSelection selection) {
+        if (requested.size() > multiGetMaxItems) {
+            throw new IllegalArgumentException("At most " + multiGetMaxItems + " products per request");
+        }
+        boolean full = selection.isFull();
+        Map<K, ProductResponse> products = new HashMap<>(requested.size() * 2);
+        Set<K> missing = new LinkedHashSet<>();
+        for (R key : requested) {
+            K normalized = normalize.apply(key);
+            ProductResponse cached = full && !products.containsKey(normalized) ? fromCache.apply(normalized) : null;
+            if (cached != null) {
+                products.put(normalized, cached);
+            } else if (!products.containsKey(normalized)) {
+                missing.add(normalized);
+            }
+        }
+        if (!missing.isEmpty()) {
+            long loadStartedAt = productCache.loadStarted();
+            Map<K, ProductResponse> loaded = loader.apply(missing);
+            if (full) {
+                loaded.values().forEach(product -> productCache.put(product, loadStartedAt));
+            }
+            products.putAll(loaded);
+        }
+
+        List<ProductLookupResult> results = new ArrayList<>(requested.size());
+        int found = 0;
+        for (R key : requested) {
+            ProductResponse product = products.get(normalize.apply(key));
+            if (product != null) {
+                found++;
+            }
+            results.add(ProductLookupResult.builder()
+                    .key(label.apply(key))
+                    .outcome(product != null ? ProductLookupResult.Outcome.FOUND : ProductLookupResult.Outcome.NOT_FOUND)
+                    .product(product)
+                    .build());
+        }
+        return ProductLookupResponse.builder()
+                .found(found)
+                .notFound(requested.size() - found)
+                .results(results)
+                .build();
+    }
+
+    /**
+     * Page through product changes of a site in commit order, starting after an opaque cursor.
+     * Deleted products appear as tombstones without a product snapshot.
+     */
+    @Transactional(readOnly = true)
+    public ProductChangeFeedResponse listChanges(final UUID siteId, final String cursor, final Integer limit) {
+        int pageSize = limit == null ? DEFAULT_CHANGE_PAGE : limit;
+        if (pageSize < 1 || pageSize > MAX_CHANGE_PAGE) {
+            throw new IllegalArgumentException("limit must be between 1 and " + MAX_CHANGE_PAGE);
+        }
+        long afterSeq = decodeCursor(cursor);
+        List<CatalogChange> changes = catalogChangeLog.readAfter(siteId, CatalogEntityType.PRODUCT, afterSeq, pageSize + 1);
+        boolean hasMore = changes.size() > pageSize;
+        List<CatalogChange> page = hasMore ? changes.subList(0, pageSize) : changes;
+
+        Set<UUID> liveIds = page.stream()
+                .filter(change -> change.getChangeType() != ChangeType.DELETED)
+                .map(CatalogChange::getEntityId)
+                .collect(Collectors.toSet());
+        Map<UUID, ProductResponse> snapshots = new HashMap<>(liveIds.size() * 2);
+        if (!liveIds.isEmpty()) {
+            // one query per collection instead of lazy loads per product
+            List<Product> products = productRepository.findAllWithImagesBySiteIdAndIdIn(siteId, liveIds);
+            productRepository.findAllWithCategoriesBySiteIdAndIdIn(siteId, liveIds);
+            productRepository.findAllWithFiltersBySiteIdAndIdIn(siteId, liveIds);
+            products.forEach(product -> snapshots.put(product.getId(), mapToResponse(product)));
+        }
+
+        List<ProductChangeResponse> entries = page.stream()
+                .map(change -> ProductChangeResponse.builder()
+                        .productId(change.getEntityId())
+                        .changeType(change.getChangeType())
+                        .changedAt(change.getChangedAt())
+                        .product(change.getChangeType() == ChangeType.DELETED
+                                ? null
+                                : snapshots.get(change.getEntityId()))
+                        .build())
+                .toList();
+        long lastSeq = page.isEmpty() ? afterSeq : page.get(page.size() - 1).getSeq();
+        return ProductChangeFeedResponse.builder()
+                .changes(entries)
+                .nextCursor(encodeCursor(lastSeq))
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Rewrite only the image positions that changed; the ordered collection lets Hibernate
+     * issue per-row updates instead of recreating every image.
+     */
+    private void applyImages(final List<String> current, final List<String> requested) {
+        int common = Math.min(current.size(), requested.size());
+        for (int i = 0; i < common; i++) {
+            if (!current.get(i).equals(requested.get(i))) {
+                current.set(i, requested.get(i));
+            }
+        }
+        while (current.size() > requested.size()) {
+            current.remove(current.size() - 1);
+        }
+        for (int i = common; i < requested.size(); i++) {
+            current.add(requested.get(i));
+        }
+    }
+
+    /**
+     * Reconcile filter assignments by filter id: matching rows are updated in place, unmatched
+     * existing rows are orphan-deleted and only genuinely new assignments are inserted.
+     */
+    private void applyFilters(final Product product, final List<ProductFilter> requested) {
+        Map<UUID, Deque<ProductFilter>> existingByFilter = new HashMap<>();
+        for (ProductFilter existing : product.getFilters()) {
+            existingByFilter.computeIfAbsent(existing.getFilter().getId(), id -> new ArrayDeque<>()).add(existing);
+        }
+        // ProductFilter equality walks back into Product, so track retained rows by identity.
+        Set<ProductFilter> retained = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<ProductFilter> added = new ArrayList<>();
+        for (ProductFilter incoming : requested) {
+            Deque<ProductFilter> candidates = existingByFilter.get(incoming.getFilter().getId());
+            ProductFilter current = candidates != null ? candidates.pollFirst() : null;
+            if (current == null) {
+                incoming.setProduct(product);
+                added.add(incoming);
+            } else {
+                copyFilterValues(incoming, current);
+                retained.add(current);
+            }
+        }
+        product.getFilters().removeIf(existing -> !retained.contains(existing));
+        product.getFilters().addAll(added);
+    }
+
+    private static Set<UUID> categoryIds(final Product product) {
+        return product.getCategories().stream().map(Category::getId).collect(Collectors.toSet());
+    }
+
+    private static Set<UUID> filterIds(final Product product) {
+        return product.getFilters().stream().map(filter -> filter.getFilter().getId()).collect(Collectors.toSet());
+    }
+
+    /**
+     * Queue usage counter deltas for the categories and filters a product gained or lost.
+     */
+    private void adjustUsage(final UUID siteId,
+                             final Set<UUID> previousCategoryIds,
+                             final Set<UUID> categoryIds,
+                             final Set<UUID> previousFilterIds,
+                             final Set<UUID> filterIds) {
+        adjustUsage(CatalogEntityType.CATEGORY, siteId, previousCategoryIds, categoryIds);
+        adjustUsage(CatalogEntityType.FILTER, siteId, previousFilterIds, filterIds);
+    }
+
+    private void adjustUsage(final CatalogEntityType entityType,
+                             final UUID siteId,
+                             final Set<UUID> previous,
+                             final Set<UUID> current) {
+        current.stream().filter(id -> !previous.contains(id))
+                .forEach(id -> usageCounters.adjust(entityType, siteId, id, 1));
+        previous.stream().filter(id -> !current.contains(id))
+                .forEach(id -> usageCounters.adjust(entityType, siteId, id, -1));
+    }
+
+    private void copyFilterValues(final ProductFilter source, final ProductFilter target) {
+        if (!Objects.equals(source.getTextValue(), target.getTextValue())) {
+            target.setTextValue(source.getTextValue());
+        }
+        if (!sameNumber(source.getNumericValue(), target.getNumericValue())) {
+            target.setNumericValue(source.getNumericValue());
+        }
+        if (!sameNumber(source.getMinValue(), target.getMinValue())) {
+            target.setMinValue(source.getMinValue());
+        }
+        if (!sameNumber(source.getMaxValue(), target.getMaxValue())) {
+            target.setMaxValue(source.getMaxValue());
+        }
+        if (!Objects.equals(source.getStartAt(), target.getStartAt())) {
+            target.setStartAt(source.getStartAt());
+        }
+        if (!Objects.equals(source.getEndAt(), target.getEndAt())) {
+            target.setEndAt(source.getEndAt());
+        }
+    }
+
+    private static boolean sameNumber(final BigDecimal left, final BigDecimal right) {
+        if (left == null || right == null) {
+            return left == right;
+        }
+        return left.compareTo(right) == 0;
+    }
+
+    /**
+     * Flush immediately so SKU collisions missed by the Bloom filter fast path surface here.
+     */
+    private Product saveAndFlush(final Product product) {
+        try {
+            return productRepository.saveAndFlush(product);
+        } catch (DataIntegrityViolationException ex) {
+            String cause = ex.getMostSpecificCause().getMessage();
+            if (cause != null && cause.toLowerCase().contains("sku")) {
+                skuBloomFilter.put(product.getSku());
+                throw new IllegalArgumentException("SKU already exists: " + product.getSku(), ex);
+            }
+            throw ex;
+        }
+    }
+
+    private static String encodeCursor(final long seq) {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((CURSOR_PREFIX + seq).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static long decodeCursor(final String cursor) {
+        if (!StringUtils.hasText(cursor)) {
+            return 0L;
+        }
+        try {
+            String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            if (decoded.startsWith(CURSOR_PREFIX)) {
+                long seq = Long.parseLong(decoded.substring(CURSOR_PREFIX.length()));
+                if (seq >= 0) {
+                    return seq;
+                }
+            }
+        } catch (IllegalArgumentException ex) {
+            // fall through to the uniform error below
+        }
+        throw new IllegalArgumentException("Invalid cursor: " + cursor);
+    }
+
+    private static <T> List<List<T>> chunks(final List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int start = 0; start < items.size(); start += BULK_CHUNK_SIZE) {
+            chunks.add(items.subList(start, Math.min(items.size(), start + BULK_CHUNK_SIZE)));
+        }
+        return chunks;
+    }
+
+    private void afterCommit(final Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void sendProductToRecommender(final Product product) {
+        sendProductsToRecommender(List.of(product));
+    }
+
+    private void sendProductsToRecommender(final List<Product> products) {
+        List<UUID> ids = products.stream().map(Product::getId).toList();
+        byte[] payload = recommenderPayloadWriter.writeBatch(products);
+        afterCommit(() -> recommenderClient.registerProducts(ids, payload));
     }
 
     private Product getProductOrThrow(final UUID productId) {
@@ -312,12 +950,16 @@ public class ProductService {
     }
 
     private void validateSkuUniqueness(final String sku, final UUID currentId) {
-        productRepository.findBySku(sku.toUpperCase())
-                .ifPresent(existing -> {
-                    if (currentId == null || !existing.getId().equals(currentId)) {
-                        throw new IllegalArgumentException("SKU already exists: " + sku);
-                    }
-                });
+        String normalized = sku.toUpperCase();
+        if (!skuBloomFilter.mightContain(normalized)) {
+            return;
+        }
+        boolean taken = currentId == null
+                ? productRepository.existsBySku(normalized)
+                : productRepository.existsBySkuAndIdNot(normalized, currentId);
+        if (taken) {
+            throw new IllegalArgumentException("SKU already exists: " + sku);
+        }
     }
 
     private void validateImages(final List<String> images) {
@@ -391,7 +1033,7 @@ public class ProductService {
             throw new IllegalArgumentException("Filter " + filter.getKey() + " is not allowed for the selected categories");
         }
 
-        validateFilterPayload(request, filter);
+        filterValidators.forFilter(filter).validate(request);
 
         return ProductFilter.builder()
                 .filter(filter)
@@ -404,92 +1046,6 @@ public class ProductService {
                 .build();
     }
 
-    private void validateFilterPayload(final ProductFilterAssignmentRequest request, final Filter filter) {
-        FilterType type = filter.getType();
-        String filterLabel = "filter " + filter.getKey();
-
-        switch (type) {
-            case CATEGORICAL -> {
-                if (!StringUtils.hasText(request.getTextValue())) {
-                    throw new IllegalArgumentException("textValue is required for " + filterLabel);
-                }
-                if (filter.getValues() != null && !filter.getValues().isEmpty()
-                        && !filter.getValues().contains(request.getTextValue())) {
-                    throw new IllegalArgumentException("textValue must match one of the allowed values for " + filterLabel);
-                }
-                ensureNull(request.getNumericValue(), "numericValue", filterLabel);
-                ensureNull(request.getMinValue(), "minValue", filterLabel);
-                ensureNull(request.getMaxValue(), "maxValue", filterLabel);
-                ensureNull(request.getStartAt(), "startAt", filterLabel);
-                ensureNull(request.getEndAt(), "endAt", filterLabel);
-            }
-            case QUANTITATIVE -> {
-                if (StringUtils.hasText(request.getTextValue())) {
-                    throw new IllegalArgumentException("textValue is not allowed for " + filterLabel);
-                }
-                if (request.getNumericValue() == null
-                        && (request.getMinValue() == null || request.getMaxValue() == null)) {
-                    throw new IllegalArgumentException(
-                            "Provide numericValue or min/max range for " + filterLabel);
-                }
-                validateNumericRange(request.getMinValue(), request.getMaxValue());
-                validateValuesAgainstDefinition(request, filter, filterLabel);
-                ensureNull(request.getStartAt(), "startAt", filterLabel);
-                ensureNull(request.getEndAt(), "endAt", filterLabel);
-            }
-            case DATETIME -> {
-                if (request.getStartAt() == null) {
-                    throw new IllegalArgumentException("startAt is required for " + filterLabel);
-                }
-                if (request.getEndAt() != null && request.getEndAt().isBefore(request.getStartAt())) {
-                    throw new IllegalArgumentException("endAt must be after startAt for " + filterLabel);
-                }
-                ensureNull(request.getTextValue(), "textValue", filterLabel);
-                ensureNull(request.getNumericValue(), "numericValue", filterLabel);
-                ensureNull(request.getMinValue(), "minValue", filterLabel);
-                ensureNull(request.getMaxValue(), "maxValue", filterLabel);
-            }
-            default -> throw new IllegalArgumentException("Unsupported filter type " + type);
-        }
-    }
-
-    private void validateValuesAgainstDefinition(final ProductFilterAssignmentRequest request,
-                                                 final Filter filter,
-                                                 final String filterLabel) {
-        BigDecimal minValue = filter.getMinValue();
-        BigDecimal maxValue = filter.getMaxValue();
-
-        if (minValue != null) {
-            if (request.getNumericValue() != null && request.getNumericValue().compareTo(minValue) < 0) {
-                throw new IllegalArgumentException("numericValue must be >= " + minValue + " for " + filterLabel);
-            }
-            if (request.getMinValue() != null && request.getMinValue().compareTo(minValue) < 0) {
-                throw new IllegalArgumentException("minValue must be >= " + minValue + " for " + filterLabel);
-            }
-        }
-        if (maxValue != null) {
-            if (request.getNumericValue() != null && request.getNumericValue().compareTo(maxValue) > 0) {
-                throw new IllegalArgumentException("numericValue must be <= " + maxValue + " for " + filterLabel);
-            }
-            if (request.getMaxValue() != null && request.getMaxValue().compareTo(maxValue) > 0) {
-                throw new IllegalArgumentException("maxValue must be <= " + maxValue + " for " + filterLabel);
-            }
-        }
-    }
-
-    private void ensureNull(final Object value, final String fieldName, final String filterLabel) {
-        if (value != null) {
-            throw new IllegalArgumentException(fieldName + " is not supported for " + filterLabel);
-        }
-    }
-
-    private void validateNumericRange(final BigDecimal min, final BigDecimal max) {
-        if (min != null && max != null && max.compareTo(min) < 0) {
-            throw new IllegalArgumentException("maxValue must be greater than or equal to minValue");
-        }
-    }
-
-
     private List<ProductFilterResponse> mapFilterResponses(final List<ProductFilter> filters) {
         if (filters == null) {
             return List.of();
@@ -521,6 +1077,7 @@ public class ProductService {
                 .name(product.getName())
                 .description(product.getDescription())
                 .images(List.copyOf(product.getImages()))
+                .primaryImage(product.getImages().isEmpty() ? null : product.getImages().get(0))
                 .categories(mapCategoryResponses(product.getCategories()))
                 .sku(product.getSku())
                 .status(product.getStatus())
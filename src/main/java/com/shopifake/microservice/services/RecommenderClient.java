@@ -0,0 +1,172 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.config.RecommenderProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.InterruptedIOException;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends products to the recommender without ever blocking catalog requests.
+ *
+ * <p>Calls run on a small dedicated executor with a bounded queue (the bulkhead) and go through a
+ * {@link CircuitBreaker}. When the queue is full or the breaker is open the call is dropped; the
+ * recommender catches up on the next change of the product. Executed calls are timed in
+ * {@code catalog.recommender.requests} by outcome, dropped ones counted in
+ * {@code catalog.recommender.dropped} by reason.</p>
+ */
+@Service
+@Slf4j
+public class RecommenderClient {
+
+    private static final String REGISTER_BATCH_PATH = "/products/register/batch";
+
+    private static final HttpHeaders JSON_HEADERS = HttpHeaders.readOnlyHttpHeaders(jsonHeaders());
+
+    private final RestTemplate restTemplate;
+    private final RecommenderProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreaker circuitBreaker;
+    private final ExecutorService executor;
+
+    /**
+     * Constructor.
+     *
+     * @param restTemplate pooled client configured by {@code RecommenderClientConfig}
+     * @param properties recommender settings
+     * @param meterRegistry registry for call metrics
+     */
+    public RecommenderClient(@Qualifier("recommenderRestTemplate") final RestTemplate restTemplate,
+                             final RecommenderProperties properties,
+                             final MeterRegistry meterRegistry) {
+        this.restTemplate = restTemplate;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.circuitBreaker = new CircuitBreaker(properties.getCircuitBreaker());
+        RecommenderProperties.Bulkhead bulkhead = properties.getBulkhead();
+        AtomicInteger threads = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(bulkhead.getThreads(), bulkhead.getThreads(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(Math.max(1, bulkhead.getQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "recommender-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "recommender");
+        Gauge.builder("catalog.recommender.circuit_state", circuitBreaker, breaker -> breaker.state().ordinal())
+                .description("0 closed, 1 open, 2 half-open")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue the registration of products; returns immediately.
+     *
+     * @param productIds ids of the products, for logging
+     * @param payload JSON body of the batch registration, see {@link RecommenderPayloadWriter}
+     */
+    public void registerProducts(final List<UUID> productIds, final byte[] payload) {
+        if (!StringUtils.hasText(properties.getUrl())) {
+            log.warn("Recommender URL not set; skipping recommender enqueue for products {}", productIds);
+            return;
+        }
+        try {
+            executor.execute(() -> send(productIds, payload));
+        } catch (RejectedExecutionException ex) {
+            drop("bulkhead_full");
+            log.warn("Recommender queue full; dropping products {}", productIds);
+        }
+    }
+
+    /**
+     * Post a batch on the calling thread, through the circuit breaker but outside the bulkhead.
+     * For callers that pace themselves and retry, such as the resync job.
+     *
+     * @param productIds ids of the products, for logging
+     * @param payload JSON body of the batch registration
+     * @return {@code true} once the recommender answered, even with a rejection of the batch;
+     *         {@code false} when it could not be reached or the circuit is open
+     */
+    public boolean sendNow(final List<UUID> productIds, final byte[] payload) {
+        if (!StringUtils.hasText(properties.getUrl())) {
+            throw new IllegalStateException("Recommender URL not set");
+        }
+        return send(productIds, payload);
+    }
+
+    private boolean send(final List<UUID> productIds, final byte[] payload) {
+        if (!circuitBreaker.tryAcquire(System.nanoTime())) {
+            drop("circuit_open");
+            log.debug("Recommender circuit open; dropping products {}", productIds);
+            return false;
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome;
+        try {
+            log.info("Sending {} products to recommender {}", productIds.size(), properties.getUrl());
+            log.debug("Sending products {}", productIds);
+            ResponseEntity<String> response = restTemplate.postForEntity(
+                    properties.getUrl() + REGISTER_BATCH_PATH, new HttpEntity<>(payload, JSON_HEADERS), String.class);
+            circuitBreaker.onSuccess();
+            outcome = "success";
+            log.debug("Recommender response status={} body={}", response.getStatusCode(), response.getBody());
+        } catch (HttpClientErrorException ex) {
+            // the recommender is up and rejected this batch: not a reason to stop calling it
+            circuitBreaker.onSuccess();
+            outcome = "client_error";
+            log.warn("Recommender rejected products {}: {}", productIds, ex.getStatusCode());
+        } catch (ResourceAccessException ex) {
+            circuitBreaker.onFailure(System.nanoTime());
+            outcome = ex.getCause() instanceof InterruptedIOException ? "timeout" : "io_error";
+            log.warn("Failed to send products {} to recommender: {}", productIds, ex.getMessage());
+        } catch (RestClientException ex) {
+            circuitBreaker.onFailure(System.nanoTime());
+            outcome = "server_error";
+            log.warn("Failed to send products {} to recommender: {}", productIds, ex.getMessage());
+        }
+        sample.stop(meterRegistry.timer("catalog.recommender.requests", "outcome", outcome));
+        return "success".equals(outcome) || "client_error".equals(outcome);
+    }
+
+    private static HttpHeaders jsonHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return headers;
+    }
+
+    private void drop(final String reason) {
+        meterRegistry.counter("catalog.recommender.dropped", "reason", reason).increment();
+    }
+
+    CircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,135 @@
+package com.shopifake.microservice.services;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.shopifake.microservice.entities.Category;
+import com.shopifake.microservice.entities.Filter;
+import com.shopifake.microservice.entities.Product;
+import com.shopifake.microservice.entities.ProductFilter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Writes the body of the recommender batch registration straight from the entities with a
+ * {@link JsonGenerator}: a JSON array with one object per product, in the field order the
+ * recommender has always received.
+ *
+ * <p>{@link #writeBatch(Iterable)} renders into a per-thread buffer that is reused across calls and
+ * only copies out the finished bytes; {@link #writeBatch(Iterable, OutputStream)} streams a batch of
+ * any size to a caller's stream.</p>
+ */
+@Component
+class RecommenderPayloadWriter {
+
+    private static final JsonFactory JSON = JsonFactory.builder()
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .build();
+
+    private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+
+    private final ThreadLocal<ByteArrayBuilder> buffers =
+            ThreadLocal.withInitial(() -> new ByteArrayBuilder(INITIAL_BUFFER_SIZE));
+
+    /**
+     * Render a batch to bytes. Must run while the products' collections can still be loaded.
+     */
+    byte[] writeBatch(final Iterable<Product> products) {
+        ByteArrayBuilder buffer = buffers.get();
+        try {
+            writeBatch(products, buffer);
+            return buffer.toByteArray();
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        } finally {
+            buffer.reset();
+        }
+    }
+
+    /**
+     * Stream a batch to {@code out}, product by product. The stream is flushed, not closed.
+     */
+    void writeBatch(final Iterable<Product> products, final OutputStream out) throws IOException {
+        try (JsonGenerator json = JSON.createGenerator(out)) {
+            json.writeStartArray();
+            for (Product product : products) {
+                writeProduct(json, product);
+            }
+            json.writeEndArray();
+        }
+    }
+
+    private void writeProduct(final JsonGenerator json, final Product product) throws IOException {
+        json.writeStartObject();
+        json.writeStringField("product_id", product.getId().toString());
+        json.writeStringField("site_id", product.getSiteId().toString());
+        json.writeStringField("name", product.getName());
+        json.writeStringField("description", product.getDescription());
+        json.writeArrayFieldStart("images");
+        for (String image : product.getImages()) {
+            json.writeString(image);
+        }
+        json.writeEndArray();
+        json.writeArrayFieldStart("categories");
+        for (Category category : product.getCategories()) {
+            json.writeStartObject();
+            json.writeStringField("id", category.getId().toString());
+            json.writeStringField("site_id", category.getSiteId().toString());
+            json.writeStringField("name", category.getName());
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+        json.writeStringField("sku", product.getSku());
+        json.writeStringField("status", product.getStatus().name());
+        json.writeNullField("price");
+        json.writeArrayFieldStart("filters");
+        for (ProductFilter assignment : product.getFilters()) {
+            Filter filter = assignment.getFilter();
+            json.writeStartObject();
+            json.writeStringField("id", filter.getId().toString());
+            json.writeStringField("name", filter.getDisplayName() != null ? filter.getDisplayName() : filter.getKey());
+            json.writeFieldName("value");
+            writeFilterValue(json, assignment);
+            json.writeEndObject();
+        }
+        json.writeEndArray();
+        json.writeObjectFieldStart("metadata");
+        json.writeEndObject();
+        json.writeEndObject();
+    }
+
+    /**
+     * The text value, the number, {@code min:max} (one side alone when the other is missing) or
+     * {@code start->end}.
+     */
+    private void writeFilterValue(final JsonGenerator json, final ProductFilter assignment) throws IOException {
+        if (StringUtils.hasText(assignment.getTextValue())) {
+            json.writeString(assignment.getTextValue());
+        } else if (assignment.getNumericValue() != null) {
+            json.writeString(plain(assignment.getNumericValue()));
+        } else if (assignment.getMinValue() != null && assignment.getMaxValue() != null) {
+            json.writeString(plain(assignment.getMinValue()) + ":" + plain(assignment.getMaxValue()));
+        } else if (assignment.getMinValue() != null || assignment.getMaxValue() != null) {
+            json.writeString(plain(assignment.getMinValue() != null ? assignment.getMinValue() : assignment.getMaxValue()));
+        } else if (assignment.getStartAt() != null || assignment.getEndAt() != null) {
+            json.writeString(text(assignment.getStartAt()) + "->" + text(assignment.getEndAt()));
+        } else {
+            json.writeNull();
+        }
+    }
+
+    private static String plain(final BigDecimal value) {
+        return value.stripTrailingZeros().toPlainString();
+    }
+
+    private static String text(final LocalDateTime value) {
+        return value != null ? value.toString() : "";
+    }
+}
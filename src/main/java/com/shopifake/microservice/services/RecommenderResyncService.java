@@ -0,0 +1,411 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.config.RecommenderProperties;
+import com.shopifake.microservice.dtos.RecommenderResyncResponse;
+import com.shopifake.microservice.entities.Product;
+import com.shopifake.microservice.entities.RecommenderResyncJob;
+import com.shopifake.microservice.entities.RecommenderResyncSite;
+import com.shopifake.microservice.entities.ResyncStatus;
+import com.shopifake.microservice.repositories.ProductRepository;
+import com.shopifake.microservice.repositories.RecommenderResyncJobRepository;
+import com.shopifake.microservice.repositories.RecommenderResyncSiteRepository;
+import com.shopifake.microservice.repositories.ResyncProgress;
+import com.shopifake.microservice.repositories.SiteProductCount;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Resends the whole catalog, or one site, to the recommender, for example after its index was
+ * rebuilt.
+ *
+ * <p>Sites are synced in parallel ({@code parallelism}); within a site products are read in id
+ * order with keyset pagination, {@code batch-size} at a time, and posted to
+ * {@code /products/register/batch} at no more than {@code rate} products per second over the whole
+ * instance. After every accepted batch the site's checkpoint (last product id) and the job's
+ * heartbeat are written, so a job interrupted by a crash or redeploy is taken over by any instance
+ * once its lease expires and continues after the last accepted batch. A batch that still fails
+ * after {@code max-attempts} marks the job failed; it can then be resumed from its checkpoints.</p>
+ */
+@Service
+@Slf4j
+public class RecommenderResyncService {
+
+    private final RecommenderResyncJobRepository jobRepository;
+    private final RecommenderResyncSiteRepository siteRepository;
+    private final ProductRepository productRepository;
+    private final RecommenderClient recommenderClient;
+    private final RecommenderPayloadWriter payloadWriter;
+    private final RecommenderProperties.Resync properties;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService workers;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final Set<UUID> ownedJobs = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger activeSites = new AtomicInteger();
+    private final Counter sentProducts;
+    private final Object pacerLock = new Object();
+    private long nextSendNanos;
+
+    /**
+     * Constructor.
+     *
+     * @param jobRepository job repository
+     * @param siteRepository per-site checkpoint repository
+     * @param productRepository product repository
+     * @param recommenderClient client posting the batches
+     * @param payloadWriter batch serializer
+     * @param properties recommender settings, of which {@code resync}
+     * @param transactionManager transaction manager for checkpoints and reads
+     * @param meterRegistry registry for progress metrics
+     */
+    public RecommenderResyncService(final RecommenderResyncJobRepository jobRepository,
+                                    final RecommenderResyncSiteRepository siteRepository,
+                                    final ProductRepository productRepository,
+                                    final RecommenderClient recommenderClient,
+                                    final RecommenderPayloadWriter payloadWriter,
+                                    final RecommenderProperties properties,
+                                    final PlatformTransactionManager transactionManager,
+                                    final MeterRegistry meterRegistry) {
+        this.jobRepository = jobRepository;
+        this.siteRepository = siteRepository;
+        this.productRepository = productRepository;
+        this.recommenderClient = recommenderClient;
+        this.payloadWriter = payloadWriter;
+        this.properties = properties.getResync();
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = ExecutorServiceMetrics.monitor(meterRegistry,
+                Executors.newFixedThreadPool(Math.max(1, this.properties.getParallelism()), runnable -> {
+                    Thread thread = new Thread(runnable, "recommender-resync-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }), "recommender-resync");
+        this.sentProducts = meterRegistry.counter("catalog.resync.products.sent");
+        Gauge.builder("catalog.resync.active_sites", activeSites, AtomicInteger::get)
+                .description("Sites being resynced by this instance")
+                .register(meterRegistry);
+        Gauge.builder("catalog.resync.jobs.owned", ownedJobs, Set::size)
+                .description("Running resync jobs leased by this instance")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Start resyncing every site, or only {@code siteId}.
+     *
+     * @throws ResponseStatusException 409 while another job is running
+     */
+    public RecommenderResyncResponse start(final UUID siteId) {
+        RecommenderResyncJob job;
+        try {
+            job = transactionTemplate.execute(status -> {
+                if (jobRepository.existsByStatus(ResyncStatus.RUNNING)) {
+                    throw alreadyRunning();
+                }
+                // Flushed so a job started concurrently elsewhere fails here on the unique running flag
+                RecommenderResyncJob created = jobRepository.saveAndFlush(RecommenderResyncJob.builder()
+                        .siteId(siteId)
+                        .status(ResyncStatus.RUNNING)
+                        .owner(instanceId)
+                        .heartbeatAt(LocalDateTime.now())
+                        .build());
+                List<SiteProductCount> counts = siteId == null
+                        ? productRepository.countBySite()
+                        : productRepository.countBySiteId(siteId);
+                siteRepository.saveAll(counts.stream()
+                        .map(count -> RecommenderResyncSite.builder()
+                                .jobId(created.getId())
+                                .siteId(count.getSiteId())
+                                .totalProducts(count.getProductCount())
+                                .build())
+                        .toList());
+                return created;
+            });
+        } catch (DataIntegrityViolationException ex) {
+            throw alreadyRunning();
+        }
+        log.info("Started recommender resync {} of {} sites", job.getId(), siteId == null ? "all" : siteId);
+        run(job.getId());
+        return getJob(job.getId());
+    }
+
+    /**
+     * Resume a failed or cancelled job from its checkpoints.
+     */
+    public RecommenderResyncResponse resume(final UUID jobId) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                if (jobRepository.existsByStatus(ResyncStatus.RUNNING)) {
+                    throw alreadyRunning();
+                }
+                if (jobRepository.reopen(jobId) == 0) {
+                    throw new IllegalArgumentException("No failed or cancelled resync job " + jobId);
+                }
+            });
+        } catch (DataIntegrityViolationException ex) {
+            throw alreadyRunning();
+        }
+        claimAndRun(jobId);
+        return getJob(jobId);
+    }
+
+    /**
+     * Stop a running job; its workers stop after their current batch, on whichever instance.
+     */
+    public RecommenderResyncResponse cancel(final UUID jobId) {
+        Integer cancelled = transactionTemplate.execute(status -> jobRepository.cancel(jobId, LocalDateTime.now()));
+        if (cancelled == null || cancelled == 0) {
+            throw new IllegalArgumentException("No running resync job " + jobId);
+        }
+        ownedJobs.remove(jobId);
+        return getJob(jobId);
+    }
+
+    /**
+     * Status and progress of a job.
+     */
+    public RecommenderResyncResponse getJob(final UUID jobId) {
+        return readOnlyTransaction.execute(status -> jobRepository.findById(jobId)
+                .map(this::toResponse)
+                .orElseThrow(() -> new IllegalArgumentException("Resync job not found: " + jobId)));
+    }
+
+    /**
+     * Status and progress of the most recent job.
+     */
+    public RecommenderResyncResponse getLatestJob() {
+        return readOnlyTransaction.execute(status -> jobRepository.findFirstByOrderByIdDesc()
+                .map(this::toResponse)
+                .orElseThrow(() -> new IllegalArgumentException("No recommender resync has been started")));
+    }
+
+    /**
+     * Renew the lease of the jobs run here and take over running jobs whose owner went silent.
+     */
+    @Scheduled(fixedDelayString = "${catalog.recommender.resync.check-interval:30s}",
+            initialDelayString = "${catalog.recommender.resync.check-interval:30s}")
+    public void maintain() {
+        for (UUID jobId : ownedJobs) {
+            if (!heartbeat(jobId)) {
+                log.info("Lost the lease of recommender resync {}", jobId);
+                ownedJobs.remove(jobId);
+            }
+        }
+        LocalDateTime staleBefore = LocalDateTime.now().minus(properties.getLeaseTimeout());
+        for (UUID jobId : jobRepository.findOrphanedIds(staleBefore)) {
+            claimAndRun(jobId);
+        }
+    }
+
+    private void claimAndRun(final UUID jobId) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = transactionTemplate.execute(status ->
+                jobRepository.claim(jobId, instanceId, now, now.minus(properties.getLeaseTimeout())));
+        if (claimed != null && claimed > 0) {
+            log.info("Resuming recommender resync {}", jobId);
+            run(jobId);
+        }
+    }
+
+    private void run(final UUID jobId) {
+        if (!ownedJobs.add(jobId)) {
+            return;
+        }
+        List<RecommenderResyncSite> pending = readOnlyTransaction.execute(
+                status -> siteRepository.findByJobIdAndDoneFalse(jobId));
+        CompletableFuture<?>[] sites = pending.stream()
+                .map(site -> CompletableFuture.runAsync(() -> syncSite(jobId, site), workers))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(sites).whenComplete((ignored, error) -> complete(jobId, error));
+    }
+
+    private void syncSite(final UUID jobId, final RecommenderResyncSite site) {
+        activeSites.incrementAndGet();
+        try {
+            UUID cursor = site.getLastProductId();
+            while (ownedJobs.contains(jobId)) {
+                UUID after = cursor;
+                List<UUID> ids = readOnlyTransaction.execute(status -> after == null
+                        ? productRepository.findIdsBySiteIdOrderById(site.getSiteId(), Limit.of(properties.getBatchSize()))
+                        : productRepository.findIdsBySiteIdAfter(site.getSiteId(), after, Limit.of(properties.getBatchSize())));
+                if (ids.isEmpty()) {
+                    transactionTemplate.executeWithoutResult(status -> siteRepository.markDone(jobId, site.getSiteId()));
+                    return;
+                }
+                byte[] payload = readOnlyTransaction.execute(status -> payloadWriter.writeBatch(loadProducts(site.getSiteId(), ids)));
+                pace(ids.size());
+                if (!deliver(jobId, ids, payload)) {
+                    return;
+                }
+                sentProducts.increment(ids.size());
+                cursor = ids.get(ids.size() - 1);
+                if (!checkpoint(jobId, site.getSiteId(), cursor, ids.size())) {
+                    ownedJobs.remove(jobId);
+                }
+            }
+        } finally {
+            activeSites.decrementAndGet();
+        }
+    }
+
+    /**
+     * Products with their images, categories and filters, each collection fetched by one query,
+     * in the order of {@code ids}.
+     */
+    private List<Product> loadProducts(final UUID siteId, final List<UUID> ids) {
+        Map<UUID, Product> products = new HashMap<>(ids.size() * 2);
+        productRepository.findAllWithImagesBySiteIdAndIdIn(siteId, ids)
+                .forEach(product -> products.put(product.getId(), product));
+        productRepository.findAllWithCategoriesBySiteIdAndIdIn(siteId, ids);
+        productRepository.findAllWithFiltersBySiteIdAndIdIn(siteId, ids);
+        return ids.stream()
+                .map(products::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private boolean deliver(final UUID jobId, final List<UUID> ids, final byte[] payload) {
+        for (int attempt = 1; ownedJobs.contains(jobId); attempt++) {
+            if (recommenderClient.sendNow(ids, payload)) {
+                return true;
+            }
+            if (attempt >= properties.getMaxAttempts()) {
+                fail(jobId, "Recommender did not accept a batch after " + attempt + " attempts");
+                return false;
+            }
+            sleep(properties.getRetryDelay().toNanos());
+        }
+        return false;
+    }
+
+    private boolean checkpoint(final UUID jobId, final UUID siteId, final UUID lastProductId, final int sent) {
+        Boolean owned = transactionTemplate.execute(status -> {
+            if (jobRepository.heartbeat(jobId, instanceId, LocalDateTime.now()) == 0) {
+                return false;
+            }
+            siteRepository.checkpoint(jobId, siteId, lastProductId, sent);
+            return true;
+        });
+        return Boolean.TRUE.equals(owned);
+    }
+
+    private boolean heartbeat(final UUID jobId) {
+        Integer renewed = transactionTemplate.execute(status ->
+                jobRepository.heartbeat(jobId, instanceId, LocalDateTime.now()));
+        return renewed != null && renewed > 0;
+    }
+
+    private void complete(final UUID jobId, final Throwable error) {
+        if (!ownedJobs.remove(jobId)) {
+            return;
+        }
+        if (error != null) {
+            log.error("Recommender resync {} failed", jobId, error);
+            finish(jobId, ResyncStatus.FAILED, String.valueOf(error.getMessage()));
+            return;
+        }
+        ResyncProgress progress = readOnlyTransaction.execute(status -> siteRepository.summarize(jobId));
+        if (progress != null && progress.getCompletedSites() == progress.getTotalSites()) {
+            finish(jobId, ResyncStatus.COMPLETED, null);
+            log.info("Recommender resync {} completed: {} products of {} sites", jobId,
+                    progress.getSentProducts(), progress.getTotalSites());
+        }
+    }
+
+    private void fail(final UUID jobId, final String error) {
+        if (ownedJobs.remove(jobId)) {
+            log.warn("Recommender resync {} failed: {}", jobId, error);
+            finish(jobId, ResyncStatus.FAILED, error);
+        }
+    }
+
+    private static ResponseStatusException alreadyRunning() {
+        return new ResponseStatusException(HttpStatus.CONFLICT, "A recommender resync is already running");
+    }
+
+    private void finish(final UUID jobId, final ResyncStatus status, final String error) {
+        transactionTemplate.executeWithoutResult(tx ->
+                jobRepository.finish(jobId, instanceId, status, LocalDateTime.now(), error));
+    }
+
+    /**
+     * Wait for the instance-wide send budget of {@code products}.
+     */
+    private void pace(final int products) {
+        if (properties.getRate() <= 0) {
+            return;
+        }
+        long cost = (long) (products * TimeUnit.SECONDS.toNanos(1) / properties.getRate());
+        long wait;
+        synchronized (pacerLock) {
+            long now = System.nanoTime();
+            long start = Math.max(now, nextSendNanos);
+            nextSendNanos = start + cost;
+            wait = start - now;
+        }
+        sleep(wait);
+    }
+
+    private static void sleep(final long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while resyncing the recommender", ex);
+        }
+    }
+
+    private RecommenderResyncResponse toResponse(final RecommenderResyncJob job) {
+        ResyncProgress progress = siteRepository.summarize(job.getId());
+        return RecommenderResyncResponse.builder()
+                .jobId(job.getId())
+                .siteId(job.getSiteId())
+                .status(job.getStatus())
+                .totalSites(progress.getTotalSites())
+                .completedSites(progress.getCompletedSites())
+                .totalProducts(progress.getTotalProducts())
+                .sentProducts(progress.getSentProducts())
+                .startedAt(job.getStartedAt())
+                .heartbeatAt(job.getHeartbeatAt())
+                .finishedAt(job.getFinishedAt())
+                .error(job.getError())
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        ownedJobs.clear();
+        workers.shutdown();
+        workers.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,165 @@
+package com.shopifake.microservice.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shopifake.microservice.config.AdmissionProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-site rate limiting and concurrency bulkheads, kept separately for storefront reads and
+ * admin writes so one site's traffic cannot starve the others.
+ *
+ * <p>The token bucket is a single {@link AtomicLong} holding the theoretical arrival time of the
+ * next request (GCRA) and the bulkhead a single {@link AtomicInteger}; both are updated with
+ * compare-and-set, so admission never blocks. Rejections are counted in
+ * {@code catalog.admission.rejected}, tagged with the site, traffic class and reason.</p>
+ */
+@Service
+public class SiteAdmissionControl {
+
+    /**
+     * Traffic classes with independent limits.
+     */
+    public enum Traffic {
+        READ,
+        WRITE
+    }
+
+    /**
+     * Admitted request holding a bulkhead slot until released.
+     */
+    @FunctionalInterface
+    public interface Permit extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    private static final Permit UNLIMITED = () -> { };
+
+    private final AdmissionProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Cache<Key, Limiter> limiters;
+
+    /**
+     * Constructor.
+     *
+     * @param properties configured limits
+     * @param meterRegistry registry for admission metrics
+     */
+    public SiteAdmissionControl(final AdmissionProperties properties, final MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.limiters = Caffeine.newBuilder().expireAfterAccess(properties.getIdleExpiry()).build();
+    }
+
+    /**
+     * Admit a request of a site or throw {@link SiteThrottledException}.
+     *
+     * @return permit to close once the request has completed
+     */
+    public Permit admit(final UUID siteId, final Traffic traffic) {
+        if (!properties.isEnabled()) {
+            return UNLIMITED;
+        }
+        Limiter limiter = limiters.get(new Key(siteId, traffic), this::createLimiter);
+        long waitNanos = limiter.tryTake(System.nanoTime());
+        if (waitNanos > 0) {
+            throw reject(siteId, traffic, "rate", "Request rate limit exceeded for site " + siteId,
+                    Duration.ofNanos(waitNanos));
+        }
+        if (!limiter.tryEnter()) {
+            throw reject(siteId, traffic, "concurrency", "Too many concurrent requests for site " + siteId,
+                    Duration.ofSeconds(1));
+        }
+        return limiter::exit;
+    }
+
+    private SiteThrottledException reject(final UUID siteId,
+                                          final Traffic traffic,
+                                          final String reason,
+                                          final String message,
+                                          final Duration retryAfter) {
+        meterRegistry.counter("catalog.admission.rejected",
+                "site", siteId.toString(),
+                "traffic", traffic.name().toLowerCase(Locale.ROOT),
+                "reason", reason).increment();
+        return new SiteThrottledException(message, retryAfter);
+    }
+
+    private Limiter createLimiter(final Key key) {
+        AdmissionProperties.SiteLimits site = properties.getSites().get(key.siteId().toString());
+        AdmissionProperties.Limits defaults = key.traffic() == Traffic.READ
+                ? properties.getReads()
+                : properties.getWrites();
+        AdmissionProperties.Limits limits = site == null
+                ? defaults
+                : (key.traffic() == Traffic.READ ? site.getReads() : site.getWrites()).orElse(defaults);
+        return new Limiter(limits);
+    }
+
+    private record Key(UUID siteId, Traffic traffic) {
+    }
+
+    /**
+     * Token bucket and bulkhead of one site and traffic class.
+     */
+    static final class Limiter {
+
+        private final long intervalNanos;
+        private final long toleranceNanos;
+        private final int maxConcurrent;
+        private final AtomicLong nextArrival;
+        private final AtomicInteger inFlight = new AtomicInteger();
+
+        Limiter(final AdmissionProperties.Limits limits) {
+            this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / limits.getRate()));
+            this.toleranceNanos = intervalNanos * Math.max(1, limits.getBurst());
+            this.maxConcurrent = limits.getMaxConcurrent();
+            this.nextArrival = new AtomicLong(System.nanoTime());
+        }
+
+        /**
+         * Take a token at {@code now}.
+         *
+         * @return 0 when taken, otherwise nanoseconds until one is available
+         */
+        long tryTake(final long now) {
+            while (true) {
+                long current = nextArrival.get();
+                long next = (current - now > 0 ? current : now) + intervalNanos;
+                long wait = next - now - toleranceNanos;
+                if (wait > 0) {
+                    return wait;
+                }
+                if (nextArrival.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+
+        boolean tryEnter() {
+            while (true) {
+                int current = inFlight.get();
+                if (current >= maxConcurrent) {
+                    return false;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        void exit() {
+            inFlight.decrementAndGet();
+        }
+    }
+}
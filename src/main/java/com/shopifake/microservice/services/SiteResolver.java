@@ -0,0 +1,161 @@
+package com.shopifake.microservice.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shopifake.microservice.config.AdmissionProperties;
+import com.shopifake.microservice.entities.Category;
+import com.shopifake.microservice.entities.Filter;
+import com.shopifake.microservice.repositories.CategoryRepository;
+import com.shopifake.microservice.repositories.FilterRepository;
+import com.shopifake.microservice.repositories.ProductIdentity;
+import com.shopifake.microservice.repositories.ProductRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Finds the site of requests that address catalog entities only by id or SKU, so they are charged
+ * to that site's admission limits.
+ *
+ * <p>A product never moves to another site, so product sites are cached by id for the lifetime of
+ * the instance; categories and filters come from the second-level cache. Unknown ids resolve to no
+ * site and are left to the controller to reject. They are remembered for
+ * {@code catalog.admission.unknown-id-ttl} so that repeating them, which no site is charged for,
+ * does not reach the database each time; ids are generated by the service, so an unknown id
+ * does not come into existence within that window in practice.</p>
+ */
+@Component
+public class SiteResolver {
+
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final FilterRepository filterRepository;
+    private final Cache<UUID, UUID> productSites;
+    private final Cache<UUID, Boolean> unknownIds;
+    private final int maxKeys;
+
+    /**
+     * Constructor.
+     *
+     * @param productRepository product repository
+     * @param categoryRepository category repository
+     * @param filterRepository filter repository
+     * @param properties admission settings sizing the site caches
+     * @param maxKeys ids or SKUs resolved per request, as accepted by the multi-get endpoints
+     */
+    public SiteResolver(final ProductRepository productRepository,
+                        final CategoryRepository categoryRepository,
+                        final FilterRepository filterRepository,
+                        final AdmissionProperties properties,
+                        @Value("${catalog.multi-get.max-items:500}") final int maxKeys) {
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.filterRepository = filterRepository;
+        this.productSites = Caffeine.newBuilder().maximumSize(properties.getSiteCacheSize()).build();
+        this.unknownIds = Caffeine.newBuilder()
+                .maximumSize(properties.getSiteCacheSize())
+                .expireAfterWrite(properties.getUnknownIdTtl())
+                .build();
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * Site of a product, or {@code null} when it does not exist.
+     */
+    public UUID productSite(final UUID productId) {
+        UUID siteId = productSites.getIfPresent(productId);
+        if (siteId != null || isUnknown(productId)) {
+            return siteId;
+        }
+        return productRepository.findIdentityById(productId)
+                .map(this::remember)
+                .orElseGet(() -> forget(productId));
+    }
+
+    /**
+     * Distinct sites of the existing products among {@code productIds}; nothing when there are
+     * more ids than a multi-get accepts, since the request is rejected anyway.
+     */
+    public Set<UUID> productSites(final Collection<UUID> productIds) {
+        Set<UUID> siteIds = new LinkedHashSet<>();
+        if (productIds == null || productIds.size() > maxKeys) {
+            return siteIds;
+        }
+        List<UUID> missing = new ArrayList<>();
+        for (UUID productId : productIds) {
+            UUID siteId = productId == null ? null : productSites.getIfPresent(productId);
+            if (siteId != null) {
+                siteIds.add(siteId);
+            } else if (productId != null && !isUnknown(productId)) {
+                missing.add(productId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            Set<UUID> found = new HashSet<>();
+            for (ProductIdentity product : productRepository.findByIdIn(missing, ProductIdentity.class)) {
+                siteIds.add(remember(product));
+                found.add(product.getId());
+            }
+            missing.stream().filter(productId -> !found.contains(productId)).forEach(this::forget);
+        }
+        return siteIds;
+    }
+
+    /**
+     * Distinct sites of the existing products holding {@code skus}, compared case-insensitively.
+     */
+    public Set<UUID> productSitesBySku(final Collection<String> skus) {
+        Set<UUID> siteIds = new LinkedHashSet<>();
+        if (skus == null || skus.isEmpty() || skus.size() > maxKeys) {
+            return siteIds;
+        }
+        List<String> normalized = skus.stream()
+                .filter(sku -> sku != null && !sku.isBlank())
+                .map(sku -> sku.trim().toUpperCase())
+                .toList();
+        productRepository.findBySkuIn(normalized, ProductIdentity.class)
+                .forEach(product -> siteIds.add(remember(product)));
+        return siteIds;
+    }
+
+    /**
+     * Site of a category, or {@code null} when it does not exist.
+     */
+    public UUID categorySite(final UUID categoryId) {
+        if (isUnknown(categoryId)) {
+            return null;
+        }
+        return categoryRepository.findById(categoryId).map(Category::getSiteId).orElseGet(() -> forget(categoryId));
+    }
+
+    /**
+     * Site of a filter, or {@code null} when it does not exist.
+     */
+    public UUID filterSite(final UUID filterId) {
+        if (isUnknown(filterId)) {
+            return null;
+        }
+        return filterRepository.findById(filterId).map(Filter::getSiteId).orElseGet(() -> forget(filterId));
+    }
+
+    private UUID remember(final ProductIdentity product) {
+        productSites.put(product.getId(), product.getSiteId());
+        return product.getSiteId();
+    }
+
+    private boolean isUnknown(final UUID id) {
+        return unknownIds.getIfPresent(id) != null;
+    }
+
+    private UUID forget(final UUID id) {
+        unknownIds.put(id, Boolean.TRUE);
+        return null;
+    }
+}
@@ -0,0 +1,38 @@
+package com.shopifake.microservice.services;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+
+/**
+ * A site exceeded its request rate or concurrency limit; rendered as 429 with {@code Retry-After}.
+ */
+public class SiteThrottledException extends ResponseStatusException {
+
+    private final long retryAfterSeconds;
+
+    /**
+     * Constructor.
+     *
+     * @param reason message returned to the client
+     * @param retryAfter time after which the request is expected to be admitted
+     */
+    public SiteThrottledException(final String reason, final Duration retryAfter) {
+        super(HttpStatus.TOO_MANY_REQUESTS, reason);
+        long seconds = retryAfter.toSeconds() + (retryAfter.toNanosPart() > 0 ? 1 : 0);
+        this.retryAfterSeconds = Math.max(1, seconds);
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    @Override
+    public HttpHeaders getHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        return headers;
+    }
+}
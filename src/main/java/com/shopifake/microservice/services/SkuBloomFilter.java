@@ -0,0 +1,207 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.repositories.ProductRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.Stream;
+
+/**
+ * In-memory counting Bloom filter of product SKUs (upper-cased).
+ *
+ * <p>A negative answer means the SKU is definitely not in this replica's view of the catalog, so
+ * uniqueness checks can skip the database. The filter is a fast path only: the database unique
+ * constraint remains the source of truth for SKUs written by other replicas or concurrent requests.
+ * Until the startup build completes every lookup answers "maybe".</p>
+ */
+@Component
+@Slf4j
+public class SkuBloomFilter {
+
+    private static final int COUNTERS_PER_WORD = 16;
+    private static final int COUNTER_BITS = 4;
+    private static final long COUNTER_MASK = 0xFL;
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final ProductRepository productRepository;
+    private final long counters;
+    private final int hashes;
+
+    /**
+     * Counters currently answering lookups, or {@code null} before the first build.
+     */
+    private volatile AtomicLongArray active;
+
+    /**
+     * Counters being populated by a rebuild; writes go to both arrays meanwhile.
+     */
+    private volatile AtomicLongArray building;
+
+    /**
+     * Constructor.
+     *
+     * @param productRepository repository used to load existing SKUs
+     * @param expectedInsertions number of SKUs the filter is sized for
+     * @param falsePositiveRate target false positive probability at that size
+     */
+    public SkuBloomFilter(final ProductRepository productRepository,
+                          @Value("${catalog.sku-bloom.expected-insertions:1000000}") final long expectedInsertions,
+                          @Value("${catalog.sku-bloom.false-positive-rate:0.01}") final double falsePositiveRate) {
+        if (expectedInsertions <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid SKU Bloom filter sizing");
+        }
+        this.productRepository = productRepository;
+        double ln2 = Math.log(2);
+        this.counters = Math.max(COUNTERS_PER_WORD,
+                (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2)));
+        this.hashes = Math.max(1, (int) Math.round((double) counters / expectedInsertions * ln2));
+    }
+
+    /**
+     * Load every existing SKU once the application is ready.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        AtomicLongArray fresh = newCounters();
+        building = fresh;
+        long loaded = 0;
+        try (Stream<String> skus = productRepository.streamAllSkus()) {
+            for (String sku : (Iterable<String>) skus::iterator) {
+                increment(fresh, sku);
+                loaded++;
+            }
+        } catch (RuntimeException ex) {
+            building = null;
+            log.warn("Failed to build SKU Bloom filter; uniqueness checks will query the database: {}",
+                    ex.getMessage());
+            return;
+        }
+        active = fresh;
+        building = null;
+        log.info("SKU Bloom filter built with {} SKUs ({} counters, {} hashes)", loaded, counters, hashes);
+    }
+
+    /**
+     * Whether the SKU may already exist. {@code false} is definitive for this replica.
+     */
+    public boolean mightContain(final String sku) {
+        AtomicLongArray current = active;
+        if (current == null) {
+            return true;
+        }
+        long h1 = hash(sku);
+        long h2 = secondaryHash(h1);
+        for (int i = 0; i < hashes; i++) {
+            if (counter(current, index(h1, h2, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Record a SKU. Safe to call before the owning transaction commits: a rollback only leaves a false positive.
+     */
+    public void put(final String sku) {
+        AtomicLongArray current = active;
+        if (current != null) {
+            increment(current, sku);
+        }
+        AtomicLongArray pending = building;
+        if (pending != null && pending != current) {
+            increment(pending, sku);
+        }
+    }
+
+    /**
+     * Forget a SKU. Call only after the delete or rename has committed.
+     */
+    public void remove(final String sku) {
+        AtomicLongArray current = active;
+        if (current == null || !mightContain(sku)) {
+            return;
+        }
+        long h1 = hash(sku);
+        long h2 = secondaryHash(h1);
+        for (int i = 0; i < hashes; i++) {
+            decrement(current, index(h1, h2, i));
+        }
+    }
+
+    private AtomicLongArray newCounters() {
+        return new AtomicLongArray((int) ((counters + COUNTERS_PER_WORD - 1) / COUNTERS_PER_WORD));
+    }
+
+    private void increment(final AtomicLongArray array, final String sku) {
+        long h1 = hash(sku);
+        long h2 = secondaryHash(h1);
+        for (int i = 0; i < hashes; i++) {
+            long index = index(h1, h2, i);
+            int word = (int) (index / COUNTERS_PER_WORD);
+            int shift = (int) (index % COUNTERS_PER_WORD) * COUNTER_BITS;
+            while (true) {
+                long old = array.get(word);
+                if (((old >>> shift) & COUNTER_MASK) == COUNTER_MASK) {
+                    break;
+                }
+                if (array.compareAndSet(word, old, old + (1L << shift))) {
+                    break;
+                }
+            }
+        }
+    }
+
+    private void decrement(final AtomicLongArray array, final long index) {
+        int word = (int) (index / COUNTERS_PER_WORD);
+        int shift = (int) (index % COUNTERS_PER_WORD) * COUNTER_BITS;
+        while (true) {
+            long old = array.get(word);
+            long value = (old >>> shift) & COUNTER_MASK;
+            // Saturated counters have lost their exact count and must stay set.
+            if (value == 0 || value == COUNTER_MASK) {
+                return;
+            }
+            if (array.compareAndSet(word, old, old - (1L << shift))) {
+                return;
+            }
+        }
+    }
+
+    private long counter(final AtomicLongArray array, final long index) {
+        int word = (int) (index / COUNTERS_PER_WORD);
+        int shift = (int) (index % COUNTERS_PER_WORD) * COUNTER_BITS;
+        return (array.get(word) >>> shift) & COUNTER_MASK;
+    }
+
+    private long index(final long h1, final long h2, final int i) {
+        return Math.floorMod(h1 + i * h2, counters);
+    }
+
+    private static long hash(final String sku) {
+        long hash = FNV_OFFSET;
+        for (int i = 0; i < sku.length(); i++) {
+            hash ^= Character.toUpperCase(sku.charAt(i));
+            hash *= FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    private static long secondaryHash(final long h1) {
+        return mix(h1 ^ GOLDEN_GAMMA) | 1L;
+    }
+
+    private static long mix(final long value) {
+        long z = value;
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb93fe53e7b87L;
+        return z ^ (z >>> 33);
+    }
+}
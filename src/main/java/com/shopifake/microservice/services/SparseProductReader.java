@@ -0,0 +1,187 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.dtos.CategoryResponse;
+import com.shopifake.microservice.dtos.ProductFilterResponse;
+import com.shopifake.microservice.dtos.ProductResponse;
+import com.shopifake.microservice.entities.ProductStatus;
+import com.shopifake.microservice.repositories.ProductCategoryRow;
+import com.shopifake.microservice.repositories.ProductDetailSummary;
+import com.shopifake.microservice.repositories.ProductFilterRow;
+import com.shopifake.microservice.repositories.ProductImageRow;
+import com.shopifake.microservice.repositories.ProductRepository;
+import com.shopifake.microservice.repositories.ProductSummary;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Reads products through projections, loading only the columns and collections a
+ * {@link ProductFieldSelection} asks for.
+ *
+ * <p>Scalar columns come from one projected query; the description column is only selected
+ * when requested. Each requested collection is loaded with one batched query per chunk of
+ * product ids instead of initializing entity collections one product at a time.</p>
+ */
+@Component
+@RequiredArgsConstructor
+class SparseProductReader {
+
+    private static final int ID_CHUNK_SIZE = 500;
+
+    private final ProductRepository productRepository;
+
+    /**
+     * Load one product, or {@code null} if it does not exist.
+     */
+    ProductResponse findById(final UUID productId, final ProductFieldSelection selection) {
+        return productRepository.findProjectedById(productId, summaryType(selection))
+                .map(summary -> read(List.of(summary), selection).get(0))
+                .orElse(null);
+    }
+
+    /**
+     * Load the existing products among {@code ids}, keyed by id.
+     */
+    Map<UUID, ProductResponse> findAllById(final Collection<UUID> ids, final ProductFieldSelection selection) {
+        return index(productRepository.findByIdIn(ids, summaryType(selection)), selection, ProductSummary::getId);
+    }
+
+    /**
+     * Load the existing products among upper-cased {@code skus}, keyed by SKU.
+     */
+    Map<String, ProductResponse> findAllBySku(final Collection<String> skus, final ProductFieldSelection selection) {
+        return index(productRepository.findBySkuIn(skus, summaryType(selection)), selection, ProductSummary::getSku);
+    }
+
+    /**
+     * List products optionally filtered by site and status.
+     */
+    List<ProductResponse> list(final UUID siteId, final ProductStatus status, final ProductFieldSelection selection) {
+        Class<? extends ProductSummary> type = summaryType(selection);
+        List<? extends ProductSummary> summaries;
+        if (siteId != null && status != null) {
+            summaries = productRepository.findBySiteIdAndStatus(siteId, status, type);
+        } else if (siteId != null) {
+            summaries = productRepository.findBySiteId(siteId, type);
+        } else if (status != null) {
+            summaries = productRepository.findByStatus(status, type);
+        } else {
+            summaries = productRepository.findProjectedBy(type);
+        }
+        return read(summaries, selection);
+    }
+
+    private <K> Map<K, ProductResponse> index(final List<? extends ProductSummary> summaries,
+                                              final ProductFieldSelection selection,
+                                              final Function<ProductSummary, K> key) {
+        List<ProductResponse> responses = read(summaries, selection);
+        Map<K, ProductResponse> indexed = new HashMap<>(summaries.size() * 2);
+        for (int i = 0; i < summaries.size(); i++) {
+            indexed.put(key.apply(summaries.get(i)), responses.get(i));
+        }
+        return indexed;
+    }
+
+    private List<ProductResponse> read(final List<? extends ProductSummary> summaries,
+                                       final ProductFieldSelection selection) {
+        List<UUID> ids = summaries.stream().map(ProductSummary::getId).toList();
+        boolean allImages = selection.has(ProductFieldSelection.IMAGES);
+        Map<UUID, List<String>> images = allImages || selection.has(ProductFieldSelection.PRIMARY_IMAGE)
+                ? loadImages(ids, allImages)
+                : Map.of();
+        Map<UUID, List<CategoryResponse>> categories = selection.includes(ProductFieldSelection.CATEGORIES)
+                ? group(ids, productRepository::findCategoryRows, ProductCategoryRow::getProductId,
+                        SparseProductReader::mapCategory)
+                : null;
+        Map<UUID, List<ProductFilterResponse>> filters = selection.includes(ProductFieldSelection.FILTERS)
+                ? group(ids, productRepository::findFilterRows, ProductFilterRow::getProductId,
+                        SparseProductReader::mapFilter)
+                : null;
+
+        List<ProductResponse> responses = new ArrayList<>(summaries.size());
+        for (ProductSummary summary : summaries) {
+            UUID id = summary.getId();
+            List<String> productImages = images.getOrDefault(id, List.of());
+            responses.add(ProductResponse.builder()
+                    .id(id)
+                    .siteId(selection.has("siteId") ? summary.getSiteId() : null)
+                    .name(selection.has("name") ? summary.getName() : null)
+                    .description(summary instanceof ProductDetailSummary detail ? detail.getDescription() : null)
+                    .images(allImages ? productImages : null)
+                    .primaryImage(selection.has(ProductFieldSelection.PRIMARY_IMAGE) && !productImages.isEmpty()
+                            ? productImages.get(0) : null)
+                    .sku(selection.has("sku") ? summary.getSku() : null)
+                    .status(selection.has("status") ? summary.getStatus() : null)
+                    .scheduledPublishAt(selection.has("scheduledPublishAt") ? summary.getScheduledPublishAt() : null)
+                    .publishedAt(selection.has("publishedAt") ? summary.getPublishedAt() : null)
+                    .createdAt(selection.has("createdAt") ? summary.getCreatedAt() : null)
+                    .updatedAt(selection.has("updatedAt") ? summary.getUpdatedAt() : null)
+                    .categories(categories == null ? null : categories.getOrDefault(id, List.of()))
+                    .filters(filters == null ? null : filters.getOrDefault(id, List.of()))
+                    .build());
+        }
+        return responses;
+    }
+
+    private static Class<? extends ProductSummary> summaryType(final ProductFieldSelection selection) {
+        return selection.has(ProductFieldSelection.DESCRIPTION) ? ProductDetailSummary.class : ProductSummary.class;
+    }
+
+    private Map<UUID, List<String>> loadImages(final List<UUID> ids, final boolean allImages) {
+        Map<UUID, List<ProductImageRow>> rows = group(ids,
+                allImages ? productRepository::findImageRows : productRepository::findPrimaryImageRows,
+                ProductImageRow::getProductId, Function.identity());
+        Map<UUID, List<String>> images = new HashMap<>(rows.size() * 2);
+        rows.forEach((productId, productRows) -> images.put(productId, productRows.stream()
+                .sorted(Comparator.comparingInt(ProductImageRow::getPosition))
+                .map(ProductImageRow::getImageUrl)
+                .toList()));
+        return images;
+    }
+
+    private static <R, T> Map<UUID, List<T>> group(final List<UUID> ids,
+                                                   final Function<Collection<UUID>, List<R>> query,
+                                                   final Function<R, UUID> productId,
+                                                   final Function<R, T> mapper) {
+        Map<UUID, List<T>> grouped = new HashMap<>();
+        for (int start = 0; start < ids.size(); start += ID_CHUNK_SIZE) {
+            for (R row : query.apply(ids.subList(start, Math.min(ids.size(), start + ID_CHUNK_SIZE)))) {
+                grouped.computeIfAbsent(productId.apply(row), key -> new ArrayList<>()).add(mapper.apply(row));
+            }
+        }
+        return grouped;
+    }
+
+    private static CategoryResponse mapCategory(final ProductCategoryRow row) {
+        return CategoryResponse.builder()
+                .id(row.getId())
+                .siteId(row.getSiteId())
+                .name(row.getName())
+                .createdAt(row.getCreatedAt())
+                .build();
+    }
+
+    private static ProductFilterResponse mapFilter(final ProductFilterRow row) {
+        return ProductFilterResponse.builder()
+                .filterId(row.getFilterId())
+                .key(row.getKey())
+                .categoryId(row.getCategoryId())
+                .categoryName(row.getCategoryName())
+                .type(row.getType())
+                .displayName(row.getDisplayName())
+                .textValue(row.getTextValue())
+                .numericValue(row.getNumericValue())
+                .startAt(row.getStartAt())
+                .endAt(row.getEndAt())
+                .unit(row.getUnit())
+                .build();
+    }
+}
@@ -0,0 +1,135 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.entities.CatalogEntityType;
+import com.shopifake.microservice.entities.CatalogUsageCounter;
+import com.shopifake.microservice.repositories.CatalogUsageCounterRepository;
+import com.shopifake.microservice.repositories.CategoryRepository;
+import com.shopifake.microservice.repositories.FilterRepository;
+import com.shopifake.microservice.repositories.ProductRepository;
+import com.shopifake.microservice.repositories.SiteScopedId;
+import com.shopifake.microservice.repositories.UsageCount;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.ToLongFunction;
+
+/**
+ * Periodically compares usage counters with the real product links and repairs drift.
+ *
+ * <p>Candidates are found with two cheap aggregate scans. Each one is then repaired in its own
+ * transaction that first locks all slots of the counter and only then recounts, so writers that
+ * commit concurrently are either included in the recount or applied after the reset.</p>
+ */
+@Component
+@Slf4j
+public class UsageCounterReconciler {
+
+    private final CatalogUsageCounterRepository counterRepository;
+    private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
+    private final FilterRepository filterRepository;
+    private final CatalogUsageCounters usageCounters;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter repaired;
+
+    /**
+     * Constructor.
+     *
+     * @param counterRepository counter repository
+     * @param productRepository product repository used to recount links
+     * @param categoryRepository category repository
+     * @param filterRepository filter repository
+     * @param usageCounters counters service
+     * @param transactionManager transaction manager for per-counter repairs
+     * @param meterRegistry registry for the repair metric
+     */
+    public UsageCounterReconciler(final CatalogUsageCounterRepository counterRepository,
+                                  final ProductRepository productRepository,
+                                  final CategoryRepository categoryRepository,
+                                  final FilterRepository filterRepository,
+                                  final CatalogUsageCounters usageCounters,
+                                  final PlatformTransactionManager transactionManager,
+                                  final MeterRegistry meterRegistry) {
+        this.counterRepository = counterRepository;
+        this.productRepository = productRepository;
+        this.categoryRepository = categoryRepository;
+        this.filterRepository = filterRepository;
+        this.usageCounters = usageCounters;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.repaired = meterRegistry.counter("catalog.usage_counters.repaired");
+    }
+
+    /**
+     * Repair every drifted category and filter counter.
+     *
+     * @return number of counters repaired or removed
+     */
+    @Scheduled(fixedDelayString = "${catalog.usage-counters.reconcile-interval:1h}",
+            initialDelayString = "${catalog.usage-counters.reconcile-interval:1h}")
+    public int reconcile() {
+        int fixed = reconcile(CatalogEntityType.CATEGORY, categoryRepository.findAllSiteScopedIds(),
+                productRepository.countByCategory(), productRepository::countByCategoryId);
+        fixed += reconcile(CatalogEntityType.FILTER, filterRepository.findAllSiteScopedIds(),
+                productRepository.countByFilter(), productRepository::countByFilterId);
+        if (fixed > 0) {
+            log.info("Repaired {} usage counters", fixed);
+        }
+        return fixed;
+    }
+
+    private int reconcile(final CatalogEntityType entityType,
+                          final List<SiteScopedId> entities,
+                          final List<UsageCount> actual,
+                          final ToLongFunction<UUID> recount) {
+        Map<UUID, Long> expected = new HashMap<>(actual.size() * 2);
+        actual.forEach(count -> expected.put(count.getEntityId(), count.getProductCount()));
+        Map<UUID, Long> counted = usageCounters.counts(null, entityType);
+
+        int fixed = 0;
+        Set<UUID> existing = new HashSet<>(entities.size() * 2);
+        for (SiteScopedId entity : entities) {
+            existing.add(entity.getId());
+            Long current = counted.get(entity.getId());
+            if (current != null && current.longValue() == expected.getOrDefault(entity.getId(), 0L)) {
+                continue;
+            }
+            repair(entityType, entity, current == null, recount);
+            fixed++;
+        }
+        List<UUID> orphans = new ArrayList<>();
+        counted.keySet().stream().filter(id -> !existing.contains(id)).forEach(orphans::add);
+        if (!orphans.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> counterRepository.deleteByEntityIds(orphans));
+            fixed += orphans.size();
+        }
+        repaired.increment(fixed);
+        return fixed;
+    }
+
+    private void repair(final CatalogEntityType entityType,
+                        final SiteScopedId entity,
+                        final boolean missing,
+                        final ToLongFunction<UUID> recount) {
+        transactionTemplate.executeWithoutResult(status -> {
+            if (missing || counterRepository.lock(entity.getId()) < CatalogUsageCounter.SLOTS) {
+                usageCounters.initialize(entityType, entity.getSiteId(), entity.getId());
+                counterRepository.lock(entity.getId());
+            }
+            long count = recount.applyAsLong(entity.getId());
+            counterRepository.reset(entity.getId(), count);
+            log.debug("Reset {} {} usage counter to {}", entityType, entity.getId(), count);
+        });
+    }
+}
@@ -0,0 +1,10 @@
+-- Scope product filter assignments by site
+-- Denormalizes products.site_id onto product_filters so the table can be partitioned
+-- alongside products (see V3__Partition_products_by_site).
+
+ALTER TABLE product_filters ADD COLUMN site_id UUID;
+
+UPDATE product_filters
+SET site_id = (SELECT p.site_id FROM products p WHERE p.id = product_filters.product_id);
+
+ALTER TABLE product_filters ALTER COLUMN site_id SET NOT NULL;
@@ -0,0 +1,18 @@
+-- Durable change log feeding GET /products/changes
+-- Sequence numbers are allocated per site from catalog_change_sequences; the row lock taken by
+-- the allocating UPDATE is held until commit, so seq order within a site is commit order.
+
+CREATE TABLE catalog_change_sequences (
+    site_id UUID PRIMARY KEY,
+    last_seq BIGINT NOT NULL
+);
+
+CREATE TABLE catalog_changes (
+    site_id UUID NOT NULL,
+    seq BIGINT NOT NULL,
+    entity_type VARCHAR(25) NOT NULL,
+    entity_id UUID NOT NULL,
+    change_type VARCHAR(25) NOT NULL,
+    changed_at TIMESTAMP NOT NULL,
+    PRIMARY KEY (site_id, seq)
+);
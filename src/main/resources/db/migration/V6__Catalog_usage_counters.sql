@@ -0,0 +1,30 @@
+-- Materialized number of products using each category and filter
+-- Every counter is split over 8 slots (see CatalogUsageCounter.SLOTS) so concurrent writers
+-- update different rows; the count is the sum of the slots. Existing links are counted into slot 0.
+
+CREATE TABLE catalog_usage_counters (
+    entity_id UUID NOT NULL,
+    slot INTEGER NOT NULL,
+    entity_type VARCHAR(25) NOT NULL,
+    site_id UUID NOT NULL,
+    product_count BIGINT NOT NULL,
+    PRIMARY KEY (entity_id, slot)
+);
+
+CREATE INDEX idx_catalog_usage_counters_site ON catalog_usage_counters(site_id, entity_type);
+
+INSERT INTO catalog_usage_counters (entity_id, slot, entity_type, site_id, product_count)
+SELECT c.id, s.slot, 'CATEGORY', c.site_id,
+       CASE WHEN s.slot = 0
+            THEN (SELECT COUNT(*) FROM product_categories pc WHERE pc.category_id = c.id)
+            ELSE 0 END
+FROM categories c
+CROSS JOIN (VALUES (0), (1), (2), (3), (4), (5), (6), (7)) AS s(slot);
+
+INSERT INTO catalog_usage_counters (entity_id, slot, entity_type, site_id, product_count)
+SELECT f.id, s.slot, 'FILTER', f.site_id,
+       CASE WHEN s.slot = 0
+            THEN (SELECT COUNT(DISTINCT pf.product_id) FROM product_filters pf WHERE pf.filter_id = f.id)
+            ELSE 0 END
+FROM filters f
+CROSS JOIN (VALUES (0), (1), (2), (3), (4), (5), (6), (7)) AS s(slot);
@@ -0,0 +1,33 @@
+-- Full catalog resync jobs to the recommender (POST /recommender/resync)
+-- A job is run by the instance holding its lease (owner + heartbeat_at); another instance takes
+-- it over once the heartbeat is older than catalog.recommender.resync.lease-timeout. Each site
+-- resumes after last_product_id, the highest product id already sent in id order.
+-- running is TRUE for the running job and NULL otherwise; its unique constraint allows a single
+-- running job even when two instances start one at the same time.
+
+CREATE TABLE recommender_resync_jobs (
+    id UUID PRIMARY KEY,
+    site_id UUID,
+    status VARCHAR(25) NOT NULL,
+    owner VARCHAR(100),
+    heartbeat_at TIMESTAMP,
+    started_at TIMESTAMP NOT NULL,
+    finished_at TIMESTAMP,
+    error VARCHAR(1000),
+    running BOOLEAN,
+    CONSTRAINT uq_recommender_resync_jobs_running UNIQUE (running)
+);
+
+CREATE INDEX idx_recommender_resync_jobs_status ON recommender_resync_jobs(status);
+
+CREATE TABLE recommender_resync_sites (
+    job_id UUID NOT NULL,
+    site_id UUID NOT NULL,
+    last_product_id UUID,
+    total_products BIGINT NOT NULL,
+    sent_products BIGINT NOT NULL,
+    done BOOLEAN NOT NULL,
+    PRIMARY KEY (job_id, site_id),
+    CONSTRAINT fk_recommender_resync_sites_job FOREIGN KEY (job_id)
+        REFERENCES recommender_resync_jobs(id) ON DELETE CASCADE
+);
@@ -0,0 +1,2 @@
+-- Replicas that cannot LISTEN poll the change log of every site by time
+CREATE INDEX idx_catalog_changes_changed_at ON catalog_changes(changed_at);
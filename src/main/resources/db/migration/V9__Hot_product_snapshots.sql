@@ -0,0 +1,7 @@
+-- Hot products of each site, saved periodically so a restarted replica can warm its product cache
+
+CREATE TABLE hot_product_snapshots (
+    site_id UUID PRIMARY KEY,
+    product_ids TEXT NOT NULL,
+    updated_at TIMESTAMP NOT NULL
+);
@@ -0,0 +1,135 @@
+package com.shopifake.microservice.benchmarks;
+
+import com.shopifake.microservice.migrations.V3__Partition_products_by_site;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures partition pruning for {@code findBySiteIdAndStatus} against a heap copy of the same data.
+ *
+ * <p>Opt-in: {@code ./mvnw test -Dtest=PartitionPruningBenchmark -Dbenchmarks=true}
+ * (requires Docker). Dataset size defaults to 10M rows, override with {@code -Dbenchmarks.rows}.</p>
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class PartitionPruningBenchmark {
+
+    private static final int PARTITIONS = 16;
+    private static final int SITES = 2_000;
+    private static final int QUERIES = 200;
+    private static final Pattern PARTITION_SCAN = Pattern.compile("on (products_p\\d+)");
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Test
+    @DisplayName("findBySiteIdAndStatus should scan a single partition")
+    void benchmarkFindBySiteIdAndStatus() throws SQLException {
+        long rows = Long.getLong("benchmarks.rows", 10_000_000L);
+        Flyway.configure()
+                .dataSource(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())
+                .locations("classpath:db/migration")
+                .javaMigrations(new V3__Partition_products_by_site(PARTITIONS))
+                .load()
+                .migrate();
+
+        try (Connection connection = DriverManager.getConnection(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())) {
+            List<UUID> sites = seed(connection, rows);
+
+            String plan = explain(connection, "products", sites.get(0));
+            Set<String> scanned = new TreeSet<>();
+            Matcher matcher = PARTITION_SCAN.matcher(plan);
+            while (matcher.find()) {
+                scanned.add(matcher.group(1));
+            }
+            System.out.println(plan);
+            assertThat(scanned).hasSize(1);
+
+            double partitionedMs = averageLatencyMs(connection, "products", sites);
+            double heapMs = averageLatencyMs(connection, "products_heap", sites);
+            System.out.printf("rows=%d sites=%d partitions=%d partitioned=%.3fms heap=%.3fms%n",
+                    rows, SITES, PARTITIONS, partitionedMs, heapMs);
+        }
+    }
+
+    private List<UUID> seed(final Connection connection, final long rows) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET session_replication_role = replica");
+            statement.execute("CREATE TEMP TABLE bench_sites AS "
+                    + "SELECT n, gen_random_uuid() AS site_id FROM generate_series(0, " + (SITES - 1) + ") n");
+            statement.execute("INSERT INTO products (id, site_id, name, description, sku, status, "
+                    + "created_at, updated_at) "
+                    + "SELECT gen_random_uuid(), s.site_id, 'Product ' || g, 'Synthetic product', 'SKU-' || g, "
+                    + "(ARRAY['DRAFT','PUBLISHED','SCHEDULED'])[1 + g % 3], now(), now() "
+                    + "FROM generate_series(1, " + rows + ") g JOIN bench_sites s ON s.n = g % " + SITES);
+            statement.execute("SET session_replication_role = DEFAULT");
+            statement.execute("CREATE TABLE products_heap AS SELECT * FROM products");
+            statement.execute("CREATE INDEX idx_products_heap_site_status ON products_heap(site_id, status)");
+            statement.execute("ANALYZE products");
+            statement.execute("ANALYZE products_heap");
+
+            List<UUID> sites = new ArrayList<>();
+            try (ResultSet rs = statement.executeQuery("SELECT site_id FROM bench_sites")) {
+                while (rs.next()) {
+                    sites.add(rs.getObject(1, UUID.class));
+                }
+            }
+            return sites;
+        }
+    }
+
+    private String explain(final Connection connection, final String table, final UUID siteId) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("EXPLAIN (ANALYZE, BUFFERS) SELECT * FROM " + table
+                     + " WHERE site_id = '" + siteId + "' AND status = 'PUBLISHED'")) {
+            while (rs.next()) {
+                plan.append(rs.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    private double averageLatencyMs(final Connection connection, final String table, final List<UUID> sites)
+            throws SQLException {
+        String sql = "SELECT * FROM " + table + " WHERE site_id = ? AND status = ?";
+        long elapsed = 0;
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            for (int i = 0; i < QUERIES; i++) {
+                statement.setObject(1, sites.get(ThreadLocalRandom.current().nextInt(sites.size())));
+                statement.setString(2, "PUBLISHED");
+                long start = System.nanoTime();
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        rs.getObject(1);
+                    }
+                }
+                elapsed += System.nanoTime() - start;
+            }
+        }
+        return elapsed / (QUERIES * 1_000_000.0);
+    }
+}
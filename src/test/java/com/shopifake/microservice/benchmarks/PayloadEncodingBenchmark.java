@@ -0,0 +1,136 @@
+package com.shopifake.microservice.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shopifake.microservice.config.ContentNegotiationConfig;
+import com.shopifake.microservice.config.ProductProtobufHttpMessageConverter;
+import com.shopifake.microservice.dtos.CategoryResponse;
+import com.shopifake.microservice.dtos.ProductFilterResponse;
+import com.shopifake.microservice.dtos.ProductResponse;
+import com.shopifake.microservice.entities.FilterType;
+import com.shopifake.microservice.entities.ProductStatus;
+import com.shopifake.microservice.protobuf.ProductList;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compares payload size and encode/decode time of a product list in JSON, CBOR, Smile and Protobuf.
+ * Jackson formats are decoded to a tree, Protobuf to its generated message.
+ *
+ * <p>Opt-in: {@code ./mvnw test -Dtest=PayloadEncodingBenchmark -Dbenchmarks=true}. The list holds
+ * 1,000 products by default, override with {@code -Dbenchmarks.products}.</p>
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class PayloadEncodingBenchmark {
+
+    private static final int WARMUP_ROUNDS = 50;
+    private static final int MEASURED_ROUNDS = 200;
+    private static final int FILTERS_PER_PRODUCT = 8;
+
+    @Test
+    @DisplayName("Compare JSON, CBOR, Smile and Protobuf product list encodings")
+    void benchmarkEncodings() throws Exception {
+        List<ProductResponse> products = products(Integer.getInteger("benchmarks.products", 1_000));
+        run("json", products, builder().build());
+        run("cbor", products, builder().cbor().build());
+        run("smile", products, builder().smile().build());
+        runProtobuf(products);
+    }
+
+    private static Jackson2ObjectMapperBuilder builder() {
+        Jackson2ObjectMapperBuilder builder = new Jackson2ObjectMapperBuilder();
+        new ContentNegotiationConfig().productFieldFilterCustomizer().customize(builder);
+        return builder;
+    }
+
+    private void run(final String format, final List<ProductResponse> products, final ObjectMapper mapper)
+            throws Exception {
+        byte[] payload = mapper.writeValueAsBytes(products);
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            mapper.readTree(mapper.writeValueAsBytes(products));
+        }
+        long encode = 0;
+        long decode = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            payload = mapper.writeValueAsBytes(products);
+            long encoded = System.nanoTime();
+            mapper.readTree(payload);
+            decode += System.nanoTime() - encoded;
+            encode += encoded - start;
+        }
+        report(format, payload.length, encode, decode);
+    }
+
+    private void runProtobuf(final List<ProductResponse> products) throws Exception {
+        byte[] payload = ProductProtobufHttpMessageConverter.toMessage(products).toByteArray();
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            ProductList.parseFrom(ProductProtobufHttpMessageConverter.toMessage(products).toByteArray());
+        }
+        long encode = 0;
+        long decode = 0;
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            payload = ProductProtobufHttpMessageConverter.toMessage(products).toByteArray();
+            long encoded = System.nanoTime();
+            ProductList.parseFrom(payload);
+            decode += System.nanoTime() - encoded;
+            encode += encoded - start;
+        }
+        report("protobuf", payload.length, encode, decode);
+    }
+
+    private void report(final String format, final int bytes, final long encodeNanos, final long decodeNanos) {
+        System.out.printf("%-8s size=%dKB encode=%.2fms decode=%.2fms%n", format, bytes >> 10,
+                encodeNanos / 1_000_000.0 / MEASURED_ROUNDS, decodeNanos / 1_000_000.0 / MEASURED_ROUNDS);
+    }
+
+    private List<ProductResponse> products(final int count) {
+        UUID siteId = UUID.randomUUID();
+        LocalDateTime now = LocalDateTime.now();
+        CategoryResponse category = CategoryResponse.builder()
+                .id(UUID.randomUUID())
+                .siteId(siteId)
+                .name("Apparel")
+                .createdAt(now)
+                .build();
+        List<ProductResponse> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            List<ProductFilterResponse> filters = new ArrayList<>(FILTERS_PER_PRODUCT);
+            for (int f = 0; f < FILTERS_PER_PRODUCT; f++) {
+                filters.add(ProductFilterResponse.builder()
+                        .filterId(UUID.randomUUID())
+                        .key("attr-" + f)
+                        .categoryId(category.getId())
+                        .categoryName(category.getName())
+                        .type(FilterType.QUANTITATIVE)
+                        .numericValue(BigDecimal.valueOf(1_000 + i * 7L + f, 2))
+                        .unit("cm")
+                        .build());
+            }
+            products.add(ProductResponse.builder()
+                    .id(UUID.randomUUID())
+                    .siteId(siteId)
+                    .name("Product " + i)
+                    .description("Description of product " + i)
+                    .images(List.of("https://cdn.example.com/" + i + "/1.png", "https://cdn.example.com/" + i + "/2.png"))
+                    .primaryImage("https://cdn.example.com/" + i + "/1.png")
+                    .categories(List.of(category))
+                    .sku("SKU-" + i)
+                    .status(ProductStatus.PUBLISHED)
+                    .publishedAt(now)
+                    .createdAt(now)
+                    .updatedAt(now)
+                    .filters(filters)
+                    .build());
+        }
+        return products;
+    }
+}
@@ -0,0 +1,146 @@
+package com.shopifake.microservice.benchmarks;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures time-to-ready (process start until {@code /actuator/health/readiness} answers 200) of
+ * the packaged application as a plain JVM, as a JVM with Spring AOT, AppCDS and lazy
+ * initialization (the {@code prod-fast} image), and as a native executable when one was built.
+ * Every mode runs against the embedded H2 database.
+ *
+ * <p>Opt-in, after {@code ./mvnw -Pfast-start -DskipTests package} (and optionally
+ * {@code ./mvnw -Pnative -DskipTests native:compile}):
+ * {@code ./mvnw test -Dtest=StartupTimeBenchmark -Dbenchmarks=true}. Each mode starts 5 times by
+ * default, override with {@code -Dbenchmarks.rounds}.</p>
+ */
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class StartupTimeBenchmark {
+
+    private static final Duration READY_TIMEOUT = Duration.ofMinutes(2);
+
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+
+    private final Path target = Path.of("target");
+
+    private final String java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+
+    @Test
+    @DisplayName("Compare time-to-ready of JVM, JVM+AOT+CDS and native builds")
+    void benchmarkStartup() throws Exception {
+        int rounds = Integer.getInteger("benchmarks.rounds", 5);
+        Path jar = packagedJar();
+
+        run("jvm", rounds, List.of(java, "-jar", jar.toString()));
+
+        Path extracted = prepareCds(jar);
+        run("jvm+cds", rounds, List.of(java, "-XX:SharedArchiveFile=" + extracted.resolve("app.jsa"),
+                "-Dspring.aot.enabled=true", "-Dspring.main.lazy-initialization=true",
+                "-jar", extracted.resolve("app.jar").toString()));
+
+        Path executable = target.resolve("catalog-service");
+        if (Files.isExecutable(executable)) {
+            run("native", rounds, List.of(executable.toString()));
+        } else {
+            System.out.printf("%-8s skipped (build it with ./mvnw -Pnative -DskipTests native:compile)%n", "native");
+        }
+    }
+
+    private void run(final String mode, final int rounds, final List<String> command) throws Exception {
+        long[] millis = new long[rounds];
+        for (int i = 0; i < rounds; i++) {
+            millis[i] = timeToReady(command);
+        }
+        Arrays.sort(millis);
+        System.out.printf("%-8s ready median=%dms min=%dms max=%dms%n", mode, millis[rounds / 2], millis[0],
+                millis[rounds - 1]);
+    }
+
+    private long timeToReady(final List<String> command) throws Exception {
+        int port = freePort();
+        List<String> args = new ArrayList<>(command);
+        args.add("--server.port=" + port);
+        args.add("--management.otlp.metrics.export.enabled=false");
+        File log = Files.createTempFile("startup-benchmark", ".log").toFile();
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(args).redirectErrorStream(true).redirectOutput(log).start();
+        try {
+            HttpRequest readiness = HttpRequest.newBuilder(
+                    URI.create("http://127.0.0.1:" + port + "/actuator/health/readiness")).build();
+            while (System.nanoTime() - start < READY_TIMEOUT.toNanos()) {
+                assertThat(process.isAlive()).as("process exited, see %s", log).isTrue();
+                try {
+                    if (http.send(readiness, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    }
+                } catch (IOException ex) {
+                    // not listening yet
+                }
+                Thread.sleep(20);
+            }
+            throw new AssertionError("Not ready within " + READY_TIMEOUT + ", see " + log);
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    /**
+     * Extract the jar and run the AppCDS training run once, as the {@code prod-fast} image does.
+     */
+    private Path prepareCds(final Path jar) throws Exception {
+        Path extracted = target.resolve("fast-start");
+        if (Files.exists(extracted.resolve("app.jsa"))) {
+            return extracted;
+        }
+        Path copy = Files.copy(jar, Files.createTempDirectory("startup-benchmark").resolve("app.jar"));
+        exec(List.of(java, "-Djarmode=tools", "-jar", copy.toString(), "extract", "--force",
+                "--destination", extracted.toString()));
+        exec(List.of(java, "-XX:ArchiveClassesAtExit=" + extracted.resolve("app.jsa"), "-Dspring.aot.enabled=true",
+                "-Dspring.context.exit=onRefresh", "-jar", extracted.resolve("app.jar").toString(),
+                "--management.otlp.metrics.export.enabled=false"));
+        return extracted;
+    }
+
+    private static void exec(final List<String> command) throws Exception {
+        Process process = new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        assertThat(process.waitFor()).as("exit code of %s", command).isZero();
+    }
+
+    private Path packagedJar() throws IOException {
+        try (Stream<Path> files = Files.list(target)) {
+            return files.filter(path -> path.getFileName().toString().matches("catalog-service-.*(?<!-plain)\\.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException(
+                            "No packaged jar, run ./mvnw -Pfast-start -DskipTests package first"));
+        }
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
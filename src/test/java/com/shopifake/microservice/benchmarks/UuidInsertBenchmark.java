@@ -0,0 +1,94 @@
+package com.shopifake.microservice.benchmarks;
+
+import com.shopifake.microservice.entities.UuidV7;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Compares insert throughput, primary-key index size and WAL volume for random (v4) and
+ * time-ordered (v7) identifiers.
+ *
+ * <p>Opt-in: {@code ./mvnw test -Dtest=UuidInsertBenchmark -Dbenchmarks=true} (requires Docker).
+ * Row count defaults to 2M, override with {@code -Dbenchmarks.rows}.</p>
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+class UuidInsertBenchmark {
+
+    private static final int BATCH_SIZE = 1_000;
+
+    @Container
+    private static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine")
+            .withCommand("postgres", "-c", "shared_buffers=128MB");
+
+    @Test
+    @DisplayName("Compare UUIDv4 and UUIDv7 primary key inserts")
+    void benchmarkInserts() throws SQLException {
+        long rows = Long.getLong("benchmarks.rows", 2_000_000L);
+        try (Connection connection = DriverManager.getConnection(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())) {
+            run(connection, "uuid_v4", rows, UUID::randomUUID);
+            run(connection, "uuid_v7", rows, UuidV7::next);
+        }
+    }
+
+    private void run(final Connection connection, final String table, final long rows,
+                     final Supplier<UUID> ids) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE " + table
+                    + " (id UUID PRIMARY KEY, site_id UUID NOT NULL, name VARCHAR(255) NOT NULL)");
+            statement.execute("CHECKPOINT");
+        }
+        long walBefore = walPosition(connection);
+        UUID siteId = UUID.randomUUID();
+        connection.setAutoCommit(false);
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO " + table + " (id, site_id, name) VALUES (?, ?, ?)")) {
+            for (long i = 1; i <= rows; i++) {
+                insert.setObject(1, ids.get());
+                insert.setObject(2, siteId);
+                insert.setString(3, "Product " + i);
+                insert.addBatch();
+                if (i % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                    connection.commit();
+                }
+            }
+            insert.executeBatch();
+            connection.commit();
+        }
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        connection.setAutoCommit(true);
+        long walBytes = walPosition(connection) - walBefore;
+
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT pg_relation_size('" + table + "_pkey')")) {
+            rs.next();
+            System.out.printf("%s rows=%d rows/s=%.0f pkey=%dMB wal=%dMB%n", table, rows, rows / seconds,
+                    rs.getLong(1) >> 20, walBytes >> 20);
+        }
+    }
+
+    private long walPosition(final Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery(
+                     "SELECT pg_wal_lsn_diff(pg_current_wal_lsn(), '0/0')::bigint")) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+}
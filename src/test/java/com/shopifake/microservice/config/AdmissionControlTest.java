@@ -0,0 +1,113 @@
+package com.shopifake.microservice.config;
+
+import com.shopifake.microservice.dtos.CreateCategoryRequest;
+import com.shopifake.microservice.dtos.CreateProductRequest;
+import com.shopifake.microservice.services.CategoryService;
+import com.shopifake.microservice.services.ProductService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies that a site over its limits gets 429 without affecting other sites or its reads, also
+ * when requests address its products only by id.
+ */
+@SpringBootTest(properties = {
+        "catalog.admission.sites.6d1c9a52-7e3b-4f0a-9c1e-2b8f5d4a7c10.writes.rate=0.01",
+        "catalog.admission.sites.6d1c9a52-7e3b-4f0a-9c1e-2b8f5d4a7c10.writes.burst=1",
+        "catalog.admission.sites.0b7e4f3a-91d2-4c6e-8a5b-3f2d1c9e7a64.writes.rate=0.01",
+        "catalog.admission.sites.0b7e4f3a-91d2-4c6e-8a5b-3f2d1c9e7a64.writes.burst=1",
+        "catalog.admission.sites.0b7e4f3a-91d2-4c6e-8a5b-3f2d1c9e7a64.reads.rate=0.01",
+        "catalog.admission.sites.0b7e4f3a-91d2-4c6e-8a5b-3f2d1c9e7a64.reads.burst=1"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class AdmissionControlTest {
+
+    private static final String THROTTLED_SITE = "6d1c9a52-7e3b-4f0a-9c1e-2b8f5d4a7c10";
+
+    private static final UUID PRODUCT_SITE = UUID.fromString("0b7e4f3a-91d2-4c6e-8a5b-3f2d1c9e7a64");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Test
+    @DisplayName("Should throttle writes of one site by the siteId of their body")
+    void shouldThrottleSiteWrites() throws Exception {
+        mockMvc.perform(post("/products/categories").contentType(MediaType.APPLICATION_JSON)
+                        .content(category(THROTTLED_SITE, "Shoes")))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(post("/products/categories").contentType(MediaType.APPLICATION_JSON)
+                        .content(category(THROTTLED_SITE, "Boots")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "100"))
+                .andExpect(jsonPath("$.status").value(429));
+
+        mockMvc.perform(get("/products").param("siteId", THROTTLED_SITE))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/products/categories").contentType(MediaType.APPLICATION_JSON)
+                        .content(category(UUID.randomUUID().toString(), "Boots")))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    @DisplayName("Should throttle id-addressed product requests by the site of the product")
+    void shouldThrottleProductsAddressedById() throws Exception {
+        UUID categoryId = categoryService.createCategory(CreateCategoryRequest.builder()
+                .siteId(PRODUCT_SITE)
+                .name("Admission")
+                .build()).getId();
+        UUID productId = productService.createProduct(CreateProductRequest.builder()
+                .siteId(PRODUCT_SITE)
+                .name("Admission")
+                .description("Admission description")
+                .images(List.of())
+                .categoryIds(List.of(categoryId))
+                .filters(List.of())
+                .sku("ADMISSION-1")
+                .build()).getId();
+
+        mockMvc.perform(patch("/products/{productId}", productId).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Renamed\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(patch("/products/{productId}", productId).contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Renamed again\"}"))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(patch("/products/{productId}", productId).contentType(MediaType.APPLICATION_JSON)
+                        .header(SiteAdmissionInterceptor.SITE_HEADER, UUID.randomUUID().toString())
+                        .content("{\"name\":\"Renamed again\"}"))
+                .andExpect(status().isTooManyRequests());
+
+        mockMvc.perform(get("/products/{productId}", productId))
+                .andExpect(status().isOk());
+        mockMvc.perform(post("/products/by-ids").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[\"" + productId + "\",\"" + UUID.randomUUID() + "\"]}"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    private static String category(final String siteId, final String name) {
+        return "{\"siteId\":\"" + siteId + "\",\"name\":\"" + name + "\"}";
+    }
+}
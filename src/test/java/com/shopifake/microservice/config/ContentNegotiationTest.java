@@ -0,0 +1,106 @@
+package com.shopifake.microservice.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.shopifake.microservice.dtos.CreateCategoryRequest;
+import com.shopifake.microservice.dtos.CreateProductRequest;
+import com.shopifake.microservice.protobuf.ProductList;
+import com.shopifake.microservice.services.CategoryService;
+import com.shopifake.microservice.services.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies that product reads honour binary {@code Accept} headers.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class ContentNegotiationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    private UUID siteId;
+
+    private UUID productId;
+
+    @BeforeEach
+    void setUp() {
+        siteId = UUID.randomUUID();
+        UUID categoryId = categoryService.createCategory(CreateCategoryRequest.builder()
+                .siteId(siteId)
+                .name("Category " + siteId)
+                .build()).getId();
+        productId = productService.createProduct(CreateProductRequest.builder()
+                .siteId(siteId)
+                .name("Mug")
+                .description("Ceramic mug")
+                .images(List.of("https://cdn.example.com/mug.png"))
+                .categoryIds(List.of(categoryId))
+                .sku("NEG-" + siteId.toString().substring(0, 8))
+                .build()).getId();
+    }
+
+    @Test
+    @DisplayName("Should keep JSON as the default encoding")
+    void shouldDefaultToJson() throws Exception {
+        mockMvc.perform(get("/products").param("siteId", siteId.toString()).accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    @DisplayName("Should encode products as CBOR")
+    void shouldProduceCbor() throws Exception {
+        byte[] body = mockMvc.perform(get("/products").param("siteId", siteId.toString())
+                        .accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode products = new CBORMapper().readTree(body);
+        assertThat(products).hasSize(1);
+        assertThat(products.get(0).get("name").asText()).isEqualTo("Mug");
+    }
+
+    @Test
+    @DisplayName("Should encode products as Protobuf")
+    void shouldProduceProtobuf() throws Exception {
+        byte[] body = mockMvc.perform(get("/products").param("siteId", siteId.toString())
+                        .accept(ProductProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ProductProtobufHttpMessageConverter.APPLICATION_PROTOBUF))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        ProductList products = ProductList.parseFrom(body);
+        assertThat(products.getProductsList()).singleElement().satisfies(product -> {
+            ByteBuffer id = product.getId().asReadOnlyByteBuffer();
+            assertThat(new UUID(id.getLong(), id.getLong())).isEqualTo(productId);
+            assertThat(product.getName()).isEqualTo("Mug");
+            assertThat(product.getCategoriesCount()).isEqualTo(1);
+        });
+    }
+}
@@ -0,0 +1,108 @@
+package com.shopifake.microservice.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.shopifake.microservice.dtos.CreateCategoryRequest;
+import com.shopifake.microservice.dtos.CreateProductRequest;
+import com.shopifake.microservice.services.CategoryService;
+import com.shopifake.microservice.services.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Verifies that only sparse product reads leave {@code null} fields out of their documents.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SparseFieldsetResponseTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    private UUID siteId;
+
+    private UUID productId;
+
+    @BeforeEach
+    void setUp() {
+        siteId = UUID.randomUUID();
+        UUID categoryId = categoryService.createCategory(CreateCategoryRequest.builder()
+                .siteId(siteId)
+                .name("Category " + siteId)
+                .build()).getId();
+        productId = productService.createProduct(CreateProductRequest.builder()
+                .siteId(siteId)
+                .name("Draft mug")
+                .description("Unscheduled draft")
+                .images(List.of())
+                .categoryIds(List.of(categoryId))
+                .sku("SPARSE-" + siteId.toString().substring(0, 8))
+                .build()).getId();
+    }
+
+    @Test
+    @DisplayName("Should keep null fields in full responses")
+    void shouldKeepNullFieldsOfFullResponses() throws Exception {
+        mockMvc.perform(get("/products/{productId}", productId))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"scheduledPublishAt\":null")))
+                .andExpect(content().string(containsString("\"publishedAt\":null")));
+        mockMvc.perform(get("/products").param("siteId", siteId.toString()))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"publishedAt\":null")));
+        mockMvc.perform(post("/products/by-ids").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[\"" + productId + "\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(containsString("\"publishedAt\":null")));
+    }
+
+    @Test
+    @DisplayName("Should omit unselected fields from sparse responses")
+    void shouldOmitNullFieldsOfSparseResponses() throws Exception {
+        mockMvc.perform(get("/products/{productId}", productId).param("fields", "name,publishedAt"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Draft mug"))
+                .andExpect(jsonPath("$.description").doesNotExist())
+                .andExpect(content().string(containsString("\"id\"")))
+                .andExpect(content().string(not(containsString("publishedAt"))));
+        mockMvc.perform(post("/products/by-ids").param("fields", "name").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[\"" + productId + "\"]}"))
+                .andExpect(status().isOk())
+                .andExpect(content().string(not(containsString("description"))));
+
+        byte[] body = mockMvc.perform(get("/products").param("siteId", siteId.toString()).param("fields", "name")
+                        .accept(MediaType.parseMediaType("application/cbor")))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode product = new CBORMapper().readTree(body).get(0);
+        assertThat(product.has("name")).isTrue();
+        assertThat(product.has("description")).isFalse();
+        assertThat(product.has("publishedAt")).isFalse();
+    }
+}
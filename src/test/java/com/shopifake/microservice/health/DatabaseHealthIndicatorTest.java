@@ -0,0 +1,117 @@
+package com.shopifake.microservice.health;
+
+import com.shopifake.microservice.config.DatabaseHealthProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests {@link DatabaseHealthIndicator} against a one-connection Hikari pool on H2.
+ */
+class DatabaseHealthIndicatorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final DatabaseHealthProperties properties = new DatabaseHealthProperties();
+
+    private HikariDataSource dataSource;
+
+    private DatabaseHealthIndicator indicator;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:health-" + UUID.randomUUID());
+        dataSource.setUsername("sa");
+        dataSource.setMaximumPoolSize(1);
+        dataSource.setConnectionTimeout(2_000);
+        dataSource.setMetricRegistry(meterRegistry);
+        indicator = new DatabaseHealthIndicator(dataSource, properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dataSource.close();
+    }
+
+    @Test
+    @DisplayName("Should serve the last check with pool usage")
+    void shouldServeLastCheck() {
+        assertThat(indicator.health().getStatus()).isEqualTo(Status.UNKNOWN);
+
+        indicator.check();
+
+        Health health = indicator.health();
+        assertThat(health.getStatus()).isEqualTo(Status.UP);
+        assertThat(health.getDetails()).containsKeys("checkedAt", "validationMillis");
+        assertThat(pool(health))
+                .containsEntry("active", 0)
+                .containsEntry("pending", 0)
+                .containsEntry("max", 1)
+                .containsKey("acquireMillis");
+    }
+
+    @Test
+    @DisplayName("Should report a saturated pool without waiting for a connection")
+    void shouldReportSaturatedPool() throws Exception {
+        try (Connection held = dataSource.getConnection()) {
+            CompletableFuture<Void> waiter = CompletableFuture.runAsync(() -> {
+                try (Connection ignored = dataSource.getConnection()) {
+                    // released as soon as the held connection is
+                } catch (Exception ex) {
+                    throw new IllegalStateException(ex);
+                }
+            });
+            while (dataSource.getHikariPoolMXBean().getThreadsAwaitingConnection() == 0) {
+                Thread.sleep(5);
+            }
+
+            long start = System.nanoTime();
+            indicator.check();
+            long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+            Health health = indicator.health();
+            assertThat(elapsedMillis).isLessThan(500);
+            assertThat(health.getStatus()).isEqualTo(Status.OUT_OF_SERVICE);
+            assertThat(health.getDetails()).containsEntry("database", "Pool saturated");
+            assertThat(pool(health))
+                    .containsEntry("active", 1)
+                    .containsEntry("pending", 1);
+            held.close();
+            waiter.get();
+        }
+    }
+
+    @Test
+    @DisplayName("Should report the database down and a stalled check")
+    void shouldReportDownAndStalled() throws Exception {
+        dataSource.close();
+        indicator.check();
+
+        assertThat(indicator.health().getStatus()).isEqualTo(Status.DOWN);
+        assertThat(indicator.health().getDetails()).containsEntry("database", "Unavailable");
+
+        properties.setMaxAge(Duration.ofMillis(10));
+        Thread.sleep(20);
+        assertThat(indicator.health().getStatus()).isEqualTo(Status.DOWN);
+        assertThat(indicator.health().getDetails()).containsEntry("database", "Check stalled");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> pool(final Health health) {
+        return (Map<String, Object>) health.getDetails().get("pool");
+    }
+}
@@ -0,0 +1,182 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.controllers.CatalogEventController;
+import com.shopifake.microservice.entities.CatalogChange;
+import com.shopifake.microservice.entities.CatalogEntityType;
+import com.shopifake.microservice.entities.ChangeType;
+import com.shopifake.microservice.events.CatalogChangeEvent;
+import com.shopifake.microservice.events.CatalogInvalidationEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Unit tests for {@link CatalogEventStream}.
+ */
+@ExtendWith(MockitoExtension.class)
+class CatalogEventStreamTest {
+
+    @Mock
+    private CatalogChangeLog catalogChangeLog;
+
+    private CatalogEventStream stream;
+
+    @AfterEach
+    void tearDown() {
+        stream.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should replay the change log after Last-Event-ID")
+    void shouldReplayFromLastEventId() {
+        UUID siteId = UUID.randomUUID();
+        stream = newStream(16, 10);
+
+        stream.subscribe(siteId, 41L);
+
+        verify(catalogChangeLog, timeout(2_000)).readAfter(siteId, 41L, 500);
+        assertThat(stream.connectionCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should refuse connections beyond the configured limit")
+    void shouldRejectConnectionsOverLimit() {
+        stream = newStream(16, 1);
+        stream.subscribe(UUID.randomUUID(), null);
+
+        assertThrows(ResponseStatusException.class, () -> stream.subscribe(UUID.randomUUID(), null));
+        assertThat(stream.connectionCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should drop a consumer whose buffer overflows")
+    void shouldDropSlowConsumer() throws InterruptedException {
+        UUID siteId = UUID.randomUUID();
+        CountDownLatch replayStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(catalogChangeLog.readAfter(eq(siteId), anyLong(), anyInt())).thenAnswer(invocation -> {
+            replayStarted.countDown();
+            release.await();
+            return List.of();
+        });
+        stream = newStream(2, 10);
+        stream.subscribe(siteId, 0L);
+        replayStarted.await();
+
+        for (long seq = 1; seq <= 3; seq++) {
+            stream.onChange(new CatalogChangeEvent(siteId, seq, CatalogEntityType.PRODUCT, UUID.randomUUID(),
+                    ChangeType.UPDATED, LocalDateTime.now()));
+        }
+        release.countDown();
+
+        assertThat(stream.connectionCount()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should push changes committed on other replicas")
+    void shouldPushRemoteChanges() throws Exception {
+        UUID siteId = UUID.randomUUID();
+        when(catalogChangeLog.lastSeq(siteId)).thenReturn(4L);
+        stream = newStream(16, 10);
+        MockHttpServletResponse response = openStream(siteId);
+
+        stream.onInvalidation(CatalogInvalidationEvent.of(change(siteId, 5)));
+
+        awaitContent(response, "id:5");
+    }
+
+    @Test
+    @DisplayName("Should send changes in sequence order, reading a gap from the change log")
+    void shouldFillGapsInOrder() throws Exception {
+        UUID siteId = UUID.randomUUID();
+        CatalogChangeEvent remote = change(siteId, 5);
+        when(catalogChangeLog.lastSeq(siteId)).thenReturn(4L);
+        when(catalogChangeLog.readAfter(siteId, 4L, 500)).thenReturn(List.of(CatalogChange.builder()
+                .siteId(siteId)
+                .seq(remote.seq())
+                .entityType(remote.entityType())
+                .entityId(remote.entityId())
+                .changeType(remote.changeType())
+                .changedAt(remote.changedAt())
+                .build()));
+        stream = newStream(16, 10);
+        MockHttpServletResponse response = openStream(siteId);
+
+        // The local change's listener runs before the remote one it follows arrives
+        stream.onChange(change(siteId, 6));
+        stream.onInvalidation(CatalogInvalidationEvent.of(remote));
+        stream.onChange(change(siteId, 7));
+
+        String content = awaitContent(response, "id:7");
+        assertThat(content.indexOf("id:5")).isPositive().isLessThan(content.indexOf("id:6"));
+        assertThat(content.indexOf("id:5")).isEqualTo(content.lastIndexOf("id:5"));
+    }
+
+    @Test
+    @DisplayName("Should ask subscribers to reload after the caches were flushed")
+    void shouldResetOnFlush() throws Exception {
+        UUID siteId = UUID.randomUUID();
+        stream = newStream(16, 10);
+        MockHttpServletResponse response = openStream(siteId);
+
+        stream.onInvalidation(CatalogInvalidationEvent.flushAll());
+
+        awaitContent(response, "event:reset");
+    }
+
+    private MockHttpServletResponse openStream(final UUID siteId) throws Exception {
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new CatalogEventController(stream)).build();
+        return mockMvc.perform(get("/products/events").param("siteId", siteId.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+    }
+
+    private static String awaitContent(final MockHttpServletResponse response, final String expected)
+            throws Exception {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        String content = response.getContentAsString();
+        while (!content.contains(expected) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+            content = response.getContentAsString();
+        }
+        assertThat(content).contains(expected);
+        return content;
+    }
+
+    private static CatalogChangeEvent change(final UUID siteId, final long seq) {
+        return new CatalogChangeEvent(siteId, seq, CatalogEntityType.PRODUCT, UUID.randomUUID(),
+                ChangeType.UPDATED, LocalDateTime.now());
+    }
+
+    private CatalogEventStream newStream(final int bufferSize, final int maxConnections) {
+        return new CatalogEventStream(catalogChangeLog, new SimpleMeterRegistry(), bufferSize, maxConnections,
+                1_000, Duration.ofHours(1), Duration.ofMinutes(5));
+    }
+}
@@ -0,0 +1,166 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.config.InvalidationProperties;
+import com.shopifake.microservice.dtos.CreateCategoryRequest;
+import com.shopifake.microservice.dtos.CreateProductRequest;
+import com.shopifake.microservice.entities.CatalogEntityType;
+import com.shopifake.microservice.entities.ChangeType;
+import com.shopifake.microservice.events.CatalogChangeEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Integration tests for {@link CatalogInvalidationBus} in polling mode, with the other replica's
+ * writes simulated by SQL: caches are evicted and event stream subscribers get the changes in order.
+ */
+@SpringBootTest(properties = {
+        "catalog.invalidation.mode=poll",
+        "catalog.invalidation.poll-interval=1h",
+        "catalog.invalidation.poll-lookback=30s"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class CatalogInvalidationBusTest {
+
+    @Autowired
+    private CatalogInvalidationBus bus;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private UUID siteId;
+
+    private UUID categoryId;
+
+    @BeforeEach
+    void setUp() {
+        siteId = UUID.randomUUID();
+        categoryId = categoryService.createCategory(CreateCategoryRequest.builder()
+                .siteId(siteId)
+                .name("Invalidation " + siteId)
+                .build()).getId();
+    }
+
+    @Test
+    @DisplayName("Should evict a product changed by another replica")
+    void shouldEvictRemoteChange() {
+        UUID mug = createProduct("Mug");
+        assertThat(bus.mode()).isEqualTo(InvalidationProperties.Mode.POLL);
+        assertThat(productService.getProduct(mug).getName()).isEqualTo("Mug");
+
+        renameRemotely(mug, "Remote mug", LocalDateTime.now(Clock.systemUTC()));
+        assertThat(productService.getProduct(mug).getName()).isEqualTo("Mug");
+
+        bus.poll();
+
+        assertThat(productService.getProduct(mug).getName()).isEqualTo("Remote mug");
+    }
+
+    @Test
+    @DisplayName("Should replay the changes of a site it missed from the change log")
+    void shouldReplayMissedChanges() {
+        UUID mug = createProduct("Mug");
+        UUID cup = createProduct("Cup");
+        productService.getProduct(mug);
+        productService.getProduct(cup);
+        bus.poll();
+        double replayed = meterRegistry.counter("catalog.invalidation.replayed").count();
+
+        // Committed too late to be seen by the poll, but recorded in the log
+        renameRemotely(mug, "Remote mug", LocalDateTime.now(Clock.systemUTC()).minusMinutes(10));
+        renameRemotely(cup, "Remote cup", LocalDateTime.now(Clock.systemUTC()));
+        bus.poll();
+
+        assertThat(productService.getProduct(cup).getName()).isEqualTo("Remote cup");
+        assertThat(productService.getProduct(mug).getName()).isEqualTo("Remote mug");
+        assertThat(meterRegistry.counter("catalog.invalidation.replayed").count()).isEqualTo(replayed + 1);
+    }
+
+    @Test
+    @DisplayName("Should stream changes of another replica to event subscribers in sequence order")
+    void shouldStreamRemoteChanges() throws Exception {
+        UUID mug = createProduct("Mug");
+        UUID cup = createProduct("Cup");
+        bus.poll();
+        MockHttpServletResponse events = mockMvc.perform(get("/products/events").param("siteId", siteId.toString()))
+                .andExpect(request().asyncStarted())
+                .andReturn()
+                .getResponse();
+
+        long missed = renameRemotely(mug, "Remote mug", LocalDateTime.now(Clock.systemUTC()).minusMinutes(10));
+        long seen = renameRemotely(cup, "Remote cup", LocalDateTime.now(Clock.systemUTC()));
+        bus.poll();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!events.getContentAsString().contains("id:" + seen) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        String content = events.getContentAsString();
+        assertThat(content).contains("id:" + missed, "id:" + seen, mug.toString(), cup.toString());
+        assertThat(content.indexOf("id:" + missed)).isLessThan(content.indexOf("id:" + seen));
+    }
+
+    @Test
+    @DisplayName("Should encode changes as one line each")
+    void shouldRoundTripPayload() {
+        CatalogChangeEvent change = new CatalogChangeEvent(siteId, 42, CatalogEntityType.FILTER, UUID.randomUUID(),
+                ChangeType.DELETED, LocalDateTime.of(2025, 6, 1, 12, 30, 15, 123_456_000));
+
+        String payload = CatalogInvalidationBus.encode(change) + "\n" + CatalogInvalidationBus.encode(change);
+
+        assertThat(CatalogInvalidationBus.decode(payload)).containsExactly(change, change);
+    }
+
+    private long renameRemotely(final UUID productId, final String name, final LocalDateTime changedAt) {
+        jdbcTemplate.update("UPDATE products SET name = ? WHERE id = ?", name, productId);
+        jdbcTemplate.update("UPDATE catalog_change_sequences SET last_seq = last_seq + 1 WHERE site_id = ?", siteId);
+        Long seq = jdbcTemplate.queryForObject("SELECT last_seq FROM catalog_change_sequences WHERE site_id = ?",
+                Long.class, siteId);
+        jdbcTemplate.update("INSERT INTO catalog_changes (site_id, seq, entity_type, entity_id, change_type, changed_at) "
+                + "VALUES (?, ?, 'PRODUCT', ?, 'UPDATED', ?)", siteId, seq, productId, changedAt);
+        return seq;
+    }
+
+    private UUID createProduct(final String name) {
+        return productService.createProduct(CreateProductRequest.builder()
+                .siteId(siteId)
+                .name(name)
+                .description(name + " description")
+                .images(List.of())
+                .categoryIds(List.of(categoryId))
+                .filters(List.of())
+                .sku("INV-" + name.toUpperCase() + "-" + siteId.toString().substring(0, 8))
+                .build()).getId();
+    }
+}
@@ -0,0 +1,101 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.dtos.CatalogStatsResponse;
+import com.shopifake.microservice.dtos.CreateCategoryRequest;
+import com.shopifake.microservice.dtos.CreateFilterRequest;
+import com.shopifake.microservice.dtos.CreateProductRequest;
+import com.shopifake.microservice.dtos.ProductFilterAssignmentRequest;
+import com.shopifake.microservice.dtos.UpdateProductStatusRequest;
+import com.shopifake.microservice.entities.FilterType;
+import com.shopifake.microservice.entities.ProductStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link CatalogStatsService}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogStatsServiceTest {
+
+    @Autowired
+    private CatalogStatsService catalogStatsService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private FilterService filterService;
+
+    @Test
+    @DisplayName("Should aggregate counts and refresh them after a write")
+    void shouldAggregateAndInvalidate() {
+        UUID siteId = UUID.randomUUID();
+        UUID categoryId = categoryService.createCategory(CreateCategoryRequest.builder()
+                .siteId(siteId)
+                .name("Stats " + siteId)
+                .build()).getId();
+        UUID filterId = filterService.createFilter(CreateFilterRequest.builder()
+                .siteId(siteId)
+                .categoryId(categoryId)
+                .key("size")
+                .type(FilterType.CATEGORICAL)
+                .values(List.of("S", "M"))
+                .build()).getId();
+        createProduct(siteId, categoryId, filterId, "STATS-A-");
+        UUID scheduledId = createProduct(siteId, categoryId, null, "STATS-B-");
+        LocalDateTime publishAt = LocalDateTime.now(ZoneOffset.UTC).plusDays(1);
+        productService.updateStatus(scheduledId, UpdateProductStatusRequest.builder()
+                .status("SCHEDULED")
+                .scheduledPublishAt(publishAt)
+                .build());
+
+        CatalogStatsResponse stats = catalogStatsService.getStats(siteId);
+
+        assertThat(stats.getTotalProducts()).isEqualTo(2);
+        assertThat(stats.getProductsByStatus())
+                .containsEntry(ProductStatus.DRAFT, 1L)
+                .containsEntry(ProductStatus.SCHEDULED, 1L)
+                .containsEntry(ProductStatus.PUBLISHED, 0L);
+        assertThat(stats.getCategories()).singleElement()
+                .satisfies(category -> assertThat(category.getProductCount()).isEqualTo(2));
+        assertThat(stats.getFilters()).singleElement()
+                .satisfies(filter -> assertThat(filter.getProductCount()).isEqualTo(1));
+        assertThat(stats.getUpcomingPublishCount()).isEqualTo(1);
+        assertThat(stats.getUpcomingPublishes()).singleElement()
+                .satisfies(upcoming -> assertThat(upcoming.getProductId()).isEqualTo(scheduledId));
+        assertThat(catalogStatsService.getStats(siteId)).isSameAs(stats);
+
+        createProduct(siteId, categoryId, null, "STATS-C-");
+
+        assertThat(catalogStatsService.getStats(siteId).getTotalProducts()).isEqualTo(3);
+    }
+
+    private UUID createProduct(final UUID siteId, final UUID categoryId, final UUID filterId, final String skuPrefix) {
+        return productService.createProduct(CreateProductRequest.builder()
+                .siteId(siteId)
+                .name("Product " + skuPrefix)
+                .description("Stats product")
+                .images(List.of("https://cdn.example.com/stats.png"))
+                .categoryIds(List.of(categoryId))
+                .sku(skuPrefix + siteId.toString().substring(0, 8))
+                .filters(filterId == null ? null : List.of(ProductFilterAssignmentRequest.builder()
+                        .filterId(filterId)
+                        .textValue("S")
+                        .build()))
+                .build()).getId();
+    }
+}
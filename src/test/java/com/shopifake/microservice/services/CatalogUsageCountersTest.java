@@ -0,0 +1,135 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.dtos.CategoryResponse;
+import com.shopifake.microservice.dtos.CreateCategoryRequest;
+import com.shopifake.microservice.dtos.CreateFilterRequest;
+import com.shopifake.microservice.dtos.CreateProductRequest;
+import com.shopifake.microservice.dtos.FilterResponse;
+import com.shopifake.microservice.dtos.ProductFilterAssignmentRequest;
+import com.shopifake.microservice.dtos.UpdateProductRequest;
+import com.shopifake.microservice.entities.FilterType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Integration tests for {@link CatalogUsageCounters} and {@link UsageCounterReconciler}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class CatalogUsageCountersTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private FilterService filterService;
+
+    @Autowired
+    private UsageCounterReconciler reconciler;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("Should follow product creates, updates and deletes")
+    void shouldTrackProductWrites() {
+        UUID siteId = UUID.randomUUID();
+        UUID shirts = createCategory(siteId, "Shirts");
+        UUID hats = createCategory(siteId, "Hats");
+        UUID size = filterService.createFilter(CreateFilterRequest.builder()
+                .siteId(siteId)
+                .categoryId(shirts)
+                .key("size")
+                .type(FilterType.CATEGORICAL)
+                .values(List.of("S", "M"))
+                .build()).getId();
+        UUID first = createProduct(siteId, shirts, size, "CNT-A-");
+        createProduct(siteId, shirts, null, "CNT-B-");
+
+        assertThat(categoryCounts(siteId)).containsEntry(shirts, 2L).containsEntry(hats, 0L);
+        assertThat(filterCounts(siteId)).containsEntry(size, 1L);
+
+        productService.updateProduct(first, UpdateProductRequest.builder()
+                .categoryIds(List.of(hats))
+                .filters(List.of())
+                .build());
+
+        assertThat(categoryCounts(siteId)).containsEntry(shirts, 1L).containsEntry(hats, 1L);
+        assertThat(filterCounts(siteId)).containsEntry(size, 0L);
+
+        productService.deleteProduct(first);
+
+        assertThat(categoryCounts(siteId)).containsEntry(shirts, 1L).containsEntry(hats, 0L);
+        assertThrows(IllegalStateException.class, () -> categoryService.deleteCategory(shirts));
+        filterService.deleteFilter(size);
+        categoryService.deleteCategory(hats);
+        assertThat(categoryCounts(siteId)).containsOnlyKeys(shirts);
+    }
+
+    @Test
+    @DisplayName("Should repair drifted and missing counters")
+    void shouldReconcileDrift() {
+        UUID siteId = UUID.randomUUID();
+        UUID categoryId = createCategory(siteId, "Mugs");
+        createProduct(siteId, categoryId, null, "CNT-C-");
+        jdbcTemplate.update("UPDATE catalog_usage_counters SET product_count = product_count + 5 "
+                + "WHERE entity_id = ? AND slot = 3", categoryId);
+        UUID unCounted = createCategory(siteId, "Plates");
+        jdbcTemplate.update("DELETE FROM catalog_usage_counters WHERE entity_id = ?", unCounted);
+
+        assertThat(categoryCounts(siteId)).containsEntry(categoryId, 6L).containsEntry(unCounted, 0L);
+
+        assertThat(reconciler.reconcile()).isGreaterThanOrEqualTo(2);
+
+        assertThat(categoryCounts(siteId)).containsEntry(categoryId, 1L).containsEntry(unCounted, 0L);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM catalog_usage_counters WHERE entity_id = ?",
+                Integer.class, unCounted)).isEqualTo(8);
+    }
+
+    private Map<UUID, Long> categoryCounts(final UUID siteId) {
+        return categoryService.getCategories(siteId).stream()
+                .collect(Collectors.toMap(CategoryResponse::getId, CategoryResponse::getProductCount));
+    }
+
+    private Map<UUID, Long> filterCounts(final UUID siteId) {
+        return filterService.getFilters(siteId).stream()
+                .collect(Collectors.toMap(FilterResponse::getId, FilterResponse::getProductCount));
+    }
+
+    private UUID createCategory(final UUID siteId, final String name) {
+        return categoryService.createCategory(CreateCategoryRequest.builder()
+                .siteId(siteId)
+                .name(name + " " + siteId)
+                .build()).getId();
+    }
+
+    private UUID createProduct(final UUID siteId, final UUID categoryId, final UUID filterId, final String skuPrefix) {
+        return productService.createProduct(CreateProductRequest.builder()
+                .siteId(siteId)
+                .name("Product " + skuPrefix)
+                .description("Counted product")
+                .images(List.of("https://cdn.example.com/counted.png"))
+                .categoryIds(List.of(categoryId))
+                .sku(skuPrefix + siteId.toString().substring(0, 8))
+                .filters(filterId == null ? null : List.of(ProductFilterAssignmentRequest.builder()
+                        .filterId(filterId)
+                        .textValue("S")
+                        .build()))
+                .build()).getId();
+    }
+}
@@ -31,6 +31,12 @@ class CategoryServiceTest {
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private CatalogChangeLog catalogChangeLog;
+
+    @Mock
+    private CatalogUsageCounters usageCounters;
+
     @InjectMocks
     private CategoryService categoryService;
 
@@ -81,6 +87,22 @@ class CategoryServiceTest {
         assertThat(exception.getMessage()).contains("linked to products");
         verify(categoryRepository, never()).delete(category);
     }
-}
 
+    @Test
+    @DisplayName("Should block deletion from the usage counter without scanning links")
+    void shouldPreventDeleteWhenCounted() {
+        UUID categoryId = UUID.randomUUID();
+        Category category = Category.builder()
+                .id(categoryId)
+                .siteId(request.getSiteId())
+                .name("Accessories")
+                .build();
+        when(categoryRepository.findById(categoryId)).thenReturn(Optional.of(category));
+        when(usageCounters.count(categoryId)).thenReturn(3L);
 
+        assertThrows(IllegalStateException.class, () -> categoryService.deleteCategory(categoryId));
+
+        verify(productRepository, never()).existsByCategories_Id(categoryId);
+        verify(categoryRepository, never()).delete(category);
+    }
+}
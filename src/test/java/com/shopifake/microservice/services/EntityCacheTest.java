@@ -0,0 +1,77 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.dtos.CreateCategoryRequest;
+import com.shopifake.microservice.dtos.CreateFilterRequest;
+import com.shopifake.microservice.dtos.FilterResponse;
+import com.shopifake.microservice.entities.CacheRegions;
+import com.shopifake.microservice.entities.FilterType;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Verifies that categories and filters are served from the Hibernate second-level cache.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class EntityCacheTest {
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private FilterService filterService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    @DisplayName("Should answer a repeated site lookup from the query and entity caches")
+    void shouldServeRepeatedLookupFromCache() {
+        UUID siteId = UUID.randomUUID();
+        UUID categoryId = categoryService.createCategory(CreateCategoryRequest.builder()
+                .siteId(siteId)
+                .name("Category " + siteId)
+                .build()).getId();
+        filterService.createFilter(CreateFilterRequest.builder()
+                .siteId(siteId)
+                .categoryId(categoryId)
+                .key("color")
+                .type(FilterType.CATEGORICAL)
+                .values(List.of("red", "blue"))
+                .build());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        filterService.getFilters(siteId);
+        long statements = statistics.getPrepareStatementCount();
+        long queryHits = statistics.getQueryRegionStatistics(CacheRegions.SITE_QUERIES).getHitCount();
+        long valueHits = statistics.getDomainDataRegionStatistics(CacheRegions.FILTER_VALUES).getHitCount();
+
+        List<FilterResponse> filters = filterService.getFilters(siteId);
+
+        assertThat(filters).singleElement()
+                .satisfies(filter -> assertThat(filter.getValues()).containsExactly("red", "blue"));
+        assertThat(statistics.getQueryRegionStatistics(CacheRegions.SITE_QUERIES).getHitCount())
+                .isEqualTo(queryHits + 1);
+        assertThat(statistics.getDomainDataRegionStatistics(CacheRegions.FILTER_VALUES).getHitCount())
+                .isEqualTo(valueHits + 1);
+        // Only the usage counters are still read from the database
+        assertThat(statistics.getPrepareStatementCount() - statements).isEqualTo(1);
+        assertThat(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tag("region", CacheRegions.FILTER_VALUES).tag("result", "hit").functionCounter()).isNotNull();
+    }
+}
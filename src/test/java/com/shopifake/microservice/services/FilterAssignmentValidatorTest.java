@@ -0,0 +1,106 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.dtos.ProductFilterAssignmentRequest;
+import com.shopifake.microservice.entities.Filter;
+import com.shopifake.microservice.entities.FilterType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Unit tests for {@link FilterAssignmentValidator}.
+ */
+class FilterAssignmentValidatorTest {
+
+    private final Filter color = Filter.builder()
+            .id(UUID.randomUUID())
+            .key("color")
+            .type(FilterType.CATEGORICAL)
+            .values(List.of("red", "blue"))
+            .build();
+
+    private final Filter weight = Filter.builder()
+            .id(UUID.randomUUID())
+            .key("weight")
+            .type(FilterType.QUANTITATIVE)
+            .minValue(new BigDecimal("0.50"))
+            .maxValue(new BigDecimal("20.00"))
+            .build();
+
+    private final Filter launch = Filter.builder()
+            .id(UUID.randomUUID())
+            .key("launch")
+            .type(FilterType.DATETIME)
+            .build();
+
+    @Test
+    @DisplayName("Should reject invalid payloads with a message naming the filter")
+    void shouldRejectInvalidPayloads() {
+        assertRejected(color, ProductFilterAssignmentRequest.builder().textValue("green").build(),
+                "textValue must match one of the allowed values for filter color");
+        assertRejected(color, ProductFilterAssignmentRequest.builder().textValue("red")
+                        .numericValue(BigDecimal.ONE).build(),
+                "numericValue is not supported for filter color");
+        assertRejected(weight, ProductFilterAssignmentRequest.builder().numericValue(new BigDecimal("25")).build(),
+                "numericValue must be <= 20.00 for filter weight");
+        assertRejected(weight, ProductFilterAssignmentRequest.builder()
+                        .minValue(new BigDecimal("5")).maxValue(new BigDecimal("2")).build(),
+                "maxValue must be greater than or equal to minValue");
+        assertRejected(weight, ProductFilterAssignmentRequest.builder().build(),
+                "Provide numericValue or min/max range for filter weight");
+        assertRejected(launch, ProductFilterAssignmentRequest.builder()
+                        .startAt(LocalDateTime.of(2025, 5, 2, 0, 0)).endAt(LocalDateTime.of(2025, 5, 1, 0, 0)).build(),
+                "endAt must be after startAt for filter launch");
+    }
+
+    @Test
+    @DisplayName("Should accept any text when the categorical filter lists no values")
+    void shouldAcceptFreeTextWithoutValues() {
+        Filter material = Filter.builder().id(UUID.randomUUID()).key("material").type(FilterType.CATEGORICAL).build();
+
+        FilterAssignmentValidator.compile(material)
+                .validate(ProductFilterAssignmentRequest.builder().textValue("wool").build());
+    }
+
+    @Test
+    @DisplayName("Should validate correct assignments without allocating")
+    void shouldValidateWithoutAllocating() {
+        FilterAssignmentValidator categorical = FilterAssignmentValidator.compile(color);
+        FilterAssignmentValidator quantitative = FilterAssignmentValidator.compile(weight);
+        ProductFilterAssignmentRequest red = ProductFilterAssignmentRequest.builder().textValue("red").build();
+        ProductFilterAssignmentRequest range = ProductFilterAssignmentRequest.builder()
+                .minValue(new BigDecimal("1.00")).maxValue(new BigDecimal("10.00")).build();
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().threadId();
+        for (int i = 0; i < 10_000; i++) {
+            categorical.validate(red);
+            quantitative.validate(range);
+        }
+
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 1_000_000; i++) {
+            categorical.validate(red);
+            quantitative.validate(range);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+
+        // A single allocation per call would amount to at least 16 MB
+        assertThat(allocated).isLessThan(64 * 1024);
+    }
+
+    private static void assertRejected(final Filter filter,
+                                       final ProductFilterAssignmentRequest request,
+                                       final String message) {
+        assertThatThrownBy(() -> FilterAssignmentValidator.compile(filter).validate(request))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage(message);
+    }
+}
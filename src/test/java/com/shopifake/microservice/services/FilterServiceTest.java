@@ -38,6 +38,12 @@ class FilterServiceTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private CatalogChangeLog catalogChangeLog;
+
+    @Mock
+    private CatalogUsageCounters usageCounters;
+
     @InjectMocks
     private FilterService filterService;
 
@@ -0,0 +1,118 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.config.HotProductProperties;
+import com.shopifake.microservice.dtos.HotProductResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Unit tests for {@link HotProductTracker}.
+ */
+class HotProductTrackerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HotProductTracker tracker;
+
+    private UUID siteId;
+
+    @BeforeEach
+    void setUp() {
+        HotProductProperties properties = new HotProductProperties();
+        properties.setTopK(3);
+        properties.setSketchWidth(1024);
+        tracker = new HotProductTracker(properties, meterRegistry);
+        siteId = UUID.randomUUID();
+    }
+
+    @Test
+    @DisplayName("Should keep the most read products of a site, hottest first")
+    void shouldRankHotProducts() {
+        List<UUID> products = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            products.add(UUID.randomUUID());
+        }
+        // Product i is read 20 - i times, interleaved so the hot ones are not seen first
+        for (int round = 0; round < 20; round++) {
+            for (int i = products.size() - 1; i >= 0; i--) {
+                if (round < 20 - i) {
+                    tracker.recordHit(siteId, products.get(i));
+                }
+            }
+        }
+
+        List<HotProductResponse> top = tracker.topProducts(siteId, 10);
+
+        assertThat(top).extracting(HotProductResponse::getProductId)
+                .containsExactly(products.get(0), products.get(1), products.get(2));
+        assertThat(top.get(0).getEstimatedHits()).isGreaterThanOrEqualTo(20);
+        assertThat(tracker.isHot(siteId, products.get(0))).isTrue();
+        assertThat(tracker.isHot(siteId, products.get(10))).isFalse();
+        assertThat(tracker.isHot(UUID.randomUUID(), products.get(0))).isFalse();
+        assertThat(meterRegistry.counter("catalog.hot_products.hits").count()).isEqualTo(210);
+    }
+
+    @Test
+    @DisplayName("Should track sites separately")
+    void shouldTrackSitesSeparately() {
+        UUID otherSite = UUID.randomUUID();
+        UUID product = UUID.randomUUID();
+        UUID otherProduct = UUID.randomUUID();
+        tracker.recordHit(siteId, product);
+        tracker.recordHit(otherSite, otherProduct);
+        tracker.recordHit(null, UUID.randomUUID());
+
+        Map<UUID, List<HotProductResponse>> bySite = tracker.topProducts(10);
+
+        assertThat(bySite).containsOnlyKeys(siteId, otherSite);
+        assertThat(bySite.get(siteId)).extracting(HotProductResponse::getProductId).containsExactly(product);
+        assertThat(bySite.get(otherSite)).extracting(HotProductResponse::getProductId).containsExactly(otherProduct);
+    }
+
+    @Test
+    @DisplayName("Should halve counts on decay and forget products no longer read")
+    void shouldDecay() {
+        UUID steady = UUID.randomUUID();
+        UUID burst = UUID.randomUUID();
+        for (int i = 0; i < 8; i++) {
+            tracker.recordHit(siteId, steady);
+        }
+        tracker.recordHit(siteId, burst);
+
+        tracker.decay();
+
+        assertThat(tracker.estimate(steady)).isEqualTo(4);
+        assertThat(tracker.estimate(burst)).isZero();
+        assertThat(tracker.isHot(siteId, burst)).isFalse();
+        assertThat(tracker.topProducts(siteId, 10)).extracting(HotProductResponse::getProductId)
+                .containsExactly(steady);
+
+        tracker.decay();
+        tracker.decay();
+        tracker.decay();
+
+        assertThat(tracker.topProducts(10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should report only the sites read since the previous snapshot")
+    void shouldDrainChangedSites() {
+        UUID product = UUID.randomUUID();
+        tracker.recordHit(siteId, product);
+
+        assertThat(tracker.drainChangedSites()).containsExactly(Map.entry(siteId, List.of(product)));
+        assertThat(tracker.drainChangedSites()).isEmpty();
+
+        tracker.recordHit(siteId, product);
+        assertThat(tracker.drainChangedSites()).containsOnlyKeys(siteId);
+    }
+}
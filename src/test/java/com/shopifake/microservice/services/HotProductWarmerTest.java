@@ -0,0 +1,149 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.config.HotProductProperties;
+import com.shopifake.microservice.entities.CatalogEntityType;
+import com.shopifake.microservice.entities.ChangeType;
+import com.shopifake.microservice.entities.HotProductSnapshot;
+import com.shopifake.microservice.events.CatalogChangeEvent;
+import com.shopifake.microservice.events.CatalogInvalidationEvent;
+import com.shopifake.microservice.repositories.HotProductSnapshotRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link HotProductWarmer}.
+ */
+@ExtendWith(MockitoExtension.class)
+class HotProductWarmerTest {
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private HotProductSnapshotRepository snapshotRepository;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HotProductTracker tracker;
+
+    private HotProductWarmer warmer;
+
+    private UUID siteId;
+
+    @BeforeEach
+    void setUp() {
+        HotProductProperties properties = new HotProductProperties();
+        properties.setTopK(2);
+        properties.setSketchWidth(1024);
+        properties.setWarmDelay(Duration.ofMillis(10));
+        tracker = new HotProductTracker(properties, meterRegistry);
+        warmer = new HotProductWarmer(tracker, productService, snapshotRepository, properties, meterRegistry);
+        siteId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        warmer.stop();
+    }
+
+    @Test
+    @DisplayName("Should reload a hot product once it is changed, but not a cold or deleted one")
+    void shouldReloadChangedHotProduct() {
+        UUID hot = hit(UUID.randomUUID(), 5);
+        hit(UUID.randomUUID(), 4);
+        UUID cold = hit(UUID.randomUUID(), 1);
+
+        warmer.onChange(change(cold, ChangeType.UPDATED));
+        warmer.onChange(change(hot, ChangeType.DELETED));
+        warmer.onInvalidation(CatalogInvalidationEvent.of(change(hot, ChangeType.UPDATED)));
+
+        verify(productService, timeout(1000)).getProductsByIds(List.of(hot), ProductFieldSelection.full());
+        verify(productService, never()).getProductsByIds(List.of(cold), ProductFieldSelection.full());
+        assertThat(meterRegistry.counter("catalog.hot_products.warmed").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should reload every hot product after a flush")
+    void shouldReloadAfterFlush() {
+        UUID first = hit(UUID.randomUUID(), 5);
+        UUID second = hit(UUID.randomUUID(), 3);
+
+        warmer.onInvalidation(CatalogInvalidationEvent.flushAll());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<UUID>> ids = ArgumentCaptor.forClass(List.class);
+        verify(productService, timeout(1000)).getProductsByIds(ids.capture(), any());
+        assertThat(ids.getValue()).containsExactlyInAnyOrder(first, second);
+    }
+
+    @Test
+    @DisplayName("Should save hot products and warm the cache with them on startup")
+    void shouldSnapshotAndWarmOnStartup() {
+        UUID product = hit(UUID.randomUUID(), 2);
+        List<HotProductSnapshot> saved = new ArrayList<>();
+        when(snapshotRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            saved.addAll(invocation.getArgument(0));
+            return saved;
+        });
+
+        warmer.snapshot();
+
+        assertThat(saved).singleElement().satisfies(snapshot -> {
+            assertThat(snapshot.getSiteId()).isEqualTo(siteId);
+            assertThat(snapshot.getProductIds()).isEqualTo(product.toString());
+        });
+
+        List<UUID> many = new ArrayList<>();
+        StringBuilder ids = new StringBuilder();
+        for (int i = 0; i < HotProductWarmer.WARM_BATCH_SIZE + 1; i++) {
+            UUID id = UUID.randomUUID();
+            many.add(id);
+            ids.append(i == 0 ? "" : ",").append(id);
+        }
+        when(snapshotRepository.findAllByOrderByUpdatedAtDesc(any())).thenReturn(List.of(HotProductSnapshot.builder()
+                .siteId(siteId)
+                .productIds(ids.toString())
+                .updatedAt(LocalDateTime.now())
+                .build()));
+
+        warmer.warmOnStartup();
+
+        verify(productService, timeout(1000)).getProductsByIds(many.subList(0, HotProductWarmer.WARM_BATCH_SIZE),
+                ProductFieldSelection.full());
+        verify(productService, timeout(1000)).getProductsByIds(
+                many.subList(HotProductWarmer.WARM_BATCH_SIZE, many.size()), ProductFieldSelection.full());
+    }
+
+    private UUID hit(final UUID productId, final int times) {
+        for (int i = 0; i < times; i++) {
+            tracker.recordHit(siteId, productId);
+        }
+        return productId;
+    }
+
+    private CatalogChangeEvent change(final UUID productId, final ChangeType changeType) {
+        return new CatalogChangeEvent(siteId, 1, CatalogEntityType.PRODUCT, productId, changeType,
+                LocalDateTime.now());
+    }
+}
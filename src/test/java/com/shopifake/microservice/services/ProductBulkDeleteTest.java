@@ -0,0 +1,216 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.dtos.BulkDeleteProductsRequest;
+import com.shopifake.microservice.dtos.BulkDeleteProductsResponse;
+import com.shopifake.microservice.dtos.BulkProductResult;
+import com.shopifake.microservice.dtos.BulkUpsertProductsRequest;
+import com.shopifake.microservice.dtos.CategoryResponse;
+import com.shopifake.microservice.dtos.CreateCategoryRequest;
+import com.shopifake.microservice.dtos.CreateFilterRequest;
+import com.shopifake.microservice.dtos.CreateProductRequest;
+import com.shopifake.microservice.dtos.ProductChangeFeedResponse;
+import com.shopifake.microservice.dtos.ProductChangeResponse;
+import com.shopifake.microservice.dtos.ProductFilterAssignmentRequest;
+import com.shopifake.microservice.dtos.UpsertProductRequest;
+import com.shopifake.microservice.entities.ChangeType;
+import com.shopifake.microservice.entities.FilterType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Integration tests for set-based product deletion.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductBulkDeleteTest {
+
+    /**
+     * Products deleted per chunk and transaction by {@link ProductService#bulkDelete}.
+     */
+    private static final int PURGE_CHUNK = 500;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private FilterService filterService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID siteId;
+
+    private UUID shirts;
+
+    private UUID hats;
+
+    private UUID color;
+
+    @BeforeEach
+    void setUp() {
+        siteId = UUID.randomUUID();
+        shirts = createCategory("Shirts");
+        hats = createCategory("Hats");
+        color = filterService.createFilter(CreateFilterRequest.builder()
+                .siteId(siteId)
+                .categoryId(shirts)
+                .key("color")
+                .type(FilterType.CATEGORICAL)
+                .values(List.of("red", "blue"))
+                .build()).getId();
+    }
+
+    @Test
+    @DisplayName("Should delete products by id with their images, links and filter values")
+    void shouldDeleteByIds() {
+        UUID tee = createProduct("Tee", shirts);
+        UUID polo = createProduct("Polo", shirts);
+        UUID missing = UUID.randomUUID();
+        productService.getProduct(tee);
+
+        BulkDeleteProductsResponse response = productService.bulkDelete(BulkDeleteProductsRequest.builder()
+                .productIds(List.of(tee, missing, tee))
+                .build());
+
+        assertThat(response.getDeleted()).isEqualTo(1);
+        assertThat(response.getNotFound()).isEqualTo(1);
+        assertThat(response.getResults()).extracting(BulkProductResult::getOutcome)
+                .containsExactly(BulkProductResult.Outcome.DELETED, BulkProductResult.Outcome.NOT_FOUND);
+        assertThrows(IllegalArgumentException.class, () -> productService.getProduct(tee));
+        assertThat(rows("product_images", tee)).isZero();
+        assertThat(rows("product_categories", tee)).isZero();
+        assertThat(rows("product_filters", tee)).isZero();
+        assertThat(rows("product_filters", polo)).isOne();
+        assertThat(productService.listChanges(siteId, null, null).getChanges())
+                .filteredOn(change -> change.getChangeType() == ChangeType.DELETED)
+                .extracting(ProductChangeResponse::getProductId)
+                .containsExactly(tee);
+        assertThat(categoryService.getCategories(siteId))
+                .filteredOn(category -> category.getId().equals(shirts))
+                .extracting(CategoryResponse::getProductCount)
+                .containsExactly(1L);
+    }
+
+    @Test
+    @DisplayName("Should delete only the products of a category, then the rest of the site")
+    void shouldDeleteByCategoryAndSite() {
+        UUID tee = createProduct("Tee", shirts);
+        UUID cap = createProduct("Cap", hats);
+
+        BulkDeleteProductsResponse byCategory = productService.bulkDelete(BulkDeleteProductsRequest.builder()
+                .siteId(siteId)
+                .categoryId(hats)
+                .build());
+
+        assertThat(byCategory.getDeleted()).isOne();
+        assertThat(byCategory.getResults()).isEmpty();
+        assertThrows(IllegalArgumentException.class, () -> productService.getProduct(cap));
+        assertThat(productService.getProduct(tee).getName()).isEqualTo("Tee");
+
+        BulkDeleteProductsResponse bySite = productService.bulkDelete(BulkDeleteProductsRequest.builder()
+                .siteId(siteId)
+                .build());
+
+        assertThat(bySite.getDeleted()).isEqualTo(1);
+        assertThat(productService.listProducts(siteId, null)).isEmpty();
+        assertThat(categoryService.getCategories(siteId))
+                .extracting(CategoryResponse::getProductCount)
+                .containsOnly(0L);
+    }
+
+    @Test
+    @DisplayName("Should purge a site larger than one chunk page by page")
+    void shouldPurgeSitePageByPage() {
+        List<UpsertProductRequest> products = new ArrayList<>();
+        for (int i = 0; i <= PURGE_CHUNK; i++) {
+            products.add(UpsertProductRequest.builder()
+                    .sku("PURGE-" + i + "-" + siteId.toString().substring(0, 8))
+                    .siteId(siteId)
+                    .name("Purged " + i)
+                    .description("Purged product")
+                    .images(List.of("https://cdn.example.com/purged-" + i + ".png"))
+                    .categoryIds(List.of(hats))
+                    .build());
+        }
+        productService.upsertProductsBySku(BulkUpsertProductsRequest.builder()
+                .products(products.subList(0, PURGE_CHUNK))
+                .build());
+        productService.upsertProductsBySku(BulkUpsertProductsRequest.builder()
+                .products(products.subList(PURGE_CHUNK, products.size()))
+                .build());
+
+        BulkDeleteProductsResponse response = productService.bulkDelete(BulkDeleteProductsRequest.builder()
+                .siteId(siteId)
+                .build());
+
+        assertThat(response.getDeleted()).isEqualTo(PURGE_CHUNK + 1);
+        assertThat(response.getNotFound()).isZero();
+        assertThat(response.getResults()).isEmpty();
+        assertThat(productService.listProducts(siteId, null)).isEmpty();
+        List<ProductChangeResponse> changes = new ArrayList<>();
+        ProductChangeFeedResponse feed = productService.listChanges(siteId, null, 1000);
+        changes.addAll(feed.getChanges());
+        while (feed.isHasMore()) {
+            feed = productService.listChanges(siteId, feed.getNextCursor(), 1000);
+            changes.addAll(feed.getChanges());
+        }
+        assertThat(changes).filteredOn(change -> change.getChangeType() == ChangeType.DELETED)
+                .hasSize(PURGE_CHUNK + 1);
+    }
+
+    @Test
+    @DisplayName("Should ignore products of other sites when a site is given")
+    void shouldRestrictIdsToSite() {
+        UUID tee = createProduct("Tee", shirts);
+
+        BulkDeleteProductsResponse response = productService.bulkDelete(BulkDeleteProductsRequest.builder()
+                .siteId(UUID.randomUUID())
+                .productIds(List.of(tee))
+                .build());
+
+        assertThat(response.getDeleted()).isZero();
+        assertThat(productService.getProduct(tee).getName()).isEqualTo("Tee");
+    }
+
+    private UUID createProduct(final String name, final UUID categoryId) {
+        List<ProductFilterAssignmentRequest> filters = categoryId.equals(shirts)
+                ? List.of(ProductFilterAssignmentRequest.builder().filterId(color).textValue("red").build())
+                : List.of();
+        return productService.createProduct(CreateProductRequest.builder()
+                .siteId(siteId)
+                .name(name)
+                .description(name + " description")
+                .images(List.of("https://cdn.example.com/" + name.toLowerCase() + ".png"))
+                .categoryIds(List.of(categoryId))
+                .sku("DEL-" + name.toUpperCase() + "-" + siteId.toString().substring(0, 8))
+                .filters(filters)
+                .build()).getId();
+    }
+
+    private UUID createCategory(final String name) {
+        return categoryService.createCategory(CreateCategoryRequest.builder()
+                .siteId(siteId)
+                .name(name + " " + siteId)
+                .build()).getId();
+    }
+
+    private int rows(final String table, final UUID productId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " WHERE product_id = ?",
+                Integer.class, productId);
+    }
+}
@@ -0,0 +1,163 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.dtos.CreateCategoryRequest;
+import com.shopifake.microservice.dtos.CreateFilterRequest;
+import com.shopifake.microservice.dtos.CreateProductRequest;
+import com.shopifake.microservice.dtos.ProductChangeFeedResponse;
+import com.shopifake.microservice.dtos.ProductChangeResponse;
+import com.shopifake.microservice.dtos.ProductFilterAssignmentRequest;
+import com.shopifake.microservice.dtos.UpdateProductRequest;
+import com.shopifake.microservice.dtos.UpdateProductStatusRequest;
+import com.shopifake.microservice.entities.ChangeType;
+import com.shopifake.microservice.entities.FilterType;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Integration tests for the product change feed.
+ */
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.shopifake.microservice.services.ProductChangeFeedTest$QueryCounter")
+@ActiveProfiles("test")
+class ProductChangeFeedTest {
+
+    private static final int PRODUCT_COUNT = 6;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private FilterService filterService;
+
+    @Test
+    @DisplayName("Should page changes in commit order and keep tombstones for deletes")
+    void shouldFeedChangesInOrder() {
+        UUID siteId = UUID.randomUUID();
+        UUID categoryId = categoryService.createCategory(CreateCategoryRequest.builder()
+                .siteId(siteId)
+                .name("Feed " + siteId)
+                .build()).getId();
+        UUID productId = productService.createProduct(CreateProductRequest.builder()
+                .siteId(siteId)
+                .name("Mug")
+                .description("Ceramic mug")
+                .images(List.of("https://cdn.example.com/mug.png"))
+                .categoryIds(List.of(categoryId))
+                .sku("FEED-" + siteId.toString().substring(0, 8))
+                .build()).getId();
+        productService.updateProduct(productId, UpdateProductRequest.builder().name("Large mug").build());
+
+        ProductChangeFeedResponse first = productService.listChanges(siteId, null, 1);
+        assertThat(first.isHasMore()).isTrue();
+        assertThat(first.getChanges()).extracting(ProductChangeResponse::getChangeType)
+                .containsExactly(ChangeType.CREATED);
+        assertThat(first.getChanges().get(0).getProduct().getName()).isEqualTo("Large mug");
+
+        productService.updateStatus(productId, UpdateProductStatusRequest.builder().status("PUBLISHED").build());
+        productService.deleteProduct(productId);
+
+        ProductChangeFeedResponse rest = productService.listChanges(siteId, first.getNextCursor(), 10);
+        assertThat(rest.isHasMore()).isFalse();
+        assertThat(rest.getChanges()).extracting(ProductChangeResponse::getChangeType)
+                .containsExactly(ChangeType.UPDATED, ChangeType.STATUS_CHANGED, ChangeType.DELETED);
+        assertThat(rest.getChanges()).allSatisfy(change -> assertThat(change.getProduct()).isNull());
+
+        ProductChangeFeedResponse caughtUp = productService.listChanges(siteId, rest.getNextCursor(), 10);
+        assertThat(caughtUp.getChanges()).isEmpty();
+        assertThat(caughtUp.getNextCursor()).isEqualTo(rest.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("Should load a page of snapshots with a fixed number of queries")
+    void shouldLoadSnapshotsInBatches() {
+        UUID siteId = UUID.randomUUID();
+        UUID categoryId = categoryService.createCategory(CreateCategoryRequest.builder()
+                .siteId(siteId)
+                .name("Batch " + siteId)
+                .build()).getId();
+        UUID filterId = filterService.createFilter(CreateFilterRequest.builder()
+                .siteId(siteId)
+                .categoryId(categoryId)
+                .key("color")
+                .type(FilterType.CATEGORICAL)
+                .values(List.of("red", "blue"))
+                .build()).getId();
+        for (int i = 0; i < PRODUCT_COUNT; i++) {
+            productService.createProduct(CreateProductRequest.builder()
+                    .siteId(siteId)
+                    .name("Mug " + i)
+                    .description("Ceramic mug")
+                    .images(List.of("https://cdn.example.com/mug-" + i + ".png"))
+                    .categoryIds(List.of(categoryId))
+                    .filters(List.of(ProductFilterAssignmentRequest.builder()
+                            .filterId(filterId)
+                            .textValue("red")
+                            .build()))
+                    .sku("BATCH-" + i + "-" + siteId.toString().substring(0, 8))
+                    .build());
+        }
+
+        QueryCounter.start();
+        ProductChangeFeedResponse feed = productService.listChanges(siteId, null, 10);
+        int queries = QueryCounter.stop();
+
+        assertThat(feed.getChanges()).hasSize(PRODUCT_COUNT).allSatisfy(change -> {
+            assertThat(change.getProduct().getImages()).hasSize(1);
+            assertThat(change.getProduct().getCategories()).hasSize(1);
+            assertThat(change.getProduct().getFilters()).singleElement()
+                    .satisfies(filter -> assertThat(filter.getCategoryId()).isEqualTo(categoryId));
+        });
+        // change log page, then products with images, categories and filters
+        assertThat(queries).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Should reject malformed cursors")
+    void shouldRejectInvalidCursor() {
+        assertThrows(IllegalArgumentException.class,
+                () -> productService.listChanges(UUID.randomUUID(), "not-a-cursor", 10));
+    }
+
+    /**
+     * Hibernate statement inspector counting the statements issued by the test thread.
+     */
+    public static class QueryCounter implements StatementInspector {
+
+        private static final AtomicInteger STATEMENTS = new AtomicInteger();
+
+        private static volatile Thread watched;
+
+        static void start() {
+            STATEMENTS.set(0);
+            watched = Thread.currentThread();
+        }
+
+        static int stop() {
+            watched = null;
+            return STATEMENTS.get();
+        }
+
+        @Override
+        public String inspect(final String sql) {
+            if (Thread.currentThread() == watched) {
+                STATEMENTS.incrementAndGet();
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.dtos.CreateCategoryRequest;
+import com.shopifake.microservice.dtos.CreateProductRequest;
+import com.shopifake.microservice.dtos.ProductLookupResponse;
+import com.shopifake.microservice.dtos.ProductLookupResult;
+import com.shopifake.microservice.dtos.UpdateProductRequest;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Integration tests for the multi-get lookups and the product cache behind them.
+ */
+@SpringBootTest(properties = {
+        "catalog.multi-get.max-items=5",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.shopifake.microservice.services.ProductMultiGetTest$SelectRecorder"})
+@ActiveProfiles("test")
+class ProductMultiGetTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    private UUID siteId;
+
+    private UUID categoryId;
+
+    @BeforeEach
+    void setUp() {
+        siteId = UUID.randomUUID();
+        categoryId = categoryService.createCategory(CreateCategoryRequest.builder()
+                .siteId(siteId)
+                .name("Category " + siteId)
+                .build()).getId();
+    }
+
+    @Test
+    @DisplayName("Should resolve ids in request order and serve repeats from the cache")
+    void shouldResolveIdsInOrder() {
+        UUID first = createProduct("Lamp", "MG-A-");
+        UUID second = createProduct("Chair", "MG-B-");
+        UUID unknown = UUID.randomUUID();
+        List<UUID> ids = List.of(second, unknown, first, second);
+
+        SelectRecorder.reset();
+        ProductLookupResponse response = productService.getProductsByIds(ids, ProductFieldSelection.full());
+
+        assertThat(response.getFound()).isEqualTo(3);
+        assertThat(response.getNotFound()).isEqualTo(1);
+        assertThat(response.getResults()).extracting(ProductLookupResult::getKey)
+                .containsExactly(second.toString(), unknown.toString(), first.toString(), second.toString());
+        assertThat(response.getResults()).extracting(ProductLookupResult::getOutcome).containsExactly(
+                ProductLookupResult.Outcome.FOUND, ProductLookupResult.Outcome.NOT_FOUND,
+                ProductLookupResult.Outcome.FOUND, ProductLookupResult.Outcome.FOUND);
+        assertThat(response.getResults().get(0).getProduct().getName()).isEqualTo("Chair");
+        assertThat(response.getResults().get(0).getProduct().getCategories()).hasSize(1);
+        assertThat(response.getResults().get(1).getProduct()).isNull();
+        // products, images, categories and filters: one query each for the whole batch
+        assertThat(SelectRecorder.statements()).hasSize(4);
+
+        SelectRecorder.reset();
+        productService.getProductsByIds(ids, ProductFieldSelection.full());
+
+        // only the unknown id goes back to the database
+        assertThat(SelectRecorder.statements()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should resolve SKUs case-insensitively and drop cached entries on update")
+    void shouldResolveSkusAndInvalidate() {
+        UUID productId = createProduct("Desk", "MG-C-");
+        String sku = "mg-c-" + siteId.toString().substring(0, 8);
+
+        assertThat(productService.getProductsBySkus(List.of(sku), ProductFieldSelection.full()).getResults())
+                .singleElement()
+                .satisfies(result -> {
+                    assertThat(result.getKey()).isEqualTo(sku);
+                    assertThat(result.getProduct().getId()).isEqualTo(productId);
+                });
+
+        productService.updateProduct(productId, UpdateProductRequest.builder().name("Standing desk").build());
+
+        assertThat(productService.getProductsBySkus(List.of(sku), ProductFieldSelection.full())
+                .getResults().get(0).getProduct().getName()).isEqualTo("Standing desk");
+        assertThat(productService.getProduct(productId).getName()).isEqualTo("Standing desk");
+    }
+
+    @Test
+    @DisplayName("Should reject requests over the configured maximum")
+    void shouldRejectTooManyKeys() {
+        List<UUID> ids = Collections.nCopies(6, UUID.randomUUID());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> productService.getProductsByIds(ids, ProductFieldSelection.full()));
+    }
+
+    private UUID createProduct(final String name, final String skuPrefix) {
+        return productService.createProduct(CreateProductRequest.builder()
+                .siteId(siteId)
+                .name(name)
+                .description(name + " description")
+                .images(List.of("https://cdn.example.com/" + skuPrefix + ".png"))
+                .categoryIds(List.of(categoryId))
+                .sku(skuPrefix + siteId.toString().substring(0, 8))
+                .build()).getId();
+    }
+
+    /**
+     * Hibernate statement inspector recording SELECT statements.
+     */
+    public static class SelectRecorder implements StatementInspector {
+
+        private static final Queue<String> SELECTS = new ConcurrentLinkedQueue<>();
+
+        static void reset() {
+            SELECTS.clear();
+        }
+
+        static List<String> statements() {
+            return List.copyOf(SELECTS);
+        }
+
+        @Override
+        public String inspect(final String sql) {
+            String statement = sql.stripLeading().toLowerCase(Locale.ROOT);
+            if (statement.startsWith("select")) {
+                SELECTS.add(statement);
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.dtos.ProductResponse;
+import com.shopifake.microservice.entities.CatalogEntityType;
+import com.shopifake.microservice.entities.ChangeType;
+import com.shopifake.microservice.events.CatalogChangeEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link ProductReadCoalescer}.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductReadCoalescerTest {
+
+    private static final int CALLERS = 8;
+
+    @Mock
+    private ProductService productService;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final UUID productId = UUID.randomUUID();
+
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    private final CountDownLatch loading = new CountDownLatch(1);
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("Should share one load between concurrent identical requests")
+    void shouldCollapseConcurrentLoads() throws Exception {
+        ProductReadCoalescer coalescer = new ProductReadCoalescer(productService, meterRegistry, Duration.ofSeconds(10));
+        ProductResponse product = ProductResponse.builder().id(productId).name("Viral").build();
+        when(productService.getProduct(productId, ProductFieldSelection.full())).thenAnswer(invocation -> {
+            release.await();
+            return product;
+        });
+
+        List<Future<ProductResponse>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(() -> coalescer.getProduct(productId, ProductFieldSelection.full())));
+        }
+        awaitCount("catalog.coalescing.collapsed", CALLERS - 1);
+        release.countDown();
+
+        for (Future<ProductResponse> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isSameAs(product);
+        }
+        verify(productService, times(1)).getProduct(productId, ProductFieldSelection.full());
+        assertThat(count("catalog.coalescing.loads")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should not let requests join a load that started before a committed change")
+    void shouldStartNewLoadAfterChange() throws Exception {
+        ProductReadCoalescer coalescer = new ProductReadCoalescer(productService, meterRegistry, Duration.ofSeconds(10));
+        UUID siteId = UUID.randomUUID();
+        ProductResponse stale = ProductResponse.builder().siteId(siteId).name("Before").build();
+        ProductResponse fresh = ProductResponse.builder().siteId(siteId).name("After").build();
+        when(productService.listPublishedProducts(siteId, ProductFieldSelection.full()))
+                .thenAnswer(invocation -> {
+                    loading.countDown();
+                    release.await();
+                    return List.of(stale);
+                })
+                .thenReturn(List.of(fresh));
+
+        Future<List<ProductResponse>> first = executor.submit(
+                () -> coalescer.listPublishedProducts(siteId, ProductFieldSelection.full()));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+        coalescer.onChange(new CatalogChangeEvent(siteId, 1L, CatalogEntityType.PRODUCT, UUID.randomUUID(),
+                ChangeType.UPDATED, LocalDateTime.now()));
+
+        assertThat(coalescer.listPublishedProducts(siteId, ProductFieldSelection.full())).containsExactly(fresh);
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).containsExactly(stale);
+    }
+
+    @Test
+    @DisplayName("Should load on its own when the shared load times out")
+    void shouldFallBackAfterTimeout() throws Exception {
+        ProductReadCoalescer coalescer = new ProductReadCoalescer(productService, meterRegistry, Duration.ofMillis(50));
+        ProductResponse product = ProductResponse.builder().id(productId).build();
+        when(productService.getProduct(productId, ProductFieldSelection.full()))
+                .thenAnswer(invocation -> {
+                    loading.countDown();
+                    release.await();
+                    return product;
+                })
+                .thenReturn(product);
+
+        Future<ProductResponse> slow = executor.submit(
+                () -> coalescer.getProduct(productId, ProductFieldSelection.full()));
+        assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(coalescer.getProduct(productId, ProductFieldSelection.full())).isSameAs(product);
+        assertThat(count("catalog.coalescing.timeouts")).isEqualTo(1.0);
+        release.countDown();
+        assertThat(slow.get(5, TimeUnit.SECONDS)).isSameAs(product);
+    }
+
+    private void awaitCount(final String name, final int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count(name) < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(count(name)).isEqualTo(expected);
+    }
+
+    private double count(final String name) {
+        var counter = meterRegistry.find(name).counter();
+        return counter == null ? 0 : counter.count();
+    }
+}
@@ -1,12 +1,17 @@
 package com.shopifake.microservice.services;
 
+import com.shopifake.microservice.dtos.BulkProductResult;
+import com.shopifake.microservice.dtos.BulkUpdateProductStatusRequest;
 import com.shopifake.microservice.dtos.CreateProductRequest;
 import com.shopifake.microservice.dtos.UpdateProductStatusRequest;
+import com.shopifake.microservice.entities.CatalogEntityType;
 import com.shopifake.microservice.entities.Category;
+import com.shopifake.microservice.entities.ChangeType;
 import com.shopifake.microservice.entities.Product;
 import com.shopifake.microservice.entities.ProductStatus;
 import com.shopifake.microservice.repositories.CategoryRepository;
 import com.shopifake.microservice.repositories.FilterRepository;
+import com.shopifake.microservice.repositories.ProductIdentity;
 import com.shopifake.microservice.repositories.ProductRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -16,10 +21,12 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 import org.springframework.util.CollectionUtils;
 import org.junit.jupiter.api.function.Executable;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -28,6 +35,9 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -47,6 +57,30 @@ class ProductServiceTest {
     @Mock
     private FilterRepository filterRepository;
 
+    @Mock
+    private SkuBloomFilter skuBloomFilter;
+
+    @Mock
+    private CatalogChangeLog catalogChangeLog;
+
+    @Mock
+    private SparseProductReader sparseProductReader;
+
+    @Mock
+    private CatalogUsageCounters usageCounters;
+
+    @Mock
+    private ProductCache productCache;
+
+    @Mock
+    private RecommenderClient recommenderClient;
+
+    @Mock
+    private FilterAssignmentValidators filterValidators;
+
+    @Mock
+    private RecommenderPayloadWriter recommenderPayloadWriter;
+
     @InjectMocks
     private ProductService productService;
 
@@ -79,8 +113,7 @@ class ProductServiceTest {
     @DisplayName("Should persist a product when payload is valid")
     void shouldCreateProduct() {
         when(categoryRepository.findAllById(any())).thenReturn(List.of(category));
-        when(productRepository.findBySku("HOODIE-001")).thenReturn(Optional.empty());
-        when(productRepository.save(any(Product.class))).thenAnswer(invocation -> {
+        when(productRepository.saveAndFlush(any(Product.class))).thenAnswer(invocation -> {
             Product product = invocation.getArgument(0);
             product.setId(UUID.randomUUID());
             product.setCreatedAt(LocalDateTime.now());
@@ -93,26 +126,25 @@ class ProductServiceTest {
         assertThat(response.getId()).isNotNull();
         assertEquals("HOODIE-001", response.getSku());
         ArgumentCaptor<Product> productCaptor = ArgumentCaptor.forClass(Product.class);
-        verify(productRepository).save(productCaptor.capture());
+        verify(productRepository).saveAndFlush(productCaptor.capture());
         assertEquals(ProductStatus.DRAFT, productCaptor.getValue().getStatus());
         assertThat(CollectionUtils.isEmpty(productCaptor.getValue().getFilters())).isTrue();
+        verify(productRepository, never()).existsBySku(any());
+        verify(skuBloomFilter).put("HOODIE-001");
     }
 
     @Test
     @DisplayName("Should reject duplicate SKU")
     void shouldRejectDuplicateSku() {
-        Product existing = Product.builder()
-                .id(UUID.randomUUID())
-                .sku("HOODIE-001")
-                .build();
-        when(productRepository.findBySku("HOODIE-001")).thenReturn(Optional.of(existing));
+        when(skuBloomFilter.mightContain("HOODIE-001")).thenReturn(true);
+        when(productRepository.existsBySku("HOODIE-001")).thenReturn(true);
 
         IllegalArgumentException exception = assertThrows(
                 IllegalArgumentException.class,
                 () -> productService.createProduct(validRequest));
 
         assertThat(exception.getMessage()).contains("SKU already exists");
-        verify(productRepository, never()).save(any());
+        verify(productRepository, never()).saveAndFlush(any());
     }
 
     @Test
@@ -136,6 +168,60 @@ class ProductServiceTest {
 
         assertThat(exception.getMessage()).contains("scheduledPublishAt is required");
     }
-}
 
+    @Test
+    @DisplayName("Should bulk publish existing products with one update and report missing ids")
+    void shouldBulkUpdateStatus() {
+        UUID existingId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        List<UUID> ids = List.of(existingId, missingId);
+        ProductIdentity identity = mock(ProductIdentity.class);
+        when(identity.getId()).thenReturn(existingId);
+        when(identity.getSiteId()).thenReturn(validRequest.getSiteId());
+        when(productRepository.findIdentitiesByIdIn(ids)).thenReturn(List.of(identity));
+        when(productRepository.updateStatusBySiteIdAndIds(eq(validRequest.getSiteId()), eq(List.of(existingId)),
+                eq(ProductStatus.PUBLISHED), isNull(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(1);
+
+        var response = productService.bulkUpdateStatus(BulkUpdateProductStatusRequest.builder()
+                .productIds(ids)
+                .status("published")
+                .build());
+
+        assertEquals(1, response.getUpdated());
+        assertEquals(1, response.getNotFound());
+        assertThat(response.getResults())
+                .extracting(BulkProductResult::getOutcome)
+                .containsExactly(BulkProductResult.Outcome.UPDATED, BulkProductResult.Outcome.NOT_FOUND);
+        verify(catalogChangeLog).record(validRequest.getSiteId(), CatalogEntityType.PRODUCT,
+                ChangeType.STATUS_CHANGED, List.of(existingId));
+    }
+
+    @Test
+    @DisplayName("Should page through a site selector and update each page of its site")
+    void shouldBulkUpdateStatusOfSitePageByPage() {
+        UUID siteId = validRequest.getSiteId();
+        // one full page of the service's 500-id chunks, then a partial one
+        List<UUID> firstPage = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            firstPage.add(UUID.randomUUID());
+        }
+        List<UUID> lastPage = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(productRepository.findIdsBySiteIdOrderById(eq(siteId), any(Limit.class))).thenReturn(firstPage);
+        when(productRepository.findIdsBySiteIdAfter(eq(siteId), eq(firstPage.get(499)), any(Limit.class)))
+                .thenReturn(lastPage);
+        when(productRepository.updateStatusBySiteIdAndIds(eq(siteId), any(), eq(ProductStatus.DRAFT),
+                isNull(), isNull(), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> invocation.<List<UUID>>getArgument(1).size());
+
+        var response = productService.bulkUpdateStatus(BulkUpdateProductStatusRequest.builder()
+                .siteId(siteId)
+                .status("draft")
+                .build());
 
+        assertEquals(502, response.getUpdated());
+        assertEquals(0, response.getNotFound());
+        assertThat(response.getResults()).isEmpty();
+        verify(catalogChangeLog).record(siteId, CatalogEntityType.PRODUCT, ChangeType.STATUS_CHANGED, lastPage);
+    }
+}
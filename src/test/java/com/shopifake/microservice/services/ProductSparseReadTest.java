@@ -0,0 +1,120 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.dtos.CreateCategoryRequest;
+import com.shopifake.microservice.dtos.CreateFilterRequest;
+import com.shopifake.microservice.dtos.CreateProductRequest;
+import com.shopifake.microservice.dtos.ProductFilterAssignmentRequest;
+import com.shopifake.microservice.dtos.ProductResponse;
+import com.shopifake.microservice.entities.FilterType;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Verifies that sparse fieldsets are pushed down to the queries.
+ */
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.shopifake.microservice.services.ProductSparseReadTest$SelectRecorder")
+@ActiveProfiles("test")
+class ProductSparseReadTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private FilterService filterService;
+
+    @Test
+    @DisplayName("Should load only requested fields and expansions")
+    void shouldLoadOnlyRequestedFields() {
+        UUID siteId = UUID.randomUUID();
+        UUID categoryId = categoryService.createCategory(CreateCategoryRequest.builder()
+                .siteId(siteId)
+                .name("Category " + siteId)
+                .build()).getId();
+        UUID filterId = filterService.createFilter(CreateFilterRequest.builder()
+                .siteId(siteId)
+                .categoryId(categoryId)
+                .key("color")
+                .type(FilterType.CATEGORICAL)
+                .values(List.of("red", "blue"))
+                .build()).getId();
+        productService.createProduct(CreateProductRequest.builder()
+                .siteId(siteId)
+                .name("Scarf")
+                .description("Long woollen scarf")
+                .images(List.of("https://cdn.example.com/scarf-1.png", "https://cdn.example.com/scarf-2.png"))
+                .categoryIds(List.of(categoryId))
+                .sku("SPARSE-" + siteId.toString().substring(0, 8))
+                .filters(List.of(ProductFilterAssignmentRequest.builder().filterId(filterId).textValue("red").build()))
+                .build());
+
+        SelectRecorder.reset();
+        List<ProductResponse> products = productService.listProducts(siteId, null,
+                ProductFieldSelection.parse("name,primaryImage,status", "filters"));
+
+        assertThat(products).singleElement().satisfies(product -> {
+            assertThat(product.getId()).isNotNull();
+            assertThat(product.getName()).isEqualTo("Scarf");
+            assertThat(product.getPrimaryImage()).isEqualTo("https://cdn.example.com/scarf-1.png");
+            assertThat(product.getDescription()).isNull();
+            assertThat(product.getImages()).isNull();
+            assertThat(product.getSku()).isNull();
+            assertThat(product.getCategories()).isNull();
+            assertThat(product.getFilters()).singleElement()
+                    .satisfies(filter -> assertThat(filter.getTextValue()).isEqualTo("red"));
+        });
+        assertThat(SelectRecorder.statements())
+                .hasSize(3)
+                .noneMatch(sql -> sql.contains("description"))
+                .noneMatch(sql -> sql.contains("product_categories"));
+    }
+
+    @Test
+    @DisplayName("Should reject unknown fields")
+    void shouldRejectUnknownField() {
+        assertThrows(IllegalArgumentException.class, () -> ProductFieldSelection.parse("name,password", null));
+        assertThrows(IllegalArgumentException.class, () -> ProductFieldSelection.parse(null, "reviews"));
+    }
+
+    /**
+     * Hibernate statement inspector recording SELECT statements.
+     */
+    public static class SelectRecorder implements StatementInspector {
+
+        private static final Queue<String> SELECTS = new ConcurrentLinkedQueue<>();
+
+        static void reset() {
+            SELECTS.clear();
+        }
+
+        static List<String> statements() {
+            return List.copyOf(SELECTS);
+        }
+
+        @Override
+        public String inspect(final String sql) {
+            String statement = sql.stripLeading().toLowerCase(Locale.ROOT);
+            if (statement.startsWith("select")) {
+                SELECTS.add(statement);
+            }
+            return sql;
+        }
+    }
+}
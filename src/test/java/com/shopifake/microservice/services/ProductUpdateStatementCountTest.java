@@ -0,0 +1,146 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.dtos.CreateCategoryRequest;
+import com.shopifake.microservice.dtos.CreateFilterRequest;
+import com.shopifake.microservice.dtos.CreateProductRequest;
+import com.shopifake.microservice.dtos.ProductFilterAssignmentRequest;
+import com.shopifake.microservice.dtos.ProductFilterResponse;
+import com.shopifake.microservice.dtos.ProductResponse;
+import com.shopifake.microservice.dtos.UpdateProductRequest;
+import com.shopifake.microservice.entities.FilterType;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Counts the DML statements issued by {@link ProductService#updateProduct} for small edits.
+ */
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.shopifake.microservice.services.ProductUpdateStatementCountTest$DmlCounter")
+@ActiveProfiles("test")
+class ProductUpdateStatementCountTest {
+
+    private static final int FILTER_COUNT = 40;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private FilterService filterService;
+
+    @Test
+    @DisplayName("Should update a single filter value with one statement")
+    void shouldUpdateChangedFilterInPlace() {
+        UUID siteId = UUID.randomUUID();
+        UUID categoryId = categoryService.createCategory(CreateCategoryRequest.builder()
+                .siteId(siteId)
+                .name("Category " + siteId)
+                .build()).getId();
+        List<ProductFilterAssignmentRequest> assignments = new ArrayList<>();
+        for (int i = 0; i < FILTER_COUNT; i++) {
+            UUID filterId = filterService.createFilter(CreateFilterRequest.builder()
+                    .siteId(siteId)
+                    .categoryId(categoryId)
+                    .key("attr-" + i)
+                    .type(FilterType.CATEGORICAL)
+                    .values(List.of("a", "b"))
+                    .build()).getId();
+            assignments.add(ProductFilterAssignmentRequest.builder().filterId(filterId).textValue("a").build());
+        }
+        List<String> images = List.of("https://cdn.example.com/1.png", "https://cdn.example.com/2.png");
+        ProductResponse created = productService.createProduct(CreateProductRequest.builder()
+                .siteId(siteId)
+                .name("Hoodie")
+                .description("Soft hoodie")
+                .images(images)
+                .categoryIds(List.of(categoryId))
+                .sku("STMT-" + siteId.toString().substring(0, 8))
+                .filters(assignments)
+                .build());
+
+        assignments.set(7, ProductFilterAssignmentRequest.builder()
+                .filterId(assignments.get(7).getFilterId())
+                .textValue("b")
+                .build());
+        DmlCounter.reset();
+        ProductResponse updated = productService.updateProduct(created.getId(), UpdateProductRequest.builder()
+                .images(images)
+                .filters(assignments)
+                .build());
+
+        assertThat(DmlCounter.count()).isEqualTo(1);
+        assertThat(updated.getFilters()).hasSize(FILTER_COUNT)
+                .extracting(ProductFilterResponse::getTextValue)
+                .containsOnly("a", "b");
+        assertThat(updated.getImages()).containsExactlyElementsOf(images);
+    }
+
+    @Test
+    @DisplayName("Should append an image without rewriting existing ones")
+    void shouldAppendImageIncrementally() {
+        UUID siteId = UUID.randomUUID();
+        UUID categoryId = categoryService.createCategory(CreateCategoryRequest.builder()
+                .siteId(siteId)
+                .name("Category " + siteId)
+                .build()).getId();
+        ProductResponse created = productService.createProduct(CreateProductRequest.builder()
+                .siteId(siteId)
+                .name("Cap")
+                .description("Cotton cap")
+                .images(List.of("https://cdn.example.com/cap-1.png"))
+                .categoryIds(List.of(categoryId))
+                .sku("IMG-" + siteId.toString().substring(0, 8))
+                .build());
+
+        DmlCounter.reset();
+        ProductResponse updated = productService.updateProduct(created.getId(), UpdateProductRequest.builder()
+                .images(List.of("https://cdn.example.com/cap-1.png", "https://cdn.example.com/cap-2.png"))
+                .build());
+
+        assertThat(DmlCounter.count()).isEqualTo(1);
+        assertThat(updated.getImages()).hasSize(2);
+    }
+
+    /**
+     * Hibernate statement inspector counting INSERT/UPDATE/DELETE statements against product tables.
+     * The fixed change log bookkeeping of every write is excluded.
+     */
+    public static class DmlCounter implements StatementInspector {
+
+        private static final AtomicInteger DML = new AtomicInteger();
+
+        static void reset() {
+            DML.set(0);
+        }
+
+        static int count() {
+            return DML.get();
+        }
+
+        @Override
+        public String inspect(final String sql) {
+            String statement = sql.stripLeading().toLowerCase(Locale.ROOT);
+            boolean dml = statement.startsWith("insert") || statement.startsWith("update")
+                    || statement.startsWith("delete");
+            if (dml && !statement.contains("catalog_change")) {
+                DML.incrementAndGet();
+            }
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.dtos.BulkUpsertProductsRequest;
+import com.shopifake.microservice.dtos.BulkUpsertProductsResponse;
+import com.shopifake.microservice.dtos.CategoryResponse;
+import com.shopifake.microservice.dtos.CreateCategoryRequest;
+import com.shopifake.microservice.dtos.ProductResponse;
+import com.shopifake.microservice.dtos.ProductUpsertResult;
+import com.shopifake.microservice.dtos.UpsertProductRequest;
+import com.shopifake.microservice.entities.ProductStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Integration tests for creating and replacing products by SKU.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductUpsertTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID siteId;
+
+    private UUID shirts;
+
+    private UUID hats;
+
+    private String suffix;
+
+    @BeforeEach
+    void setUp() {
+        siteId = UUID.randomUUID();
+        suffix = siteId.toString().substring(0, 8).toUpperCase();
+        shirts = createCategory("Shirts");
+        hats = createCategory("Hats");
+    }
+
+    @Test
+    @DisplayName("Should insert a new SKU and replace it on the next upsert")
+    void shouldInsertThenReplace() {
+        String sku = "UP-A-" + suffix;
+
+        ProductUpsertResult created = productService.upsertProductBySku(sku.toLowerCase(),
+                request(shirts, "Tee", "PUBLISHED", List.of("https://cdn.example.com/a.png")));
+
+        assertThat(created.getOutcome()).isEqualTo(ProductUpsertResult.Outcome.CREATED);
+        ProductResponse product = created.getProduct();
+        assertThat(product.getSku()).isEqualTo(sku);
+        assertThat(product.getPublishedAt()).isNotNull();
+        assertThat(productService.getProduct(product.getId()).getName()).isEqualTo("Tee");
+
+        ProductUpsertResult updated = productService.upsertProductBySku(sku, request(hats, "Tee v2", "PUBLISHED",
+                List.of("https://cdn.example.com/b.png", "https://cdn.example.com/c.png")));
+
+        assertThat(updated.getOutcome()).isEqualTo(ProductUpsertResult.Outcome.UPDATED);
+        assertThat(updated.getProduct().getId()).isEqualTo(product.getId());
+        assertThat(updated.getProduct().getPublishedAt()).isEqualTo(product.getPublishedAt());
+        ProductResponse reloaded = productService.getProduct(product.getId());
+        assertThat(reloaded.getName()).isEqualTo("Tee v2");
+        assertThat(reloaded.getImages())
+                .containsExactly("https://cdn.example.com/b.png", "https://cdn.example.com/c.png");
+        assertThat(reloaded.getCategories()).extracting(CategoryResponse::getId).containsExactly(hats);
+        assertThat(reloaded.getStatus()).isEqualTo(ProductStatus.PUBLISHED);
+        assertThat(categoryService.getCategories(siteId))
+                .extracting(CategoryResponse::getProductCount)
+                .containsExactlyInAnyOrder(0L, 1L);
+    }
+
+    @Test
+    @DisplayName("Should upsert a batch and reject duplicate or foreign SKUs")
+    void shouldUpsertBatch() {
+        String existing = "UP-B-" + suffix;
+        productService.upsertProductBySku(existing, request(shirts, "Cap", "DRAFT", List.of("https://cdn.example.com/d.png")));
+        UpsertProductRequest first = request(shirts, "Cap v2", "DRAFT", List.of("https://cdn.example.com/d.png"));
+        first.setSku(existing);
+        UpsertProductRequest second = request(hats, "Beanie", "DRAFT", List.of("https://cdn.example.com/e.png"));
+        second.setSku("UP-C-" + suffix);
+
+        BulkUpsertProductsResponse response = productService.upsertProductsBySku(
+                BulkUpsertProductsRequest.builder().products(List.of(first, second)).build());
+
+        assertThat(response.getCreated()).isEqualTo(1);
+        assertThat(response.getUpdated()).isEqualTo(1);
+        assertThat(response.getResults()).extracting(ProductUpsertResult::getOutcome)
+                .containsExactly(ProductUpsertResult.Outcome.UPDATED, ProductUpsertResult.Outcome.CREATED);
+
+        assertThrows(IllegalArgumentException.class, () -> productService.upsertProductsBySku(
+                BulkUpsertProductsRequest.builder().products(List.of(first, first)).build()));
+
+        UUID otherSite = UUID.randomUUID();
+        UUID otherCategory = categoryService.createCategory(CreateCategoryRequest.builder()
+                .siteId(otherSite)
+                .name("Other " + otherSite)
+                .build()).getId();
+        UpsertProductRequest foreign = request(otherCategory, "Stolen", "DRAFT", List.of("https://cdn.example.com/f.png"));
+        foreign.setSiteId(otherSite);
+        assertThrows(IllegalArgumentException.class, () -> productService.upsertProductBySku(existing, foreign));
+    }
+
+    @Test
+    @DisplayName("Should create exactly one product when the same SKU is upserted concurrently")
+    void shouldBeAtomicUnderConcurrency() throws Exception {
+        String sku = "UP-D-" + suffix;
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Callable<UUID>> tasks = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                String name = "Racer " + i;
+                tasks.add(() -> productService.upsertProductBySku(sku,
+                        request(shirts, name, "DRAFT", List.of("https://cdn.example.com/g.png"))).getProduct().getId());
+            }
+            Set<UUID> ids = new java.util.HashSet<>();
+            for (Future<UUID> future : executor.invokeAll(tasks)) {
+                ids.add(future.get());
+            }
+            assertThat(ids).hasSize(1);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products WHERE sku = ?", Integer.class, sku))
+                .isEqualTo(1);
+        assertThat(jdbcTemplate.queryForList("SELECT category_id FROM product_categories pc "
+                        + "JOIN products p ON p.id = pc.product_id WHERE p.sku = ?", UUID.class, sku)
+                .stream().collect(Collectors.toList())).containsExactly(shirts);
+    }
+
+    private UpsertProductRequest request(final UUID categoryId,
+                                         final String name,
+                                         final String status,
+                                         final List<String> images) {
+        return UpsertProductRequest.builder()
+                .siteId(siteId)
+                .name(name)
+                .description(name + " description")
+                .images(images)
+                .categoryIds(List.of(categoryId))
+                .status(status)
+                .build();
+    }
+
+    private UUID createCategory(final String name) {
+        return categoryService.createCategory(CreateCategoryRequest.builder()
+                .siteId(siteId)
+                .name(name + " " + siteId)
+                .build()).getId();
+    }
+}
@@ -0,0 +1,136 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.config.RecommenderClientConfig;
+import com.shopifake.microservice.config.RecommenderProperties;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Tests {@link RecommenderClient} against a local HTTP server.
+ */
+class RecommenderClientTest {
+
+    private final AtomicLong delayMillis = new AtomicLong();
+
+    private final AtomicInteger received = new AtomicInteger();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private HttpServer server;
+
+    private CloseableHttpClient httpClient;
+
+    private RecommenderClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/products/register/batch", exchange -> {
+            try {
+                Thread.sleep(delayMillis.get());
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+            exchange.getRequestBody().readAllBytes();
+            received.incrementAndGet();
+            byte[] body = "{}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+
+        RecommenderProperties properties = new RecommenderProperties();
+        properties.setUrl("http://127.0.0.1:" + server.getAddress().getPort());
+        properties.setReadTimeout(Duration.ofMillis(200));
+        properties.getCircuitBreaker().setWindowSize(4);
+        properties.getCircuitBreaker().setMinimumCalls(3);
+        properties.getCircuitBreaker().setFailureRateThreshold(60);
+        properties.getCircuitBreaker().setOpenDuration(Duration.ofMillis(300));
+        properties.getCircuitBreaker().setHalfOpenProbes(1);
+        properties.getBulkhead().setThreads(1);
+        RecommenderClientConfig config = new RecommenderClientConfig();
+        httpClient = config.recommenderHttpClient(properties);
+        client = new RecommenderClient(config.recommenderRestTemplate(new RestTemplateBuilder(), httpClient),
+                properties, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        client.shutdown();
+        httpClient.close();
+        server.stop(0);
+    }
+
+    @Test
+    @DisplayName("Should time out on a hung recommender, open the circuit and close it after a probe")
+    void shouldOpenAndCloseCircuit() throws Exception {
+        register();
+        awaitRequests("success", 1);
+
+        delayMillis.set(1000);
+        register();
+        register();
+        awaitRequests("timeout", 2);
+        assertThat(client.circuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+
+        register();
+        awaitDropped("circuit_open", 1);
+        int beforeProbe = received.get();
+
+        delayMillis.set(0);
+        Thread.sleep(350);
+        register();
+        awaitRequests("success", 2);
+        assertThat(client.circuitState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(received.get()).isGreaterThan(beforeProbe);
+    }
+
+    private void register() {
+        client.registerProducts(List.of(UUID.randomUUID()), "[{\"name\":\"Mug\"}]".getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void awaitRequests(final String outcome, final long expected) throws InterruptedException {
+        await(() -> {
+            var timer = meterRegistry.find("catalog.recommender.requests").tag("outcome", outcome).timer();
+            return timer == null ? 0 : timer.count();
+        }, expected);
+    }
+
+    private void awaitDropped(final String reason, final long expected) throws InterruptedException {
+        await(() -> {
+            var counter = meterRegistry.find("catalog.recommender.dropped").tag("reason", reason).counter();
+            return counter == null ? 0 : (long) counter.count();
+        }, expected);
+    }
+
+    private static void await(final LongSupplier actual, final long expected)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (actual.getAsLong() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(actual.getAsLong()).isEqualTo(expected);
+    }
+}
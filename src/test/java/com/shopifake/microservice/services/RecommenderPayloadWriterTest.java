@@ -0,0 +1,121 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.entities.Category;
+import com.shopifake.microservice.entities.Filter;
+import com.shopifake.microservice.entities.FilterType;
+import com.shopifake.microservice.entities.Product;
+import com.shopifake.microservice.entities.ProductFilter;
+import com.shopifake.microservice.entities.ProductStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Golden-output tests for {@link RecommenderPayloadWriter}: the expected bodies are what the
+ * recommender received when the payload was built as maps and converted by Jackson.
+ */
+class RecommenderPayloadWriterTest {
+
+    private static final String HOODIE = """
+            {"product_id":"0190a4c2-0000-7000-8000-000000000001",\
+            "site_id":"0190a4c2-0000-7000-8000-0000000000aa",\
+            "name":"Premium \\"Hoodie\\"","description":"Soft cotton\\nhoodie",\
+            "images":["https://cdn.example.com/h1.png","https://cdn.example.com/h2.png"],\
+            "categories":[{"id":"0190a4c2-0000-7000-8000-0000000000c1",\
+            "site_id":"0190a4c2-0000-7000-8000-0000000000aa","name":"Apparel"}],\
+            "sku":"HOODIE-001","status":"PUBLISHED","price":null,\
+            "filters":[{"id":"0190a4c2-0000-7000-8000-0000000000f1","name":"Color","value":"navy"},\
+            {"id":"0190a4c2-0000-7000-8000-0000000000f2","name":"weight","value":"12.5"},\
+            {"id":"0190a4c2-0000-7000-8000-0000000000f3","name":"size","value":"38:44"},\
+            {"id":"0190a4c2-0000-7000-8000-0000000000f3","name":"size","value":"40"},\
+            {"id":"0190a4c2-0000-7000-8000-0000000000f4","name":"launch","value":"2025-03-01T09:30->"},\
+            {"id":"0190a4c2-0000-7000-8000-0000000000f1","name":"Color","value":null}],\
+            "metadata":{}}""";
+
+    private static final String MUG = """
+            {"product_id":"0190a4c2-0000-7000-8000-000000000002",\
+            "site_id":"0190a4c2-0000-7000-8000-0000000000aa",\
+            "name":"Mug","description":null,"images":[],"categories":[],\
+            "sku":"MUG-1","status":"DRAFT","price":null,"filters":[],"metadata":{}}""";
+
+    private final RecommenderPayloadWriter writer = new RecommenderPayloadWriter();
+
+    @Test
+    @DisplayName("Should write a batch in the recommender's format")
+    void shouldWriteGoldenBatch() {
+        byte[] payload = writer.writeBatch(List.of(hoodie(), mug()));
+
+        assertThat(new String(payload, StandardCharsets.UTF_8)).isEqualTo("[" + HOODIE + "," + MUG + "]");
+    }
+
+    @Test
+    @DisplayName("Should reuse its buffer and stream batches to a stream")
+    void shouldReuseBufferAndStream() throws Exception {
+        assertThat(new String(writer.writeBatch(List.of(hoodie())), StandardCharsets.UTF_8))
+                .isEqualTo("[" + HOODIE + "]");
+        assertThat(new String(writer.writeBatch(List.of(mug())), StandardCharsets.UTF_8))
+                .isEqualTo("[" + MUG + "]");
+
+        List<Product> batch = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            batch.add(mug());
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        writer.writeBatch(batch, out);
+        assertThat(out.toString(StandardCharsets.UTF_8))
+                .startsWith("[" + MUG + "," + MUG)
+                .endsWith(MUG + "]")
+                .hasSize(2 + 1_000 * MUG.length() + 999);
+    }
+
+    private static Product hoodie() {
+        UUID siteId = id("aa");
+        Category apparel = Category.builder().id(id("c1")).siteId(siteId).name("Apparel").build();
+        Filter color = Filter.builder().id(id("f1")).key("color").displayName("Color").type(FilterType.CATEGORICAL).build();
+        Filter weight = Filter.builder().id(id("f2")).key("weight").type(FilterType.QUANTITATIVE).build();
+        Filter size = Filter.builder().id(id("f3")).key("size").type(FilterType.QUANTITATIVE).build();
+        Filter launch = Filter.builder().id(id("f4")).key("launch").type(FilterType.DATETIME).build();
+        return Product.builder()
+                .id(id("01"))
+                .siteId(siteId)
+                .name("Premium \"Hoodie\"")
+                .description("Soft cotton\nhoodie")
+                .images(List.of("https://cdn.example.com/h1.png", "https://cdn.example.com/h2.png"))
+                .categories(Set.of(apparel))
+                .sku("HOODIE-001")
+                .status(ProductStatus.PUBLISHED)
+                .filters(List.of(
+                        ProductFilter.builder().filter(color).textValue("navy").build(),
+                        ProductFilter.builder().filter(weight).numericValue(new BigDecimal("12.50")).build(),
+                        ProductFilter.builder().filter(size).minValue(new BigDecimal("38.00"))
+                                .maxValue(new BigDecimal("44")).build(),
+                        ProductFilter.builder().filter(size).maxValue(new BigDecimal("4E+1")).build(),
+                        ProductFilter.builder().filter(launch).startAt(LocalDateTime.of(2025, 3, 1, 9, 30)).build(),
+                        ProductFilter.builder().filter(color).textValue(" ").build()))
+                .build();
+    }
+
+    private static Product mug() {
+        return Product.builder()
+                .id(id("02"))
+                .siteId(id("aa"))
+                .name("Mug")
+                .sku("MUG-1")
+                .status(ProductStatus.DRAFT)
+                .build();
+    }
+
+    private static UUID id(final String suffix) {
+        return UUID.fromString("0190a4c2-0000-7000-8000-0000000000".substring(0, 36 - suffix.length()) + suffix);
+    }
+}
@@ -0,0 +1,253 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.dtos.CreateCategoryRequest;
+import com.shopifake.microservice.dtos.CreateProductRequest;
+import com.shopifake.microservice.dtos.RecommenderResyncResponse;
+import com.shopifake.microservice.entities.RecommenderResyncJob;
+import com.shopifake.microservice.entities.RecommenderResyncSite;
+import com.shopifake.microservice.entities.ResyncStatus;
+import com.shopifake.microservice.repositories.RecommenderResyncJobRepository;
+import com.shopifake.microservice.repositories.RecommenderResyncSiteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+/**
+ * Integration tests for {@link RecommenderResyncService}: batching in id order, checkpoints,
+ * takeover of an orphaned job, resuming a failed one and a single running job.
+ */
+@SpringBootTest(properties = {
+        "catalog.recommender.resync.batch-size=2",
+        "catalog.recommender.resync.rate=0",
+        "catalog.recommender.resync.max-attempts=2",
+        "catalog.recommender.resync.retry-delay=10ms",
+        "catalog.recommender.resync.lease-timeout=1m",
+        "catalog.recommender.resync.check-interval=1h"
+})
+@ActiveProfiles("test")
+class RecommenderResyncServiceTest {
+
+    @Autowired
+    private RecommenderResyncService resyncService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private RecommenderResyncJobRepository jobRepository;
+
+    @Autowired
+    private RecommenderResyncSiteRepository siteRepository;
+
+    @MockitoBean
+    private RecommenderClient recommenderClient;
+
+    private final List<List<UUID>> batches = Collections.synchronizedList(new ArrayList<>());
+
+    private UUID siteId;
+
+    private UUID categoryId;
+
+    private List<UUID> productIds;
+
+    @BeforeEach
+    void setUp() {
+        siteId = UUID.randomUUID();
+        categoryId = categoryService.createCategory(CreateCategoryRequest.builder()
+                .siteId(siteId)
+                .name("Resync " + siteId)
+                .build()).getId();
+        productIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            productIds.add(createProduct("Resync " + i));
+        }
+        productIds.sort(Comparator.comparing(UUID::toString));
+        acceptBatches(true);
+    }
+
+    @Test
+    @DisplayName("Should send every product of the site in id order, in batches")
+    void shouldResyncSite() throws InterruptedException {
+        RecommenderResyncResponse started = resyncService.start(siteId);
+
+        RecommenderResyncResponse finished = awaitStatus(started.getJobId(), ResyncStatus.COMPLETED);
+
+        assertThat(batches).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(2));
+        assertThat(sentIds()).containsExactlyElementsOf(productIds);
+        assertThat(finished.getTotalSites()).isEqualTo(1);
+        assertThat(finished.getCompletedSites()).isEqualTo(1);
+        assertThat(finished.getTotalProducts()).isEqualTo(5);
+        assertThat(finished.getSentProducts()).isEqualTo(5);
+        assertThat(finished.getFinishedAt()).isNotNull();
+        assertThat(resyncService.getLatestJob().getJobId()).isEqualTo(started.getJobId());
+    }
+
+    @Test
+    @DisplayName("Should take over a job whose owner died and continue after its checkpoint")
+    void shouldResumeOrphanedJob() throws InterruptedException {
+        RecommenderResyncJob job = jobRepository.save(RecommenderResyncJob.builder()
+                .siteId(siteId)
+                .status(ResyncStatus.RUNNING)
+                .owner("dead-pod")
+                .heartbeatAt(LocalDateTime.now().minusMinutes(10))
+                .build());
+        siteRepository.save(RecommenderResyncSite.builder()
+                .jobId(job.getId())
+                .siteId(siteId)
+                .lastProductId(productIds.get(1))
+                .totalProducts(5)
+                .sentProducts(2)
+                .build());
+
+        resyncService.maintain();
+
+        RecommenderResyncResponse finished = awaitStatus(job.getId(), ResyncStatus.COMPLETED);
+        assertThat(sentIds()).containsExactlyElementsOf(productIds.subList(2, 5));
+        assertThat(finished.getSentProducts()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should fail after the last attempt and resume from the checkpoint")
+    void shouldFailAndResume() throws InterruptedException {
+        acceptBatches(false);
+        RecommenderResyncResponse started = resyncService.start(siteId);
+
+        RecommenderResyncResponse failed = awaitStatus(started.getJobId(), ResyncStatus.FAILED);
+        assertThat(failed.getError()).contains("2 attempts");
+        assertThat(failed.getSentProducts()).isZero();
+        assertThatThrownBy(() -> resyncService.resume(UUID.randomUUID()))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        batches.clear();
+        acceptBatches(true);
+        resyncService.resume(started.getJobId());
+
+        RecommenderResyncResponse finished = awaitStatus(started.getJobId(), ResyncStatus.COMPLETED);
+        assertThat(sentIds()).containsExactlyElementsOf(productIds);
+        assertThat(finished.getSentProducts()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Should run a single job when several are started at once")
+    void shouldRunSingleJobWhenStartedConcurrently() throws Exception {
+        int starters = 4;
+        CountDownLatch ready = new CountDownLatch(starters);
+        ExecutorService executor = Executors.newFixedThreadPool(starters);
+        List<Future<RecommenderResyncResponse>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < starters; i++) {
+                results.add(executor.submit(() -> {
+                    ready.countDown();
+                    ready.await();
+                    return resyncService.start(siteId);
+                }));
+            }
+            List<UUID> started = new ArrayList<>();
+            for (Future<RecommenderResyncResponse> result : results) {
+                try {
+                    started.add(result.get(10, TimeUnit.SECONDS).getJobId());
+                } catch (ExecutionException ex) {
+                    assertThat(ex.getCause()).isInstanceOf(ResponseStatusException.class);
+                    assertThat(((ResponseStatusException) ex.getCause()).getStatusCode())
+                            .isEqualTo(HttpStatus.CONFLICT);
+                }
+            }
+
+            assertThat(started).hasSize(1);
+            awaitStatus(started.get(0), ResyncStatus.COMPLETED);
+            assertThat(sentIds()).containsExactlyElementsOf(productIds);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("Should reject a second running job in the database")
+    void shouldRejectSecondRunningJobInDatabase() throws InterruptedException {
+        RecommenderResyncJob running = jobRepository.save(RecommenderResyncJob.builder()
+                .siteId(siteId)
+                .status(ResyncStatus.RUNNING)
+                .owner("other-pod")
+                .heartbeatAt(LocalDateTime.now())
+                .build());
+        try {
+            assertThatThrownBy(() -> jobRepository.saveAndFlush(RecommenderResyncJob.builder()
+                    .siteId(siteId)
+                    .status(ResyncStatus.RUNNING)
+                    .build()))
+                    .isInstanceOf(DataIntegrityViolationException.class);
+            assertThatThrownBy(() -> resyncService.start(siteId))
+                    .isInstanceOf(ResponseStatusException.class);
+        } finally {
+            resyncService.cancel(running.getId());
+        }
+    }
+
+    private void acceptBatches(final boolean accept) {
+        when(recommenderClient.sendNow(anyList(), any())).thenAnswer(invocation -> {
+            if (accept) {
+                batches.add(List.copyOf(invocation.getArgument(0)));
+            }
+            return accept;
+        });
+    }
+
+    private List<UUID> sentIds() {
+        synchronized (batches) {
+            return batches.stream().flatMap(List::stream).toList();
+        }
+    }
+
+    private RecommenderResyncResponse awaitStatus(final UUID jobId, final ResyncStatus status)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        RecommenderResyncResponse job = resyncService.getJob(jobId);
+        while (job.getStatus() != status && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+            job = resyncService.getJob(jobId);
+        }
+        assertThat(job.getStatus()).isEqualTo(status);
+        return job;
+    }
+
+    private UUID createProduct(final String name) {
+        return productService.createProduct(CreateProductRequest.builder()
+                .siteId(siteId)
+                .name(name)
+                .description(name + " description")
+                .images(List.of())
+                .categoryIds(List.of(categoryId))
+                .filters(List.of())
+                .sku("RESYNC-" + name.replace(' ', '-') + "-" + siteId.toString().substring(0, 8))
+                .build()).getId();
+    }
+}
@@ -0,0 +1,84 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.config.AdmissionProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for {@link SiteAdmissionControl}.
+ */
+class SiteAdmissionControlTest {
+
+    private final UUID siteId = UUID.randomUUID();
+
+    private AdmissionProperties properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        properties = new AdmissionProperties();
+        properties.setReads(new AdmissionProperties.Limits(0.01, 3, 10));
+        properties.setWrites(new AdmissionProperties.Limits(0.01, 10, 2));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    @DisplayName("Should admit a burst, then reject with the time until the next token")
+    void shouldRateLimitPerSite() {
+        SiteAdmissionControl control = new SiteAdmissionControl(properties, meterRegistry);
+        for (int i = 0; i < 3; i++) {
+            control.admit(siteId, SiteAdmissionControl.Traffic.READ).close();
+        }
+
+        SiteThrottledException ex = assertThrows(SiteThrottledException.class,
+                () -> control.admit(siteId, SiteAdmissionControl.Traffic.READ));
+
+        assertThat(ex.getStatusCode().value()).isEqualTo(429);
+        assertThat(ex.getRetryAfterSeconds()).isBetween(99L, 100L);
+        assertThat(ex.getHeaders().getFirst("Retry-After")).isEqualTo(Long.toString(ex.getRetryAfterSeconds()));
+        assertDoesNotThrow(() -> control.admit(siteId, SiteAdmissionControl.Traffic.WRITE).close());
+        assertDoesNotThrow(() -> control.admit(UUID.randomUUID(), SiteAdmissionControl.Traffic.READ).close());
+        assertThat(meterRegistry.get("catalog.admission.rejected")
+                .tags("site", siteId.toString(), "traffic", "read", "reason", "rate")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("Should reject requests beyond the bulkhead until a permit is released")
+    void shouldLimitConcurrency() {
+        SiteAdmissionControl control = new SiteAdmissionControl(properties, meterRegistry);
+        SiteAdmissionControl.Permit first = control.admit(siteId, SiteAdmissionControl.Traffic.WRITE);
+        control.admit(siteId, SiteAdmissionControl.Traffic.WRITE);
+
+        SiteThrottledException ex = assertThrows(SiteThrottledException.class,
+                () -> control.admit(siteId, SiteAdmissionControl.Traffic.WRITE));
+        assertThat(ex.getRetryAfterSeconds()).isEqualTo(1L);
+
+        first.close();
+        assertDoesNotThrow(() -> control.admit(siteId, SiteAdmissionControl.Traffic.WRITE));
+    }
+
+    @Test
+    @DisplayName("Should apply site overrides on top of the defaults")
+    void shouldApplySiteOverrides() {
+        AdmissionProperties.SiteLimits site = new AdmissionProperties.SiteLimits();
+        site.getReads().setBurst(1);
+        properties.getSites().put(siteId.toString(), site);
+        SiteAdmissionControl control = new SiteAdmissionControl(properties, meterRegistry);
+
+        control.admit(siteId, SiteAdmissionControl.Traffic.READ).close();
+
+        assertThrows(SiteThrottledException.class, () -> control.admit(siteId, SiteAdmissionControl.Traffic.READ));
+        properties.setEnabled(false);
+        assertDoesNotThrow(() -> control.admit(siteId, SiteAdmissionControl.Traffic.READ));
+    }
+}
@@ -0,0 +1,109 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.config.AdmissionProperties;
+import com.shopifake.microservice.repositories.CategoryRepository;
+import com.shopifake.microservice.repositories.FilterRepository;
+import com.shopifake.microservice.repositories.ProductIdentity;
+import com.shopifake.microservice.repositories.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link SiteResolver}.
+ */
+@ExtendWith(MockitoExtension.class)
+class SiteResolverTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private FilterRepository filterRepository;
+
+    private SiteResolver resolver;
+
+    @BeforeEach
+    void setUp() {
+        resolver = new SiteResolver(productRepository, categoryRepository, filterRepository,
+                new AdmissionProperties(), 500);
+    }
+
+    @Test
+    @DisplayName("Should look up an unknown product id only once")
+    void shouldRememberUnknownProducts() {
+        UUID productId = UUID.randomUUID();
+        when(productRepository.findIdentityById(productId)).thenReturn(Optional.empty());
+
+        assertThat(resolver.productSite(productId)).isNull();
+        assertThat(resolver.productSite(productId)).isNull();
+        assertThat(resolver.productSites(List.of(productId))).isEmpty();
+
+        verify(productRepository, times(1)).findIdentityById(productId);
+        verify(productRepository, times(0)).findByIdIn(any(), any());
+    }
+
+    @Test
+    @DisplayName("Should remember ids missing from a multi-get")
+    void shouldRememberUnknownProductsOfBatches() {
+        UUID siteId = UUID.randomUUID();
+        UUID knownId = UUID.randomUUID();
+        UUID unknownId = UUID.randomUUID();
+        when(productRepository.findByIdIn(List.of(knownId, unknownId), ProductIdentity.class))
+                .thenReturn(List.of(identity(knownId, siteId)));
+
+        assertThat(resolver.productSites(List.of(knownId, unknownId))).containsExactly(siteId);
+        assertThat(resolver.productSites(List.of(knownId, unknownId))).containsExactly(siteId);
+        assertThat(resolver.productSite(unknownId)).isNull();
+
+        verify(productRepository, times(1)).findByIdIn(any(), any());
+        verify(productRepository, times(0)).findIdentityById(any());
+    }
+
+    @Test
+    @DisplayName("Should look up an unknown category id only once")
+    void shouldRememberUnknownCategories() {
+        UUID categoryId = UUID.randomUUID();
+        when(categoryRepository.findById(categoryId)).thenReturn(Optional.empty());
+
+        assertThat(resolver.categorySite(categoryId)).isNull();
+        assertThat(resolver.categorySite(categoryId)).isNull();
+
+        verify(categoryRepository, times(1)).findById(categoryId);
+    }
+
+    private static ProductIdentity identity(final UUID id, final UUID siteId) {
+        return new ProductIdentity() {
+            @Override
+            public UUID getId() {
+                return id;
+            }
+
+            @Override
+            public UUID getSiteId() {
+                return siteId;
+            }
+
+            @Override
+            public String getSku() {
+                return null;
+            }
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package com.shopifake.microservice.services;
+
+import com.shopifake.microservice.repositories.ProductRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for {@link SkuBloomFilter}.
+ */
+@ExtendWith(MockitoExtension.class)
+class SkuBloomFilterTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Test
+    @DisplayName("Should answer maybe for every SKU until built")
+    void shouldAnswerMaybeBeforeBuild() {
+        SkuBloomFilter filter = new SkuBloomFilter(productRepository, 1_000, 0.01);
+
+        assertThat(filter.mightContain("UNKNOWN-1")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should never report a false negative for loaded or added SKUs")
+    void shouldContainLoadedAndAddedSkus() {
+        when(productRepository.streamAllSkus())
+                .thenReturn(IntStream.range(0, 1_000).mapToObj(i -> "SKU-" + i));
+        SkuBloomFilter filter = new SkuBloomFilter(productRepository, 2_000, 0.01);
+
+        filter.rebuild();
+        filter.put("NEW-SKU");
+
+        assertThat(IntStream.range(0, 1_000).allMatch(i -> filter.mightContain("SKU-" + i))).isTrue();
+        assertThat(filter.mightContain("new-sku")).isTrue();
+        long falsePositives = IntStream.range(0, 10_000)
+                .filter(i -> filter.mightContain("MISSING-" + i))
+                .count();
+        assertThat(falsePositives).isLessThan(200);
+    }
+
+    @Test
+    @DisplayName("Should forget removed SKUs")
+    void shouldRemoveSku() {
+        when(productRepository.streamAllSkus()).thenReturn(Stream.of("HOODIE-001"));
+        SkuBloomFilter filter = new SkuBloomFilter(productRepository, 1_000, 0.01);
+        filter.rebuild();
+
+        filter.remove("HOODIE-001");
+
+        assertThat(filter.mightContain("HOODIE-001")).isFalse();
+    }
+}